@@ -0,0 +1,439 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.OHSConfig;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+
+/**
+ * Deque storing its elements in a ring buffer of {@link OffHeapSerializer} nodes, addressed by the index of the head and the size only. In contrast to
+ * {@link BigDataLinkedList} there are no pointers per node, and adding or removing at either end touches the node adjacent to the previous one.<br />
+ * When the buffer or its dynamic memory is full, the capacity is doubled by moving all nodes to a new serializer of twice the configured size. Like
+ * {@link java.util.ArrayDeque}, <code>NULL</code> elements are prohibited, removing an element from the middle shifts the nodes of the shorter side.
+ *
+ * @param <T>
+ */
+public class BigDataArrayDeque<T extends Serializable> extends AbstractCollection<T> implements Deque<T>, java.io.Serializable {
+
+	private static final long serialVersionUID = 4838036829017418342L;
+
+	/** only the status byte */
+	private static final int METADATA_BYTES = 0;
+
+	private OffHeapSerializer<T>	serializer;
+	/** class to be saved */
+	private final Class<T>			baseClass;
+
+	/** node of the first element */
+	private int	head	= 0;
+	/** actual size of the deque, i.e. number of elements */
+	private int	size	= 0;
+
+	private transient int modCount = 0;
+
+	/**
+	 * Creates a new deque with default configuration.
+	 *
+	 * @param baseClass
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 */
+	public BigDataArrayDeque(final Class<T> baseClass) {
+		this(baseClass, null, null);
+	}
+
+	/**
+	 * Creates a new deque with the given configuration.
+	 *
+	 * @param baseClass
+	 * @param config {@link OHSConfig}, defines the initial capacity
+	 *
+	 * @see ConfigFactory
+	 */
+	public BigDataArrayDeque(final Class<T> baseClass, final OHSConfig config) {
+		this(baseClass, config, null);
+	}
+
+	/**
+	 * Creates a new deque with a configuration and adds all elements from c if not null. The deque grows if <code>config</code> is too small.
+	 *
+	 * @param baseClass
+	 * @param config {@link OHSConfig}, defaults to default settings if null
+	 * @param c Collection&lt;T&gt;
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 * @see #addAll(Collection)
+	 */
+	public BigDataArrayDeque(final Class<T> baseClass, final OHSConfig config, final Collection<T> c) {
+		OHSConfig conf = config;
+		if (conf == null) {
+			conf = (new ConfigFactory()).withDefaults().build();
+		}
+		this.baseClass = baseClass;
+		serializer = new OffHeapSerializer<>(baseClass, conf, METADATA_BYTES);
+		if (c != null) {
+			this.addAll(c);
+		}
+	}
+
+	/**
+	 * @return number of elements the deque can hold without growing
+	 */
+	public int getCapacity() {
+		return (int) Math.min(Integer.MAX_VALUE, serializer.getMaxElementCount());
+	}
+
+	/**
+	 * @param index position within the deque, <code>-1</code> denotes the node preceding the head
+	 * @return the node holding the element at position <code>index</code>
+	 */
+	private int node(final int index) {
+		final int capacity = getCapacity();
+		final int node = head + index;
+		if (node < 0) return node + capacity;
+		return node >= capacity ? node - capacity : node;
+	}
+
+	/**
+	 * Doubles the capacity at least once, moving all elements to the beginning of a new serializer.
+	 */
+	private void grow() {
+		final int capacity = getCapacity();
+		final OffHeapSerializer<T> grown = serializer.createLarger((long) capacity + 1);
+		final int firstPart = Math.min(size, capacity - head);
+		serializer.copyRandomAccess(grown, head, 0, firstPart);
+		serializer.copyRandomAccess(grown, 0, firstPart, size - firstPart);
+		serializer.destroy();
+		serializer = grown;
+		head = 0;
+	}
+
+	/**
+	 * Sets the element of the (empty) node at position <code>index</code>, growing the deque while it is full or its dynamic memory is exhausted.
+	 *
+	 * @param index position within the deque, <code>-1</code> denotes the node preceding the head
+	 * @param element
+	 * @return the node
+	 */
+	private int store(final int index, final T element) {
+		if (element == null) throw new NullPointerException();
+		if (size == getCapacity()) {
+			grow();
+		}
+		while (true) {
+			final int node = node(index);
+			try {
+				serializer.setRandomAccess(node, element);
+				return node;
+			} catch (final OutOfDynamicMemoryException e) {
+				if (serializer.getConfig().getDynamicRatio() == 0) throw e;
+				// the node is still NULL, its partially written dynamic memory is discarded together with the old serializer
+				grow();
+			}
+		}
+	}
+
+	/**
+	 * Removes the element at position <code>index</code> and closes the gap by shifting the nodes of the shorter side, one bulk copy per contiguous segment
+	 * and one for the node crossing the end of the buffer if the side wraps around.
+	 *
+	 * @param index
+	 */
+	private void delete(final int index) {
+		final int capacity = getCapacity();
+		final int gap = node(index);
+		serializer.setRandomAccess(gap, null);
+		if (index < (size >> 1)) {
+			// shift [head, gap) one node towards the end
+			if (gap >= head) {
+				serializer.moveRandomAccess(head, head + 1, index);
+			} else {
+				serializer.moveRandomAccess(0, 1, gap);
+				serializer.moveRandomAccess(capacity - 1, 0, 1);
+				serializer.moveRandomAccess(head, head + 1, capacity - 1 - head);
+			}
+			head = node(1);
+		} else {
+			// shift (gap, last] one node towards the beginning
+			final int last = node(size - 1);
+			if (gap <= last) {
+				serializer.moveRandomAccess(gap + 1, gap, size - 1 - index);
+			} else {
+				serializer.moveRandomAccess(gap + 1, gap, capacity - 1 - gap);
+				serializer.moveRandomAccess(0, capacity - 1, 1);
+				serializer.moveRandomAccess(1, 0, last);
+			}
+		}
+		size--;
+		modCount++;
+	}
+
+	@Override
+	public void addFirst(final T e) {
+		head = store(-1, e);
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public void addLast(final T e) {
+		store(size, e);
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public boolean offerFirst(final T e) {
+		addFirst(e);
+		return true;
+	}
+
+	@Override
+	public boolean offerLast(final T e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * @throws NoSuchElementException if this deque is empty
+	 */
+	@Override
+	public T removeFirst() {
+		final T e = pollFirst();
+		if (e == null) throw new NoSuchElementException();
+		return e;
+	}
+
+	/**
+	 * @throws NoSuchElementException if this deque is empty
+	 */
+	@Override
+	public T removeLast() {
+		final T e = pollLast();
+		if (e == null) throw new NoSuchElementException();
+		return e;
+	}
+
+	@Override
+	public T pollFirst() {
+		if (size == 0) return null;
+		final T e = serializer.getRandomAccess(head);
+		serializer.setRandomAccess(head, null);
+		head = node(1);
+		size--;
+		modCount++;
+		return e;
+	}
+
+	@Override
+	public T pollLast() {
+		if (size == 0) return null;
+		final int l = node(size - 1);
+		final T e = serializer.getRandomAccess(l);
+		serializer.setRandomAccess(l, null);
+		size--;
+		modCount++;
+		return e;
+	}
+
+	/**
+	 * @throws NoSuchElementException if this deque is empty
+	 */
+	@Override
+	public T getFirst() {
+		if (size == 0) throw new NoSuchElementException();
+		return serializer.getRandomAccess(head);
+	}
+
+	/**
+	 * @throws NoSuchElementException if this deque is empty
+	 */
+	@Override
+	public T getLast() {
+		if (size == 0) throw new NoSuchElementException();
+		return serializer.getRandomAccess(node(size - 1));
+	}
+
+	@Override
+	public T peekFirst() {
+		return size == 0 ? null : serializer.getRandomAccess(head);
+	}
+
+	@Override
+	public T peekLast() {
+		return size == 0 ? null : serializer.getRandomAccess(node(size - 1));
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(final Object o) {
+		if (o == null) return false;
+		final T compare = newInstance();
+		for (int i = 0; i < size; i++) {
+			if (o.equals(serializer.getRandomAccess(compare, node(i)))) {
+				delete(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(final Object o) {
+		if (o == null) return false;
+		final T compare = newInstance();
+		for (int i = size - 1; i >= 0; i--) {
+			if (o.equals(serializer.getRandomAccess(compare, node(i)))) {
+				delete(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean add(final T e) {
+		addLast(e);
+		return true;
+	}
+
+	@Override
+	public boolean offer(final T e) {
+		return offerLast(e);
+	}
+
+	@Override
+	public T remove() {
+		return removeFirst();
+	}
+
+	@Override
+	public T poll() {
+		return pollFirst();
+	}
+
+	@Override
+	public T element() {
+		return getFirst();
+	}
+
+	@Override
+	public T peek() {
+		return peekFirst();
+	}
+
+	@Override
+	public void push(final T e) {
+		addFirst(e);
+	}
+
+	@Override
+	public T pop() {
+		return removeFirst();
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		return removeFirstOccurrence(o);
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		if (o == null) return false;
+		final T compare = newInstance();
+		for (int i = 0; i < size; i++) {
+			if (o.equals(serializer.getRandomAccess(compare, node(i)))) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		serializer.clear();
+		head = size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Itr(false);
+	}
+
+	@Override
+	public Iterator<T> descendingIterator() {
+		return new Itr(true);
+	}
+
+	private T newInstance() {
+		try {
+			@SuppressWarnings({ "unchecked", "restriction" })
+			final T instance = (T) UnsafeHelper.getUnsafe().allocateInstance(baseClass);
+			return instance;
+		} catch (final InstantiationException e) {
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	private class Itr implements Iterator<T> {
+		private final boolean	descending;
+		/** position of the next element */
+		private int				cursor;
+		private int				lastReturned		= -1;
+		private int				expectedModCount	= modCount;
+
+		Itr(final boolean descending) {
+			this.descending = descending;
+			cursor = descending ? size - 1 : 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return descending ? cursor >= 0 : cursor < size;
+		}
+
+		@Override
+		public T next() {
+			checkForComodification();
+			if (!hasNext()) throw new NoSuchElementException();
+			lastReturned = cursor;
+			cursor += descending ? -1 : 1;
+			return serializer.getRandomAccess(node(lastReturned));
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0) throw new IllegalStateException();
+			checkForComodification();
+			delete(lastReturned);
+			// the succeeding elements have moved one position towards the head
+			if (!descending) {
+				cursor = lastReturned;
+			}
+			lastReturned = -1;
+			expectedModCount = modCount;
+		}
+
+		final void checkForComodification() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		serializer.destroy();
+		super.finalize();
+	}
+}
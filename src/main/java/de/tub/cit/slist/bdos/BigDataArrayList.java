@@ -0,0 +1,377 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.OHSConfig;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+
+/**
+ * List storing its elements densely packed in index order, i.e. element <code>i</code> is located in node <code>i</code> of the {@link OffHeapSerializer}.
+ * In contrast to {@link BigDataLinkedList} there are no pointers per node, positional access takes constant time and scans read the memory sequentially.
+ * Inserting and removing shift the subsequent nodes with a single bulk copy.<br />
+ * When the list or its dynamic memory is full, the capacity is doubled by moving all nodes to a new serializer of twice the configured size.
+ *
+ * @param <T>
+ */
+public class BigDataArrayList<T extends Serializable> extends AbstractList<T> implements List<T>, RandomAccess, java.io.Serializable {
+
+	private static final long serialVersionUID = -2370125429573218412L;
+
+	/** only the status byte */
+	private static final int METADATA_BYTES = 0;
+
+	private OffHeapSerializer<T>	serializer;
+	/** class to be saved */
+	private final Class<T>			baseClass;
+
+	/** actual size of the list, i.e. number of elements */
+	private int size = 0;
+
+	/**
+	 * Creates a new array list with default configuration.
+	 *
+	 * @param baseClass
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 */
+	public BigDataArrayList(final Class<T> baseClass) {
+		this(baseClass, null, null);
+	}
+
+	/**
+	 * Creates a new array list with the given configuration.
+	 *
+	 * @param baseClass
+	 * @param config {@link OHSConfig}, defines the initial capacity
+	 *
+	 * @see ConfigFactory
+	 */
+	public BigDataArrayList(final Class<T> baseClass, final OHSConfig config) {
+		this(baseClass, config, null);
+	}
+
+	/**
+	 * Creates a new array list with default configuration and adds all elements from c if not null.
+	 *
+	 * @param baseClass
+	 * @param c Collection&lt;T&gt;
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 * @see #addAll(Collection)
+	 */
+	public BigDataArrayList(final Class<T> baseClass, final Collection<T> c) {
+		this(baseClass, null, c);
+	}
+
+	/**
+	 * Creates a new array list with a configuration and adds all elements from c if not null. The list grows if <code>config</code> is too small.
+	 *
+	 * @param baseClass
+	 * @param config {@link OHSConfig}, defaults to default settings if null
+	 * @param c Collection&lt;T&gt;
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 * @see #addAll(Collection)
+	 */
+	public BigDataArrayList(final Class<T> baseClass, final OHSConfig config, final Collection<T> c) {
+		OHSConfig conf = config;
+		if (conf == null) {
+			conf = (new ConfigFactory()).withDefaults().build();
+		}
+		this.baseClass = baseClass;
+		serializer = new OffHeapSerializer<>(baseClass, conf, METADATA_BYTES);
+		if (c != null) {
+			this.addAll(c);
+		}
+	}
+
+	/**
+	 * Tells if the argument is the index of an existing element.
+	 */
+	private boolean isElementIndex(final long index) {
+		return index >= 0 && index < size;
+	}
+
+	/**
+	 * Tells if the argument is the index of a valid position for an iterator or an add operation.
+	 */
+	private boolean isPositionIndex(final long index) {
+		return index >= 0 && index <= size;
+	}
+
+	private String outOfBoundsMsg(final long index) {
+		return "Index: " + index + ", Size: " + size;
+	}
+
+	private void checkElementIndex(final long index) {
+		if (!isElementIndex(index)) throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+	}
+
+	private void checkPositionIndex(final long index) {
+		if (!isPositionIndex(index)) throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+	}
+
+	/**
+	 * @return number of elements the list can hold without growing
+	 */
+	public int getCapacity() {
+		return (int) Math.min(Integer.MAX_VALUE, serializer.getMaxElementCount());
+	}
+
+	/**
+	 * Doubles the capacity until at least <code>minCapacity</code> elements fit, moving all elements to a new serializer.
+	 *
+	 * @param minCapacity
+	 * @throws IllegalArgumentException if the configured memory location cannot provide the required size
+	 */
+	public void ensureCapacity(final int minCapacity) {
+		if (minCapacity <= serializer.getMaxElementCount()) return;
+		grow(minCapacity);
+	}
+
+	/**
+	 * Doubles the configured size at least once and until at least <code>minCapacity</code> elements fit, moving all nodes to a new serializer.
+	 *
+	 * @param minCapacity
+	 */
+	private void grow(final long minCapacity) {
+		final OffHeapSerializer<T> grown = serializer.createLarger(minCapacity);
+		serializer.copyRandomAccess(grown, 0, 0, serializer.getMaxElementCount());
+		serializer.destroy();
+		serializer = grown;
+	}
+
+	/**
+	 * Sets the element of a <code>NULL</code> node, growing the list while its dynamic memory is exhausted.
+	 *
+	 * @param index
+	 * @param element
+	 */
+	private void store(final int index, final T element) {
+		while (true) {
+			try {
+				serializer.setRandomAccess(index, element);
+				return;
+			} catch (final OutOfDynamicMemoryException e) {
+				if (serializer.getConfig().getDynamicRatio() == 0) throw e;
+				// the node is still NULL, its partially written dynamic memory is discarded together with the old serializer
+				grow(0);
+			}
+		}
+	}
+
+	@Override
+	public boolean add(final T e) {
+		ensureCapacity(size + 1);
+		store(size, e);
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Inserts the specified element at the specified position in this list. Shifts the element currently at that position (if any) and any subsequent
+	 * elements to the right (adds one to their indices).
+	 *
+	 * @param index index at which the specified element is to be inserted
+	 * @param element element to be inserted
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public void add(final int index, final T element) {
+		checkPositionIndex(index);
+		ensureCapacity(size + 1);
+		serializer.moveRandomAccess(index, index + 1, size - index);
+		try {
+			store(index, element);
+		} catch (final RuntimeException e) {
+			serializer.moveRandomAccess(index + 1, index, size - index);
+			throw e;
+		}
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends T> c) {
+		return addAll(size, c);
+	}
+
+	@Override
+	public boolean addAll(final int index, final Collection<? extends T> c) {
+		checkPositionIndex(index);
+
+		final Object[] a = c.toArray();
+		final int numNew = a.length;
+		if (numNew == 0) return false;
+		ensureCapacity(size + numNew);
+
+		serializer.moveRandomAccess(index, index + numNew, size - index);
+		int stored = 0;
+		try {
+			for (; stored < numNew; stored++) {
+				@SuppressWarnings("unchecked")
+				final T e = (T) a[stored];
+				store(index + stored, e);
+			}
+		} catch (final RuntimeException e) {
+			for (int i = 0; i < stored; i++) {
+				serializer.setRandomAccess(index + i, null);
+			}
+			serializer.moveRandomAccess(index + numNew, index, size - index);
+			throw e;
+		}
+		size += numNew;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Returns the element at the specified position in this list.
+	 *
+	 * @param index index of the element to return
+	 * @return the element at the specified position in this list
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public T get(final int index) {
+		checkElementIndex(index);
+		return serializer.getRandomAccess(index);
+	}
+
+	/**
+	 * Returns a spliterator over the nodes <code>[0, size())</code>, which splits evenly and is {@link Spliterator#SIZED SIZED}. The list must not be modified
+	 * during the traversal.
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new SlotSpliterator<>(serializer, 0, size, false);
+	}
+
+	/**
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public T set(final int index, final T element) {
+		checkElementIndex(index);
+		final T oldVal = serializer.getRandomAccess(index);
+		serializer.setRandomAccess(index, null);
+		try {
+			store(index, element);
+		} catch (final RuntimeException e) {
+			serializer.setRandomAccess(index, null);
+			serializer.setRandomAccess(index, oldVal);
+			throw e;
+		}
+		return oldVal;
+	}
+
+	/**
+	 * Removes the element at the specified position in this list. Shifts any subsequent elements to the left (subtracts one from their indices).
+	 *
+	 * @param index the index of the element to be removed
+	 * @return the element previously at the specified position
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	@Override
+	public T remove(final int index) {
+		checkElementIndex(index);
+		final T oldVal = serializer.getRandomAccess(index);
+		serializer.setRandomAccess(index, null);
+		serializer.moveRandomAccess(index + 1, index, size - index - 1);
+		size--;
+		modCount++;
+		return oldVal;
+	}
+
+	@Override
+	protected void removeRange(final int fromIndex, final int toIndex) {
+		if (fromIndex >= toIndex) return;
+		for (int i = fromIndex; i < toIndex; i++) {
+			serializer.setRandomAccess(i, null);
+		}
+		serializer.moveRandomAccess(toIndex, fromIndex, size - toIndex);
+		size -= toIndex - fromIndex;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		serializer.clear();
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int indexOf(final Object o) {
+		final T compare = newInstance();
+		if (o == null) {
+			for (int i = 0; i < size; i++) {
+				if (serializer.isNull(i)) return i;
+			}
+		} else {
+			for (int i = 0; i < size; i++) {
+				if (o.equals(serializer.getRandomAccess(compare, i))) return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(final Object o) {
+		final T compare = newInstance();
+		if (o == null) {
+			for (int i = size - 1; i >= 0; i--) {
+				if (serializer.isNull(i)) return i;
+			}
+		} else {
+			for (int i = size - 1; i >= 0; i--) {
+				if (o.equals(serializer.getRandomAccess(compare, i))) return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return indexOf(o) != -1;
+	}
+
+	private T newInstance() {
+		try {
+			@SuppressWarnings({ "unchecked", "restriction" })
+			final T instance = (T) UnsafeHelper.getUnsafe().allocateInstance(baseClass);
+			return instance;
+		} catch (final InstantiationException e) {
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Object[] toArray() {
+		final Object[] result = new Object[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = serializer.getRandomAccess(i);
+		}
+		return result;
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		serializer.destroy();
+		super.finalize();
+	}
+}
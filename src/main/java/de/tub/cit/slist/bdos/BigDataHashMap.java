@@ -0,0 +1,590 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.OHSConfig;
+import de.tub.cit.slist.bdos.conf.SizeType;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.util.BigDataCollectionHelper;
+
+/**
+ * Hash map storing its keys and values in two {@link OffHeapSerializer}s, where slot <code>i</code> of both forms the <code>i</code><sup>th</sup> bucket of
+ * an open-addressing table with linear probing. The hash code of every key is cached in its metadata. Removing an entry shifts the succeeding entries of
+ * its cluster backwards instead of leaving a tombstone.<br />
+ * Like in {@link BigDataHashSet}, keys without dynamic-length fields are identified by their serialized image: the hash code is computed over the image and
+ * lookups compare images in place, so stored keys are never deserialized. Two keys are then equal iff all their fields are bitwise equal, regardless of
+ * {@link Object#equals(Object)}. Otherwise {@link Object#hashCode()} and {@link Object#equals(Object)} are used, and only keys with a matching hash code are
+ * deserialized.<br />
+ * When the load factor exceeds {@value #LOAD_FACTOR} or the dynamic memory is exhausted, a table of at least twice the size is allocated. The entries are
+ * migrated incrementally: every modification moves {@value #MIGRATION_STEP} buckets of the old table, lookups consult both tables in the meantime.<br />
+ * <code>NULL</code> keys are not permitted, <code>NULL</code> values are.
+ *
+ * @param <K> key class
+ * @param <V> value class
+ */
+public class BigDataHashMap<K extends Serializable, V extends Serializable> extends AbstractMap<K, V> implements Map<K, V>, java.io.Serializable {
+
+	private static final long serialVersionUID = -1284427937263000841L;
+
+	/** 1 Byte Status + 4 Bytes cached hash code */
+	private static final int	KEY_METADATA_BYTES		= 4;
+	/** only the status byte */
+	private static final int	VALUE_METADATA_BYTES	= 0;
+	private static final double	LOAD_FACTOR				= 0.75;
+	/** number of buckets of the old table migrated per modification while resizing */
+	private static final int	MIGRATION_STEP			= 8;
+	/** marks a removed entry of the old table, which must not end a probe sequence */
+	private static final byte	BITMASK_TOMBSTONE		= 0b00001000;
+
+	private final Class<K>	keyClass;
+	private final Class<V>	valueClass;
+	/** <code>true</code> iff the keys are identified by their serialized image */
+	private final boolean	byImage;
+
+	private Table	table;
+	/** table being migrated into {@link #table}, <code>NULL</code> if no resize is in progress */
+	private Table	oldTable;
+	/** number of buckets of {@link #oldTable} migrated so far */
+	private int		migrated;
+
+	/** number of entries in both tables */
+	private int				size		= 0;
+	private transient int	modCount	= 0;
+
+	/**
+	 * Creates a new hash map with default configuration.
+	 *
+	 * @param keyClass
+	 * @param valueClass
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 */
+	public BigDataHashMap(final Class<K> keyClass, final Class<V> valueClass) {
+		this(keyClass, valueClass, null);
+	}
+
+	/**
+	 * Creates a new hash map with the given configuration.
+	 *
+	 * @param keyClass
+	 * @param valueClass
+	 * @param config {@link OHSConfig}, defines the initial number of buckets, defaults to default settings if null
+	 *
+	 * @see ConfigFactory
+	 */
+	public BigDataHashMap(final Class<K> keyClass, final Class<V> valueClass, final OHSConfig config) {
+		OHSConfig conf = config;
+		if (conf == null) {
+			conf = (new ConfigFactory()).withDefaults().build();
+		}
+		this.keyClass = keyClass;
+		this.valueClass = valueClass;
+		table = new Table(new OffHeapSerializer<>(keyClass, conf, KEY_METADATA_BYTES));
+		this.byImage = !table.keys.isDynamic();
+	}
+
+	/**
+	 * A probe for a key: its image if the keys are identified by their image, and its hash code.
+	 */
+	private final class Probe {
+		final K			key;
+		final byte[]	image;
+		final int		hash;
+
+		Probe(final K key) {
+			this.key = key;
+			this.image = byImage ? table.keys.toImage(key) : null;
+			this.hash = byImage ? BigDataCollectionHelper.hashImage(image) : key.hashCode();
+		}
+
+		/**
+		 * @param keys
+		 * @param slot an occupied bucket
+		 * @return <code>true</code> iff the bucket holds the key, which is deserialized only if the cached hash code matches
+		 */
+		boolean matches(final OffHeapSerializer<K> keys, final int slot) {
+			if (BigDataCollectionHelper.getHash(keys, slot) != hash) return false;
+			return byImage ? keys.imageEquals(slot, image) : key.equals(keys.getRandomAccess(slot));
+		}
+	}
+
+	/**
+	 * @param key
+	 * @return probe for <code>key</code>, <code>NULL</code> if it cannot be contained
+	 */
+	private Probe probe(final Object key) {
+		return key == null || !keyClass.isInstance(key) ? null : new Probe(keyClass.cast(key));
+	}
+
+	/**
+	 * Buckets of a hash table. The keys and values are stored in the same slot of two serializers.
+	 */
+	private final class Table implements java.io.Serializable {
+		private static final long serialVersionUID = 6630637214155149941L;
+
+		final OffHeapSerializer<K>	keys;
+		final OffHeapSerializer<V>	values;
+		final int					capacity;
+		/** maximum number of entries before resizing */
+		final int					threshold;
+
+		/**
+		 * @param keys serializer of the keys, the values get the same number of slots
+		 */
+		Table(final OffHeapSerializer<K> keys) {
+			this.keys = keys;
+			this.capacity = (int) Math.min(Integer.MAX_VALUE - 1, keys.getMaxElementCount());
+			this.threshold = (int) (capacity * LOAD_FACTOR);
+			final OHSConfig valueConfig = (new ConfigFactory()).withConfig(keys.getConfig()).withSizeType(SizeType.ELEMENTS).withSize(capacity).build();
+			this.values = new OffHeapSerializer<>(valueClass, valueConfig, VALUE_METADATA_BYTES);
+		}
+
+		/**
+		 * @param slot
+		 * @return <code>true</code> iff the bucket neither holds an entry nor a tombstone
+		 */
+		boolean isFree(final int slot) {
+			return keys.getStatus(slot) == 0;
+		}
+
+		boolean isOccupied(final int slot) {
+			return !keys.isNull(slot);
+		}
+
+		int getHash(final int slot) {
+			return BigDataCollectionHelper.getHash(keys, slot);
+		}
+
+		/**
+		 * @param probe
+		 * @return bucket of the key, <code>-1</code> if it is not contained
+		 */
+		int find(final Probe probe) {
+			return BigDataCollectionHelper.findBucket(probe.hash, capacity, this::isFree, slot -> isOccupied(slot) && probe.matches(keys, slot));
+		}
+
+		/**
+		 * @param hash
+		 * @return first free bucket of the probe sequence of <code>hash</code>
+		 */
+		int freeSlot(final int hash) {
+			return BigDataCollectionHelper.freeBucket(hash, capacity, this::isFree);
+		}
+
+		/**
+		 * Inserts a new entry. If the dynamic memory is exhausted, the bucket is left free.
+		 *
+		 * @param probe
+		 * @param value
+		 */
+		void insert(final Probe probe, final V value) {
+			final int slot = freeSlot(probe.hash);
+			try {
+				if (byImage) {
+					keys.setImage(slot, probe.image);
+				} else {
+					keys.setRandomAccess(slot, probe.key);
+				}
+				BigDataCollectionHelper.setHash(keys, slot, probe.hash);
+				values.setRandomAccess(slot, value);
+			} catch (final RuntimeException e) {
+				keys.setRandomAccess(slot, null);
+				values.setRandomAccess(slot, null);
+				keys.setStatus(slot, (byte) 0);
+				throw e;
+			}
+		}
+
+		/**
+		 * Replaces the value of an entry. If the dynamic memory is exhausted, the previous value is restored.
+		 *
+		 * @param slot
+		 * @param value
+		 * @return the previous value
+		 */
+		V replaceValue(final int slot, final V value) {
+			final V old = values.getRandomAccess(slot);
+			try {
+				values.setRandomAccess(slot, value);
+			} catch (final OutOfDynamicMemoryException e) {
+				values.setRandomAccess(slot, null);
+				values.setRandomAccess(slot, old);
+				throw e;
+			}
+			return old;
+		}
+
+		/**
+		 * Copies an entry of another table into this one. If the dynamic memory is exhausted, the bucket is left free.
+		 *
+		 * @param from
+		 * @param slot
+		 */
+		void transfer(final Table from, final int slot) {
+			final int target = freeSlot(from.getHash(slot));
+			try {
+				from.keys.copyRandomAccess(keys, slot, target, 1);
+				from.values.copyRandomAccess(values, slot, target, 1);
+			} catch (final RuntimeException e) {
+				keys.setRandomAccess(target, null);
+				values.setRandomAccess(target, null);
+				keys.setStatus(target, (byte) 0);
+				throw e;
+			}
+		}
+
+		/**
+		 * Copies all entries of another table starting at bucket <code>start</code> into this one.
+		 *
+		 * @param from
+		 * @param start
+		 */
+		void transferAll(final Table from, final int start) {
+			for (int slot = start; slot < from.capacity; slot++) {
+				if (from.isOccupied(slot)) {
+					transfer(from, slot);
+				}
+			}
+		}
+
+		/**
+		 * Removes an entry and moves succeeding entries of the cluster into the gap, as long as this does not place them before their home bucket.
+		 *
+		 * @param slot
+		 */
+		void delete(final int slot) {
+			keys.setRandomAccess(slot, null);
+			values.setRandomAccess(slot, null);
+			keys.setStatus(slot, (byte) 0);
+			BigDataCollectionHelper.closeGap(slot, capacity, this::isFree, keys, values);
+		}
+
+		/**
+		 * Removes an entry of a table being migrated, leaving a tombstone so that succeeding entries can still be found.
+		 *
+		 * @param slot
+		 */
+		void tombstone(final int slot) {
+			keys.setRandomAccess(slot, null);
+			values.setRandomAccess(slot, null);
+			keys.setFlag(slot, BITMASK_TOMBSTONE);
+		}
+
+		void clear() {
+			keys.clear();
+			values.clear();
+		}
+
+		void destroy() {
+			keys.destroy();
+			values.destroy();
+		}
+	}
+
+	/**
+	 * @param probe
+	 * @return bucket of the key in {@link #oldTable} if it has not been migrated yet, <code>-1</code> otherwise
+	 */
+	private int findOld(final Probe probe) {
+		if (oldTable == null) return -1;
+		final int slot = oldTable.find(probe);
+		return slot < migrated ? -1 : slot;
+	}
+
+	/**
+	 * Migrates up to <code>steps</code> buckets of {@link #oldTable} and releases it when done.
+	 *
+	 * @param steps
+	 */
+	private void migrate(final int steps) {
+		if (oldTable == null) return;
+		try {
+			for (int i = 0; i < steps && migrated < oldTable.capacity; i++, migrated++) {
+				if (oldTable.isOccupied(migrated)) {
+					table.transfer(oldTable, migrated);
+				}
+			}
+		} catch (final OutOfDynamicMemoryException e) {
+			rebuild();
+			return;
+		}
+		if (migrated == oldTable.capacity) {
+			oldTable.destroy();
+			oldTable = null;
+		}
+	}
+
+	/**
+	 * Copies the entries of both tables at once into a table of at least twice the size. Used if the dynamic memory of {@link #table} is exhausted before
+	 * the migration has completed.
+	 */
+	private void rebuild() {
+		long minCapacity = 2L * table.capacity;
+		while (true) {
+			final Table target = new Table(table.keys.createLarger(minCapacity));
+			try {
+				target.transferAll(table, 0);
+				if (oldTable != null) {
+					target.transferAll(oldTable, migrated);
+				}
+			} catch (final OutOfDynamicMemoryException e) {
+				target.destroy();
+				minCapacity = 2L * target.capacity;
+				continue;
+			}
+			table.destroy();
+			if (oldTable != null) {
+				oldTable.destroy();
+				oldTable = null;
+			}
+			table = target;
+			return;
+		}
+	}
+
+	/**
+	 * Completes a running migration and starts migrating into a table of at least twice the size.
+	 */
+	private void resize() {
+		migrate(Integer.MAX_VALUE);
+		oldTable = table;
+		table = new Table(oldTable.keys.createLarger(2L * oldTable.capacity));
+		migrated = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		final Probe probe = probe(key);
+		if (probe == null) return false;
+		return table.find(probe) >= 0 || findOld(probe) >= 0;
+	}
+
+	@Override
+	public V get(final Object key) {
+		final Probe probe = probe(key);
+		if (probe == null) return null;
+		final int slot = table.find(probe);
+		if (slot >= 0) return table.values.getRandomAccess(slot);
+		final int oldSlot = findOld(probe);
+		return oldSlot < 0 ? null : oldTable.values.getRandomAccess(oldSlot);
+	}
+
+	/**
+	 * @throws NullPointerException if <code>key</code> is <code>NULL</code>
+	 */
+	@Override
+	public V put(final K key, final V value) {
+		final Probe probe = new Probe(Objects.requireNonNull(key));
+		while (true) {
+			try {
+				return putVal(probe, value);
+			} catch (final OutOfDynamicMemoryException e) {
+				if (table.keys.getConfig().getDynamicRatio() == 0) throw e;
+				// the entry is unchanged, retry with twice the dynamic memory
+				resize();
+			}
+		}
+	}
+
+	private V putVal(final Probe probe, final V value) {
+		migrate(MIGRATION_STEP);
+		final int slot = table.find(probe);
+		if (slot >= 0) return table.replaceValue(slot, value);
+		if (size >= table.threshold) {
+			resize();
+		}
+		final int oldSlot = findOld(probe);
+		final V old = oldSlot < 0 ? null : oldTable.values.getRandomAccess(oldSlot);
+		table.insert(probe, value);
+		if (oldSlot < 0) {
+			size++;
+		} else {
+			oldTable.tombstone(oldSlot);
+		}
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public V remove(final Object key) {
+		final Probe probe = probe(key);
+		if (probe == null) return null;
+		migrate(MIGRATION_STEP);
+		final int slot = table.find(probe);
+		final V old;
+		if (slot >= 0) {
+			old = table.values.getRandomAccess(slot);
+			table.delete(slot);
+		} else {
+			final int oldSlot = findOld(probe);
+			if (oldSlot < 0) return null;
+			old = oldTable.values.getRandomAccess(oldSlot);
+			oldTable.tombstone(oldSlot);
+		}
+		size--;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		table.clear();
+		if (oldTable != null) {
+			oldTable.destroy();
+			oldTable = null;
+		}
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			BigDataHashMap.this.clear();
+		}
+	}
+
+	/**
+	 * Entry writing its value through to the bucket it has been read from.
+	 */
+	private final class Entry extends AbstractMap.SimpleEntry<K, V> {
+		private static final long serialVersionUID = -3961014599212049577L;
+
+		private final transient Table	source;
+		private final int				slot;
+
+		Entry(final Table source, final int slot) {
+			super(source.keys.getRandomAccess(slot), source.values.getRandomAccess(slot));
+			this.source = source;
+			this.slot = slot;
+		}
+
+		@Override
+		public V setValue(final V value) {
+			source.replaceValue(slot, value);
+			return super.setValue(value);
+		}
+	}
+
+	/**
+	 * Visits the buckets of {@link #table} in descending order, starting below a free bucket, and then the remaining buckets of {@link #oldTable}. Removing
+	 * an entry of {@link #table} only moves visited entries, because clusters never span the free start bucket and are shifted towards their beginning.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+		/** number of buckets of {@link #table} still to be visited */
+		private int			remaining;
+		/** next bucket of {@link #table} to be visited */
+		private int			cursor;
+		/** next bucket of {@link #oldTable} to be visited */
+		private int			oldCursor			= migrated;
+		private Table		nextTable;
+		private int			nextSlot			= -1;
+		private Table		lastTable;
+		private int			lastSlot			= -1;
+		private int			expectedModCount	= modCount;
+
+		EntryIterator() {
+			int start = 0;
+			while (!table.isFree(start)) {
+				start++;
+			}
+			cursor = start;
+			remaining = table.capacity - 1;
+			advance();
+		}
+
+		private void advance() {
+			while (remaining > 0) {
+				cursor = cursor == 0 ? table.capacity - 1 : cursor - 1;
+				remaining--;
+				if (table.isOccupied(cursor)) {
+					nextTable = table;
+					nextSlot = cursor;
+					return;
+				}
+			}
+			while (oldTable != null && oldCursor < oldTable.capacity) {
+				final int slot = oldCursor++;
+				if (oldTable.isOccupied(slot)) {
+					nextTable = oldTable;
+					nextSlot = slot;
+					return;
+				}
+			}
+			nextTable = null;
+			nextSlot = -1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextTable != null;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			checkForComodification();
+			if (nextTable == null) throw new NoSuchElementException();
+			lastTable = nextTable;
+			lastSlot = nextSlot;
+			advance();
+			return new Entry(lastTable, lastSlot);
+		}
+
+		@Override
+		public void remove() {
+			if (lastTable == null) throw new IllegalStateException();
+			checkForComodification();
+			if (lastTable == table) {
+				table.delete(lastSlot);
+			} else {
+				lastTable.tombstone(lastSlot);
+			}
+			size--;
+			lastTable = null;
+			modCount++;
+			expectedModCount = modCount;
+		}
+
+		final void checkForComodification() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		table.destroy();
+		if (oldTable != null) {
+			oldTable.destroy();
+		}
+		super.finalize();
+	}
+}
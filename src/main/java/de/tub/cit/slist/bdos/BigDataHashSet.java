@@ -0,0 +1,351 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.OHSConfig;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.util.BigDataCollectionHelper;
+
+/**
+ * Hash set storing its elements in an open-addressing table with linear probing, where slot <code>i</code> of the {@link OffHeapSerializer} forms the
+ * <code>i</code><sup>th</sup> bucket. The hash code of every element is cached in its metadata, removing an element shifts the succeeding elements of its
+ * cluster backwards.<br />
+ * If the elements have no dynamic-length fields, they are identified by their serialized image: the hash code is computed over the image, and
+ * {@link #add(Serializable)}, {@link #contains(Object)} and {@link #remove(Object)} compare images in place, so stored elements are never deserialized. Two
+ * elements are then equal iff all their fields are bitwise equal, regardless of {@link Object#equals(Object)}. Otherwise {@link Object#hashCode()} and
+ * {@link Object#equals(Object)} are used, and only elements with a matching hash code are deserialized.<br />
+ * When the load factor exceeds {@value #LOAD_FACTOR} or the dynamic memory is exhausted, all elements are moved to a serializer of at least twice the size.
+ * <code>NULL</code> elements are not permitted.
+ *
+ * @param <T>
+ */
+public class BigDataHashSet<T extends Serializable> extends AbstractSet<T> implements Set<T>, java.io.Serializable {
+
+	private static final long serialVersionUID = 2841709353215925094L;
+
+	/** 1 Byte Status + 4 Bytes cached hash code */
+	private static final int	METADATA_BYTES	= 4;
+	private static final double	LOAD_FACTOR		= 0.75;
+
+	private OffHeapSerializer<T>	serializer;
+	/** class to be saved */
+	private final Class<T>			baseClass;
+	/** <code>true</code> iff the elements are identified by their serialized image */
+	private final boolean			byImage;
+
+	/** number of buckets */
+	private int	capacity;
+	/** maximum number of elements before resizing */
+	private int	threshold;
+
+	/** actual size of the set, i.e. number of elements */
+	private int				size		= 0;
+	private transient int	modCount	= 0;
+
+	/**
+	 * Creates a new hash set with default configuration.
+	 *
+	 * @param baseClass
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 */
+	public BigDataHashSet(final Class<T> baseClass) {
+		this(baseClass, null, null);
+	}
+
+	/**
+	 * Creates a new hash set with the given configuration.
+	 *
+	 * @param baseClass
+	 * @param config {@link OHSConfig}, defines the initial number of buckets
+	 *
+	 * @see ConfigFactory
+	 */
+	public BigDataHashSet(final Class<T> baseClass, final OHSConfig config) {
+		this(baseClass, config, null);
+	}
+
+	/**
+	 * Creates a new hash set with a configuration and adds all elements from c if not null. The set grows if <code>config</code> is too small.
+	 *
+	 * @param baseClass
+	 * @param config {@link OHSConfig}, defaults to default settings if null
+	 * @param c Collection&lt;T&gt;
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 * @see #addAll(Collection)
+	 */
+	public BigDataHashSet(final Class<T> baseClass, final OHSConfig config, final Collection<T> c) {
+		OHSConfig conf = config;
+		if (conf == null) {
+			conf = (new ConfigFactory()).withDefaults().build();
+		}
+		this.baseClass = baseClass;
+		setSerializer(new OffHeapSerializer<>(baseClass, conf, METADATA_BYTES));
+		this.byImage = !serializer.isDynamic();
+		if (c != null) {
+			this.addAll(c);
+		}
+	}
+
+	private void setSerializer(final OffHeapSerializer<T> serializer) {
+		this.serializer = serializer;
+		this.capacity = (int) Math.min(Integer.MAX_VALUE - 1, serializer.getMaxElementCount());
+		this.threshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * A probe for an element: its image if the elements are identified by their image, and its hash code.
+	 */
+	private final class Probe {
+		final T			element;
+		final byte[]	image;
+		final int		hash;
+
+		Probe(final T element) {
+			this.element = element;
+			this.image = byImage ? serializer.toImage(element) : null;
+			this.hash = byImage ? BigDataCollectionHelper.hashImage(image) : element.hashCode();
+		}
+
+		boolean matches(final int slot) {
+			if (getHash(slot) != hash) return false;
+			return byImage ? serializer.imageEquals(slot, image) : element.equals(serializer.getRandomAccess(slot));
+		}
+	}
+
+	private boolean isFree(final int slot) {
+		return serializer.isNull(slot);
+	}
+
+	private int getHash(final int slot) {
+		return BigDataCollectionHelper.getHash(serializer, slot);
+	}
+
+	/**
+	 * @param probe
+	 * @return bucket of the element, <code>-1</code> if it is not contained
+	 */
+	private int find(final Probe probe) {
+		return BigDataCollectionHelper.findBucket(probe.hash, capacity, this::isFree, probe::matches);
+	}
+
+	/**
+	 * @param hash
+	 * @return first free bucket of the probe sequence of <code>hash</code>
+	 */
+	private int freeSlot(final int hash) {
+		return BigDataCollectionHelper.freeBucket(hash, capacity, this::isFree);
+	}
+
+	/**
+	 * Moves all elements to a serializer of at least twice the size with room for <code>minSize</code> elements.
+	 *
+	 * @param minSize
+	 */
+	private void grow(final int minSize) {
+		final OffHeapSerializer<T> old = serializer;
+		final int oldCapacity = capacity;
+		setSerializer(old.createLarger((long) (minSize / LOAD_FACTOR) + 1));
+		for (int slot = 0; slot < oldCapacity; slot++) {
+			if (!old.isNull(slot)) {
+				old.copyRandomAccess(serializer, slot, freeSlot(BigDataCollectionHelper.getHash(old, slot)), 1);
+			}
+		}
+		old.destroy();
+	}
+
+	/**
+	 * @param minSize
+	 * @throws IllegalArgumentException if the configured memory location cannot provide the required size
+	 */
+	public void ensureCapacity(final int minSize) {
+		if (minSize > threshold) {
+			grow(minSize);
+		}
+	}
+
+	/**
+	 * Adds the element of a probe unless it is already contained. The capacity must suffice.
+	 *
+	 * @param probe
+	 * @return <code>true</code> iff the element has been added
+	 */
+	private boolean insert(final Probe probe) {
+		if (find(probe) >= 0) return false;
+		while (true) {
+			final int slot = freeSlot(probe.hash);
+			try {
+				if (byImage) {
+					serializer.setImage(slot, probe.image);
+				} else {
+					serializer.setRandomAccess(slot, probe.element);
+				}
+				BigDataCollectionHelper.setHash(serializer, slot, probe.hash);
+				break;
+			} catch (final OutOfDynamicMemoryException e) {
+				serializer.setRandomAccess(slot, null);
+				if (serializer.getConfig().getDynamicRatio() == 0) throw e;
+				grow(size + 1);
+			}
+		}
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * @throws NullPointerException if <code>e</code> is <code>NULL</code>
+	 */
+	@Override
+	public boolean add(final T e) {
+		Objects.requireNonNull(e);
+		ensureCapacity(size + 1);
+		return insert(new Probe(e));
+	}
+
+	/**
+	 * Adds all elements of <code>c</code>. The probes of the whole batch are computed first and the capacity is ensured once, before the buckets are
+	 * probed.
+	 *
+	 * @throws NullPointerException if <code>c</code> contains <code>NULL</code>
+	 */
+	@Override
+	public boolean addAll(final Collection<? extends T> c) {
+		final Object[] a = c.toArray();
+		if (a.length == 0) return false;
+		final List<Probe> probes = new ArrayList<>(a.length);
+		for (final Object o : a) {
+			@SuppressWarnings("unchecked")
+			final T e = (T) Objects.requireNonNull(o);
+			probes.add(new Probe(e));
+		}
+		ensureCapacity(size + a.length);
+		boolean modified = false;
+		for (final Probe probe : probes) {
+			modified |= insert(probe);
+		}
+		return modified;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		if (!baseClass.isInstance(o)) return false;
+		return find(new Probe(baseClass.cast(o))) >= 0;
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		if (!baseClass.isInstance(o)) return false;
+		final int slot = find(new Probe(baseClass.cast(o)));
+		if (slot < 0) return false;
+		delete(slot);
+		return true;
+	}
+
+	/**
+	 * Removes an element and moves succeeding elements of the cluster into the gap, as long as this does not place them before their home bucket.
+	 *
+	 * @param slot
+	 */
+	private void delete(final int slot) {
+		serializer.setRandomAccess(slot, null);
+		BigDataCollectionHelper.closeGap(slot, capacity, this::isFree, serializer);
+		size--;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		serializer.clear();
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an iterator visiting the buckets in descending order, starting below a free bucket. Removing an element only moves visited elements, because
+	 * clusters never span the free start bucket and are shifted towards their beginning.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Itr();
+	}
+
+	private class Itr implements Iterator<T> {
+		/** number of buckets still to be visited */
+		private int	remaining			= capacity - 1;
+		private int	cursor;
+		private int	nextSlot			= -1;
+		private int	lastReturned		= -1;
+		private int	expectedModCount	= modCount;
+
+		Itr() {
+			int start = 0;
+			while (!isFree(start)) {
+				start++;
+			}
+			cursor = start;
+			advance();
+		}
+
+		private void advance() {
+			while (remaining > 0) {
+				cursor = cursor == 0 ? capacity - 1 : cursor - 1;
+				remaining--;
+				if (!isFree(cursor)) {
+					nextSlot = cursor;
+					return;
+				}
+			}
+			nextSlot = -1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextSlot >= 0;
+		}
+
+		@Override
+		public T next() {
+			checkForComodification();
+			if (nextSlot < 0) throw new NoSuchElementException();
+			lastReturned = nextSlot;
+			advance();
+			return serializer.getRandomAccess(lastReturned);
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0) throw new IllegalStateException();
+			checkForComodification();
+			delete(lastReturned);
+			lastReturned = -1;
+			expectedModCount = modCount;
+		}
+
+		final void checkForComodification() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		serializer.destroy();
+		super.finalize();
+	}
+}
@@ -3,6 +3,7 @@ package de.tub.cit.slist.bdos;
 import java.io.Serializable;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.AbstractSequentialList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Deque;
@@ -11,11 +12,14 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.function.Consumer;
 
 import de.tub.cit.slist.bdos.conf.ConfigFactory;
 import de.tub.cit.slist.bdos.conf.OHSConfig;
 import de.tub.cit.slist.bdos.conf.SizeType;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.metadata.FieldType;
 import de.tub.cit.slist.bdos.util.BigDataCollectionHelper;
 import de.tub.cit.slist.bdos.util.UnsafeHelper;
 
@@ -24,18 +28,22 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	private static final long serialVersionUID = 6295395861024765218L;
 
 	/** 1 Byte Status already allocated + 2x4 Bytes pointer next/prev */
-	private static final int METADATA_BYTES = 8;
+	private static final int	METADATA_BYTES			= 8;
+	/** additional 4 Bytes chunk id of the positional index */
+	private static final int	INDEXED_METADATA_BYTES	= 12;
+	/** buckets of a radix sort pass, one per key byte value */
+	private static final int	RADIX					= 256;
 
 	private final OffHeapSerializer<T>	serializer;
 	/** class to be saved */
 	private final Class<T>				baseClass;
+	/** index for positional access, <code>NULL</code> if disabled */
+	private final PositionalIndex<T>	positions;
 
-	/** index offset to first free element */
-	private int	firstFree	= 0;
 	/** actual size of the list, i.e. number of elements */
-	private int	size		= 0;
+	private int	size	= 0;
 	/** index offset to first element */
-	private int	first		= -1;
+	private int	first	= -1;
 
 	/** index offset to last element */
 	private int last = -1;
@@ -81,7 +89,8 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 			f.withSize(c.size());
 		}
 		this.baseClass = baseClass;
-		serializer = new OffHeapSerializer<>(baseClass, config, METADATA_BYTES);
+		serializer = new OffHeapSerializer<>(baseClass, config, metadataBytes(config));
+		positions = config.isPositionalIndex() ? new PositionalIndex<>(serializer) : null;
 		if (c != null) {
 			this.addAll(c);
 		}
@@ -104,12 +113,17 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 			conf = (new ConfigFactory()).withDefaults().build();
 		}
 		this.baseClass = baseClass;
-		serializer = new OffHeapSerializer<>(baseClass, conf, METADATA_BYTES);
+		serializer = new OffHeapSerializer<>(baseClass, conf, metadataBytes(conf));
+		positions = conf.isPositionalIndex() ? new PositionalIndex<>(serializer) : null;
 		if (c != null) {
 			this.addAll(c);
 		}
 	}
 
+	private static int metadataBytes(final OHSConfig config) {
+		return config.isPositionalIndex() ? INDEXED_METADATA_BYTES : METADATA_BYTES;
+	}
+
 	private int getNextPointer(final int idx) {
 		return BigDataCollectionHelper.getNextPointer(serializer, idx);
 	}
@@ -157,43 +171,32 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	}
 
 	/**
-	 * Sets the first free block and manages the linked list of free blocks
+	 * Allocates a free block and sets the element
 	 *
 	 * @param element
 	 * @return index of the new block
+	 * @throws IndexOutOfBoundsException if the list is full
+	 * @see OffHeapSerializer#allocateSlot()
 	 */
-	private int setFirstFree(final T element) {
-		final int idx = firstFree;
-		serializer.setRandomAccess(idx, element);
-		firstFree = getNextPointer(idx);
-		// the pointer will be 0 if it was not unlinked before
-		if (firstFree == 0) {
-			firstFree = idx + 1;
+	private int allocateElement(final T element) {
+		final int idx = (int) serializer.allocateSlot();
+		try {
+			serializer.setRandomAccess(idx, element);
+		} catch (final RuntimeException e) {
+			serializer.freeSlot(idx);
+			throw e;
 		}
 		return idx;
 	}
 
 	/**
-	 * Deletes a block (nullify) and updates the linked list of free blocks
+	 * Deletes a block (nullify) and frees it
 	 *
 	 * @param idx of the to-be-deleted block
+	 * @see OffHeapSerializer#freeSlot(long)
 	 */
 	private void deleteElement(final int idx) {
-		serializer.setRandomAccess(idx, null);
-		if (idx < firstFree) {
-			setNextPointer(idx, firstFree);
-			setPrevPointer(idx, 0);
-			firstFree = idx;
-		} else {
-			int free = firstFree;
-			int lastFree = 0;
-			while (free < idx) {
-				lastFree = free;
-				free = getNextPointer(free);
-			}
-			setNextPointer(lastFree, idx);
-			setNextPointer(idx, free);
-		}
+		serializer.freeSlot(idx);
 	}
 
 	/**
@@ -201,7 +204,7 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	 */
 	private void linkFirst(final T element) {
 		final int f = first;
-		final int newNode = setFirstFree(element);
+		final int newNode = allocateElement(element);
 
 		setNextPointer(newNode, f);
 		setPrevPointer(newNode, -1); // undefined
@@ -212,6 +215,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 		} else {
 			setPrevPointer(f, newNode);
 		}
+		if (positions != null) {
+			positions.linkBefore(newNode, f);
+		}
 		size++;
 		modCount++;
 	}
@@ -221,7 +227,7 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	 */
 	private void linkLast(final T element) {
 		final int l = last;
-		final int newNode = setFirstFree(element);
+		final int newNode = allocateElement(element);
 
 		setNextPointer(newNode, -1); // undefined
 		setPrevPointer(newNode, l);
@@ -232,6 +238,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 		} else {
 			setNextPointer(l, newNode);
 		}
+		if (positions != null) {
+			positions.linkAfter(newNode, l);
+		}
 		size++;
 		modCount++;
 	}
@@ -240,9 +249,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	 * Inserts element e before non-null Node succ.
 	 */
 	void linkBefore(final T e, final int succ) {
-		assert (succ > 0);
+		assert (succ != -1);
 		final int pred = getPrevPointer(succ);
-		final int newNode = setFirstFree(e);
+		final int newNode = allocateElement(e);
 
 		setNextPointer(newNode, succ);
 		setPrevPointer(newNode, pred);
@@ -253,6 +262,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 		} else {
 			setNextPointer(pred, newNode);
 		}
+		if (positions != null) {
+			positions.linkBefore(newNode, succ);
+		}
 		size++;
 		modCount++;
 	}
@@ -262,6 +274,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	 */
 	private T unlinkFirst(final int idx) {
 		final T element = serializer.getRandomAccess(idx);
+		if (positions != null) {
+			positions.unlink(idx);
+		}
 		final int next = getNextPointer(idx);
 		first = next;
 		if (next == -1) {
@@ -280,6 +295,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	 */
 	private T unlinkLast(final int idx) {
 		final T element = serializer.getRandomAccess(idx);
+		if (positions != null) {
+			positions.unlink(idx);
+		}
 		final int prev = getPrevPointer(idx);
 		last = prev;
 		if (prev == -1) {
@@ -298,6 +316,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	 */
 	private T unlink(final int idx) {
 		final T element = serializer.getRandomAccess(idx);
+		if (positions != null) {
+			positions.unlink(idx);
+		}
 		final int next = getNextPointer(idx);
 		final int prev = getPrevPointer(idx);
 
@@ -395,36 +416,42 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 		if (numNew == 0) return false;
 
 		int pred;
-		int succ;
+		final int succ;
 		if (index == size) {
 			succ = -1;
 			pred = last;
 		} else {
-			succ = index;
+			succ = node(index);
 			pred = getPrevPointer(succ);
 		}
 
 		for (final Object o : a) {
 			@SuppressWarnings("unchecked")
 			final T e = (T) o;
-			final int newNode = setFirstFree(e);
+			final int newNode = allocateElement(e);
+			// link each node completely, so the list is consistent for the positional index
 			setPrevPointer(newNode, pred);
-			setNextPointer(newNode, -1);
+			setNextPointer(newNode, succ);
 			if (pred == -1) {
 				first = newNode;
 			} else {
 				setNextPointer(pred, newNode);
 			}
+			if (succ == -1) {
+				last = newNode;
+			} else {
+				setPrevPointer(succ, newNode);
+			}
+			if (positions != null) {
+				if (pred == -1) {
+					positions.linkBefore(newNode, succ);
+				} else {
+					positions.linkAfter(newNode, pred);
+				}
+			}
 			pred = newNode;
 		}
 
-		if (succ == -1) {
-			last = pred;
-		} else {
-			setNextPointer(pred, succ);
-			setPrevPointer(succ, pred);
-		}
-
 		size += numNew;
 		modCount++;
 		return true;
@@ -486,7 +513,9 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	@Override
 	public void clear() {
 		serializer.clear();
-		firstFree = 0;
+		if (positions != null) {
+			positions.clear();
+		}
 		first = last = -1;
 		size = 0;
 		modCount++;
@@ -654,12 +683,13 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 	}
 
 	/**
-	 * Returns the (non-null) Node at the specified element index.
+	 * Returns the (non-null) Node at the specified element index. The positional index is used unless the node is close to either end.
 	 *
 	 * @param index
 	 * @return
 	 */
 	int node(final int index) {
+		if (positions != null && Math.min(index, size - 1 - index) > positions.getChunkSize()) return positions.node(index);
 		if (index < (size >> 1)) {
 			int x = first;
 			for (long l = 0; l < index; l++) {
@@ -675,6 +705,25 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 		}
 	}
 
+	/**
+	 * @return the first node, <code>-1</code> if the list is empty
+	 */
+	int firstNode() {
+		return first;
+	}
+
+	/**
+	 * @param node
+	 * @return the node following <code>node</code>, <code>-1</code> if it is the last one
+	 */
+	int nextNode(final int node) {
+		return getNextPointer(node);
+	}
+
+	OffHeapSerializer<T> getSerializer() {
+		return serializer;
+	}
+
 	@Override
 	public int indexOf(final Object o) {
 		try {
@@ -740,6 +789,189 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 		return new ListItr(index);
 	}
 
+	/**
+	 * Aggregates a primitive field over the elements not being <code>NULL</code>, reading the serialized fields directly instead of deserializing the
+	 * elements.
+	 *
+	 * @param fieldName
+	 * @return statistics of the field values
+	 * @see OffHeapSerializer#aggregate(String)
+	 */
+	public FieldStatistics aggregate(final String fieldName) {
+		return serializer.aggregate(fieldName);
+	}
+
+	/**
+	 * Aggregates a primitive field over the elements not being <code>NULL</code> which match <code>condition</code>.
+	 *
+	 * @param fieldName
+	 * @param condition filter, <code>NULL</code> for all elements
+	 * @return statistics of the field values
+	 * @see OffHeapSerializer#aggregate(String, Condition)
+	 */
+	public FieldStatistics aggregate(final String fieldName, final Condition condition) {
+		return serializer.aggregate(fieldName, condition);
+	}
+
+	/**
+	 * Sorts the list in ascending order of a primitive or String field, <code>NULL</code> elements and Strings first. The sort is stable and reads the
+	 * serialized fields in place, no element is deserialized: only the next and prev pointers are relinked, the elements stay in their slots.<br />
+	 * Primitive fields are sorted by an LSD radix sort over the bytes of the field, skipping the bytes all keys share, String fields by a merge sort.
+	 * Floating-point values are ordered like {@link Double#compare(double, double)}.
+	 *
+	 * @param fieldName primitive or String field of the base class
+	 * @throws IllegalArgumentException if the field does not exist or is neither primitive nor a String
+	 */
+	public void sort(final String fieldName) {
+		final FieldMetadata field = serializer.getFieldMetadata(fieldName);
+		if (field.getType().isPrimitive()) {
+			radixSort(field);
+		} else if (field.getType() == FieldType.STRING || field.getType() == FieldType.STRING_FIXED) {
+			mergeSort(field);
+		} else throw new IllegalArgumentException("Only primitive and String fields can be sorted by: " + fieldName);
+		int prev = -1;
+		for (int x = first; x != -1; x = getNextPointer(x)) {
+			setPrevPointer(x, prev);
+			prev = x;
+		}
+		last = prev;
+		if (positions != null) {
+			positions.rebuild(first);
+		}
+		modCount++;
+	}
+
+	/**
+	 * @see OffHeapSerializer#sortKey(FieldMetadata, long)
+	 */
+	private long radixKey(final int idx, final FieldMetadata field) {
+		return OffHeapSerializer.sortKey(field, serializer.readField(idx, field));
+	}
+
+	/**
+	 * Stable LSD radix sort of the linked nodes, one pass per key byte distributing the nodes into {@link #RADIX} bucket chains. Sets the next pointers and
+	 * {@link #first} only.
+	 */
+	private void radixSort(final FieldMetadata field) {
+		// move NULL elements to the front and find the key bytes differing between nodes
+		int nullsFirst = -1;
+		int nullsLast = -1;
+		int head = -1;
+		int tail = -1;
+		long firstKey = 0;
+		long differing = 0;
+		for (int x = first, next; x != -1; x = next) {
+			next = getNextPointer(x);
+			if (serializer.isNull(x)) {
+				if (nullsLast == -1) {
+					nullsFirst = x;
+				} else {
+					setNextPointer(nullsLast, x);
+				}
+				nullsLast = x;
+				continue;
+			}
+			final long key = radixKey(x, field);
+			if (head == -1) {
+				head = x;
+				firstKey = key;
+			} else {
+				setNextPointer(tail, x);
+				differing |= key ^ firstKey;
+			}
+			tail = x;
+		}
+		if (tail != -1) {
+			setNextPointer(tail, -1);
+		}
+		final int[] heads = new int[RADIX];
+		final int[] tails = new int[RADIX];
+		for (int shift = 0; shift < field.getLength() * Byte.SIZE; shift += Byte.SIZE) {
+			if (((differing >>> shift) & (RADIX - 1)) == 0) {
+				continue;
+			}
+			Arrays.fill(heads, -1);
+			for (int x = head; x != -1; x = getNextPointer(x)) {
+				final int bucket = (int) ((radixKey(x, field) >>> shift) & (RADIX - 1));
+				if (heads[bucket] == -1) {
+					heads[bucket] = x;
+				} else {
+					setNextPointer(tails[bucket], x);
+				}
+				tails[bucket] = x;
+			}
+			head = tail = -1;
+			for (int bucket = 0; bucket < RADIX; bucket++) {
+				if (heads[bucket] == -1) {
+					continue;
+				}
+				if (tail == -1) {
+					head = heads[bucket];
+				} else {
+					setNextPointer(tail, heads[bucket]);
+				}
+				tail = tails[bucket];
+			}
+			setNextPointer(tail, -1);
+		}
+		if (nullsLast == -1) {
+			first = head;
+		} else {
+			setNextPointer(nullsLast, head);
+			first = nullsFirst;
+		}
+	}
+
+	/**
+	 * Stable bottom-up merge sort of the linked nodes, merging adjacent runs of doubling length in place. Sets the next pointers and {@link #first} only.
+	 */
+	private void mergeSort(final FieldMetadata field) {
+		if (first == -1) return;
+		for (int run = 1;; run *= 2) {
+			int left = first;
+			int tail = -1;
+			int merges = 0;
+			while (left != -1) {
+				merges++;
+				int right = left;
+				int leftSize = 0;
+				for (; leftSize < run && right != -1; leftSize++) {
+					right = getNextPointer(right);
+				}
+				int rightSize = run;
+				// the left run wins ties
+				while (leftSize > 0 || rightSize > 0 && right != -1) {
+					final int x;
+					if (leftSize > 0 && (rightSize == 0 || right == -1 || compare(left, right, field) <= 0)) {
+						x = left;
+						left = getNextPointer(left);
+						leftSize--;
+					} else {
+						x = right;
+						right = getNextPointer(right);
+						rightSize--;
+					}
+					if (tail == -1) {
+						first = x;
+					} else {
+						setNextPointer(tail, x);
+					}
+					tail = x;
+				}
+				left = right;
+			}
+			setNextPointer(tail, -1);
+			if (merges <= 1) return;
+		}
+	}
+
+	private int compare(final int a, final int b, final FieldMetadata field) {
+		final boolean nullA = serializer.isNull(a);
+		final boolean nullB = serializer.isNull(b);
+		if (nullA || nullB) return Boolean.compare(!nullA, !nullB);
+		return serializer.compareStrings(a, b, field);
+	}
+
 	@Override
 	public int size() {
 		return size;
@@ -824,7 +1056,7 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 
 		ListItr(final int index) {
 			// assert isPositionIndex(index);
-			next = (index == size) ? null : node(index);
+			next = (index == size) ? -1 : node(index);
 			nextIndex = index;
 		}
 
@@ -921,6 +1153,86 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 		}
 	}
 
+	/**
+	 * Returns a spliterator in list order which is {@link Spliterator#SIZED SIZED} and splits at the middle position. The node there is found by following
+	 * the next pointers, or by the positional index if enabled, so no element is deserialized for splitting.
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return new ListSpliterator(first, 0, size, modCount);
+	}
+
+	private class ListSpliterator implements Spliterator<T> {
+		/** next node */
+		private int			node;
+		/** position of the next node */
+		private int			index;
+		/** position behind the range */
+		private final int	fence;
+		private final int	expectedModCount;
+
+		ListSpliterator(final int node, final int index, final int fence, final int expectedModCount) {
+			this.node = node;
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super T> action) {
+			if (index >= fence) return false;
+			checkForComodification();
+			final T element = serializer.getRandomAccess(node);
+			node = getNextPointer(node);
+			index++;
+			action.accept(element);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(final Consumer<? super T> action) {
+			for (; index < fence; index++) {
+				action.accept(serializer.getRandomAccess(node));
+				node = getNextPointer(node);
+			}
+			checkForComodification();
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			final int mid = (index + fence) >>> 1;
+			if (mid <= index) return null;
+			checkForComodification();
+			int midNode;
+			if (positions != null) {
+				midNode = node(mid);
+			} else {
+				midNode = node;
+				for (int i = index; i < mid; i++) {
+					midNode = getNextPointer(midNode);
+				}
+			}
+			final Spliterator<T> prefix = new ListSpliterator(node, index, mid, expectedModCount);
+			node = midNode;
+			index = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+	}
+
 	/**
 	 * Adapter to provide descending iterators via ListItr.previous
 	 */
@@ -934,7 +1246,7 @@ public class BigDataLinkedList<T extends Serializable> extends AbstractSequentia
 
 		@Override
 		public T next() {
-			if (!itr.hasNext()) throw new NoSuchElementException();
+			if (!itr.hasPrevious()) throw new NoSuchElementException();
 			return itr.previous();
 		}
 
@@ -0,0 +1,1494 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.OHSConfig;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.memory.PageStore;
+import de.tub.cit.slist.bdos.memory.SlotAllocator;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+
+/**
+ * Sorted map stored as a B+tree whose nodes are fixed-size pages of a {@link PageStore}. Leaf pages hold up to {@value #ORDER} keys together with the slots
+ * of their values and are linked in both directions, so iterating over a range walks along the leaves without descending the tree again. Inner pages hold up
+ * to {@value #ORDER} separator keys.<br />
+ * Keys of the wrapper classes of the primitive types (except {@link Boolean}) are stored within the pages and compared in place, i.e. searching the tree
+ * never deserializes anything. Other keys are stored in an {@link OffHeapSerializer} and referenced by their slot, they are deserialized for every
+ * comparison. Values are always stored in an {@link OffHeapSerializer} and only deserialized when they are returned.<br />
+ * Removing entries never merges pages, only pages becoming empty are released. Keys are ordered by their natural ordering or a {@link Comparator}.
+ * <code>NULL</code> keys are not permitted, <code>NULL</code> values are. Like in {@link java.util.TreeMap}, entries returned by the navigation methods are
+ * snapshots, whereas entries returned by iterators write {@link Map.Entry#setValue(Object)} through to the map.
+ *
+ * @param <K> key class
+ * @param <V> value class
+ */
+public class BigDataTreeMap<K extends Serializable, V extends Serializable> extends AbstractMap<K, V> implements NavigableMap<K, V>, java.io.Serializable {
+
+	private static final long serialVersionUID = -2419373570297811652L;
+
+	/** maximum number of keys per page */
+	private static final int	ORDER			= 128;
+	/** <code>1</code> for leaf pages, <code>0</code> for inner pages */
+	private static final int	LEAF_OFFSET		= 0;
+	/** number of keys of the page */
+	private static final int	COUNT_OFFSET	= 4;
+	/** next leaf page */
+	private static final int	NEXT_OFFSET		= 8;
+	/** previous leaf page */
+	private static final int	PREV_OFFSET		= 12;
+	private static final int	KEYS_OFFSET		= 16;
+	/** value slots of a leaf page or child pages of an inner page, a page takes one surplus key before it is split */
+	private static final int	REFS_OFFSET		= KEYS_OFFSET + (ORDER + 1) * UnsafeHelper.LONG_FIELD_SIZE;
+	private static final int	PAGE_SIZE		= REFS_OFFSET + (ORDER + 2) * UnsafeHelper.INT_FIELD_SIZE;
+	private static final int	NO_PAGE			= -1;
+	/** cursor denoting a missing entry */
+	private static final long	NONE			= -1L;
+
+	/**
+	 * Representation of the keys within the pages: the bits of a primitive key or the slot of a serialized key.
+	 */
+	private enum KeyEncoding {
+		SERIALIZED, LONG, INT, SHORT, BYTE, CHAR, FLOAT, DOUBLE;
+
+		static KeyEncoding of(final Class<?> keyClass) {
+			if (keyClass == Long.class) return LONG;
+			if (keyClass == Integer.class) return INT;
+			if (keyClass == Short.class) return SHORT;
+			if (keyClass == Byte.class) return BYTE;
+			if (keyClass == Character.class) return CHAR;
+			if (keyClass == Float.class) return FLOAT;
+			if (keyClass == Double.class) return DOUBLE;
+			return SERIALIZED;
+		}
+
+		long encode(final Object key) {
+			switch (this) {
+			case LONG:
+				return (Long) key;
+			case INT:
+				return (Integer) key;
+			case SHORT:
+				return (Short) key;
+			case BYTE:
+				return (Byte) key;
+			case CHAR:
+				return (Character) key;
+			case FLOAT:
+				return Float.floatToIntBits((Float) key);
+			case DOUBLE:
+				return Double.doubleToLongBits((Double) key);
+			default:
+				throw new IllegalStateException("Serialized keys have no encoding.");
+			}
+		}
+
+		Object decode(final long bits) {
+			switch (this) {
+			case LONG:
+				return Long.valueOf(bits);
+			case INT:
+				return Integer.valueOf((int) bits);
+			case SHORT:
+				return Short.valueOf((short) bits);
+			case BYTE:
+				return Byte.valueOf((byte) bits);
+			case CHAR:
+				return Character.valueOf((char) bits);
+			case FLOAT:
+				return Float.intBitsToFloat((int) bits);
+			case DOUBLE:
+				return Double.longBitsToDouble(bits);
+			default:
+				throw new IllegalStateException("Serialized keys have no encoding.");
+			}
+		}
+
+		/**
+		 * Compares two encoded keys by the natural ordering of their class.
+		 */
+		int compare(final long a, final long b) {
+			switch (this) {
+			case FLOAT:
+				return Float.compare(Float.intBitsToFloat((int) a), Float.intBitsToFloat((int) b));
+			case DOUBLE:
+				return Double.compare(Double.longBitsToDouble(a), Double.longBitsToDouble(b));
+			default:
+				return Long.compare(a, b);
+			}
+		}
+	}
+
+	private final Comparator<? super K>	comparator;
+	private final KeyEncoding			encoding;
+
+	private final PageStore		pages;
+	/** serialized keys, <code>NULL</code> if the keys are stored within the pages */
+	private OffHeapSerializer<K>	keys;
+	private SlotAllocator			keySlots;
+	private OffHeapSerializer<V>	values;
+	private SlotAllocator			valueSlots;
+
+	private int	root;
+	private int	firstLeaf;
+	private int	lastLeaf;
+
+	/** pages from the root to the leaf of the last descent */
+	private int[]	pathPages	= new int[8];
+	/** index of the child taken at each inner page of the last descent */
+	private int[]	pathIndices	= new int[8];
+
+	/** actual size of the map, i.e. number of entries */
+	private int				size		= 0;
+	private transient int	modCount	= 0;
+
+	/** the whole map as a view, the navigation methods delegate to it */
+	private final View all = new View(true, null, false, true, null, false, false);
+
+	/**
+	 * Creates a new tree map with default configuration, ordered by the natural ordering of the keys.
+	 *
+	 * @param keyClass
+	 * @param valueClass
+	 *
+	 * @see ConfigFactory#withDefaults()
+	 */
+	public BigDataTreeMap(final Class<K> keyClass, final Class<V> valueClass) {
+		this(keyClass, valueClass, null, null);
+	}
+
+	/**
+	 * Creates a new tree map with the given configuration, ordered by the natural ordering of the keys.
+	 *
+	 * @param keyClass
+	 * @param valueClass
+	 * @param config {@link OHSConfig}, defines the initial number of entries, defaults to default settings if null
+	 *
+	 * @see ConfigFactory
+	 */
+	public BigDataTreeMap(final Class<K> keyClass, final Class<V> valueClass, final OHSConfig config) {
+		this(keyClass, valueClass, config, null);
+	}
+
+	/**
+	 * Creates a new tree map with the given configuration and comparator. The map grows if <code>config</code> is too small.
+	 *
+	 * @param keyClass
+	 * @param valueClass
+	 * @param config {@link OHSConfig}, defines the initial number of entries, defaults to default settings if null
+	 * @param comparator ordering of the keys, their natural ordering if null
+	 *
+	 * @see ConfigFactory
+	 */
+	public BigDataTreeMap(final Class<K> keyClass, final Class<V> valueClass, final OHSConfig config, final Comparator<? super K> comparator) {
+		OHSConfig conf = config;
+		if (conf == null) {
+			conf = (new ConfigFactory()).withDefaults().build();
+		}
+		this.comparator = comparator;
+		this.encoding = KeyEncoding.of(keyClass);
+		values = new OffHeapSerializer<>(valueClass, conf, 0);
+		valueSlots = new SlotAllocator(Math.min(Integer.MAX_VALUE, values.getMaxElementCount()));
+		if (encoding == KeyEncoding.SERIALIZED) {
+			keys = new OffHeapSerializer<>(keyClass, conf, 0);
+			keySlots = new SlotAllocator(Math.min(Integer.MAX_VALUE, keys.getMaxElementCount()));
+		}
+		pages = new PageStore(PAGE_SIZE, (int) Math.max(1, Math.min(Integer.MAX_VALUE, valueSlots.getCapacity() / (ORDER / 2))), conf.getLocation());
+		root = firstLeaf = lastLeaf = newPage(true);
+	}
+
+	/* page access */
+
+	private static int keyOffset(final int i) {
+		return KEYS_OFFSET + i * UnsafeHelper.LONG_FIELD_SIZE;
+	}
+
+	private static int refOffset(final int i) {
+		return REFS_OFFSET + i * UnsafeHelper.INT_FIELD_SIZE;
+	}
+
+	private int newPage(final boolean leaf) {
+		final int page = pages.allocate();
+		pages.putByte(page, LEAF_OFFSET, (byte) (leaf ? 1 : 0));
+		setCount(page, 0);
+		setNext(page, NO_PAGE);
+		setPrev(page, NO_PAGE);
+		return page;
+	}
+
+	private boolean isLeaf(final int page) {
+		return pages.getByte(page, LEAF_OFFSET) != 0;
+	}
+
+	private int count(final int page) {
+		return pages.getInt(page, COUNT_OFFSET);
+	}
+
+	private void setCount(final int page, final int count) {
+		pages.putInt(page, COUNT_OFFSET, count);
+	}
+
+	private int next(final int page) {
+		return pages.getInt(page, NEXT_OFFSET);
+	}
+
+	private void setNext(final int page, final int next) {
+		pages.putInt(page, NEXT_OFFSET, next);
+	}
+
+	private int prev(final int page) {
+		return pages.getInt(page, PREV_OFFSET);
+	}
+
+	private void setPrev(final int page, final int prev) {
+		pages.putInt(page, PREV_OFFSET, prev);
+	}
+
+	private long keyAt(final int page, final int i) {
+		return pages.getLong(page, keyOffset(i));
+	}
+
+	private void setKey(final int page, final int i, final long key) {
+		pages.putLong(page, keyOffset(i), key);
+	}
+
+	private int refAt(final int page, final int i) {
+		return pages.getInt(page, refOffset(i));
+	}
+
+	private void setRef(final int page, final int i, final int ref) {
+		pages.putInt(page, refOffset(i), ref);
+	}
+
+	/**
+	 * Inserts a key at index <code>i</code> of a page holding <code>count</code> keys.
+	 */
+	private void insertKey(final int page, final int i, final int count, final long key) {
+		pages.copy(page, keyOffset(i), page, keyOffset(i + 1), (count - i) * UnsafeHelper.LONG_FIELD_SIZE);
+		setKey(page, i, key);
+	}
+
+	/**
+	 * Inserts a reference at index <code>i</code> of a page holding <code>count</code> references.
+	 */
+	private void insertRef(final int page, final int i, final int count, final int ref) {
+		pages.copy(page, refOffset(i), page, refOffset(i + 1), (count - i) * UnsafeHelper.INT_FIELD_SIZE);
+		setRef(page, i, ref);
+	}
+
+	private void removeKey(final int page, final int i, final int count) {
+		pages.copy(page, keyOffset(i + 1), page, keyOffset(i), (count - i - 1) * UnsafeHelper.LONG_FIELD_SIZE);
+	}
+
+	private void removeRef(final int page, final int i, final int count) {
+		pages.copy(page, refOffset(i + 1), page, refOffset(i), (count - i - 1) * UnsafeHelper.INT_FIELD_SIZE);
+	}
+
+	/* keys and values */
+
+	/**
+	 * A key to be searched, encoded once.
+	 */
+	private final class Probe {
+		final K		key;
+		final long	bits;
+
+		@SuppressWarnings("unchecked")
+		Probe(final Object key) {
+			this.key = (K) Objects.requireNonNull(key);
+			this.bits = encoding == KeyEncoding.SERIALIZED ? 0 : encoding.encode(key);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compareKeys(final Object a, final Object b) {
+		return comparator == null ? ((Comparable<Object>) a).compareTo(b) : comparator.compare((K) a, (K) b);
+	}
+
+	/**
+	 * @param probe
+	 * @param key key as stored in a page
+	 * @return comparison of the probe with the stored key, primitive keys in natural order are compared in place
+	 */
+	private int compare(final Probe probe, final long key) {
+		if (encoding == KeyEncoding.SERIALIZED) return compareKeys(probe.key, keys.getRandomAccess(key));
+		if (comparator == null) return encoding.compare(probe.bits, key);
+		return comparator.compare(probe.key, decode(key));
+	}
+
+	@SuppressWarnings("unchecked")
+	private K decode(final long key) {
+		return (K) encoding.decode(key);
+	}
+
+	/**
+	 * @param key key as stored in a page
+	 * @return the key object
+	 */
+	private K keyOf(final long key) {
+		return encoding == KeyEncoding.SERIALIZED ? keys.getRandomAccess(key) : decode(key);
+	}
+
+	/**
+	 * Creates a copy of a serializer of at least twice the size and destroys the original.
+	 */
+	private static <T extends Serializable> OffHeapSerializer<T> grow(final OffHeapSerializer<T> serializer) {
+		final OffHeapSerializer<T> grown = serializer.createLarger(serializer.getMaxElementCount() + 1);
+		serializer.copyRandomAccess(grown, 0, 0, serializer.getMaxElementCount());
+		serializer.destroy();
+		return grown;
+	}
+
+	private void growKeys() {
+		keys = grow(keys);
+		keySlots = keySlots.copy(Math.min(Integer.MAX_VALUE, keys.getMaxElementCount()));
+	}
+
+	private void growValues() {
+		values = grow(values);
+		valueSlots = valueSlots.copy(Math.min(Integer.MAX_VALUE, values.getMaxElementCount()));
+	}
+
+	/**
+	 * @param key
+	 * @return representation of the key within a page, serialized keys are stored in a new slot
+	 */
+	private long newKey(final K key) {
+		if (encoding != KeyEncoding.SERIALIZED) return encoding.encode(key);
+		if (keySlots.getAllocated() == keySlots.getCapacity()) {
+			growKeys();
+		}
+		final long slot = keySlots.allocate();
+		while (true) {
+			try {
+				keys.setRandomAccess(slot, key);
+				return slot;
+			} catch (final OutOfDynamicMemoryException e) {
+				keys.setRandomAccess(slot, null);
+				if (keys.getConfig().getDynamicRatio() == 0) {
+					keySlots.free(slot);
+					throw e;
+				}
+				growKeys();
+			}
+		}
+	}
+
+	private void freeKey(final long key) {
+		if (encoding != KeyEncoding.SERIALIZED) return;
+		keys.setRandomAccess(key, null);
+		keySlots.free(key);
+	}
+
+	/**
+	 * @param value
+	 * @return slot of the stored value
+	 */
+	private int newValue(final V value) {
+		if (valueSlots.getAllocated() == valueSlots.getCapacity()) {
+			growValues();
+		}
+		final int slot = (int) valueSlots.allocate();
+		try {
+			storeValue(slot, null, value);
+		} catch (final RuntimeException e) {
+			valueSlots.free(slot);
+			throw e;
+		}
+		return slot;
+	}
+
+	/**
+	 * Replaces the value of a slot, growing the serializer while its dynamic memory is exhausted. If it cannot grow, the previous value is restored.
+	 *
+	 * @param slot
+	 * @param old the value currently stored in <code>slot</code>
+	 * @param value
+	 */
+	private void storeValue(final int slot, final V old, final V value) {
+		values.setRandomAccess(slot, null);
+		while (true) {
+			try {
+				values.setRandomAccess(slot, value);
+				return;
+			} catch (final OutOfDynamicMemoryException e) {
+				values.setRandomAccess(slot, null);
+				if (values.getConfig().getDynamicRatio() == 0) {
+					values.setRandomAccess(slot, old);
+					throw e;
+				}
+				growValues();
+			}
+		}
+	}
+
+	private void freeValue(final int slot) {
+		values.setRandomAccess(slot, null);
+		valueSlots.free(slot);
+	}
+
+	/* search */
+
+	/**
+	 * Binary search within a page.
+	 *
+	 * @param page
+	 * @param count number of keys of the page
+	 * @param probe
+	 * @param inclusive
+	 * @return index of the first key <code>&gt;= probe</code> if <code>inclusive</code>, of the first key <code>&gt; probe</code> otherwise
+	 */
+	private int search(final int page, final int count, final Probe probe, final boolean inclusive) {
+		int lo = 0;
+		int hi = count;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			final int c = compare(probe, keyAt(page, mid));
+			if (c > 0 || c == 0 && !inclusive) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * @param probe
+	 * @return the leaf page which holds the probe if it is contained
+	 */
+	private int findLeaf(final Probe probe) {
+		int page = root;
+		while (!isLeaf(page)) {
+			page = refAt(page, search(page, count(page), probe, false));
+		}
+		return page;
+	}
+
+	/**
+	 * Descends to the leaf page of the probe, recording the path in {@link #pathPages} and {@link #pathIndices}.
+	 *
+	 * @param probe
+	 * @return depth of the leaf page
+	 */
+	private int descend(final Probe probe) {
+		int page = root;
+		int depth = 0;
+		while (!isLeaf(page)) {
+			if (depth + 1 == pathPages.length) {
+				pathPages = Arrays.copyOf(pathPages, 2 * pathPages.length);
+				pathIndices = Arrays.copyOf(pathIndices, 2 * pathIndices.length);
+			}
+			final int child = search(page, count(page), probe, false);
+			pathPages[depth] = page;
+			pathIndices[depth] = child;
+			page = refAt(page, child);
+			depth++;
+		}
+		pathPages[depth] = page;
+		return depth;
+	}
+
+	/* cursors, i.e. leaf page and index within the page */
+
+	private static long cursor(final int page, final int i) {
+		return (long) page << Integer.SIZE | i;
+	}
+
+	private static int page(final long cursor) {
+		return (int) (cursor >>> Integer.SIZE);
+	}
+
+	private static int index(final long cursor) {
+		return (int) cursor;
+	}
+
+	private K keyAt(final long cursor) {
+		return keyOf(keyAt(page(cursor), index(cursor)));
+	}
+
+	private V valueAt(final long cursor) {
+		return values.getRandomAccess(refAt(page(cursor), index(cursor)));
+	}
+
+	private long find(final Object key) {
+		final Probe probe = new Probe(key);
+		final int leaf = findLeaf(probe);
+		final int count = count(leaf);
+		final int i = search(leaf, count, probe, true);
+		return i < count && compare(probe, keyAt(leaf, i)) == 0 ? cursor(leaf, i) : NONE;
+	}
+
+	/**
+	 * @return cursor of the least key <code>&gt;= key</code> if <code>inclusive</code>, <code>&gt; key</code> otherwise
+	 */
+	private long ceiling(final Object key, final boolean inclusive) {
+		final Probe probe = new Probe(key);
+		final int leaf = findLeaf(probe);
+		final int i = search(leaf, count(leaf), probe, inclusive);
+		if (i < count(leaf)) return cursor(leaf, i);
+		final int next = next(leaf);
+		return next == NO_PAGE ? NONE : cursor(next, 0);
+	}
+
+	/**
+	 * @return cursor of the greatest key <code>&lt;= key</code> if <code>inclusive</code>, <code>&lt; key</code> otherwise
+	 */
+	private long floor(final Object key, final boolean inclusive) {
+		final Probe probe = new Probe(key);
+		final int leaf = findLeaf(probe);
+		final int i = search(leaf, count(leaf), probe, !inclusive) - 1;
+		if (i >= 0) return cursor(leaf, i);
+		final int prev = prev(leaf);
+		return prev == NO_PAGE ? NONE : cursor(prev, count(prev) - 1);
+	}
+
+	private long first() {
+		return size == 0 ? NONE : cursor(firstLeaf, 0);
+	}
+
+	private long last() {
+		return size == 0 ? NONE : cursor(lastLeaf, count(lastLeaf) - 1);
+	}
+
+	/**
+	 * Only the root page may be an empty leaf, so every other leaf holds at least one entry.
+	 */
+	private long successor(final long cursor) {
+		final int page = page(cursor);
+		if (index(cursor) + 1 < count(page)) return cursor + 1;
+		final int next = next(page);
+		return next == NO_PAGE ? NONE : cursor(next, 0);
+	}
+
+	private long predecessor(final long cursor) {
+		if (index(cursor) > 0) return cursor - 1;
+		final int prev = prev(page(cursor));
+		return prev == NO_PAGE ? NONE : cursor(prev, count(prev) - 1);
+	}
+
+	/* modification */
+
+	@Override
+	public V get(final Object key) {
+		final long cursor = find(key);
+		return cursor == NONE ? null : valueAt(cursor);
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return find(key) != NONE;
+	}
+
+	/**
+	 * @throws NullPointerException if <code>key</code> is <code>NULL</code>
+	 * @throws ClassCastException if <code>key</code> cannot be compared with the keys of the map
+	 */
+	@Override
+	public V put(final K key, final V value) {
+		final Probe probe = new Probe(key);
+		if (comparator == null && !(key instanceof Comparable)) throw new ClassCastException(key.getClass().getName() + " is not Comparable.");
+		final int depth = descend(probe);
+		final int leaf = pathPages[depth];
+		final int count = count(leaf);
+		final int i = search(leaf, count, probe, true);
+		if (i < count && compare(probe, keyAt(leaf, i)) == 0) {
+			final int slot = refAt(leaf, i);
+			final V old = values.getRandomAccess(slot);
+			storeValue(slot, old, value);
+			return old;
+		}
+		final int slot = newValue(value);
+		final long stored;
+		try {
+			stored = newKey(key);
+		} catch (final RuntimeException e) {
+			freeValue(slot);
+			throw e;
+		}
+		insertKey(leaf, i, count, stored);
+		insertRef(leaf, i, count, slot);
+		setCount(leaf, count + 1);
+		if (count + 1 > ORDER) {
+			splitLeaf(depth);
+		}
+		size++;
+		modCount++;
+		return null;
+	}
+
+	/**
+	 * Moves the upper half of an overfull leaf page to a new leaf page and inserts a copy of its first key into the parent page.
+	 *
+	 * @param depth depth of the leaf page on the path of the last descent
+	 */
+	private void splitLeaf(final int depth) {
+		final int leaf = pathPages[depth];
+		final int count = count(leaf);
+		final int half = count / 2;
+		final int right = newPage(true);
+		pages.copy(leaf, keyOffset(half), right, keyOffset(0), (count - half) * UnsafeHelper.LONG_FIELD_SIZE);
+		pages.copy(leaf, refOffset(half), right, refOffset(0), (count - half) * UnsafeHelper.INT_FIELD_SIZE);
+		setCount(right, count - half);
+		setCount(leaf, half);
+		final int next = next(leaf);
+		setNext(right, next);
+		setPrev(right, leaf);
+		if (next == NO_PAGE) {
+			lastLeaf = right;
+		} else {
+			setPrev(next, right);
+		}
+		setNext(leaf, right);
+		// the separator must outlive the entry it is copied from
+		final long separator = encoding == KeyEncoding.SERIALIZED ? newKey(keyAt(cursor(right, 0))) : keyAt(right, 0);
+		insertIntoParent(depth - 1, separator, right);
+	}
+
+	/**
+	 * Inserts a separator key and the page to its right into the parent page on the path of the last descent, splitting it if it overflows.
+	 *
+	 * @param level depth of the parent page, <code>-1</code> if the root has been split
+	 * @param separator
+	 * @param right
+	 */
+	private void insertIntoParent(final int level, final long separator, final int right) {
+		if (level < 0) {
+			final int newRoot = newPage(false);
+			setKey(newRoot, 0, separator);
+			setRef(newRoot, 0, root);
+			setRef(newRoot, 1, right);
+			setCount(newRoot, 1);
+			root = newRoot;
+			return;
+		}
+		final int page = pathPages[level];
+		final int child = pathIndices[level];
+		final int count = count(page);
+		insertKey(page, child, count, separator);
+		insertRef(page, child + 1, count + 1, right);
+		setCount(page, count + 1);
+		if (count + 1 > ORDER) {
+			splitInner(level);
+		}
+	}
+
+	/**
+	 * Moves the keys above the middle key of an overfull inner page to a new inner page and the middle key itself into the parent page.
+	 *
+	 * @param level depth of the inner page on the path of the last descent
+	 */
+	private void splitInner(final int level) {
+		final int page = pathPages[level];
+		final int count = count(page);
+		final int mid = count / 2;
+		final int right = newPage(false);
+		pages.copy(page, keyOffset(mid + 1), right, keyOffset(0), (count - mid - 1) * UnsafeHelper.LONG_FIELD_SIZE);
+		pages.copy(page, refOffset(mid + 1), right, refOffset(0), (count - mid) * UnsafeHelper.INT_FIELD_SIZE);
+		setCount(right, count - mid - 1);
+		setCount(page, mid);
+		insertIntoParent(level - 1, keyAt(page, mid), right);
+	}
+
+	@Override
+	public V remove(final Object key) {
+		final Probe probe = new Probe(key);
+		final int depth = descend(probe);
+		final int leaf = pathPages[depth];
+		final int count = count(leaf);
+		final int i = search(leaf, count, probe, true);
+		if (i == count || compare(probe, keyAt(leaf, i)) != 0) return null;
+		final int slot = refAt(leaf, i);
+		final V old = values.getRandomAccess(slot);
+		freeValue(slot);
+		freeKey(keyAt(leaf, i));
+		removeKey(leaf, i, count);
+		removeRef(leaf, i, count);
+		setCount(leaf, count - 1);
+		if (count == 1 && depth > 0) {
+			removeLeaf(depth);
+		}
+		size--;
+		modCount++;
+		return old;
+	}
+
+	/**
+	 * Releases an empty leaf page and removes it from its parent. Parents left without children are released as well, a root with a single child is
+	 * replaced by that child.
+	 *
+	 * @param depth depth of the leaf page on the path of the last descent
+	 */
+	private void removeLeaf(final int depth) {
+		final int leaf = pathPages[depth];
+		final int prev = prev(leaf);
+		final int next = next(leaf);
+		if (prev == NO_PAGE) {
+			firstLeaf = next;
+		} else {
+			setNext(prev, next);
+		}
+		if (next == NO_PAGE) {
+			lastLeaf = prev;
+		} else {
+			setPrev(next, prev);
+		}
+		pages.free(leaf);
+		for (int level = depth - 1;; level--) {
+			final int page = pathPages[level];
+			final int count = count(page);
+			if (count == 0) {
+				// the removed page was the only child
+				pages.free(page);
+				continue;
+			}
+			final int child = pathIndices[level];
+			final int k = child == 0 ? 0 : child - 1;
+			freeKey(keyAt(page, k));
+			removeKey(page, k, count);
+			removeRef(page, child, count + 1);
+			setCount(page, count - 1);
+			break;
+		}
+		while (!isLeaf(root) && count(root) == 0) {
+			final int old = root;
+			root = refAt(root, 0);
+			pages.free(old);
+		}
+	}
+
+	@Override
+	public void clear() {
+		pages.clear();
+		values.clear();
+		valueSlots.clear();
+		if (keys != null) {
+			keys.clear();
+			keySlots.clear();
+		}
+		root = firstLeaf = lastLeaf = newPage(true);
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/* navigation, delegating to the view of the whole map */
+
+	@Override
+	public Comparator<? super K> comparator() {
+		return comparator;
+	}
+
+	@Override
+	public K firstKey() {
+		return all.firstKey();
+	}
+
+	@Override
+	public K lastKey() {
+		return all.lastKey();
+	}
+
+	@Override
+	public Entry<K, V> lowerEntry(final K key) {
+		return all.lowerEntry(key);
+	}
+
+	@Override
+	public K lowerKey(final K key) {
+		return all.lowerKey(key);
+	}
+
+	@Override
+	public Entry<K, V> floorEntry(final K key) {
+		return all.floorEntry(key);
+	}
+
+	@Override
+	public K floorKey(final K key) {
+		return all.floorKey(key);
+	}
+
+	@Override
+	public Entry<K, V> ceilingEntry(final K key) {
+		return all.ceilingEntry(key);
+	}
+
+	@Override
+	public K ceilingKey(final K key) {
+		return all.ceilingKey(key);
+	}
+
+	@Override
+	public Entry<K, V> higherEntry(final K key) {
+		return all.higherEntry(key);
+	}
+
+	@Override
+	public K higherKey(final K key) {
+		return all.higherKey(key);
+	}
+
+	@Override
+	public Entry<K, V> firstEntry() {
+		return all.firstEntry();
+	}
+
+	@Override
+	public Entry<K, V> lastEntry() {
+		return all.lastEntry();
+	}
+
+	@Override
+	public Entry<K, V> pollFirstEntry() {
+		return all.pollFirstEntry();
+	}
+
+	@Override
+	public Entry<K, V> pollLastEntry() {
+		return all.pollLastEntry();
+	}
+
+	@Override
+	public NavigableMap<K, V> descendingMap() {
+		return all.descendingMap();
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return all.keySet();
+	}
+
+	@Override
+	public NavigableSet<K> navigableKeySet() {
+		return all.navigableKeySet();
+	}
+
+	@Override
+	public NavigableSet<K> descendingKeySet() {
+		return all.descendingKeySet();
+	}
+
+	@Override
+	public NavigableMap<K, V> subMap(final K fromKey, final boolean fromInclusive, final K toKey, final boolean toInclusive) {
+		return all.subMap(fromKey, fromInclusive, toKey, toInclusive);
+	}
+
+	@Override
+	public NavigableMap<K, V> headMap(final K toKey, final boolean inclusive) {
+		return all.headMap(toKey, inclusive);
+	}
+
+	@Override
+	public NavigableMap<K, V> tailMap(final K fromKey, final boolean inclusive) {
+		return all.tailMap(fromKey, inclusive);
+	}
+
+	@Override
+	public SortedMap<K, V> subMap(final K fromKey, final K toKey) {
+		return all.subMap(fromKey, toKey);
+	}
+
+	@Override
+	public SortedMap<K, V> headMap(final K toKey) {
+		return all.headMap(toKey);
+	}
+
+	@Override
+	public SortedMap<K, V> tailMap(final K fromKey) {
+		return all.tailMap(fromKey);
+	}
+
+	/**
+	 * Iterates along the leaf pages, entries are only deserialized when they are returned.
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return all.entrySet();
+	}
+
+	/**
+	 * Entry returned by iterators, {@link #setValue(Serializable)} writes through to the map.
+	 */
+	private final class IteratorEntry extends SimpleEntry<K, V> {
+		private static final long serialVersionUID = 7462516023418844275L;
+
+		IteratorEntry(final K key, final V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(final V value) {
+			BigDataTreeMap.this.put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+
+	/**
+	 * Range of the map between optional bounds, in ascending or descending order. All bounds and cursors are absolute, i.e. refer to the ascending order of
+	 * the map.
+	 */
+	private final class View extends AbstractMap<K, V> implements NavigableMap<K, V> {
+		private final boolean	fromStart;
+		private final K			lo;
+		private final boolean	loInclusive;
+		private final boolean	toEnd;
+		private final K			hi;
+		private final boolean	hiInclusive;
+		private final boolean	descending;
+
+		View(final boolean fromStart, final K lo, final boolean loInclusive, final boolean toEnd, final K hi, final boolean hiInclusive,
+				final boolean descending) {
+			if (!fromStart && !toEnd && compareKeys(lo, hi) > 0) throw new IllegalArgumentException("fromKey > toKey");
+			this.fromStart = fromStart;
+			this.lo = lo;
+			this.loInclusive = loInclusive;
+			this.toEnd = toEnd;
+			this.hi = hi;
+			this.hiInclusive = hiInclusive;
+			this.descending = descending;
+		}
+
+		private boolean tooLow(final Object key) {
+			if (fromStart) return false;
+			final int c = compareKeys(key, lo);
+			return c < 0 || c == 0 && !loInclusive;
+		}
+
+		private boolean tooHigh(final Object key) {
+			if (toEnd) return false;
+			final int c = compareKeys(key, hi);
+			return c > 0 || c == 0 && !hiInclusive;
+		}
+
+		private boolean inRange(final Object key) {
+			return !tooLow(key) && !tooHigh(key);
+		}
+
+		/**
+		 * @return <code>true</code> iff <code>key</code> is a valid bound of a sub view, i.e. lies within the range including exclusive bounds unless
+		 *         <code>inclusive</code>
+		 */
+		private boolean inRange(final Object key, final boolean inclusive) {
+			if (inclusive) return inRange(key);
+			return (fromStart || compareKeys(key, lo) >= 0) && (toEnd || compareKeys(key, hi) <= 0);
+		}
+
+		private long absLowest() {
+			final long c = fromStart ? first() : ceiling(lo, loInclusive);
+			return c == NONE || tooHigh(keyAt(c)) ? NONE : c;
+		}
+
+		private long absHighest() {
+			final long c = toEnd ? last() : floor(hi, hiInclusive);
+			return c == NONE || tooLow(keyAt(c)) ? NONE : c;
+		}
+
+		private long absCeiling(final K key, final boolean inclusive) {
+			if (tooLow(key)) return absLowest();
+			final long c = ceiling(key, inclusive);
+			return c == NONE || tooHigh(keyAt(c)) ? NONE : c;
+		}
+
+		private long absFloor(final K key, final boolean inclusive) {
+			if (tooHigh(key)) return absHighest();
+			final long c = floor(key, inclusive);
+			return c == NONE || tooLow(keyAt(c)) ? NONE : c;
+		}
+
+		private long lowest() {
+			return descending ? absHighest() : absLowest();
+		}
+
+		private long highest() {
+			return descending ? absLowest() : absHighest();
+		}
+
+		/**
+		 * @return least key of this view's order <code>&gt;= key</code> if <code>inclusive</code>, <code>&gt; key</code> otherwise
+		 */
+		private long relativeCeiling(final K key, final boolean inclusive) {
+			return descending ? absFloor(key, inclusive) : absCeiling(key, inclusive);
+		}
+
+		/**
+		 * @return greatest key of this view's order <code>&lt;= key</code> if <code>inclusive</code>, <code>&lt; key</code> otherwise
+		 */
+		private long relativeFloor(final K key, final boolean inclusive) {
+			return descending ? absCeiling(key, inclusive) : absFloor(key, inclusive);
+		}
+
+		private Entry<K, V> exportEntry(final long cursor) {
+			return cursor == NONE ? null : new SimpleImmutableEntry<>(keyAt(cursor), valueAt(cursor));
+		}
+
+		private K exportKey(final long cursor) {
+			return cursor == NONE ? null : keyAt(cursor);
+		}
+
+		private K keyOrThrow(final long cursor) {
+			if (cursor == NONE) throw new NoSuchElementException();
+			return keyAt(cursor);
+		}
+
+		private Entry<K, V> poll(final long cursor) {
+			final Entry<K, V> e = exportEntry(cursor);
+			if (e != null) {
+				BigDataTreeMap.this.remove(e.getKey());
+			}
+			return e;
+		}
+
+		@Override
+		public int size() {
+			if (fromStart && toEnd) return size;
+			int count = 0;
+			for (final Iterator<K> it = new KeyIterator(); it.hasNext(); it.next()) {
+				count++;
+			}
+			return count;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return fromStart && toEnd ? size == 0 : absLowest() == NONE;
+		}
+
+		@Override
+		public boolean containsKey(final Object key) {
+			return inRange(key) && BigDataTreeMap.this.containsKey(key);
+		}
+
+		@Override
+		public V get(final Object key) {
+			return inRange(key) ? BigDataTreeMap.this.get(key) : null;
+		}
+
+		@Override
+		public V put(final K key, final V value) {
+			if (!inRange(key)) throw new IllegalArgumentException("key out of range");
+			return BigDataTreeMap.this.put(key, value);
+		}
+
+		@Override
+		public V remove(final Object key) {
+			return inRange(key) ? BigDataTreeMap.this.remove(key) : null;
+		}
+
+		@Override
+		public void clear() {
+			if (fromStart && toEnd) {
+				BigDataTreeMap.this.clear();
+			} else {
+				super.clear();
+			}
+		}
+
+		@Override
+		public Comparator<? super K> comparator() {
+			return descending ? Collections.reverseOrder(comparator) : comparator;
+		}
+
+		@Override
+		public K firstKey() {
+			return keyOrThrow(lowest());
+		}
+
+		@Override
+		public K lastKey() {
+			return keyOrThrow(highest());
+		}
+
+		@Override
+		public Entry<K, V> lowerEntry(final K key) {
+			return exportEntry(relativeFloor(key, false));
+		}
+
+		@Override
+		public K lowerKey(final K key) {
+			return exportKey(relativeFloor(key, false));
+		}
+
+		@Override
+		public Entry<K, V> floorEntry(final K key) {
+			return exportEntry(relativeFloor(key, true));
+		}
+
+		@Override
+		public K floorKey(final K key) {
+			return exportKey(relativeFloor(key, true));
+		}
+
+		@Override
+		public Entry<K, V> ceilingEntry(final K key) {
+			return exportEntry(relativeCeiling(key, true));
+		}
+
+		@Override
+		public K ceilingKey(final K key) {
+			return exportKey(relativeCeiling(key, true));
+		}
+
+		@Override
+		public Entry<K, V> higherEntry(final K key) {
+			return exportEntry(relativeCeiling(key, false));
+		}
+
+		@Override
+		public K higherKey(final K key) {
+			return exportKey(relativeCeiling(key, false));
+		}
+
+		@Override
+		public Entry<K, V> firstEntry() {
+			return exportEntry(lowest());
+		}
+
+		@Override
+		public Entry<K, V> lastEntry() {
+			return exportEntry(highest());
+		}
+
+		@Override
+		public Entry<K, V> pollFirstEntry() {
+			return poll(lowest());
+		}
+
+		@Override
+		public Entry<K, V> pollLastEntry() {
+			return poll(highest());
+		}
+
+		@Override
+		public View descendingMap() {
+			return new View(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending);
+		}
+
+		@Override
+		public Set<K> keySet() {
+			return navigableKeySet();
+		}
+
+		@Override
+		public NavigableSet<K> navigableKeySet() {
+			return new KeySet(this);
+		}
+
+		@Override
+		public NavigableSet<K> descendingKeySet() {
+			return new KeySet(descendingMap());
+		}
+
+		@Override
+		public View subMap(final K fromKey, final boolean fromInclusive, final K toKey, final boolean toInclusive) {
+			if (!inRange(fromKey, fromInclusive)) throw new IllegalArgumentException("fromKey out of range");
+			if (!inRange(toKey, toInclusive)) throw new IllegalArgumentException("toKey out of range");
+			if (descending) return new View(false, toKey, toInclusive, false, fromKey, fromInclusive, true);
+			return new View(false, fromKey, fromInclusive, false, toKey, toInclusive, false);
+		}
+
+		@Override
+		public View headMap(final K toKey, final boolean inclusive) {
+			if (!inRange(toKey, inclusive)) throw new IllegalArgumentException("toKey out of range");
+			if (descending) return new View(false, toKey, inclusive, toEnd, hi, hiInclusive, true);
+			return new View(fromStart, lo, loInclusive, false, toKey, inclusive, false);
+		}
+
+		@Override
+		public View tailMap(final K fromKey, final boolean inclusive) {
+			if (!inRange(fromKey, inclusive)) throw new IllegalArgumentException("fromKey out of range");
+			if (descending) return new View(fromStart, lo, loInclusive, false, fromKey, inclusive, true);
+			return new View(false, fromKey, inclusive, toEnd, hi, hiInclusive, false);
+		}
+
+		@Override
+		public SortedMap<K, V> subMap(final K fromKey, final K toKey) {
+			return subMap(fromKey, true, toKey, false);
+		}
+
+		@Override
+		public SortedMap<K, V> headMap(final K toKey) {
+			return headMap(toKey, false);
+		}
+
+		@Override
+		public SortedMap<K, V> tailMap(final K fromKey) {
+			return tailMap(fromKey, true);
+		}
+
+		@Override
+		public Set<Entry<K, V>> entrySet() {
+			return new EntrySet();
+		}
+
+		private final class EntrySet extends AbstractSet<Entry<K, V>> {
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return View.this.size();
+			}
+
+			@Override
+			public boolean isEmpty() {
+				return View.this.isEmpty();
+			}
+
+			@Override
+			public boolean contains(final Object o) {
+				if (!(o instanceof Entry)) return false;
+				final Entry<?, ?> e = (Entry<?, ?>) o;
+				if (e.getKey() == null || !inRange(e.getKey())) return false;
+				final long cursor = find(e.getKey());
+				return cursor != NONE && Objects.equals(valueAt(cursor), e.getValue());
+			}
+
+			@Override
+			public boolean remove(final Object o) {
+				if (!contains(o)) return false;
+				BigDataTreeMap.this.remove(((Entry<?, ?>) o).getKey());
+				return true;
+			}
+
+			@Override
+			public void clear() {
+				View.this.clear();
+			}
+		}
+
+		/**
+		 * Walks along the leaf pages in the order of the view. The key of the next entry is kept, so the cursor can be found again after the structure of
+		 * the tree has changed by {@link #remove()}.
+		 */
+		private abstract class Itr<E> implements Iterator<E> {
+			private long	next;
+			private K		nextKey;
+			/** key of the entry returned last */
+			protected K		lastReturned;
+			private int		expectedModCount	= modCount;
+
+			Itr() {
+				advanceTo(lowest());
+			}
+
+			private void advanceTo(final long cursor) {
+				next = cursor;
+				nextKey = cursor == NONE ? null : keyAt(cursor);
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != NONE;
+			}
+
+			/**
+			 * @return cursor of the next entry, whose key becomes {@link #lastReturned}
+			 */
+			final long nextCursor() {
+				checkForComodification();
+				if (next == NONE) throw new NoSuchElementException();
+				final long cursor = next;
+				lastReturned = nextKey;
+				advanceTo(descending ? predecessor(cursor) : successor(cursor));
+				if (next != NONE && (descending ? tooLow(nextKey) : tooHigh(nextKey))) {
+					advanceTo(NONE);
+				}
+				return cursor;
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned == null) throw new IllegalStateException();
+				checkForComodification();
+				BigDataTreeMap.this.remove(lastReturned);
+				if (next != NONE) {
+					next = find(nextKey);
+				}
+				lastReturned = null;
+				expectedModCount = modCount;
+			}
+
+			final void checkForComodification() {
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			}
+		}
+
+		private final class EntryIterator extends Itr<Entry<K, V>> {
+			@Override
+			public Entry<K, V> next() {
+				final long cursor = nextCursor();
+				return new IteratorEntry(lastReturned, valueAt(cursor));
+			}
+		}
+
+		private final class KeyIterator extends Itr<K> {
+			@Override
+			public K next() {
+				nextCursor();
+				return lastReturned;
+			}
+		}
+	}
+
+	/**
+	 * Navigable set of the keys of a view, which it is backed by.
+	 */
+	private final class KeySet extends AbstractSet<K> implements NavigableSet<K> {
+		private final View view;
+
+		KeySet(final View view) {
+			this.view = view;
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			return view.new KeyIterator();
+		}
+
+		@Override
+		public Iterator<K> descendingIterator() {
+			return view.descendingMap().new KeyIterator();
+		}
+
+		@Override
+		public int size() {
+			return view.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return view.isEmpty();
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			return view.containsKey(o);
+		}
+
+		@Override
+		public boolean remove(final Object o) {
+			if (!view.containsKey(o)) return false;
+			view.remove(o);
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			view.clear();
+		}
+
+		@Override
+		public Comparator<? super K> comparator() {
+			return view.comparator();
+		}
+
+		@Override
+		public K first() {
+			return view.firstKey();
+		}
+
+		@Override
+		public K last() {
+			return view.lastKey();
+		}
+
+		@Override
+		public K lower(final K e) {
+			return view.lowerKey(e);
+		}
+
+		@Override
+		public K floor(final K e) {
+			return view.floorKey(e);
+		}
+
+		@Override
+		public K ceiling(final K e) {
+			return view.ceilingKey(e);
+		}
+
+		@Override
+		public K higher(final K e) {
+			return view.higherKey(e);
+		}
+
+		@Override
+		public K pollFirst() {
+			final Entry<K, V> e = view.pollFirstEntry();
+			return e == null ? null : e.getKey();
+		}
+
+		@Override
+		public K pollLast() {
+			final Entry<K, V> e = view.pollLastEntry();
+			return e == null ? null : e.getKey();
+		}
+
+		@Override
+		public NavigableSet<K> descendingSet() {
+			return new KeySet(view.descendingMap());
+		}
+
+		@Override
+		public NavigableSet<K> subSet(final K fromElement, final boolean fromInclusive, final K toElement, final boolean toInclusive) {
+			return new KeySet(view.subMap(fromElement, fromInclusive, toElement, toInclusive));
+		}
+
+		@Override
+		public NavigableSet<K> headSet(final K toElement, final boolean inclusive) {
+			return new KeySet(view.headMap(toElement, inclusive));
+		}
+
+		@Override
+		public NavigableSet<K> tailSet(final K fromElement, final boolean inclusive) {
+			return new KeySet(view.tailMap(fromElement, inclusive));
+		}
+
+		@Override
+		public SortedSet<K> subSet(final K fromElement, final K toElement) {
+			return subSet(fromElement, true, toElement, false);
+		}
+
+		@Override
+		public SortedSet<K> headSet(final K toElement) {
+			return headSet(toElement, false);
+		}
+
+		@Override
+		public SortedSet<K> tailSet(final K fromElement) {
+			return tailSet(fromElement, true);
+		}
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		pages.destroy();
+		values.destroy();
+		if (keys != null) {
+			keys.destroy();
+		}
+		super.finalize();
+	}
+}
@@ -0,0 +1,238 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.function.LongPredicate;
+
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.metadata.FieldType;
+
+/**
+ * Filter on the primitive fields of serialized elements, built from field names and constants, e.g.
+ * <code>field("price").gt(100.0).and(field("active").isTrue())</code>. A condition is bound to the layout of a serializer by
+ * {@link OffHeapSerializer#scan(Condition)} and evaluated on the serialized nodes, without deserializing them.<br />
+ * Comparisons follow the Java operators: integral fields, characters and booleans (as <code>0</code> and <code>1</code>) are compared as <code>long</code>,
+ * floating-point fields or constants as <code>double</code>, so <code>NaN</code> matches nothing but <code>ne</code>.
+ */
+public abstract class Condition implements Serializable {
+	private static final long serialVersionUID = 7305185512473928317L;
+
+	/**
+	 * @param fieldName name of a primitive field of the elements
+	 * @return reference to the field, to be compared with a constant
+	 */
+	public static FieldRef field(final String fieldName) {
+		return new FieldRef(fieldName);
+	}
+
+	public Condition and(final Condition other) {
+		final Condition self = this;
+		return new Condition() {
+			private static final long serialVersionUID = -1265104960718254498L;
+
+			@Override
+			LongPredicate bind(final OffHeapSerializer<?> serializer) {
+				return self.bind(serializer).and(other.bind(serializer));
+			}
+		};
+	}
+
+	public Condition or(final Condition other) {
+		final Condition self = this;
+		return new Condition() {
+			private static final long serialVersionUID = 3417632839302316436L;
+
+			@Override
+			LongPredicate bind(final OffHeapSerializer<?> serializer) {
+				return self.bind(serializer).or(other.bind(serializer));
+			}
+		};
+	}
+
+	public Condition negate() {
+		final Condition self = this;
+		return new Condition() {
+			private static final long serialVersionUID = -5427930434263417520L;
+
+			@Override
+			LongPredicate bind(final OffHeapSerializer<?> serializer) {
+				return self.bind(serializer).negate();
+			}
+		};
+	}
+
+	/**
+	 * Resolves the field names against the layout of <code>serializer</code>.
+	 *
+	 * @param serializer
+	 * @return predicate on the slots of non-<code>NULL</code> nodes
+	 * @throws IllegalArgumentException if a field does not exist or is not primitive
+	 */
+	abstract LongPredicate bind(OffHeapSerializer<?> serializer);
+
+	private enum Operator {
+		EQ {
+			@Override
+			boolean test(final long a, final long b) {
+				return a == b;
+			}
+
+			@Override
+			boolean test(final double a, final double b) {
+				return a == b;
+			}
+		},
+		NE {
+			@Override
+			boolean test(final long a, final long b) {
+				return a != b;
+			}
+
+			@Override
+			boolean test(final double a, final double b) {
+				return a != b;
+			}
+		},
+		LT {
+			@Override
+			boolean test(final long a, final long b) {
+				return a < b;
+			}
+
+			@Override
+			boolean test(final double a, final double b) {
+				return a < b;
+			}
+		},
+		LE {
+			@Override
+			boolean test(final long a, final long b) {
+				return a <= b;
+			}
+
+			@Override
+			boolean test(final double a, final double b) {
+				return a <= b;
+			}
+		},
+		GT {
+			@Override
+			boolean test(final long a, final long b) {
+				return a > b;
+			}
+
+			@Override
+			boolean test(final double a, final double b) {
+				return a > b;
+			}
+		},
+		GE {
+			@Override
+			boolean test(final long a, final long b) {
+				return a >= b;
+			}
+
+			@Override
+			boolean test(final double a, final double b) {
+				return a >= b;
+			}
+		};
+
+		abstract boolean test(long a, long b);
+
+		abstract boolean test(double a, double b);
+	}
+
+	/**
+	 * Reference to a primitive field, creating the comparisons with constants.
+	 */
+	public static final class FieldRef implements Serializable {
+		private static final long serialVersionUID = -8619012461183650279L;
+
+		private final String fieldName;
+
+		private FieldRef(final String fieldName) {
+			this.fieldName = fieldName;
+		}
+
+		public Condition eq(final Object value) {
+			return new Comparison(fieldName, Operator.EQ, value);
+		}
+
+		public Condition ne(final Object value) {
+			return new Comparison(fieldName, Operator.NE, value);
+		}
+
+		public Condition lt(final Object value) {
+			return new Comparison(fieldName, Operator.LT, value);
+		}
+
+		public Condition le(final Object value) {
+			return new Comparison(fieldName, Operator.LE, value);
+		}
+
+		public Condition gt(final Object value) {
+			return new Comparison(fieldName, Operator.GT, value);
+		}
+
+		public Condition ge(final Object value) {
+			return new Comparison(fieldName, Operator.GE, value);
+		}
+
+		/**
+		 * @param from
+		 * @param to
+		 * @return condition matching <code>from &lt;= field &lt;= to</code>
+		 */
+		public Condition between(final Object from, final Object to) {
+			return ge(from).and(le(to));
+		}
+
+		public Condition isTrue() {
+			return eq(true);
+		}
+
+		public Condition isFalse() {
+			return eq(false);
+		}
+	}
+
+	private static final class Comparison extends Condition {
+		private static final long serialVersionUID = 2986426045120573290L;
+
+		private final String	fieldName;
+		private final Operator	op;
+		/** a {@link Number}, {@link Character} or {@link Boolean} */
+		private final Object	value;
+
+		Comparison(final String fieldName, final Operator op, final Object value) {
+			if (!(value instanceof Number || value instanceof Character || value instanceof Boolean))
+				throw new IllegalArgumentException("Not a primitive constant: " + value);
+			this.fieldName = fieldName;
+			this.op = op;
+			this.value = value;
+		}
+
+		@Override
+		LongPredicate bind(final OffHeapSerializer<?> serializer) {
+			final FieldMetadata field = serializer.getFieldMetadata(fieldName);
+			if (!field.getType().isPrimitive()) throw new IllegalArgumentException("Only primitive fields can be compared: " + fieldName);
+			final boolean floating = field.getType() == FieldType.FLOAT || field.getType() == FieldType.DOUBLE;
+			if (floating || value instanceof Float || value instanceof Double) {
+				final double c = toDouble(value);
+				return idx -> op.test(serializer.readDouble(idx, field), c);
+			}
+			final long c = toLong(value);
+			return idx -> op.test(serializer.readField(idx, field), c);
+		}
+
+		private static double toDouble(final Object value) {
+			return value instanceof Number ? ((Number) value).doubleValue() : toLong(value);
+		}
+
+		private static long toLong(final Object value) {
+			if (value instanceof Boolean) return ((Boolean) value) ? 1 : 0;
+			if (value instanceof Character) return (Character) value;
+			return ((Number) value).longValue();
+		}
+	}
+}
@@ -0,0 +1,349 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.tub.cit.slist.bdos.conf.OHSConfig;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import sun.misc.Unsafe;
+
+/**
+ * External merge sort by a primitive key field, for more elements than fit into the memory of a serializer. The elements are serialized into a
+ * {@link BigDataLinkedList} of the given configuration, and whenever it is full, the run is sorted in place by {@link BigDataLinkedList#sort(String)} and
+ * spilled to a temporary file. The runs are finally merged by comparing the keys of the serialized records, so no element is deserialized after it has
+ * been added.<br />
+ * A run is stored as a sequence of records, each a status byte ({@link OffHeapSerializer#BITMASK_NULL} for <code>NULL</code> elements) followed by the
+ * image of the element as created by {@link OffHeapSerializer#toImage(Serializable)}. Runs are written and read in pages of whole records through a
+ * {@link FileChannel}. Since the images are copied raw, the elements must not reference dynamic memory.<br />
+ * The sort is stable, <code>NULL</code> elements come first and floating-point keys are ordered like {@link Double#compare(double, double)}.
+ *
+ * @param <T>
+ */
+@SuppressWarnings("restriction")
+public class ExternalSort<T extends Serializable> implements Closeable {
+	/** minimum size of a page in bytes */
+	private static final int	PAGE_SIZE	= 1 << 16;
+	private static final String	PREFIX		= "bdos-run";
+	private static final String	SUFFIX		= ".tmp";
+
+	/** records to be written, a page at a time */
+	@FunctionalInterface
+	private interface PageSink {
+		/**
+		 * @param page
+		 * @param records number of records at the beginning of the page
+		 * @throws IOException
+		 */
+		void accept(byte[] page, int records) throws IOException;
+	}
+
+	private final BigDataLinkedList<T>	run;
+	private final OffHeapSerializer<T>	serializer;
+	private final String				keyFieldName;
+	private final FieldMetadata			keyField;
+	/** directory of the runs, <code>NULL</code> for the default temporary-file directory */
+	private final Path					directory;
+	/** status byte and element */
+	private final int					recordSize;
+	private final int					pageRecords;
+	private final byte[]				page;
+	/** files of the spilled runs */
+	private final List<Path>			runs	= new ArrayList<>();
+	private long						size	= 0;
+
+	/**
+	 * Creates a sort spilling to the default temporary-file directory.
+	 *
+	 * @param baseClass
+	 * @param config of the memory holding a run
+	 * @param keyField
+	 * @see #ExternalSort(Class, OHSConfig, String, Path)
+	 */
+	public ExternalSort(final Class<T> baseClass, final OHSConfig config, final String keyField) {
+		this(baseClass, config, keyField, null);
+	}
+
+	/**
+	 * Creates a sort spilling to <code>directory</code>.
+	 *
+	 * @param baseClass
+	 * @param config of the memory holding a run, which determines the number of elements per run
+	 * @param keyField name of a primitive field of the base class
+	 * @param directory of the temporary files, <code>NULL</code> for the default temporary-file directory
+	 * @throws IllegalArgumentException if the key field is not primitive or the elements reference dynamic memory
+	 */
+	public ExternalSort(final Class<T> baseClass, final OHSConfig config, final String keyField, final Path directory) {
+		this.run = new BigDataLinkedList<>(baseClass, config);
+		this.serializer = run.getSerializer();
+		this.keyFieldName = keyField;
+		this.keyField = serializer.getFieldMetadata(keyField);
+		this.directory = directory;
+		if (serializer.isDynamic() || !this.keyField.getType().isPrimitive()) {
+			serializer.destroy();
+			throw new IllegalArgumentException(serializer.isDynamic() ? "Elements of " + baseClass.getName() + " reference dynamic memory."
+					: "Only primitive fields can be sorted by externally: " + keyField);
+		}
+		this.recordSize = OffHeapSerializer.METADATA_STATUS_SIZE + (int) serializer.getElementSize();
+		this.pageRecords = Math.max(1, PAGE_SIZE / recordSize);
+		this.page = new byte[pageRecords * recordSize];
+	}
+
+	/**
+	 * Adds an element, spilling the current run if it is full.
+	 *
+	 * @param element
+	 * @throws IOException if the run cannot be spilled
+	 */
+	public void add(final T element) throws IOException {
+		if (run.size() == serializer.getMaxElementCount()) {
+			spill();
+		}
+		run.add(element);
+		size++;
+	}
+
+	/**
+	 * @return number of elements added
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @return number of runs spilled to disk so far
+	 */
+	public int getSpilledRuns() {
+		return runs.size();
+	}
+
+	/**
+	 * Writes the elements in sorted order into the nodes <code>[to, to + size())</code> of <code>dest</code>, copying their images.
+	 *
+	 * @param dest serializer of the same base class
+	 * @param to first node
+	 * @throws IOException if a run cannot be read
+	 * @throws IndexOutOfBoundsException if <code>dest</code> cannot hold the elements
+	 */
+	public void writeTo(final OffHeapSerializer<T> dest, final long to) throws IOException {
+		if (dest.getElementSize() != serializer.getElementSize()) throw new IllegalArgumentException("Incompatible element layout of the target serializer.");
+		if (to < 0 || to + size > dest.getMaxElementCount())
+			throw new IndexOutOfBoundsException("Cannot write " + size + " elements from " + to + " into " + dest.getMaxElementCount() + " nodes.");
+		final long[] idx = { to };
+		merge((records, count) -> {
+			for (int i = 0; i < count; i++, idx[0]++) {
+				if ((records[i * recordSize] & OffHeapSerializer.BITMASK_NULL) != 0) {
+					dest.setRandomAccess(idx[0], null);
+				} else {
+					dest.setImage(idx[0], records, Unsafe.ARRAY_BYTE_BASE_OFFSET + i * recordSize + OffHeapSerializer.METADATA_STATUS_SIZE);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Writes the elements in sorted order to a stream, in the format of the runs.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeTo(final OutputStream out) throws IOException {
+		merge((records, count) -> out.write(records, 0, count * recordSize));
+	}
+
+	/**
+	 * Deletes the spilled runs and frees the memory.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			for (final Path file : runs) {
+				Files.deleteIfExists(file);
+			}
+		} finally {
+			runs.clear();
+			serializer.destroy();
+		}
+	}
+
+	/**
+	 * Sorts the current run and writes it to a new temporary file.
+	 */
+	private void spill() throws IOException {
+		final Path file = directory == null ? Files.createTempFile(PREFIX, SUFFIX) : Files.createTempFile(directory, PREFIX, SUFFIX);
+		runs.add(file);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeRun((records, count) -> {
+				final ByteBuffer buffer = ByteBuffer.wrap(records, 0, count * recordSize);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			});
+		}
+		run.clear();
+	}
+
+	/**
+	 * Sorts the current run in place and passes its records to <code>sink</code>.
+	 */
+	private void writeRun(final PageSink sink) throws IOException {
+		run.sort(keyFieldName);
+		int records = 0;
+		for (int node = run.firstNode(); node != -1; node = run.nextNode(node)) {
+			final int off = records * recordSize;
+			if (serializer.isNull(node)) {
+				page[off] = OffHeapSerializer.BITMASK_NULL;
+			} else {
+				page[off] = 0;
+				serializer.copyImage(node, page, Unsafe.ARRAY_BYTE_BASE_OFFSET + off + OffHeapSerializer.METADATA_STATUS_SIZE);
+			}
+			if (++records == pageRecords) {
+				sink.accept(page, records);
+				records = 0;
+			}
+		}
+		if (records > 0) {
+			sink.accept(page, records);
+		}
+	}
+
+	/**
+	 * Merges all runs into <code>sink</code>. If nothing has been spilled, the current run is written directly, otherwise it is spilled first and the runs
+	 * are merged by a heap of their current records, ordered by key and run.
+	 */
+	private void merge(final PageSink sink) throws IOException {
+		if (runs.isEmpty()) {
+			writeRun(sink);
+			return;
+		}
+		if (run.size() > 0) {
+			spill();
+		}
+		final List<RunReader> readers = new ArrayList<>(runs.size());
+		try {
+			for (final Path file : runs) {
+				readers.add(new RunReader(file));
+			}
+			// min-heap of the runs not exhausted
+			final int[] heap = new int[readers.size()];
+			int heapSize = 0;
+			for (int i = 0; i < readers.size(); i++) {
+				if (readers.get(i).next()) {
+					heap[heapSize++] = i;
+				}
+			}
+			for (int i = heapSize / 2 - 1; i >= 0; i--) {
+				siftDown(readers, heap, heapSize, i);
+			}
+			int records = 0;
+			while (heapSize > 0) {
+				final RunReader min = readers.get(heap[0]);
+				System.arraycopy(min.records, min.position, page, records * recordSize, recordSize);
+				if (++records == pageRecords) {
+					sink.accept(page, records);
+					records = 0;
+				}
+				if (!min.next()) {
+					heap[0] = heap[--heapSize];
+				}
+				siftDown(readers, heap, heapSize, 0);
+			}
+			if (records > 0) {
+				sink.accept(page, records);
+			}
+		} finally {
+			for (final RunReader reader : readers) {
+				reader.close();
+			}
+		}
+	}
+
+	private void siftDown(final List<RunReader> readers, final int[] heap, final int heapSize, final int from) {
+		int i = from;
+		while (true) {
+			int min = i;
+			final int left = 2 * i + 1;
+			final int right = left + 1;
+			if (left < heapSize && less(readers, heap[left], heap[min])) {
+				min = left;
+			}
+			if (right < heapSize && less(readers, heap[right], heap[min])) {
+				min = right;
+			}
+			if (min == i) return;
+			final int tmp = heap[i];
+			heap[i] = heap[min];
+			heap[min] = tmp;
+			i = min;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> iff the current record of run <code>a</code> precedes the one of run <code>b</code>, ties are broken by the order of the runs
+	 *         to keep the sort stable
+	 */
+	private boolean less(final List<RunReader> readers, final int a, final int b) {
+		final RunReader x = readers.get(a);
+		final RunReader y = readers.get(b);
+		if (x.isNull != y.isNull) return x.isNull;
+		final int cmp = x.isNull ? 0 : Long.compareUnsigned(x.key, y.key);
+		return cmp < 0 || cmp == 0 && a < b;
+	}
+
+	/**
+	 * Reads a spilled run page by page.
+	 */
+	private final class RunReader implements Closeable {
+		private final FileChannel	channel;
+		private final byte[]		records		= new byte[page.length];
+		private final ByteBuffer	buffer		= ByteBuffer.wrap(records);
+		/** offset of the current record */
+		private int					position	= -recordSize;
+		/** number of bytes read into the page */
+		private int					limit		= 0;
+		private boolean				isNull;
+		/** sort key of the current record */
+		private long				key;
+
+		RunReader(final Path file) throws IOException {
+			this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		}
+
+		/**
+		 * Advances to the next record.
+		 *
+		 * @return <code>false</code> if the run is exhausted
+		 */
+		boolean next() throws IOException {
+			position += recordSize;
+			if (position >= limit) {
+				buffer.clear();
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+					// fill the page
+				}
+				limit = buffer.position();
+				position = 0;
+				if (limit < recordSize) return false;
+			}
+			isNull = (records[position] & OffHeapSerializer.BITMASK_NULL) != 0;
+			if (!isNull) {
+				key = OffHeapSerializer.sortKey(keyField, OffHeapSerializer.readField(keyField, records,
+						Unsafe.ARRAY_BYTE_BASE_OFFSET + position + OffHeapSerializer.METADATA_STATUS_SIZE + keyField.getSerializedOffset()));
+			}
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
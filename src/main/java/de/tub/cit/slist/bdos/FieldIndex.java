@@ -0,0 +1,159 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+import sun.misc.Unsafe;
+
+/**
+ * Secondary index over a primitive field of the elements of an {@link OffHeapSerializer}. The serializer updates its indexes on every write, an index reads
+ * the field values directly from the serialized nodes.<br />
+ * The links of an index are <code>long</code> entries kept in memory of the serializer's {@link MemoryLocation}, which is zeroed initially.
+ *
+ * @param <T>
+ */
+@SuppressWarnings("restriction")
+public abstract class FieldIndex<T extends Serializable> implements java.io.Serializable {
+	private static final long serialVersionUID = -3360935262003826567L;
+
+	protected static final int ENTRY_SIZE = UnsafeHelper.LONG_FIELD_SIZE;
+
+	protected final OffHeapSerializer<T>	serializer;
+	protected final FieldMetadata			field;
+
+	/** backing array or <code>NULL</code> for native memory */
+	private byte[]		backingArray;
+	/** start address of the native memory */
+	private long		address;
+	private final long	memorySize;
+	private boolean		destroyed	= false;
+
+	/**
+	 * @param serializer
+	 * @param field
+	 * @param entries number of <code>long</code> entries to allocate
+	 * @throws IllegalArgumentException if the field is not primitive
+	 */
+	protected FieldIndex(final OffHeapSerializer<T> serializer, final FieldMetadata field, final long entries) {
+		if (!field.getType().isPrimitive()) throw new IllegalArgumentException("Only primitive fields can be indexed: " + field.getFieldName());
+		this.serializer = serializer;
+		this.field = field;
+		this.memorySize = entries * ENTRY_SIZE;
+		if (serializer.getConfig().getLocation() == MemoryLocation.BYTE_ARRAY) {
+			if (memorySize > Integer.MAX_VALUE) throw new IllegalArgumentException(
+					"When using BYTE_ARRAY location, max. memory size is " + Integer.MAX_VALUE + ", tried to allocate " + memorySize);
+			backingArray = new byte[(int) memorySize];
+		} else {
+			address = getUnsafe().allocateMemory(memorySize);
+			getUnsafe().setMemory(address, memorySize, (byte) 0);
+		}
+	}
+
+	public String getFieldName() {
+		return field.getFieldName();
+	}
+
+	/**
+	 * @param idx
+	 * @return bits of the field of node <code>idx</code>
+	 * @see #toBits(Object)
+	 */
+	protected long read(final long idx) {
+		return serializer.readField(idx, field);
+	}
+
+	/**
+	 * Converts a value of the field to the bits it is stored with: integral values and characters are extended to <code>long</code>, floating-point values
+	 * are represented by their raw bits, booleans by <code>0</code> and <code>1</code>.
+	 *
+	 * @param value a {@link Number}, {@link Character} or {@link Boolean}, depending on the type of the field
+	 * @return the bits
+	 * @throws ClassCastException if <code>value</code> does not match the type of the field
+	 */
+	public long toBits(final Object value) {
+		switch (field.getType()) {
+		case BOOL:
+			return ((Boolean) value) ? 1 : 0;
+		case CHAR:
+			return (Character) value;
+		case BYTE:
+			return ((Number) value).byteValue();
+		case SHORT:
+			return ((Number) value).shortValue();
+		case INT:
+			return ((Number) value).intValue();
+		case LONG:
+			return ((Number) value).longValue();
+		case FLOAT:
+			return Float.floatToRawIntBits(((Number) value).floatValue());
+		case DOUBLE:
+			return Double.doubleToRawLongBits(((Number) value).doubleValue());
+		default:
+			throw new IllegalStateException("Not a primitive field: " + field.getFieldName());
+		}
+	}
+
+	private long offset(final long entry) {
+		return entry * ENTRY_SIZE + (backingArray == null ? address : Unsafe.ARRAY_BYTE_BASE_OFFSET);
+	}
+
+	protected long get(final long entry) {
+		return getUnsafe().getLong(backingArray, offset(entry));
+	}
+
+	protected void put(final long entry, final long value) {
+		getUnsafe().putLong(backingArray, offset(entry), value);
+	}
+
+	/**
+	 * Adds a node which is not <code>NULL</code> and not indexed yet.
+	 *
+	 * @param idx
+	 */
+	abstract void add(long idx);
+
+	/**
+	 * Removes a node before it is overwritten, does nothing if it is not indexed.
+	 *
+	 * @param idx
+	 */
+	abstract void remove(long idx);
+
+	/**
+	 * Removes all nodes.
+	 */
+	void clear() {
+		if (backingArray != null) {
+			Arrays.fill(backingArray, (byte) 0);
+		} else {
+			getUnsafe().setMemory(address, memorySize, (byte) 0);
+		}
+	}
+
+	/**
+	 * Creates an index of the same kind on the same field of another serializer, e.g. a larger copy.
+	 *
+	 * @param other
+	 */
+	abstract void createOn(OffHeapSerializer<T> other);
+
+	/**
+	 * frees the memory
+	 */
+	void destroy() {
+		if (destroyed) return;
+		destroyed = true;
+		if (backingArray != null) {
+			backingArray = null;
+		} else {
+			getUnsafe().freeMemory(address);
+		}
+	}
+
+	private static Unsafe getUnsafe() {
+		return UnsafeHelper.getUnsafe();
+	}
+}
@@ -0,0 +1,147 @@
+package de.tub.cit.slist.bdos;
+
+/**
+ * Count, sum, minimum, maximum, mean and variance of the values of a field, like {@link java.util.DoubleSummaryStatistics}. The mean and the variance are
+ * updated by Welford's method, which does not suffer from cancellation like the naive sum of squares; the sum is compensated by Kahan summation.
+ *
+ * @see OffHeapSerializer#aggregate(String, Condition)
+ */
+public class FieldStatistics implements java.io.Serializable {
+	private static final long serialVersionUID = 6402331547950219536L;
+
+	private long	count		= 0;
+	private double	sum			= 0;
+	/** low-order bits lost by {@link #sum} */
+	private double	compensation	= 0;
+	private double	min			= Double.POSITIVE_INFINITY;
+	private double	max			= Double.NEGATIVE_INFINITY;
+	private double	mean		= 0;
+	/** sum of squared differences from the current mean */
+	private double	m2			= 0;
+
+	public FieldStatistics() {
+		super();
+	}
+
+	/**
+	 * Restores statistics computed elsewhere, e.g. off-heap.
+	 */
+	FieldStatistics(final long count, final double sum, final double compensation, final double min, final double max, final double mean, final double m2) {
+		this.count = count;
+		this.sum = sum;
+		this.compensation = compensation;
+		this.min = min;
+		this.max = max;
+		this.mean = mean;
+		this.m2 = m2;
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value
+	 */
+	public void accept(final double value) {
+		count++;
+		addToSum(value);
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+		final double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+	}
+
+	/**
+	 * Merges the values recorded by <code>other</code> into this one, e.g. to aggregate partitions in parallel.
+	 *
+	 * @param other
+	 */
+	public void combine(final FieldStatistics other) {
+		if (other.count == 0) return;
+		if (count == 0) {
+			count = other.count;
+			sum = other.sum;
+			compensation = other.compensation;
+			min = other.min;
+			max = other.max;
+			mean = other.mean;
+			m2 = other.m2;
+			return;
+		}
+		final long total = count + other.count;
+		final double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		m2 += other.m2 + delta * delta * count / total * other.count;
+		count = total;
+		addToSum(other.sum);
+		addToSum(-other.compensation);
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	private void addToSum(final double value) {
+		final double y = value - compensation;
+		final double t = sum + y;
+		compensation = (t - sum) - y;
+		sum = t;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return sum of the values, <code>0</code> if there are none
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return minimum of the values, {@link Double#POSITIVE_INFINITY} if there are none
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return maximum of the values, {@link Double#NEGATIVE_INFINITY} if there are none
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * @return arithmetic mean of the values, <code>0</code> if there are none
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return population variance of the values, <code>0</code> if there are none
+	 */
+	public double getVariance() {
+		return count == 0 ? 0 : m2 / count;
+	}
+
+	/**
+	 * @return sample variance of the values, <code>0</code> if there are less than two
+	 */
+	public double getSampleVariance() {
+		return count < 2 ? 0 : m2 / (count - 1);
+	}
+
+	/**
+	 * @return population standard deviation of the values
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	@Override
+	public String toString() {
+		return "FieldStatistics [count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", mean=" + mean + ", variance=" + getVariance() + "]";
+	}
+
+}
@@ -0,0 +1,275 @@
+package de.tub.cit.slist.bdos;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+import sun.misc.Unsafe;
+
+/**
+ * Hash aggregation of primitive value fields grouped by a primitive key field. The groups form an open-addressing hash table with linear probing in memory
+ * of the serializer's {@link MemoryLocation}, which doubles when it is half full. Every entry holds the bits of the key and the running statistics of the
+ * value fields, so the records are neither deserialized nor is any heap object created per group before the result is materialized.<br />
+ * Floating-point keys are normalized before hashing, so that they are grouped by numeric equality: <code>-0.0</code> falls into the group of
+ * <code>0.0</code>, unlike for {@link Double#equals(Object)}, and all <code>NaN</code>s form a single group keyed by the canonical <code>NaN</code>.
+ *
+ * @param <T>
+ * @see OffHeapSerializer#groupBy(String, Condition, String...)
+ */
+@SuppressWarnings("restriction")
+final class GroupBy<T extends java.io.Serializable> {
+	private static final int	MIN_CAPACITY	= 1 << 10;
+	private static final int	ENTRY_KEY		= 0;
+	/** number of records of the group, <code>0</code> for free entries */
+	private static final int	ENTRY_COUNT		= 8;
+	private static final int	ENTRY_VALUES	= 16;
+	/** running statistics per value field: sum, Kahan compensation, min, max, mean, squared differences */
+	private static final int	SUM				= 0;
+	private static final int	COMPENSATION	= 8;
+	private static final int	MIN				= 16;
+	private static final int	MAX				= 24;
+	private static final int	MEAN			= 32;
+	private static final int	M2				= 40;
+	private static final int	VALUE_SIZE		= 48;
+
+	private final OffHeapSerializer<T>	serializer;
+	private final FieldMetadata			keyField;
+	private final FieldMetadata[]		valueFields;
+	private final boolean				byteArray;
+	private final long					entrySize;
+
+	/** backing array or <code>NULL</code> for native memory */
+	private byte[]	backingArray;
+	/** start address of the native memory */
+	private long	address;
+	/** number of entries, a power of two */
+	private long	capacity;
+	private long	groups	= 0;
+
+	GroupBy(final OffHeapSerializer<T> serializer, final String keyField, final String... valueFields) {
+		this.serializer = serializer;
+		this.keyField = primitiveField(keyField);
+		this.valueFields = new FieldMetadata[valueFields.length];
+		for (int i = 0; i < valueFields.length; i++) {
+			this.valueFields[i] = primitiveField(valueFields[i]);
+		}
+		this.byteArray = serializer.getConfig().getLocation() == MemoryLocation.BYTE_ARRAY;
+		this.entrySize = ENTRY_VALUES + (long) VALUE_SIZE * valueFields.length;
+		allocate(MIN_CAPACITY);
+	}
+
+	private FieldMetadata primitiveField(final String fieldName) {
+		final FieldMetadata field = serializer.getFieldMetadata(fieldName);
+		if (!field.getType().isPrimitive()) throw new IllegalArgumentException("Only primitive fields can be grouped and aggregated: " + fieldName);
+		return field;
+	}
+
+	private void allocate(final long newCapacity) {
+		final long memorySize = newCapacity * entrySize;
+		if (byteArray) {
+			if (memorySize > Integer.MAX_VALUE) throw new IllegalArgumentException(
+					"When using BYTE_ARRAY location, max. memory size is " + Integer.MAX_VALUE + ", tried to allocate " + memorySize);
+			backingArray = new byte[(int) memorySize];
+		} else {
+			address = getUnsafe().allocateMemory(memorySize);
+			getUnsafe().setMemory(address, memorySize, (byte) 0);
+		}
+		capacity = newCapacity;
+	}
+
+	private void free() {
+		if (byteArray) {
+			backingArray = null;
+		} else {
+			getUnsafe().freeMemory(address);
+		}
+	}
+
+	private long entry(final long i) {
+		return i * entrySize + (byteArray ? Unsafe.ARRAY_BYTE_BASE_OFFSET : address);
+	}
+
+	private long getLong(final long off) {
+		return getUnsafe().getLong(backingArray, off);
+	}
+
+	private double getDouble(final long off) {
+		return getUnsafe().getDouble(backingArray, off);
+	}
+
+	private void putDouble(final long off, final double value) {
+		getUnsafe().putDouble(backingArray, off, value);
+	}
+
+	private static long hash(final long bits) {
+		final long h = bits * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 32);
+	}
+
+	/**
+	 * @param idx
+	 * @return bits of the key field of node <code>idx</code>, with <code>-0.0</code> and <code>NaN</code>s normalized
+	 */
+	private long key(final long idx) {
+		final long bits = serializer.readField(idx, keyField);
+		switch (keyField.getType()) {
+		case FLOAT:
+			return normalize(Float.intBitsToFloat((int) bits));
+		case DOUBLE:
+			return normalize(Double.longBitsToDouble(bits));
+		default:
+			return bits;
+		}
+	}
+
+	private static long normalize(final float value) {
+		return value == 0 ? 0 : Float.floatToIntBits(value);
+	}
+
+	private static long normalize(final double value) {
+		return value == 0 ? 0 : Double.doubleToLongBits(value);
+	}
+
+	/**
+	 * @param bits key bits
+	 * @return offset of the entry of the group, which is created if it does not exist
+	 */
+	private long group(final long bits) {
+		long i = hash(bits) & (capacity - 1);
+		while (true) {
+			final long off = entry(i);
+			if (getLong(off + ENTRY_COUNT) == 0) {
+				if (2 * (groups + 1) > capacity) {
+					grow();
+					return group(bits);
+				}
+				getUnsafe().putLong(backingArray, off + ENTRY_KEY, bits);
+				for (int v = 0; v < valueFields.length; v++) {
+					putDouble(off + ENTRY_VALUES + v * VALUE_SIZE + MIN, Double.POSITIVE_INFINITY);
+					putDouble(off + ENTRY_VALUES + v * VALUE_SIZE + MAX, Double.NEGATIVE_INFINITY);
+				}
+				groups++;
+				return off;
+			}
+			if (getLong(off + ENTRY_KEY) == bits) return off;
+			i = (i + 1) & (capacity - 1);
+		}
+	}
+
+	private void grow() {
+		final byte[] oldArray = backingArray;
+		final long oldAddress = address;
+		final long oldCapacity = capacity;
+		final long oldBase = byteArray ? Unsafe.ARRAY_BYTE_BASE_OFFSET : oldAddress;
+		allocate(2 * oldCapacity);
+		for (long j = 0; j < oldCapacity; j++) {
+			final long src = j * entrySize + oldBase;
+			if (getUnsafe().getLong(oldArray, src + ENTRY_COUNT) == 0) {
+				continue;
+			}
+			long i = hash(getUnsafe().getLong(oldArray, src + ENTRY_KEY)) & (capacity - 1);
+			while (getLong(entry(i) + ENTRY_COUNT) != 0) {
+				i = (i + 1) & (capacity - 1);
+			}
+			getUnsafe().copyMemory(oldArray, src, backingArray, entry(i), entrySize);
+		}
+		if (!byteArray) {
+			getUnsafe().freeMemory(oldAddress);
+		}
+	}
+
+	/**
+	 * Adds node <code>idx</code> to its group.
+	 */
+	private void accept(final long idx) {
+		final long off = group(key(idx));
+		final long count = getLong(off + ENTRY_COUNT) + 1;
+		getUnsafe().putLong(backingArray, off + ENTRY_COUNT, count);
+		for (int v = 0; v < valueFields.length; v++) {
+			final long vOff = off + ENTRY_VALUES + v * VALUE_SIZE;
+			final double value = serializer.readDouble(idx, valueFields[v]);
+			// Kahan summation
+			final double sum = getDouble(vOff + SUM);
+			final double y = value - getDouble(vOff + COMPENSATION);
+			final double t = sum + y;
+			putDouble(vOff + COMPENSATION, (t - sum) - y);
+			putDouble(vOff + SUM, t);
+			putDouble(vOff + MIN, Math.min(getDouble(vOff + MIN), value));
+			putDouble(vOff + MAX, Math.max(getDouble(vOff + MAX), value));
+			// Welford's update
+			final double mean = getDouble(vOff + MEAN);
+			final double delta = value - mean;
+			final double newMean = mean + delta / count;
+			putDouble(vOff + MEAN, newMean);
+			putDouble(vOff + M2, getDouble(vOff + M2) + delta * (value - newMean));
+		}
+	}
+
+	/**
+	 * Aggregates the nodes not being <code>NULL</code> which match <code>predicate</code> and materializes the groups. The memory of the table is freed
+	 * afterwards.
+	 *
+	 * @param predicate filter, <code>NULL</code> for all nodes
+	 * @return statistics of the value fields, in the order of the fields, by key
+	 */
+	Map<Object, FieldStatistics[]> execute(final LongPredicate predicate) {
+		try {
+			for (long idx = 0; idx < serializer.getMaxElementCount(); idx++) {
+				if (serializer.isNull(idx) || predicate != null && !predicate.test(idx)) {
+					continue;
+				}
+				accept(idx);
+			}
+			final Map<Object, FieldStatistics[]> result = new HashMap<>((int) Math.min(Integer.MAX_VALUE, 2 * groups));
+			for (long i = 0; i < capacity; i++) {
+				final long off = entry(i);
+				final long count = getLong(off + ENTRY_COUNT);
+				if (count == 0) {
+					continue;
+				}
+				final FieldStatistics[] statistics = new FieldStatistics[valueFields.length];
+				for (int v = 0; v < valueFields.length; v++) {
+					final long vOff = off + ENTRY_VALUES + v * VALUE_SIZE;
+					statistics[v] = new FieldStatistics(count, getDouble(vOff + SUM), getDouble(vOff + COMPENSATION), getDouble(vOff + MIN),
+							getDouble(vOff + MAX), getDouble(vOff + MEAN), getDouble(vOff + M2));
+				}
+				result.put(toValue(getLong(off + ENTRY_KEY)), statistics);
+			}
+			return result;
+		} finally {
+			free();
+		}
+	}
+
+	/**
+	 * Inverse of {@link FieldIndex#toBits(Object)} for the key field.
+	 */
+	private Object toValue(final long bits) {
+		switch (keyField.getType()) {
+		case BOOL:
+			return bits != 0;
+		case CHAR:
+			return (char) bits;
+		case BYTE:
+			return (byte) bits;
+		case SHORT:
+			return (short) bits;
+		case INT:
+			return (int) bits;
+		case FLOAT:
+			return Float.intBitsToFloat((int) bits);
+		case DOUBLE:
+			return Double.longBitsToDouble(bits);
+		case LONG:
+		default:
+			return bits;
+		}
+	}
+
+	private static Unsafe getUnsafe() {
+		return UnsafeHelper.getUnsafe();
+	}
+}
@@ -0,0 +1,190 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.util.BigDataCollectionHelper;
+
+/**
+ * Hash index answering the slots whose field equals a value. Every bucket heads a doubly linked chain of the nodes whose field value maps to it. Neither
+ * keys nor hash codes are stored: the chain links are indexed by slot, and the field values are compared in place in the serialized nodes.<br />
+ * The bucket heads and links are kept in memory of the serializer's {@link MemoryLocation}, {@value #ENTRY_SIZE} bytes per bucket and twice per slot. Links
+ * are stored incremented by one (by two for the previous node), so zeroed memory denotes an empty index. Values are compared bitwise, i.e.
+ * <code>0.0</code> and <code>-0.0</code> differ while equal <code>NaN</code>s match.
+ *
+ * @param <T>
+ * @see OffHeapSerializer#createHashIndex(String)
+ */
+public class HashIndex<T extends Serializable> extends FieldIndex<T> {
+	private static final long serialVersionUID = 4129836006351735493L;
+
+	private static final int	MIN_BUCKETS	= 16;
+	private static final int	MAX_BUCKETS	= 1 << 30;
+	/** link to the previous node of a chain head */
+	private static final long	HEAD		= 1;
+
+	/** number of slots of the serializer */
+	private final long	capacity;
+	private final int	buckets;
+
+	/** number of indexed nodes */
+	private long size = 0;
+
+	HashIndex(final OffHeapSerializer<T> serializer, final FieldMetadata field) {
+		super(serializer, field, buckets(serializer.getMaxElementCount()) + 2 * serializer.getMaxElementCount());
+		this.capacity = serializer.getMaxElementCount();
+		this.buckets = buckets(capacity);
+	}
+
+	private static int buckets(final long capacity) {
+		return (int) Math.min(MAX_BUCKETS, Math.max(MIN_BUCKETS, capacity));
+	}
+
+	/** entry of the first node of a bucket, plus one */
+	private static long headEntry(final int bucket) {
+		return bucket;
+	}
+
+	/** entry of the next node of a slot, plus one */
+	private long nextEntry(final long idx) {
+		return buckets + idx;
+	}
+
+	/** entry of the previous node of a slot, plus two, {@value #HEAD} for chain heads */
+	private long prevEntry(final long idx) {
+		return buckets + capacity + idx;
+	}
+
+	private int bucket(final long bits) {
+		return BigDataCollectionHelper.bucket(Long.hashCode(bits), buckets);
+	}
+
+	@Override
+	void add(final long idx) {
+		final int bucket = bucket(read(idx));
+		final long head = get(headEntry(bucket));
+		put(nextEntry(idx), head);
+		put(prevEntry(idx), HEAD);
+		if (head != 0) {
+			put(prevEntry(head - 1), idx + 2);
+		}
+		put(headEntry(bucket), idx + 1);
+		size++;
+	}
+
+	@Override
+	void remove(final long idx) {
+		final long prev = get(prevEntry(idx));
+		if (prev == 0) return;
+		final long next = get(nextEntry(idx));
+		if (prev == HEAD) {
+			put(headEntry(bucket(read(idx))), next);
+		} else {
+			put(nextEntry(prev - 2), next);
+		}
+		if (next != 0) {
+			put(prevEntry(next - 1), prev);
+		}
+		put(prevEntry(idx), 0);
+		put(nextEntry(idx), 0);
+		size--;
+	}
+
+	@Override
+	void clear() {
+		super.clear();
+		size = 0;
+	}
+
+	@Override
+	void createOn(final OffHeapSerializer<T> other) {
+		other.createHashIndex(getFieldName());
+	}
+
+	/**
+	 * Returns the slots whose field equals <code>value</code>, in no particular order. The serializer must not be modified during the iteration.
+	 *
+	 * @param value
+	 * @return iterator over the slot indices
+	 * @see #toBits(Object)
+	 */
+	public PrimitiveIterator.OfLong lookup(final Object value) {
+		return new Lookup(toBits(value));
+	}
+
+	/**
+	 * @param bits
+	 * @return the first slot whose field has the bits, plus one, <code>0</code> if there is none
+	 * @see #nextMatch(long, long)
+	 */
+	long firstMatch(final long bits) {
+		return match(get(headEntry(bucket(bits))), bits);
+	}
+
+	/**
+	 * @param slot a slot returned by {@link #firstMatch(long)} or this method, minus one
+	 * @param bits
+	 * @return the next slot whose field has the bits, plus one, <code>0</code> if there is none
+	 */
+	long nextMatch(final long slot, final long bits) {
+		return match(get(nextEntry(slot)), bits);
+	}
+
+	/**
+	 * @param candidate slot plus one
+	 * @return the first matching slot of the chain starting at <code>candidate</code>, plus one
+	 */
+	private long match(final long candidate, final long bits) {
+		long c = candidate;
+		while (c != 0 && read(c - 1) != bits) {
+			c = get(nextEntry(c - 1));
+		}
+		return c;
+	}
+
+	/**
+	 * @param value
+	 * @return number of slots whose field equals <code>value</code>
+	 */
+	public long count(final Object value) {
+		long count = 0;
+		for (final PrimitiveIterator.OfLong it = lookup(value); it.hasNext(); it.nextLong()) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * @return number of indexed nodes, i.e. nodes not being <code>NULL</code>
+	 */
+	public long size() {
+		return size;
+	}
+
+	private class Lookup implements PrimitiveIterator.OfLong {
+		private final long	bits;
+		/** next matching slot, plus one */
+		private long		next;
+
+		Lookup(final long bits) {
+			this.bits = bits;
+			this.next = firstMatch(bits);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != 0;
+		}
+
+		@Override
+		public long nextLong() {
+			if (next == 0) throw new NoSuchElementException();
+			final long slot = next - 1;
+			next = nextMatch(slot, bits);
+			return slot;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.metadata.FieldType;
+
+/**
+ * Equi-join of two serializers on primitive key fields. The build side is hashed into a {@link HashIndex} on its key field, which is kept off-heap and
+ * compares the keys in place, unless the build side maintains such an index anyway. Every probe node is then looked up by the bits of its key field, so
+ * neither side is deserialized for finding the matches.<br />
+ * Keys of integral types and characters match by numeric value, floating-point keys must have the same type and match bitwise. Neither side must be
+ * modified while the join is used. A hash table created for the join is freed by {@link #close()}, best used in a <code>try</code>-with-resources
+ * statement.
+ *
+ * @param <B> elements of the build side
+ * @param <P> elements of the probe side
+ * @see OffHeapSerializer#join(String, OffHeapSerializer, String)
+ */
+public class HashJoin<B extends Serializable, P extends Serializable> implements AutoCloseable {
+	/**
+	 * Receives the matching pairs of slots.
+	 */
+	@FunctionalInterface
+	public interface SlotPairConsumer {
+		/**
+		 * @param buildSlot slot of the build side
+		 * @param probeSlot slot of the probe side
+		 */
+		void accept(long buildSlot, long probeSlot);
+	}
+
+	private final OffHeapSerializer<B>	build;
+	private final OffHeapSerializer<P>	probe;
+	private final FieldMetadata			probeField;
+	private final HashIndex<B>			index;
+	/** <code>true</code> if the index has been created for this join only */
+	private final boolean				temporary;
+
+	HashJoin(final OffHeapSerializer<B> build, final String buildKeyField, final OffHeapSerializer<P> probe, final String probeKeyField) {
+		this.build = build;
+		this.probe = probe;
+		final FieldMetadata buildField = build.getFieldMetadata(buildKeyField);
+		this.probeField = probe.getFieldMetadata(probeKeyField);
+		if (!buildField.getType().isPrimitive() || !probeField.getType().isPrimitive())
+			throw new IllegalArgumentException("Only primitive fields can be joined: " + buildKeyField + ", " + probeKeyField);
+		if (buildField.getType() != probeField.getType() && !(isIntegral(buildField.getType()) && isIntegral(probeField.getType())))
+			throw new IllegalArgumentException("Incompatible key types: " + buildField.getType() + ", " + probeField.getType());
+		final HashIndex<B> existing = build.getHashIndex(buildKeyField);
+		this.temporary = existing == null;
+		if (existing != null) {
+			this.index = existing;
+		} else {
+			this.index = new HashIndex<>(build, buildField);
+			for (long idx = 0; idx < build.getMaxElementCount(); idx++) {
+				if (!build.isNull(idx)) {
+					index.add(idx);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param type
+	 * @return <code>true</code> iff the bits of the values are their numeric value
+	 */
+	private static boolean isIntegral(final FieldType type) {
+		return type != FieldType.FLOAT && type != FieldType.DOUBLE && type != FieldType.BOOL;
+	}
+
+	/**
+	 * Calls <code>consumer</code> for every pair of nodes not being <code>NULL</code> with equal keys, in ascending order of the probe slots. The serializers
+	 * must not be modified meanwhile.
+	 *
+	 * @param consumer
+	 */
+	public void forEach(final SlotPairConsumer consumer) {
+		for (long idx = 0; idx < probe.getMaxElementCount(); idx++) {
+			if (probe.isNull(idx)) {
+				continue;
+			}
+			final long bits = probe.readField(idx, probeField);
+			for (long match = index.firstMatch(bits); match != 0; match = index.nextMatch(match - 1, bits)) {
+				consumer.accept(match - 1, idx);
+			}
+		}
+	}
+
+	/**
+	 * Deserializes the matching pairs only and passes their projection to <code>sink</code>.
+	 *
+	 * @param projection combining the elements of a matching pair
+	 * @param sink
+	 * @see #forEach(SlotPairConsumer)
+	 */
+	public <R> void project(final BiFunction<? super B, ? super P, ? extends R> projection, final Consumer<? super R> sink) {
+		forEach((buildSlot, probeSlot) -> sink.accept(projection.apply(build.getRandomAccess(buildSlot), probe.getRandomAccess(probeSlot))));
+	}
+
+	/**
+	 * @return number of matching pairs
+	 */
+	public long count() {
+		final long[] count = new long[1];
+		forEach((buildSlot, probeSlot) -> count[0]++);
+		return count[0];
+	}
+
+	/**
+	 * Frees the memory of the hash table, unless it is an index maintained by the build side.
+	 */
+	public void destroy() {
+		if (temporary) {
+			index.destroy();
+		}
+	}
+
+	/**
+	 * @see #destroy()
+	 */
+	@Override
+	public void close() {
+		destroy();
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		destroy();
+		super.finalize();
+	}
+}
@@ -2,15 +2,41 @@ package de.tub.cit.slist.bdos;
 
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import de.tub.cit.slist.bdos.annotation.Indexed;
+import de.tub.cit.slist.bdos.codec.ClassCodec;
+import de.tub.cit.slist.bdos.codec.CodecGenerator;
+import de.tub.cit.slist.bdos.codec.FieldCopier;
 import de.tub.cit.slist.bdos.conf.ConfigFactory;
 import de.tub.cit.slist.bdos.conf.OHSConfig;
+import de.tub.cit.slist.bdos.conf.StorageLayout;
 import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.memory.DynamicMemoryAllocator;
+import de.tub.cit.slist.bdos.memory.FirstFitAllocator;
+import de.tub.cit.slist.bdos.memory.SegregatedFitAllocator;
+import de.tub.cit.slist.bdos.memory.SlotAllocator;
 import de.tub.cit.slist.bdos.metadata.ClassMetadata;
+import de.tub.cit.slist.bdos.metadata.CopyRun;
 import de.tub.cit.slist.bdos.metadata.FieldMetadata;
 import de.tub.cit.slist.bdos.metadata.FieldType;
 import de.tub.cit.slist.bdos.util.SerializerHelper;
@@ -27,10 +53,6 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 	public static final int		METADATA_STATUS_SIZE			= 1;
 	/** offset of status byte(s) within metadata */
 	public static final int		STATUS_OFFSET					= 0;
-	/** size of the dynamic metadata */
-	public static final int		DYNAMIC_METADATA_SIZE			= UnsafeHelper.LONG_FIELD_SIZE;
-	/** offset of the pointer to the next free block within the free-block list */
-	public static final int		FREE_LIST_NEXT_POINTER_OFFSET	= UnsafeHelper.LONG_FIELD_SIZE;
 
 	/** Flag NULL-Status */
 	public static final byte	BITMASK_NULL	= 0b00000001;
@@ -43,8 +65,6 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 	private final long	memorySize;
 	/** max number of elements */
 	private final long	maxElementCount;
-	/** start address of memory for variable-length elements */
-	private final long	dynamicMemoryStart;
 	/** size of allocated memory for variable-length elements */
 	private final long	dynamicMemorySize;
 	/** optional byte array, can be used instead of native (off-heap) memory */
@@ -55,22 +75,49 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 	private final long	metadataSize;
 	/** size of element and meta data */
 	private final long	nodeSize;
-
-	/** pointer to first free dynamic block, forms linked list */
-	private long firstFreeDynamicBlock;
+	/** <code>true</code> for {@link StorageLayout#COLUMNAR} */
+	private final boolean	columnar;
+
+	/** manages the memory for variable-length elements */
+	private final DynamicMemoryAllocator	allocator;
+	/** compact the dynamic memory and retry if an element does not fit into it */
+	private final boolean					autoCompaction;
+	/** configuration this serializer has been created with */
+	private final OHSConfig					config;
+	/** free slots for containers using {@link #allocateSlot()}, created on first use */
+	private SlotAllocator					slots;
+	/** secondary indexes over fields of the elements, updated on every write */
+	private final List<FieldIndex<T>>		indexes	= new ArrayList<>();
+
+	/** <code>true</code> after the memory has been freed */
+	private boolean destroyed = false;
+
+	/** scratch buffer for String (de)serialization per thread, grown on demand */
+	private static final ThreadLocal<char[]>	CHAR_BUFFER	= ThreadLocal.withInitial(() -> new char[0]);
+	/** row gathered from the columns per thread, for concurrent reads in the columnar layout */
+	private static final ThreadLocal<byte[]>	ROW_BUFFER	= ThreadLocal.withInitial(() -> new byte[0]);
 
 	/** metadata of persisted classes */
 	private final Map<Class<?>, ClassMetadata>	classMetadata	= new HashMap<>();
+	/** cache of {@link SerializerHelper#hasDynamicFields(Class, Map)} */
+	private final Map<Class<?>, Boolean>		dynamicClasses	= new HashMap<>();
 	/** class to be saved */
 	private final Class<T>						baseClass;
+	/** generated codec of {@link #baseClass}, <code>NULL</code> if the metadata is interpreted on every copy */
+	private final transient ClassCodec			codec;
 
 	private static final Map<Class<?>, ClassMetadata> wrapperAndPrimitivesMetadata;
 	static {
 		wrapperAndPrimitivesMetadata = SerializerHelper.acquireWrapperAndPrimitivesMetadata();
 	}
 
-	// Messages
-	private static final String CANNOT_ALLOCATE_D_BYTES_OF_DYNAMIC_MEMORY = "Cannot allocate %d bytes of dynamic memory.";
+	/** pseudo field describing String elements of Arrays, Collections and Maps, which are stored like String fields */
+	private static final FieldMetadata STRING_ELEMENT;
+	static {
+		STRING_ELEMENT = new FieldMetadata();
+		STRING_ELEMENT.setType(FieldType.STRING);
+		STRING_ELEMENT.setClazz(String.class);
+	}
 
 	public OffHeapSerializer(final Class<T> baseClass) {
 		this(baseClass, (new ConfigFactory()).withDefaults().build(), 0);
@@ -87,46 +134,71 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 		classMetadata.putAll(wrapperAndPrimitivesMetadata);
 		acquireClassMetadata(baseClass);
 
+		this.codec = config.isGeneratedCodecs() ? CodecGenerator.generate(baseClass, classMetadata, new ReflectiveFieldCopier()) : null;
+
 		this.elementSize = classMetadata.get(baseClass).getLength();
 		this.metadataSize = METADATA_STATUS_SIZE + metadataSize;
 		this.nodeSize = this.elementSize + this.metadataSize;
+		this.columnar = config.getLayout() == StorageLayout.COLUMNAR;
+		// the columnar layout (de)serializes elements in a row behind the columns
+		final long rowSize = columnar ? this.elementSize : 0;
 
 		long staticMemorySize;
 		switch (config.getSizeType()) {
 		case BYTES:
 			this.memorySize = size;
 			staticMemorySize = (long) (this.memorySize * (1 - config.getDynamicRatio()));
-			this.maxElementCount = staticMemorySize / this.nodeSize;
-			this.dynamicMemorySize = this.memorySize - (this.maxElementCount * this.nodeSize); // adjust to use every byte (rounding effects)
+			this.maxElementCount = Math.max(0, staticMemorySize - rowSize) / this.nodeSize;
+			staticMemorySize = this.maxElementCount * this.nodeSize + rowSize;
+			this.dynamicMemorySize = this.memorySize - staticMemorySize; // adjust to use every byte (rounding effects)
 			break;
 		case ELEMENTS:
 		default:
 			this.maxElementCount = size;
-			staticMemorySize = this.maxElementCount * this.nodeSize;
+			staticMemorySize = this.maxElementCount * this.nodeSize + rowSize;
 			this.memorySize = (long) (staticMemorySize / (1 - config.getDynamicRatio()));
 			this.dynamicMemorySize = this.memorySize - staticMemorySize;
 			break;
 		}
 
+		final long dynamicMemoryStart;
 		switch (config.getLocation()) {
 		case BYTE_ARRAY:
 			if (this.memorySize > Integer.MAX_VALUE) throw new IllegalArgumentException(
 					"When using BYTE_ARRAY location, max. memory size is " + Integer.MAX_VALUE + ", tried to allocate " + this.memorySize);
 			this.backingArray = new byte[(int) this.memorySize];
 			this.address = UnsafeHelper.toAddress(this.backingArray) + Unsafe.ARRAY_BYTE_BASE_OFFSET;
-			this.dynamicMemoryStart = staticMemorySize;
+			dynamicMemoryStart = Unsafe.ARRAY_BYTE_BASE_OFFSET + staticMemorySize;
 			break;
 		case NATIVE_MEMORY:
 		default:
 			this.address = getUnsafe().allocateMemory(this.memorySize);
 			getUnsafe().setMemory(address, this.memorySize, (byte) 0);
-			this.dynamicMemoryStart = this.address + staticMemorySize;
+			dynamicMemoryStart = this.address + staticMemorySize;
 			break;
 		}
 
-		// init free block list
-		this.firstFreeDynamicBlock = this.dynamicMemoryStart;
-		getUnsafe().putLong(this.backingArray, this.firstFreeDynamicBlock, this.dynamicMemorySize);
+		switch (config.getAllocator()) {
+		case SEGREGATED_FIT:
+			this.allocator = new SegregatedFitAllocator(this.backingArray, dynamicMemoryStart, this.dynamicMemorySize);
+			break;
+		case FIRST_FIT:
+		default:
+			this.allocator = new FirstFitAllocator(this.backingArray, dynamicMemoryStart, this.dynamicMemorySize);
+			break;
+		}
+		this.autoCompaction = config.isAutoCompaction();
+		this.config = config;
+
+		for (Class<?> c = baseClass; c != null; c = c.getSuperclass()) {
+			for (final Field f : c.getDeclaredFields()) {
+				// all nodes are NULL, nothing to be added yet
+				if (!Modifier.isStatic(f.getModifiers()) && f.isAnnotationPresent(Indexed.class)) {
+					final FieldMetadata field = getFieldMetadata(f.getName());
+					indexes.add(f.getAnnotation(Indexed.class).sorted() ? new RangeIndex<>(this, field) : new HashIndex<>(this, field));
+				}
+			}
+		}
 	}
 
 	/**
@@ -148,6 +220,13 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 		} else {
 			getUnsafe().setMemory(address, this.memorySize, (byte) 0);
 		}
+		allocator.clear();
+		if (slots != null) {
+			slots.clear();
+		}
+		for (final FieldIndex<T> index : indexes) {
+			index.clear();
+		}
 	}
 
 	private void copyObject(final Class<?> baseclass, final Direction direction, final Object src, final long srcOffset, final Object dest,
@@ -159,562 +238,1598 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 
 		final ClassMetadata baseclassMetadata = this.classMetadata.get(baseclass);
 
-		long sOff;
-		long dOff;
-		for (final FieldMetadata field : baseclassMetadata.getFields()) {
-			long subTypeLength;
+		for (final CopyRun run : baseclassMetadata.getCopyRuns()) {
+			if (direction == Direction.SERIALIZE) {
+				UnsafeHelper.copyMemory(src, srcOffset + run.getOffset(), dest, destOffset + run.getSerializedOffset(), run.getLength());
+			} else {
+				UnsafeHelper.copyMemory(src, srcOffset + run.getSerializedOffset(), dest, destOffset + run.getOffset(), run.getLength());
+			}
+		}
+		for (final FieldMetadata field : baseclassMetadata.getRemainingFields()) {
 			// add corresponding field offsets offsets
 			if (direction == Direction.SERIALIZE) {
-				sOff = srcOffset + field.getOffset();
-				dOff = destOffset + field.getSerializedOffset();
+				copyField(field, direction, src, srcOffset + field.getOffset(), dest, destOffset + field.getSerializedOffset());
 			} else {
-				sOff = srcOffset + field.getSerializedOffset();
-				dOff = destOffset + field.getOffset();
+				copyField(field, direction, src, srcOffset + field.getSerializedOffset(), dest, destOffset + field.getOffset());
 			}
-			switch (field.getType()) {
-			case BOOL:
-			case BYTE:
-			case CHAR:
-			case DOUBLE:
-			case FLOAT:
-			case INT:
-			case LONG:
-			case SHORT:
-				copyPrimitive(field.getType(), src, sOff, dest, dOff);
-				break;
-			case STRING_FIXED:
-				if (direction == Direction.SERIALIZE) {
-					final String s = (String) getUnsafe().getObject(src, sOff);
-					final int stringLength = Math.min(s != null ? s.length() : 0, field.getElements());
-					writeFixedLength(s != null ? stringLength : null, dest, dOff);
-					writeString(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE, s, stringLength);
-					// pad with NULs
-					if (stringLength < field.getElements()) {
-						getUnsafe().setMemory(dest,
-								dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + (stringLength * UnsafeHelper.CHAR_FIELD_SIZE),
-								((long) field.getElements() * UnsafeHelper.CHAR_FIELD_SIZE) - ((long) stringLength * UnsafeHelper.CHAR_FIELD_SIZE), (byte) 0);
-					}
-				} else {
-					final Integer stringLength = readFixedLength(src, sOff);
-					getUnsafe().putObject(dest, dOff, readString(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE, stringLength));
+		}
+	}
+
+	/**
+	 * Copies a single field. Offsets already include the field offsets, i.e. <code>sOff</code> and <code>dOff</code> point directly to the field.
+	 *
+	 * @param field
+	 * @param direction
+	 * @param src
+	 * @param sOff
+	 * @param dest
+	 * @param dOff
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	private void copyField(final FieldMetadata field, final Direction direction, final Object src, final long sOff, final Object dest, final long dOff)
+			throws InstantiationException, IllegalAccessException {
+		long subTypeLength;
+		switch (field.getType()) {
+		case BOOL:
+		case BYTE:
+		case CHAR:
+		case DOUBLE:
+		case FLOAT:
+		case INT:
+		case LONG:
+		case SHORT:
+			copyPrimitive(field.getType(), src, sOff, dest, dOff);
+			break;
+		case STRING_FIXED:
+			if (direction == Direction.SERIALIZE) {
+				final String s = (String) getUnsafe().getObject(src, sOff);
+				final int stringLength = Math.min(s != null ? s.length() : 0, field.getElements());
+				writeFixedLength(s != null ? stringLength : null, dest, dOff);
+				writeString(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE, s, stringLength);
+				// pad with NULs
+				if (stringLength < field.getElements()) {
+					getUnsafe().setMemory(dest,
+							dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + (stringLength * UnsafeHelper.CHAR_FIELD_SIZE),
+							((long) field.getElements() * UnsafeHelper.CHAR_FIELD_SIZE) - ((long) stringLength * UnsafeHelper.CHAR_FIELD_SIZE), (byte) 0);
 				}
-				break;
-			case ARRAY_FIXED:
-				subTypeLength = this.classMetadata.get(field.getClazz()).getLength();
-				if (direction == Direction.SERIALIZE) {
-					final Object arr = getUnsafe().getObject(src, sOff);
-					final int arrLength = arr != null ? Math.min(Array.getLength(arr), field.getElements()) : 0;
-					writeFixedLength(arr != null ? arrLength : null, dest, dOff);
-					for (int i = 0; i < arrLength; i++) {
-						Object copySrc;
-						long copySrcOffset = 0;
-						long copyDestOffset = 0;
-						if (field.getClazz().isPrimitive()) {
-							copySrc = arr;
-							copySrcOffset = Unsafe.ARRAY_OBJECT_BASE_OFFSET + i * (long) UnsafeHelper.getPrimitiveLengths().get(field.getClazz());
-						} else {
-							copySrc = Array.get(arr, i);
-							getUnsafe().putBoolean(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength,
-									copySrc == null);
-							copyDestOffset = UnsafeHelper.BOOLEAN_FIELD_SIZE;
-						}
-						if (copySrc != null) {
-							copyObject(field.getClazz(), direction, copySrc, copySrcOffset, dest,
-									dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength + copyDestOffset);
-						} else {
-							getUnsafe().setMemory(dest,
-									dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength + copyDestOffset,
-									subTypeLength - 1, (byte) 0);
-						}
-					}
-					// pad with NULs
-					if (arrLength < field.getElements()) {
-						getUnsafe().setMemory(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + (arrLength * subTypeLength),
-								(field.getElements() * subTypeLength) - (arrLength * subTypeLength), (byte) 0);
-					}
+			} else {
+				final Integer stringLength = readFixedLength(src, sOff);
+				getUnsafe().putObject(dest, dOff, readString(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE, stringLength));
+			}
+			break;
+		case ARRAY_FIXED:
+			subTypeLength = SerializerHelper.getElementLength(field.getClazz(), this.classMetadata);
+			if (direction == Direction.SERIALIZE) {
+				final Object arr = getUnsafe().getObject(src, sOff);
+				final int arrLength = arr != null ? Math.min(Array.getLength(arr), field.getElements()) : 0;
+				writeFixedLength(arr != null ? arrLength : null, dest, dOff);
+				final long elementsOff = dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE;
+				if (arr != null) {
+					writeArrayElements(field.getClazz(), arr, arrLength, dest, elementsOff);
+				}
+				// pad with NULs
+				if (arrLength < field.getElements()) {
+					freeDynamicElements(field.getClazz(), elementsOff, arrLength, field.getElements());
+					getUnsafe().setMemory(dest, elementsOff + (arrLength * subTypeLength), (field.getElements() * subTypeLength) - (arrLength * subTypeLength),
+							(byte) 0);
+				}
+			} else {
+				final Integer arrLength = readFixedLength(src, sOff);
+				if (arrLength != null) {
+					getUnsafe().putObject(dest, dOff,
+							readArrayElements(field.getClazz(), arrLength, src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE));
 				} else {
-					final Integer arrLength = readFixedLength(src, sOff);
-					if (arrLength != null) {
-						final Object arr = Array.newInstance(field.getClazz(), arrLength);
-						for (int i = 0; i < arrLength; i++) {
-							Object copyDest;
-							long copySrcOffset = 0;
-							long copyDestOffset = 0;
-							if (field.getClazz().isPrimitive()) {
-								copyDest = arr;
-								copyDestOffset = Unsafe.ARRAY_OBJECT_BASE_OFFSET + i * (long) UnsafeHelper.getPrimitiveLengths().get(field.getClazz());
-							} else {
-								Object newElement = null;
-								if (!getUnsafe().getBoolean(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength)) {
-									newElement = getUnsafe().allocateInstance(field.getClazz());
-								}
-								Array.set(arr, i, newElement);
-								copyDest = newElement;
-								copySrcOffset = UnsafeHelper.BOOLEAN_FIELD_SIZE;
-							}
-							// arr[i]=field.getClazz().newInstance();
-							if (copyDest != null) {
-								copyObject(field.getClazz(), direction, src,
-										sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength + copySrcOffset, copyDest,
-										copyDestOffset);
-							}
-						}
-						getUnsafe().putObject(dest, dOff, arr);
-					} else {
-						getUnsafe().putObject(dest, dOff, null);
-					}
+					getUnsafe().putObject(dest, dOff, null);
 				}
-				break;
-			case COLLECTION_FIXED:
-				subTypeLength = this.classMetadata.get(field.getClazz()).getLength();
-				if (direction == Direction.SERIALIZE) {
-					final Collection<?> coll = (Collection<?>) getUnsafe().getObject(src, sOff);
-					final int collLength = coll != null ? coll.size() : 0;
-					writeFixedLength(coll != null ? collLength : null, dest, dOff);
-					if (coll != null) {
-						int i = 0;
-						for (final Object copySrc : coll) {
-							getUnsafe().putBoolean(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength,
-									copySrc == null);
-							if (copySrc != null) {
-								copyObject(field.getClazz(), direction, copySrc, 0, dest,
-										dOff + 2 * UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength);
-							} else {
-								getUnsafe().setMemory(dest, dOff + 2 * UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength,
-										subTypeLength - 1, (byte) 0);
-							}
-							i++;
-							if (i >= field.getElements()) {
-								break;
-							}
-						}
-					}
-					// pad with NULs
-					if (collLength < field.getElements()) {
-						getUnsafe().setMemory(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + (collLength * subTypeLength),
-								(field.getElements() * subTypeLength) - (collLength * subTypeLength), (byte) 0);
-					}
+			}
+			break;
+		case COLLECTION_FIXED:
+			subTypeLength = SerializerHelper.getElementLength(field.getClazz(), this.classMetadata);
+			if (direction == Direction.SERIALIZE) {
+				final Collection<?> coll = (Collection<?>) getUnsafe().getObject(src, sOff);
+				final int collLength = coll != null ? Math.min(coll.size(), field.getElements()) : 0;
+				writeFixedLength(coll != null ? collLength : null, dest, dOff);
+				final long elementsOff = dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE;
+				if (coll != null) {
+					writeCollectionElements(field.getClazz(), coll, collLength, dest, elementsOff);
+				}
+				// pad with NULs
+				if (collLength < field.getElements()) {
+					freeDynamicElements(field.getClazz(), elementsOff, collLength, field.getElements());
+					getUnsafe().setMemory(dest, elementsOff + (collLength * subTypeLength), (field.getElements() * subTypeLength) - (collLength * subTypeLength),
+							(byte) 0);
+				}
+			} else {
+				final Integer collLength = readFixedLength(src, sOff);
+				if (collLength != null) {
+					getUnsafe().putObject(dest, dOff, readCollectionElements(field.getCollectionClass(), field.getClazz(), collLength, src,
+							sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE));
 				} else {
-					// TODO new Instance with number of elements?
-					// final Collection<Object> coll = (Collection<Object>) getUnsafe().allocateInstance(field.getCollectionClass());
-					final Integer collLength = readFixedLength(src, sOff);
-					if (collLength != null) {
-						@SuppressWarnings("unchecked")
-						final Collection<Object> coll = (Collection<Object>) field.getCollectionClass().newInstance();
-						for (int i = 0; i < collLength; i++) {
-							if (!getUnsafe().getBoolean(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength)) {
-								final Object copyDest = getUnsafe().allocateInstance(field.getClazz());
-								copyObject(field.getClazz(), direction, src,
-										sOff + 2 * UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE + i * subTypeLength, copyDest, 0);
-								coll.add(copyDest);
-							} else {
-								coll.add(null);
-							}
-						}
-						getUnsafe().putObject(dest, dOff, coll);
-					} else {
-						getUnsafe().putObject(dest, dOff, null);
-					}
+					getUnsafe().putObject(dest, dOff, null);
 				}
-				break;
-			case OBJECT:
-				if (direction == Direction.SERIALIZE) {
-					final Object copySrc = getUnsafe().getObject(src, sOff);
-					getUnsafe().putBoolean(dest, dOff, copySrc == null);
-					if (copySrc != null) {
-						copyObject(field.getClazz(), direction, copySrc, 0, dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
-					} else {
-						getUnsafe().setMemory(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, this.classMetadata.get(field.getClazz()).getLength(), (byte) 0);
-					}
+			}
+			break;
+		case OBJECT:
+			if (direction == Direction.SERIALIZE) {
+				final Object copySrc = getUnsafe().getObject(src, sOff);
+				getUnsafe().putBoolean(dest, dOff, copySrc == null);
+				if (copySrc != null) {
+					copyObject(field.getClazz(), direction, copySrc, 0, dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
 				} else {
-					if (!getUnsafe().getBoolean(src, sOff)) {
-						final Object copyDest = getUnsafe().allocateInstance(field.getClazz());
-						copyObject(field.getClazz(), direction, src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, copyDest, 0);
-						getUnsafe().putObject(dest, dOff, copyDest);
-					} else {
-						getUnsafe().putObject(dest, dOff, null);
-					}
+					freeDynamicFields(field.getClazz(), dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+					getUnsafe().setMemory(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, this.classMetadata.get(field.getClazz()).getLength(), (byte) 0);
 				}
-				break;
-			case ARRAY:
-			case STRING:
-			case COLLECTION:
-				if (direction == Direction.SERIALIZE) {
-					try {
-						writeDynamicField(field, src, sOff, dest, dOff);
-					} catch (final OutOfDynamicMemoryException e) {
-						// TODO reset
-						throw e;
-					}
+			} else {
+				if (!getUnsafe().getBoolean(src, sOff)) {
+					final Object copyDest = getUnsafe().allocateInstance(field.getClazz());
+					copyObject(field.getClazz(), direction, src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, copyDest, 0);
+					getUnsafe().putObject(dest, dOff, copyDest);
 				} else {
-					readDynamicField(field, src, sOff, dest, dOff);
+					getUnsafe().putObject(dest, dOff, null);
+				}
+			}
+			break;
+		case ARRAY:
+		case STRING:
+		case COLLECTION:
+		case MAP:
+			if (direction == Direction.SERIALIZE) {
+				try {
+					writeDynamicField(field, src, sOff, dest, dOff);
+				} catch (final OutOfDynamicMemoryException e) {
+					// TODO reset
+					throw e;
 				}
+			} else {
+				readDynamicField(field, src, sOff, dest, dOff);
+			}
+			break;
+		default:
+			throw new UnsupportedOperationException();
+
+		}
+	}
+
+	/**
+	 * Writes the first <code>length</code> elements of an Array. Primitive elements are copied with a single memory copy.
+	 *
+	 * @param elementClass
+	 * @param arr
+	 * @param length number of elements to write
+	 * @param dest
+	 * @param dOff offset of the first element
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @see #writeElement(Class, Object, Object, long)
+	 */
+	private void writeArrayElements(final Class<?> elementClass, final Object arr, final int length, final Object dest, final long dOff)
+			throws InstantiationException, IllegalAccessException {
+		if (elementClass.isPrimitive()) {
+			writePrimitiveArray(arr, length, dest, dOff);
+			return;
+		}
+		final long elementLength = SerializerHelper.getElementLength(elementClass, this.classMetadata);
+		for (int i = 0; i < length; i++) {
+			writeElement(elementClass, Array.get(arr, i), dest, dOff + i * elementLength);
+		}
+	}
+
+	/**
+	 * Reads an Array of <code>length</code> elements.
+	 *
+	 * @param elementClass
+	 * @param length
+	 * @param src
+	 * @param sOff offset of the first element
+	 * @return the new array
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @see #writeArrayElements(Class, Object, int, Object, long)
+	 */
+	private Object readArrayElements(final Class<?> elementClass, final int length, final Object src, final long sOff)
+			throws InstantiationException, IllegalAccessException {
+		if (elementClass.isPrimitive()) return readPrimitiveArray(elementClass, length, src, sOff);
+		final long elementLength = SerializerHelper.getElementLength(elementClass, this.classMetadata);
+		final Object arr = Array.newInstance(elementClass, length);
+		for (int i = 0; i < length; i++) {
+			Array.set(arr, i, readElement(elementClass, src, sOff + i * elementLength));
+		}
+		return arr;
+	}
+
+	/**
+	 * Writes the first <code>length</code> elements of a Collection.
+	 *
+	 * @param elementClass
+	 * @param coll
+	 * @param length number of elements to write
+	 * @param dest
+	 * @param dOff offset of the first element
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @see #writeElement(Class, Object, Object, long)
+	 */
+	private void writeCollectionElements(final Class<?> elementClass, final Collection<?> coll, final int length, final Object dest, final long dOff)
+			throws InstantiationException, IllegalAccessException {
+		final long elementLength = SerializerHelper.getElementLength(elementClass, this.classMetadata);
+		int i = 0;
+		for (final Object element : coll) {
+			if (i >= length) {
 				break;
-			default:
-				throw new UnsupportedOperationException();
+			}
+			writeElement(elementClass, element, dest, dOff + i * elementLength);
+			i++;
+		}
+	}
+
+	/**
+	 * Reads a Collection of <code>length</code> elements into a new instance of <code>collectionClass</code>, pre-sized if possible.
+	 *
+	 * @param collectionClass
+	 * @param elementClass
+	 * @param length
+	 * @param src
+	 * @param sOff offset of the first element
+	 * @return the new Collection
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	private Collection<Object> readCollectionElements(final Class<?> collectionClass, final Class<?> elementClass, final int length, final Object src,
+			final long sOff) throws InstantiationException, IllegalAccessException {
+		final long elementLength = SerializerHelper.getElementLength(elementClass, this.classMetadata);
+		final Collection<Object> coll = newCollection(collectionClass, length);
+		for (int i = 0; i < length; i++) {
+			coll.add(readElement(elementClass, src, sOff + i * elementLength));
+		}
+		return coll;
+	}
+
+	/**
+	 * Writes a single non-primitive element of an Array, Collection or Map, preceded by its isNull indicator.
+	 *
+	 * @param elementClass
+	 * @param element
+	 * @param dest
+	 * @param dOff offset of the element
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @see SerializerHelper#getElementLength(Class, Map)
+	 */
+	private void writeElement(final Class<?> elementClass, final Object element, final Object dest, final long dOff)
+			throws InstantiationException, IllegalAccessException {
+		if (elementClass == String.class) {
+			writeDynamicValue(STRING_ELEMENT, element, dest, dOff);
+			return;
+		}
+		getUnsafe().putBoolean(dest, dOff, element == null);
+		if (element != null) {
+			copyObject(elementClass, Direction.SERIALIZE, element, 0, dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+		} else {
+			freeDynamicFields(elementClass, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+			getUnsafe().setMemory(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, this.classMetadata.get(elementClass).getLength(), (byte) 0);
+		}
+	}
+
+	/**
+	 * Reads a single non-primitive element of an Array, Collection or Map.
+	 *
+	 * @param elementClass
+	 * @param src
+	 * @param sOff offset of the element
+	 * @return the element or <code>NULL</code>
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @see #writeElement(Class, Object, Object, long)
+	 */
+	private Object readElement(final Class<?> elementClass, final Object src, final long sOff) throws InstantiationException, IllegalAccessException {
+		if (elementClass == String.class) return readDynamicValue(STRING_ELEMENT, src, sOff);
+		if (getUnsafe().getBoolean(src, sOff)) return null;
+		final Object element = getUnsafe().allocateInstance(elementClass);
+		copyObject(elementClass, Direction.DESERIALIZE, src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, element, 0);
+		return element;
+	}
+
+	/**
+	 * Creates a Collection for <code>size</code> elements. Known implementations are pre-sized, all others are created with their default constructor.
+	 *
+	 * @param collectionClass
+	 * @param size
+	 * @return the new Collection
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	private static Collection<Object> newCollection(final Class<?> collectionClass, final int size) throws InstantiationException, IllegalAccessException {
+		if (collectionClass == ArrayList.class) return new ArrayList<>(size);
+		if (collectionClass == HashSet.class) return new HashSet<>(hashCapacity(size));
+		if (collectionClass == LinkedHashSet.class) return new LinkedHashSet<>(hashCapacity(size));
+		if (collectionClass == ArrayDeque.class) return new ArrayDeque<>(size);
+		return (Collection<Object>) collectionClass.newInstance();
+	}
+
+	/**
+	 * Creates a Map for <code>size</code> entries. Known implementations are pre-sized, all others are created with their default constructor.
+	 *
+	 * @param mapClass
+	 * @param size
+	 * @return the new Map
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> newMap(final Class<?> mapClass, final int size) throws InstantiationException, IllegalAccessException {
+		if (mapClass == HashMap.class) return new HashMap<>(hashCapacity(size));
+		if (mapClass == LinkedHashMap.class) return new LinkedHashMap<>(hashCapacity(size));
+		return (Map<Object, Object>) mapClass.newInstance();
+	}
+
+	/**
+	 * @param size
+	 * @return initial capacity of a hash based Collection|Map holding <code>size</code> elements without rehashing
+	 */
+	private static int hashCapacity(final int size) {
+		return (int) (size / 0.75f) + 1;
+	}
+
+	/**
+	 * Copies the first <code>length</code> elements of a primitive array with a single memory copy.
+	 *
+	 * @param arr primitive array
+	 * @param length number of elements to copy
+	 * @param dest
+	 * @param dOff
+	 */
+	private void writePrimitiveArray(final Object arr, final int length, final Object dest, final long dOff) {
+		final Class<?> componentType = arr.getClass().getComponentType();
+		getUnsafe().copyMemory(arr, UnsafeHelper.arrayBaseOffset(componentType), dest, dOff,
+				(long) length * UnsafeHelper.getPrimitiveLengths().get(componentType));
+	}
+
+	/**
+	 * Reads a primitive array of <code>length</code> elements with a single memory copy.
+	 *
+	 * @param componentType primitive class
+	 * @param length number of elements
+	 * @param src
+	 * @param sOff
+	 * @return the new array
+	 */
+	private Object readPrimitiveArray(final Class<?> componentType, final int length, final Object src, final long sOff) {
+		final Object arr = Array.newInstance(componentType, length);
+		getUnsafe().copyMemory(src, sOff, arr, UnsafeHelper.arrayBaseOffset(componentType),
+				(long) length * UnsafeHelper.getPrimitiveLengths().get(componentType));
+		return arr;
+	}
+
+	/**
+	 * Writes <code>stringLength</code> characters of a String.
+	 *
+	 * The characters are staged in {@link #CHAR_BUFFER} and transferred with a single copy.
+	 *
+	 * @param dest
+	 * @param dOff
+	 * @param s
+	 * @param stringLength
+	 */
+	private void writeString(final Object dest, final long dOff, final String s, final int stringLength) {
+		if (s == null || stringLength == 0) return;
+		final char[] buf = charBuffer(stringLength);
+		s.getChars(0, stringLength, buf, 0);
+		getUnsafe().copyMemory(buf, Unsafe.ARRAY_CHAR_BASE_OFFSET, dest, dOff, (long) stringLength * UnsafeHelper.CHAR_FIELD_SIZE);
+	}
+
+	/**
+	 * Reads a String with a length of <code>stringLength</code>.
+	 *
+	 * The characters are transferred into {@link #CHAR_BUFFER} with a single copy.
+	 *
+	 * @param src
+	 * @param sOff
+	 * @param stringLength
+	 * @return The String or <code>NULL</code> if the length is <code>NULL</code>
+	 */
+	private String readString(final Object src, final long sOff, final Integer stringLength) {
+		if (stringLength == null) return null;
+		if (stringLength == 0) return "";
+		final char[] buf = charBuffer(stringLength);
+		getUnsafe().copyMemory(src, sOff, buf, Unsafe.ARRAY_CHAR_BASE_OFFSET, (long) stringLength * UnsafeHelper.CHAR_FIELD_SIZE);
+		return new String(buf, 0, stringLength);
+	}
+
+	/**
+	 * Returns the scratch buffer of the calling thread, grown to hold at least <code>length</code> characters.
+	 *
+	 * @param length
+	 * @return the buffer
+	 */
+	private static char[] charBuffer(final int length) {
+		char[] buf = CHAR_BUFFER.get();
+		if (buf.length < length) {
+			buf = new char[Math.max(length, buf.length * 2)];
+			CHAR_BUFFER.set(buf);
+		}
+		return buf;
+	}
+
+	/**
+	 * Writes the length of a {@link de.tub.cit.slist.bdos.annotation.FixedLength FixedLength} String|Array|Collection or {@link Integer#MIN_VALUE} iff length
+	 * is <code>NULL</code>.
+	 *
+	 * @param length
+	 * @param dest
+	 * @param dOff
+	 */
+	private void writeFixedLength(final Integer length, final Object dest, final long dOff) {
+		getUnsafe().putInt(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, length != null ? length : Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Gets the length of a {@link de.tub.cit.slist.bdos.annotation.FixedLength FixedLength} String|Array|Collection.
+	 *
+	 * @param src
+	 * @param sOff
+	 * @return lenth or <code>NULL</code> iff value is {@link Integer#MIN_VALUE}.
+	 */
+	private Integer readFixedLength(final Object src, final long sOff) {
+		final int ret = getUnsafe().getInt(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+		return ret == Integer.MIN_VALUE ? null : ret;
+	}
+
+	/**
+	 * Writes a String|Array|Collection|Map into the dynamic memory and the pointer to it into <code>dest</code>.
+	 *
+	 * @param field
+	 * @param src
+	 * @param sOff
+	 * @param dest
+	 * @param dOff
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws OutOfDynamicMemoryException no block of sufficient size left
+	 * @see #writeDynamicValue(FieldMetadata, Object, Object, long)
+	 */
+	private void writeDynamicField(final FieldMetadata field, final Object src, final long sOff, final Object dest, final long dOff)
+			throws InstantiationException, IllegalAccessException {
+		writeDynamicValue(field, getUnsafe().getObject(src, sOff), dest, dOff);
+	}
 
+	/**
+	 * Writes a String|Array|Collection|Map into the dynamic memory and the pointer to it into <code>dest</code>. The number of elements is given by the
+	 * payload size stored in the block metadata. A block of the same size is reused, otherwise it is deallocated and a new one is allocated.
+	 *
+	 * @param field
+	 * @param value
+	 * @param dest
+	 * @param dOff
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws OutOfDynamicMemoryException no block of sufficient size left
+	 */
+	private void writeDynamicValue(final FieldMetadata field, final Object value, final Object dest, final long dOff)
+			throws InstantiationException, IllegalAccessException {
+		final long pointerOff = dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE;
+		long addr = getUnsafe().getLong(dest, pointerOff);
+		getUnsafe().putBoolean(dest, dOff, value == null);
+		if (value == null) {
+			if (addr != 0) {
+				freeDynamicBlock(field, addr);
+				getUnsafe().putLong(dest, pointerOff, 0);
 			}
+			return;
+		}
+
+		final int length;
+		switch (field.getType()) {
+		case STRING:
+			length = ((String) value).length();
+			break;
+		case ARRAY:
+			length = Array.getLength(value);
+			break;
+		case COLLECTION:
+			length = ((Collection<?>) value).size();
+			break;
+		case MAP:
+			length = ((Map<?, ?>) value).size();
+			break;
+		default:
+			throw new UnsupportedOperationException();
+		}
+		final long stride = dynamicStride(field);
+		final long payloadSize = length * stride;
+
+		if (addr != 0) {
+			final long oldPayloadSize = allocator.getSize(addr);
+			if (allocator.resize(addr, payloadSize)) {
+				// release elements which are cut off
+				freeDynamicContent(field, addr, length, (int) (oldPayloadSize / stride));
+			} else {
+				freeDynamicBlock(field, addr);
+				addr = 0;
+				getUnsafe().putLong(dest, pointerOff, 0);
+			}
+		}
+		if (addr == 0) {
+			addr = allocator.allocate(payloadSize);
+			getUnsafe().putLong(dest, pointerOff, addr);
+		}
+
+		switch (field.getType()) {
+		case STRING:
+			writeString(backingArray, addr, (String) value, length);
+			break;
+		case ARRAY:
+			writeArrayElements(field.getClazz(), value, length, backingArray, addr);
+			break;
+		case COLLECTION:
+			writeCollectionElements(field.getClazz(), (Collection<?>) value, length, backingArray, addr);
+			break;
+		case MAP:
+			final long keyLength = SerializerHelper.getElementLength(field.getClazz(), this.classMetadata);
+			int i = 0;
+			for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (i >= length) {
+					break;
+				}
+				writeElement(field.getClazz(), entry.getKey(), backingArray, addr + i * stride);
+				writeElement(field.getValueClazz(), entry.getValue(), backingArray, addr + i * stride + keyLength);
+				i++;
+			}
+			break;
+		default:
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Reads a String|Array|Collection|Map from the dynamic memory.
+	 *
+	 * @param field
+	 * @param src
+	 * @param sOff
+	 * @param dest
+	 * @param dOff
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	private void readDynamicField(final FieldMetadata field, final Object src, final long sOff, final Object dest, final long dOff)
+			throws InstantiationException, IllegalAccessException {
+		getUnsafe().putObject(dest, dOff, readDynamicValue(field, src, sOff));
+	}
+
+	/**
+	 * Reads a String|Array|Collection|Map from the dynamic memory.
+	 *
+	 * @param field
+	 * @param src
+	 * @param sOff
+	 * @return the value or <code>NULL</code>
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	private Object readDynamicValue(final FieldMetadata field, final Object src, final long sOff) throws InstantiationException, IllegalAccessException {
+		final long addr = getUnsafe().getLong(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+		if (getUnsafe().getBoolean(src, sOff) || addr == 0) return null;
+		final long stride = dynamicStride(field);
+		final int length = (int) (allocator.getSize(addr) / stride);
+		switch (field.getType()) {
+		case STRING:
+			return readString(backingArray, addr, length);
+		case ARRAY:
+			return readArrayElements(field.getClazz(), length, backingArray, addr);
+		case COLLECTION:
+			return readCollectionElements(field.getCollectionClass(), field.getClazz(), length, backingArray, addr);
+		case MAP:
+			final long keyLength = SerializerHelper.getElementLength(field.getClazz(), this.classMetadata);
+			final Map<Object, Object> map = newMap(field.getCollectionClass(), length);
+			for (int i = 0; i < length; i++) {
+				map.put(readElement(field.getClazz(), backingArray, addr + i * stride),
+						readElement(field.getValueClazz(), backingArray, addr + i * stride + keyLength));
+			}
+			return map;
+		default:
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * @param field String|Array|Collection|Map field
+	 * @return serialized length of one element (one entry for Maps) within the dynamic block
+	 */
+	private long dynamicStride(final FieldMetadata field) {
+		switch (field.getType()) {
+		case STRING:
+			return UnsafeHelper.CHAR_FIELD_SIZE;
+		case MAP:
+			return SerializerHelper.getElementLength(field.getClazz(), this.classMetadata)
+					+ SerializerHelper.getElementLength(field.getValueClazz(), this.classMetadata);
+		default:
+			return SerializerHelper.getElementLength(field.getClazz(), this.classMetadata);
+		}
+	}
+
+	/**
+	 * Deallocates a dynamic block including all dynamic memory referenced by its elements.
+	 *
+	 * @param field the String|Array|Collection|Map field pointing to the block
+	 * @param addr
+	 */
+	private void freeDynamicBlock(final FieldMetadata field, final long addr) {
+		freeDynamicContent(field, addr, 0, (int) (allocator.getSize(addr) / dynamicStride(field)));
+		allocator.free(addr);
+	}
+
+	/**
+	 * Deallocates the dynamic memory referenced by the elements <code>from</code> (inclusive) to <code>to</code> (exclusive) of a dynamic block.
+	 *
+	 * @param field the String|Array|Collection|Map field pointing to the block
+	 * @param addr
+	 * @param from
+	 * @param to
+	 */
+	private void freeDynamicContent(final FieldMetadata field, final long addr, final int from, final int to) {
+		visitDynamicContent(field, addr, from, to, this::freeDynamicPointer);
+	}
+
+	/**
+	 * Deallocates all dynamic memory referenced by the serialized object of class <code>clazz</code> at <code>off</code> and resets the pointers.
+	 *
+	 * @param clazz
+	 * @param off
+	 */
+	private void freeDynamicFields(final Class<?> clazz, final long off) {
+		visitDynamicFields(clazz, off, this::freeDynamicPointer);
+	}
+
+	/**
+	 * Deallocates the block a String|Array|Collection|Map points to and resets the pointer.
+	 *
+	 * @param field
+	 * @param off offset of the field (isNull indicator)
+	 */
+	private void freeDynamicPointer(final FieldMetadata field, final long off) {
+		final long addr = getUnsafe().getLong(backingArray, off + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+		if (addr != 0) {
+			freeDynamicBlock(field, addr);
+			getUnsafe().putLong(backingArray, off + UnsafeHelper.BOOLEAN_FIELD_SIZE, 0);
+		}
+	}
+
+	/**
+	 * Deallocates the dynamic memory referenced by the elements <code>from</code> (inclusive) to <code>to</code> (exclusive) of a serialized
+	 * Array|Collection.
+	 *
+	 * @param elementClass
+	 * @param elementsOff offset of the first element
+	 * @param from
+	 * @param to
+	 */
+	private void freeDynamicElements(final Class<?> elementClass, final long elementsOff, final int from, final int to) {
+		visitDynamicElements(elementClass, elementsOff, from, to, this::freeDynamicPointer);
+	}
+
+	/**
+	 * Calls <code>visitor</code> for every String|Array|Collection|Map field of the serialized object of class <code>clazz</code> at <code>off</code>,
+	 * including the fields of nested objects and of the elements of fixed-length Arrays|Collections. Dynamic blocks are not entered.
+	 *
+	 * @param clazz
+	 * @param off
+	 * @param visitor
+	 */
+	private void visitDynamicFields(final Class<?> clazz, final long off, final PointerVisitor visitor) {
+		if (!hasDynamicFields(clazz)) return;
+		for (final FieldMetadata field : classMetadata.get(clazz).getFields()) {
+			visitDynamicField(field, off + field.getSerializedOffset(), visitor);
+		}
+	}
+
+	/**
+	 * Calls <code>visitor</code> for every String|Array|Collection|Map field of the element of node <code>idx</code>, in either layout.
+	 *
+	 * @param idx
+	 * @param visitor
+	 * @see #visitDynamicFields(Class, long, PointerVisitor)
+	 */
+	private void visitDynamicNode(final long idx, final PointerVisitor visitor) {
+		if (!columnar) {
+			visitDynamicFields(baseClass, offset(idx), visitor);
+		} else if (hasDynamicFields(baseClass)) {
+			for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+				visitDynamicField(field, fieldOffset(idx, field), visitor);
+			}
+		}
+	}
+
+	/**
+	 * Calls <code>visitor</code> for the field at <code>fOff</code> if it is a String|Array|Collection|Map, or for its String|Array|Collection|Map fields.
+	 *
+	 * @param field
+	 * @param fOff
+	 * @param visitor
+	 */
+	private void visitDynamicField(final FieldMetadata field, final long fOff, final PointerVisitor visitor) {
+		switch (field.getType()) {
+		case STRING:
+		case ARRAY:
+		case COLLECTION:
+		case MAP:
+			visitor.visit(field, fOff);
+			break;
+		case OBJECT:
+			visitDynamicFields(field.getClazz(), fOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, visitor);
+			break;
+		case ARRAY_FIXED:
+		case COLLECTION_FIXED:
+			visitDynamicElements(field.getClazz(), fOff + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE, 0, field.getElements(), visitor);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Calls <code>visitor</code> for every String|Array|Collection|Map referenced by the elements <code>from</code> (inclusive) to <code>to</code>
+	 * (exclusive) of a dynamic block.
+	 *
+	 * @param field the String|Array|Collection|Map field pointing to the block
+	 * @param addr
+	 * @param from
+	 * @param to
+	 * @param visitor
+	 */
+	private void visitDynamicContent(final FieldMetadata field, final long addr, final int from, final int to, final PointerVisitor visitor) {
+		switch (field.getType()) {
+		case ARRAY:
+		case COLLECTION:
+			visitDynamicElements(field.getClazz(), addr, from, to, visitor);
+			break;
+		case MAP:
+			if (!hasDynamicFields(field.getClazz()) && !hasDynamicFields(field.getValueClazz())) return;
+			final long stride = dynamicStride(field);
+			final long keyLength = SerializerHelper.getElementLength(field.getClazz(), this.classMetadata);
+			for (int i = from; i < to; i++) {
+				visitElement(field.getClazz(), addr + i * stride, visitor);
+				visitElement(field.getValueClazz(), addr + i * stride + keyLength, visitor);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Calls <code>visitor</code> for every String|Array|Collection|Map referenced by the elements <code>from</code> (inclusive) to <code>to</code>
+	 * (exclusive) of a serialized Array|Collection.
+	 *
+	 * @param elementClass
+	 * @param elementsOff offset of the first element
+	 * @param from
+	 * @param to
+	 * @param visitor
+	 */
+	private void visitDynamicElements(final Class<?> elementClass, final long elementsOff, final int from, final int to, final PointerVisitor visitor) {
+		if (!hasDynamicFields(elementClass)) return;
+		final long elementLength = SerializerHelper.getElementLength(elementClass, this.classMetadata);
+		for (int i = from; i < to; i++) {
+			visitElement(elementClass, elementsOff + i * elementLength, visitor);
+		}
+	}
+
+	/**
+	 * Calls <code>visitor</code> for every String|Array|Collection|Map referenced by a single element of an Array, Collection or Map.
+	 *
+	 * @param elementClass
+	 * @param off offset of the element (isNull indicator)
+	 * @param visitor
+	 */
+	private void visitElement(final Class<?> elementClass, final long off, final PointerVisitor visitor) {
+		if (elementClass == String.class) {
+			visitor.visit(STRING_ELEMENT, off);
+		} else {
+			visitDynamicFields(elementClass, off + UnsafeHelper.BOOLEAN_FIELD_SIZE, visitor);
+		}
+	}
+
+	/**
+	 * Moves all dynamic blocks referenced by the stored elements to the start of the dynamic memory and rewrites the pointers to them, so the free dynamic
+	 * memory forms a single block again. Blocks which are not referenced are deallocated.<br />
+	 * The pointers are collected by walking all elements, so the runtime is linear in the capacity plus the number of dynamic blocks.
+	 *
+	 * @return number of bytes by which the largest free dynamic block has grown, i.e. the fragmented memory which has become usable for large allocations
+	 * @see DynamicMemoryAllocator#compact(long[], int)
+	 */
+	public long compact() {
+		final LiveBlocks blocks = new LiveBlocks();
+		for (long idx = 0; idx < maxElementCount; idx++) {
+			visitDynamicNode(idx, (field, off) -> collectDynamicPointer(blocks, -1, field, off));
+		}
+		final int count = blocks.size;
+		final long[] oldAddresses = Arrays.copyOf(blocks.addresses, count);
+		Arrays.sort(oldAddresses);
+		final long[] newAddresses = oldAddresses.clone();
+		final long reclaimed = allocator.compact(newAddresses, count);
+
+		// the payload has been moved unchanged, rewrite all pointers at their new location
+		final int[] ranks = new int[count];
+		for (int i = 0; i < count; i++) {
+			ranks[i] = Arrays.binarySearch(oldAddresses, blocks.addresses[i]);
+		}
+		for (int i = 0; i < count; i++) {
+			final int owner = blocks.owners[i];
+			final long pointer = owner < 0 ? blocks.pointers[i] : blocks.pointers[i] - blocks.addresses[owner] + newAddresses[ranks[owner]];
+			getUnsafe().putLong(backingArray, pointer, newAddresses[ranks[i]]);
+		}
+		return reclaimed;
+	}
+
+	/**
+	 * Records the block a String|Array|Collection|Map points to and all blocks referenced by its elements.
+	 *
+	 * @param blocks
+	 * @param owner index of the block containing the pointer, <code>-1</code> if it is located in the static memory
+	 * @param field
+	 * @param off offset of the field (isNull indicator)
+	 */
+	private void collectDynamicPointer(final LiveBlocks blocks, final int owner, final FieldMetadata field, final long off) {
+		final long addr = getUnsafe().getLong(backingArray, off + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+		if (addr == 0) return;
+		final int index = blocks.add(addr, off + UnsafeHelper.BOOLEAN_FIELD_SIZE, owner);
+		visitDynamicContent(field, addr, 0, (int) (allocator.getSize(addr) / dynamicStride(field)),
+				(element, elementOff) -> collectDynamicPointer(blocks, index, element, elementOff));
+	}
+
+	/**
+	 * @param clazz
+	 * @return <code>true</code> iff serialized instances of <code>clazz</code> may reference dynamic memory
+	 * @see SerializerHelper#hasDynamicFields(Class, Map)
+	 */
+	private boolean hasDynamicFields(final Class<?> clazz) {
+		Boolean dynamic = dynamicClasses.get(clazz);
+		if (dynamic == null) {
+			dynamic = SerializerHelper.hasDynamicFields(clazz, classMetadata);
+			dynamicClasses.put(clazz, dynamic);
+		}
+		return dynamic;
+	}
+
+	/**
+	 * Copies a primitive of type <code>type</code> from <code>src</code> to <code>dest</code>, using double-register mode.
+	 *
+	 * @param type
+	 * @param src
+	 * @param srcOffset
+	 * @param dest
+	 * @param destOffset
+	 */
+	private void copyPrimitive(final FieldType type, final Object src, final long srcOffset, final Object dest, final long destOffset) {
+		switch (type) {
+		case BOOL:
+			getUnsafe().putBoolean(dest, destOffset, getUnsafe().getBoolean(src, srcOffset));
+			break;
+		case BYTE:
+			getUnsafe().putByte(dest, destOffset, getUnsafe().getByte(src, srcOffset));
+			break;
+		case CHAR:
+			getUnsafe().putChar(dest, destOffset, getUnsafe().getChar(src, srcOffset));
+			break;
+		case DOUBLE:
+			getUnsafe().putDouble(dest, destOffset, getUnsafe().getDouble(src, srcOffset));
+			break;
+		case FLOAT:
+			getUnsafe().putFloat(dest, destOffset, getUnsafe().getFloat(src, srcOffset));
+			break;
+		case INT:
+			getUnsafe().putInt(dest, destOffset, getUnsafe().getInt(src, srcOffset));
+			break;
+		case LONG:
+			getUnsafe().putLong(dest, destOffset, getUnsafe().getLong(src, srcOffset));
+			break;
+		case SHORT:
+			getUnsafe().putShort(dest, destOffset, getUnsafe().getShort(src, srcOffset));
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Sets a block in a random access manner (Array-like).<br />
+	 * If the dynamic memory is exhausted and auto compaction is enabled, the dynamic memory is compacted and the element is written once more. Retrying is
+	 * safe, as a partially written element only references valid blocks.<br />
+	 * <strong>WARNING!</strong> This is not compatible with List-access. Only one mode must be used!
+	 *
+	 * @param idx
+	 * @param element
+	 * @throws OutOfDynamicMemoryException the dynamic-length fields of <code>element</code> do not fit into the dynamic memory
+	 * @see #compact()
+	 */
+	public void setRandomAccess(final long idx, final T element) {
+		checkIndexBounds(idx);
+		unindex(idx, 1);
+		if (element != null) {
+			try {
+				try {
+					serializeNode(element, idx);
+				} catch (final OutOfDynamicMemoryException e) {
+					if (!autoCompaction) throw e;
+					compact();
+					serializeNode(element, idx);
+				}
+				setNull(idx, false);
+			} catch (final InstantiationException | IllegalAccessException e) {
+				throw new UndeclaredThrowableException(e);
+			} finally {
+				index(idx, 1);
+			}
+		} else {
+			visitDynamicNode(idx, this::freeDynamicPointer);
+			clearElement(idx);
+			setNull(idx, true);
+		}
+	}
+
+	private void serialize(final T element, final long off) throws InstantiationException, IllegalAccessException {
+		serialize(element, backingArray, off);
+	}
+
+	/**
+	 * Serializes <code>element</code> into node <code>idx</code>, reusing the dynamic blocks of the previous element. The columns are written even if the
+	 * serialization fails, so they reference the same blocks as a row would.
+	 */
+	private void serializeNode(final T element, final long idx) throws InstantiationException, IllegalAccessException {
+		final long off = load(idx);
+		try {
+			serialize(element, off);
+		} finally {
+			store(idx);
+		}
+	}
+
+	private void serialize(final T element, final Object dest, final long off) throws InstantiationException, IllegalAccessException {
+		if (codec != null) {
+			codec.serialize(element, 0, dest, off);
+		} else {
+			copyObject(baseClass, Direction.SERIALIZE, element, 0, dest, off);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> iff serialized elements may reference dynamic memory, i.e. their image is not self-contained
+	 * @see #toImage(Serializable)
+	 */
+	public boolean isDynamic() {
+		return hasDynamicFields(baseClass);
+	}
+
+	/**
+	 * Serializes an element into a heap array, in the format of a node without metadata. Two elements having the same image are stored identically.
+	 *
+	 * @param element
+	 * @return the image
+	 * @throws IllegalStateException if the elements reference dynamic memory
+	 * @see #isDynamic()
+	 */
+	public byte[] toImage(final T element) {
+		if (isDynamic()) throw new IllegalStateException("Elements of " + baseClass.getName() + " reference dynamic memory.");
+		final byte[] image = new byte[(int) elementSize];
+		try {
+			serialize(element, image, Unsafe.ARRAY_BYTE_BASE_OFFSET);
+		} catch (final InstantiationException | IllegalAccessException e) {
+			throw new UndeclaredThrowableException(e);
+		}
+		return image;
+	}
+
+	/**
+	 * Compares the node <code>idx</code> with an image word by word, without deserializing it. In the columnar layout, every column is compared with its
+	 * part of the image, so the serializer is only read.
+	 *
+	 * @param idx
+	 * @param image created by {@link #toImage(Serializable)}
+	 * @return <code>true</code> iff the node is not <code>NULL</code> and holds exactly the image
+	 */
+	public boolean imageEquals(final long idx, final byte[] image) {
+		if (isNull(idx)) return false;
+		if (!columnar) return regionEquals(offset(idx), image, 0, image.length);
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			if (!regionEquals(fieldOffset(idx, field), image, (int) field.getSerializedOffset(), (int) field.getLength())) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param off offset of the memory to compare
+	 * @param image
+	 * @param from first byte of the image to compare
+	 * @param length number of bytes
+	 * @return <code>true</code> iff the memory holds <code>image[from, from + length)</code>
+	 */
+	private boolean regionEquals(final long off, final byte[] image, final int from, final int length) {
+		int i = 0;
+		for (; i + UnsafeHelper.LONG_FIELD_SIZE <= length; i += UnsafeHelper.LONG_FIELD_SIZE) {
+			if (getUnsafe().getLong(backingArray, off + i) != getUnsafe().getLong(image, Unsafe.ARRAY_BYTE_BASE_OFFSET + from + i)) return false;
+		}
+		for (; i < length; i++) {
+			if (getUnsafe().getByte(backingArray, off + i) != image[from + i]) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Sets the element of node <code>idx</code> by copying its image.
+	 *
+	 * @param idx
+	 * @param image created by {@link #toImage(Serializable)}
+	 */
+	public void setImage(final long idx, final byte[] image) {
+		setImage(idx, image, Unsafe.ARRAY_BYTE_BASE_OFFSET);
+	}
+
+	/**
+	 * Sets the element of node <code>idx</code> by copying an image of {@link #getElementSize()} bytes.
+	 *
+	 * @param idx
+	 * @param src object containing the image, <code>NULL</code> for native memory
+	 * @param sOff offset of the image
+	 */
+	void setImage(final long idx, final Object src, final long sOff) {
+		checkIndexBounds(idx);
+		unindex(idx, 1);
+		getUnsafe().copyMemory(src, sOff, backingArray, columnar ? row() : offset(idx), elementSize);
+		store(idx);
+		setNull(idx, false);
+		index(idx, 1);
+	}
+
+	/**
+	 * Copies the image of the element of node <code>idx</code>, i.e. {@link #getElementSize()} bytes in the format of {@link #toImage(Serializable)}.
+	 *
+	 * @param idx node not being <code>NULL</code>
+	 * @param dest object to copy to, <code>NULL</code> for native memory
+	 * @param dOff offset to copy to
+	 */
+	void copyImage(final long idx, final Object dest, final long dOff) {
+		if (!columnar) {
+			getUnsafe().copyMemory(backingArray, offset(idx), dest, dOff, elementSize);
+			return;
+		}
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			getUnsafe().copyMemory(backingArray, fieldOffset(idx, field), dest, dOff + field.getSerializedOffset(), field.getLength());
+		}
+	}
+
+	/**
+	 * Allocates the free slot with the lowest index, in constant time. Containers managing their elements by slots instead of positions use this together
+	 * with {@link #freeSlot(long)} and the random access methods on the allocated indices.
+	 *
+	 * @return index of the slot
+	 * @throws IndexOutOfBoundsException if all slots are allocated
+	 * @see SlotAllocator
+	 */
+	public long allocateSlot() {
+		return slots().allocate();
+	}
+
+	/**
+	 * Sets the element of a slot allocated by {@link #allocateSlot()} to <code>NULL</code> and deallocates the slot, in constant time.
+	 *
+	 * @param idx
+	 * @throws IllegalStateException if the slot is not allocated
+	 */
+	public void freeSlot(final long idx) {
+		checkIndexBounds(idx);
+		if (!slots().isAllocated(idx)) throw new IllegalStateException(String.format("Slot '%d' is not allocated.", idx));
+		setRandomAccess(idx, null);
+		slots.free(idx);
+	}
+
+	/**
+	 * @param idx
+	 * @return <code>true</code> iff the slot has been allocated by {@link #allocateSlot()}
+	 */
+	public boolean isSlotAllocated(final long idx) {
+		checkIndexBounds(idx);
+		return slots().isAllocated(idx);
+	}
+
+	/**
+	 * @return number of slots allocated by {@link #allocateSlot()}
+	 */
+	public long getAllocatedSlots() {
+		return slots == null ? 0 : slots.getAllocated();
+	}
+
+	private SlotAllocator slots() {
+		if (slots == null) {
+			slots = new SlotAllocator(maxElementCount);
+		}
+		return slots;
+	}
+
+	/**
+	 * Creates a hash index on a primitive field of the elements, unless it exists, and adds all nodes not being <code>NULL</code>. The index is updated by
+	 * all methods writing nodes, except for the methods writing metadata and status flags only.
+	 *
+	 * @param fieldName name of a primitive field of the base class
+	 * @return the index
+	 * @throws IllegalArgumentException if there is no such field or it is not primitive
+	 * @see Indexed
+	 */
+	public HashIndex<T> createHashIndex(final String fieldName) {
+		HashIndex<T> index = getHashIndex(fieldName);
+		if (index == null) {
+			index = new HashIndex<>(this, getFieldMetadata(fieldName));
+			addIndex(index);
+		}
+		return index;
+	}
+
+	/**
+	 * @param fieldName
+	 * @return the hash index on the field, <code>NULL</code> if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public HashIndex<T> getHashIndex(final String fieldName) {
+		return getIndex(HashIndex.class, fieldName);
+	}
+
+	/**
+	 * Creates a sorted index on a primitive field of the elements, unless it exists, and adds all nodes not being <code>NULL</code>. The index is updated
+	 * like the hash indexes.
+	 *
+	 * @param fieldName name of a primitive field of the base class
+	 * @return the index
+	 * @throws IllegalArgumentException if there is no such field or it is not primitive
+	 * @see #createHashIndex(String)
+	 * @see Indexed#sorted()
+	 */
+	public RangeIndex<T> createRangeIndex(final String fieldName) {
+		RangeIndex<T> index = getRangeIndex(fieldName);
+		if (index == null) {
+			index = new RangeIndex<>(this, getFieldMetadata(fieldName));
+			addIndex(index);
+		}
+		return index;
+	}
+
+	/**
+	 * @param fieldName
+	 * @return the sorted index on the field, <code>NULL</code> if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public RangeIndex<T> getRangeIndex(final String fieldName) {
+		return getIndex(RangeIndex.class, fieldName);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private <I extends FieldIndex> I getIndex(final Class<I> type, final String fieldName) {
+		for (final FieldIndex<T> index : indexes) {
+			if (type.isInstance(index) && index.getFieldName().equals(fieldName)) return type.cast(index);
+		}
+		return null;
+	}
+
+	private void addIndex(final FieldIndex<T> index) {
+		for (long idx = 0; idx < maxElementCount; idx++) {
+			if (!isNull(idx)) {
+				index.add(idx);
+			}
+		}
+		indexes.add(index);
+	}
+
+	/**
+	 * @param fieldName
+	 * @return metadata of a field of the base class
+	 * @throws IllegalArgumentException if there is no such field
+	 */
+	public FieldMetadata getFieldMetadata(final String fieldName) {
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			if (field.getFieldName().equals(fieldName)) return field;
+		}
+		throw new IllegalArgumentException("No field '" + fieldName + "' in " + baseClass.getName());
+	}
+
+	/**
+	 * Returns a spliterator over the elements not being <code>NULL</code>, in ascending order of their slots. It splits the slots evenly and skips
+	 * <code>NULL</code> nodes by their status byte, so its size is an upper bound. The serializer must not be modified during the traversal.
+	 *
+	 * @return the spliterator
+	 */
+	public Spliterator<T> spliterator() {
+		return new SlotSpliterator<>(this, 0, maxElementCount, true);
+	}
+
+	/**
+	 * @return sequential stream of the elements not being <code>NULL</code>, in ascending order of their slots
+	 * @see #spliterator()
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * @return parallel stream of the elements not being <code>NULL</code>, whose partitions read disjoint ranges of slots
+	 * @see #spliterator()
+	 */
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * Returns the slots of the nodes not being <code>NULL</code> which match <code>condition</code>, in ascending order. The condition is evaluated on the
+	 * serialized nodes, so no element is deserialized. The serializer must not be modified during the iteration.
+	 *
+	 * @param condition
+	 * @return iterator over the slot indices
+	 * @throws IllegalArgumentException if the condition refers to a field which does not exist or is not primitive
+	 */
+	public PrimitiveIterator.OfLong scan(final Condition condition) {
+		return new ScanIterator(condition.bind(this));
+	}
+
+	/**
+	 * Deserializes the elements matching <code>condition</code> only, in ascending order of their slots.
+	 *
+	 * @param condition
+	 * @return iterator over the matching elements
+	 * @see #scan(Condition)
+	 */
+	public Iterator<T> select(final Condition condition) {
+		final PrimitiveIterator.OfLong slots = scan(condition);
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return slots.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return getRandomAccess(slots.nextLong());
+			}
+		};
+	}
+
+	/**
+	 * @param condition
+	 * @return number of nodes not being <code>NULL</code> which match <code>condition</code>
+	 * @see #scan(Condition)
+	 */
+	public long count(final Condition condition) {
+		final LongPredicate predicate = condition.bind(this);
+		long count = 0;
+		for (long idx = 0; idx < maxElementCount; idx++) {
+			if (!isNull(idx) && predicate.test(idx)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Aggregates a primitive field over all nodes not being <code>NULL</code>.
+	 *
+	 * @param fieldName
+	 * @return statistics of the field values
+	 * @see #aggregate(String, Condition)
+	 */
+	public FieldStatistics aggregate(final String fieldName) {
+		return aggregate(fieldName, null);
+	}
+
+	/**
+	 * Aggregates a primitive field over the nodes not being <code>NULL</code> which match <code>condition</code>. The field values are read as
+	 * <code>double</code> directly from the serialized nodes, no element is deserialized.
+	 *
+	 * @param fieldName name of a primitive field of the base class, booleans count as <code>0</code> and <code>1</code>
+	 * @param condition filter, <code>NULL</code> for all nodes
+	 * @return statistics of the field values
+	 * @throws IllegalArgumentException if there is no such field or it is not primitive
+	 */
+	public FieldStatistics aggregate(final String fieldName, final Condition condition) {
+		final FieldMetadata field = getFieldMetadata(fieldName);
+		if (!field.getType().isPrimitive()) throw new IllegalArgumentException("Only primitive fields can be aggregated: " + fieldName);
+		final LongPredicate predicate = condition == null ? null : condition.bind(this);
+		final FieldStatistics statistics = new FieldStatistics();
+		for (long idx = 0; idx < maxElementCount; idx++) {
+			if (isNull(idx) || predicate != null && !predicate.test(idx)) {
+				continue;
+			}
+			statistics.accept(readDouble(idx, field));
+		}
+		return statistics;
+	}
+
+	/**
+	 * Groups the nodes not being <code>NULL</code> which match <code>condition</code> by a primitive key field and aggregates primitive value fields per
+	 * group. The groups are kept in an off-heap hash table while scanning, only the result is materialized.
+	 *
+	 * @param keyField name of a primitive field of the base class
+	 * @param condition filter, <code>NULL</code> for all nodes
+	 * @param valueFields names of primitive fields of the base class to be aggregated
+	 * @return statistics of the value fields, in the given order, by key. The keys are boxed primitives of the type of the key field, floating-point keys
+	 *         are compared bitwise.
+	 * @throws IllegalArgumentException if a field does not exist or is not primitive
+	 * @see #aggregate(String, Condition)
+	 */
+	public Map<Object, FieldStatistics[]> groupBy(final String keyField, final Condition condition, final String... valueFields) {
+		final GroupBy<T> groupBy = new GroupBy<>(this, keyField, valueFields);
+		return groupBy.execute(condition == null ? null : condition.bind(this));
+	}
+
+	/**
+	 * Prepares an equi-join with this serializer as build side, hashing its nodes by <code>keyField</code> unless there is a hash index on it.
+	 *
+	 * @param keyField name of a primitive field of the base class
+	 * @param probe the other side, probing the hash table
+	 * @param probeKeyField name of a primitive field of the elements of <code>probe</code>
+	 * @return the join, which must be closed after use
+	 * @throws IllegalArgumentException if a field does not exist or is not primitive, or if the key types are incompatible
+	 */
+	public <P extends Serializable> HashJoin<T, P> join(final String keyField, final OffHeapSerializer<P> probe, final String probeKeyField) {
+		return new HashJoin<>(this, keyField, probe, probeKeyField);
+	}
+
+	/**
+	 * Reads a primitive field of node <code>idx</code> as <code>double</code>.
+	 *
+	 * @param idx
+	 * @param field primitive field of the base class
+	 * @return the value
+	 */
+	double readDouble(final long idx, final FieldMetadata field) {
+		final long bits = readField(idx, field);
+		switch (field.getType()) {
+		case FLOAT:
+			return Float.intBitsToFloat((int) bits);
+		case DOUBLE:
+			return Double.longBitsToDouble(bits);
+		default:
+			return bits;
 		}
 	}
 
 	/**
-	 * Writes <code>stringLength</code> characters of a String.
+	 * Reads a primitive field of node <code>idx</code> without deserializing the element.
 	 *
-	 * @param dest
-	 * @param dOff
-	 * @param s
-	 * @param stringLength
-	 * @throws InstantiationException
-	 * @throws IllegalAccessException
+	 * @param idx
+	 * @param field primitive field of the base class
+	 * @return the bits of the field, see {@link FieldIndex#toBits(Object)}
 	 */
-	private void writeString(final Object dest, final long dOff, final String s, final int stringLength) throws InstantiationException, IllegalAccessException {
-		if (s != null) {
-			final char[] arr = new char[stringLength];
-			s.getChars(0, stringLength, arr, 0);
-			for (int i = 0; i < stringLength; i++) {
-				copyObject(char.class, Direction.SERIALIZE, arr, Unsafe.ARRAY_CHAR_BASE_OFFSET + (long) i * UnsafeHelper.CHAR_FIELD_SIZE, dest,
-						dOff + i * UnsafeHelper.CHAR_FIELD_SIZE);
-			}
-		}
+	long readField(final long idx, final FieldMetadata field) {
+		return readField(field, backingArray, fieldOffset(idx, field));
 	}
 
 	/**
-	 * Reads a String with a length of <code>stringLength</code>.
+	 * Reads a serialized primitive field, e.g. of an image.
 	 *
-	 * @param src
-	 * @param sOff
-	 * @param stringLength
-	 * @return The String or <code>NULL</code> if the length is <code>NULL</code>
-	 * @throws InstantiationException
-	 * @throws IllegalAccessException
+	 * @param field primitive field
+	 * @param src object containing the field, <code>NULL</code> for native memory
+	 * @param off offset of the field
+	 * @return the bits of the field, see {@link FieldIndex#toBits(Object)}
 	 */
-	private String readString(final Object src, final long sOff, final Integer stringLength) throws InstantiationException, IllegalAccessException {
-		if (stringLength == null) return null;
-		final char[] arr = new char[stringLength];
-		for (int i = 0; i < stringLength; i++) {
-			copyObject(char.class, Direction.DESERIALIZE, src, sOff + i * UnsafeHelper.CHAR_FIELD_SIZE, arr,
-					Unsafe.ARRAY_CHAR_BASE_OFFSET + (long) i * UnsafeHelper.CHAR_FIELD_SIZE);
+	static long readField(final FieldMetadata field, final Object src, final long off) {
+		switch (field.getType()) {
+		case BOOL:
+		case BYTE:
+			return getUnsafe().getByte(src, off);
+		case CHAR:
+			return getUnsafe().getChar(src, off);
+		case SHORT:
+			return getUnsafe().getShort(src, off);
+		case INT:
+		case FLOAT:
+			return getUnsafe().getInt(src, off);
+		case LONG:
+		case DOUBLE:
+			return getUnsafe().getLong(src, off);
+		default:
+			throw new IllegalArgumentException("Not a primitive field: " + field.getFieldName());
 		}
-		return String.valueOf(arr);
 	}
 
 	/**
-	 * Writes the length of a {@link de.tub.cit.slist.bdos.annotation.FixedLength FixedLength} String|Array|Collection or {@link Integer#MIN_VALUE} iff length
-	 * is <code>NULL</code>.
+	 * Maps the bits of a primitive field to an unsigned key of the field's width, which sorts in the order of the values when compared by
+	 * {@link Long#compareUnsigned(long, long)} or byte by byte. Floating-point values are ordered like {@link Double#compare(double, double)}.
 	 *
-	 * @param length
-	 * @param dest
-	 * @param dOff
+	 * @param field primitive field
+	 * @param bits as returned by {@link #readField(long, FieldMetadata)}
+	 * @return the key
 	 */
-	private void writeFixedLength(final Integer length, final Object dest, final long dOff) {
-		getUnsafe().putInt(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, length != null ? length : Integer.MIN_VALUE);
+	static long sortKey(final FieldMetadata field, final long bits) {
+		switch (field.getType()) {
+		case BOOL:
+		case CHAR:
+			return bits;
+		case FLOAT:
+			final int f = Float.floatToIntBits(Float.intBitsToFloat((int) bits));
+			return (f ^ ((f >> 31) & Integer.MAX_VALUE) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+		case DOUBLE:
+			final long d = Double.doubleToLongBits(Double.longBitsToDouble(bits));
+			return d ^ ((d >> 63) & Long.MAX_VALUE) ^ Long.MIN_VALUE;
+		default:
+			// flip the sign bit of the field width
+			final int width = (int) field.getLength() * Byte.SIZE;
+			final long flipped = bits ^ (1L << (width - 1));
+			return width == Long.SIZE ? flipped : flipped & ((1L << width) - 1);
+		}
 	}
 
 	/**
-	 * Gets the length of a {@link de.tub.cit.slist.bdos.annotation.FixedLength FixedLength} String|Array|Collection.
+	 * Compares a String field of two nodes lexicographically like {@link String#compareTo(String)}, reading the characters in place instead of deserializing
+	 * the Strings. <code>NULL</code> is less than any String.
 	 *
-	 * @param src
-	 * @param sOff
-	 * @return lenth or <code>NULL</code> iff value is {@link Integer#MIN_VALUE}.
+	 * @param a
+	 * @param b
+	 * @param field String field of the base class
+	 * @return a negative integer, zero, or a positive integer as the String of <code>a</code> is less than, equal to, or greater than the one of <code>b</code>
 	 */
-	private Integer readFixedLength(final Object src, final long sOff) {
-		final int ret = getUnsafe().getInt(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
-		return ret == Integer.MIN_VALUE ? null : ret;
-	}
-
-	private void writeDynamicField(final FieldMetadata field, final Object src, final long sOff, final Object dest, final long dOff)
-			throws InstantiationException, IllegalAccessException {
-		final Object copySrc = getUnsafe().getObject(src, sOff);
-		final boolean isNull = copySrc == null;
-		getUnsafe().putBoolean(dest, dOff, isNull);
-		long addr = getUnsafe().getLong(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
-		if (isNull) {
-			getUnsafe().putLong(dest, dOff, Long.MIN_VALUE);
-			if (addr > 0) {
-				deallocateDynamicMemory(addr);
-			}
-			return;
+	int compareStrings(final long a, final long b, final FieldMetadata field) {
+		final long offA = fieldOffset(a, field);
+		final long offB = fieldOffset(b, field);
+		final int lengthA = stringLength(offA, field);
+		final int lengthB = stringLength(offB, field);
+		if (lengthA < 0 || lengthB < 0) return Integer.compare(lengthA < 0 ? 0 : 1, lengthB < 0 ? 0 : 1);
+		final long charsA = stringChars(offA, field);
+		final long charsB = stringChars(offB, field);
+		final int length = Math.min(lengthA, lengthB);
+		for (int i = 0; i < length; i++) {
+			final char c1 = getUnsafe().getChar(backingArray, charsA + (long) i * UnsafeHelper.CHAR_FIELD_SIZE);
+			final char c2 = getUnsafe().getChar(backingArray, charsB + (long) i * UnsafeHelper.CHAR_FIELD_SIZE);
+			if (c1 != c2) return c1 - c2;
 		}
+		return lengthA - lengthB;
+	}
 
+	/**
+	 * @param off offset of a String field
+	 * @param field
+	 * @return number of characters, <code>-1</code> if the String is <code>NULL</code>
+	 */
+	private int stringLength(final long off, final FieldMetadata field) {
 		switch (field.getType()) {
+		case STRING_FIXED:
+			final Integer length = readFixedLength(backingArray, off);
+			return length == null ? -1 : length;
 		case STRING:
-			final String s = (String) copySrc;
-			final int payloadLength = s.length();
-			if (addr > 0 && getUnsafe().getLong(backingArray, addr) != payloadLength) {
-				deallocateDynamicMemory(addr);
-				addr = Long.MIN_VALUE;
-			}
-			if (addr <= 0) {
-				addr = allocateDynamicMemory((long) payloadLength * UnsafeHelper.CHAR_FIELD_SIZE);
-			}
-			writeString(backingArray, addr + UnsafeHelper.LONG_FIELD_SIZE, s, payloadLength);
-			getUnsafe().putLong(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, addr);
-			break;
-		case ARRAY:
-		case COLLECTION:
+			final long addr = getUnsafe().getLong(backingArray, off + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+			if (getUnsafe().getBoolean(backingArray, off) || addr == 0) return -1;
+			return (int) (allocator.getSize(addr) / UnsafeHelper.CHAR_FIELD_SIZE);
 		default:
-			throw new UnsupportedOperationException();
-		}
-		/*
-		 * TODO
-		 * source is null && destination hat adresse? -> löschen und return
-		 * länge ermitteln
-		 * destination hat adresse:
-		 * länge identisch? -> adresse übernehmen
-		 * sonst löschen
-		 * keine adresse? -> speicher allozieren
-		 * nicht genug platz? -> exception
-		 * feld an adresse schreiben
-		 * adresse in destination schreiben
-		 */
-	}
-
-	private void readDynamicField(final FieldMetadata field, final Object src, final long sOff, final Object dest, final long dOff)
-			throws InstantiationException, IllegalAccessException {
-		if (!getUnsafe().getBoolean(src, sOff)) {
-			Object copyDest = null;
-			switch (field.getType()) {
-			case STRING:
-				final long addr = getUnsafe().getLong(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
-				if (addr >= 0) {
-					final long size = getUnsafe().getLong(backingArray, addr);
-					final Integer payloadLength = Long.MIN_VALUE == size ? null : (int) size / UnsafeHelper.CHAR_FIELD_SIZE;
-					copyDest = readString(backingArray, addr + UnsafeHelper.LONG_FIELD_SIZE, payloadLength);
-				}
-				break;
-			case ARRAY:
-				// final Object copyDest = getUnsafe().allocateInstance(field.getClazz());
-			case COLLECTION:
-			default:
-				throw new UnsupportedOperationException();
-			}
-			/*
-			 * TODO
-			 * adresse ermitteln
-			 * länge ermitteln
-			 * feld lesen
-			 */
-			getUnsafe().putObject(dest, dOff, copyDest);
-		} else {
-			getUnsafe().putObject(dest, dOff, null);
+			throw new IllegalArgumentException("Not a String field: " + field.getFieldName());
 		}
 	}
 
 	/**
-	 * ersten freien block entsprechender groesse finden. fehler, falls kein platz.
-	 *
-	 * @param objectSize
-	 * @return
-	 * @throws OutOfDynamicMemoryException
+	 * @param off offset of a String field not being <code>NULL</code>
+	 * @param field
+	 * @return offset of the first character
 	 */
-	private FreeBlockAddress findFirstFreeDynamicBlock(final long objectSize) {
-		if (firstFreeDynamicBlock == 0)
-			throw new OutOfDynamicMemoryException(String.format(CANNOT_ALLOCATE_D_BYTES_OF_DYNAMIC_MEMORY, objectSize + UnsafeHelper.LONG_FIELD_SIZE));
-		return findFreeDynamicBlock(objectSize, firstFreeDynamicBlock);
+	private long stringChars(final long off, final FieldMetadata field) {
+		if (field.getType() == FieldType.STRING_FIXED) return off + UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.INT_FIELD_SIZE;
+		return getUnsafe().getLong(backingArray, off + UnsafeHelper.BOOLEAN_FIELD_SIZE);
 	}
 
-	private FreeBlockAddress findFreeDynamicBlock(final long objectSize, final long blockAddr) {
-		return findFreeDynamicBlock(objectSize, new FreeBlockAddress(blockAddr));
+	/**
+	 * Removes the nodes <code>[from, from + count)</code> from all indexes before they are overwritten.
+	 */
+	private void unindex(final long from, final long count) {
+		if (indexes.isEmpty()) return;
+		for (long idx = from; idx < from + count; idx++) {
+			for (final FieldIndex<T> index : indexes) {
+				index.remove(idx);
+			}
+		}
 	}
 
-	private FreeBlockAddress findFreeDynamicBlock(final long objectSize, final FreeBlockAddress blockAddr) {
-		if (getUnsafe().getLong(backingArray, blockAddr.address) > objectSize + UnsafeHelper.LONG_FIELD_SIZE)
-			return blockAddr;
-		else {
-			// look for next block
-			final long nextBlockAddr = blockAddr.address + FREE_LIST_NEXT_POINTER_OFFSET;
-			if (nextBlockAddr > dynamicMemorySize)
-				throw new OutOfDynamicMemoryException(String.format(CANNOT_ALLOCATE_D_BYTES_OF_DYNAMIC_MEMORY, objectSize + UnsafeHelper.LONG_FIELD_SIZE));
-			final long nextBlock = getUnsafe().getLong(backingArray, nextBlockAddr);
-			if (nextBlock == 0) // last free block reached
-				throw new OutOfDynamicMemoryException(String.format(CANNOT_ALLOCATE_D_BYTES_OF_DYNAMIC_MEMORY, objectSize + UnsafeHelper.LONG_FIELD_SIZE));
-			blockAddr.previousAddress = blockAddr.address;
-			blockAddr.address = nextBlock;
-			return findFreeDynamicBlock(objectSize, blockAddr);
+	/**
+	 * Adds the nodes of <code>[from, from + count)</code> not being <code>NULL</code> to all indexes after they have been written.
+	 */
+	private void index(final long from, final long count) {
+		if (indexes.isEmpty()) return;
+		for (long idx = from; idx < from + count; idx++) {
+			if (isNull(idx)) {
+				continue;
+			}
+			for (final FieldIndex<T> index : indexes) {
+				index.add(idx);
+			}
 		}
 	}
 
 	/**
-	 * Allocate first free block with sufficient size and update free-block management info.
+	 * Moves the nodes <code>[from, from + count)</code>, including their metadata, to <code>[to, to + count)</code> with a single bulk copy. The ranges may
+	 * overlap. Nodes of the target range outside the source range are overwritten, i.e. their dynamic memory is freed. Nodes of the source range outside the
+	 * target range are set to <code>NULL</code> without freeing their dynamic memory, which now belongs to the moved nodes.
 	 *
-	 * @param objectSize
-	 * @return start address of the new block
-	 * @throws OutOfDynamicMemoryException no block of sufficient size left
+	 * @param from
+	 * @param to
+	 * @param count
 	 */
-	private long allocateDynamicMemory(final long objectSize) {
-		final FreeBlockAddress addr = findFirstFreeDynamicBlock(objectSize);
-		final long requiredSize = objectSize + DYNAMIC_METADATA_SIZE;
-		final long blockSize = getUnsafe().getLong(backingArray, addr.address);
-		final long nextBlock = getUnsafe().getLong(backingArray, addr.address + FREE_LIST_NEXT_POINTER_OFFSET); // is 0 if last free
-		final long nextBlockToSet;
-		if (blockSize > requiredSize) {
-			// split block
-			nextBlockToSet = addr.address + requiredSize;
-			// update size of free block
-			getUnsafe().putLong(backingArray, nextBlockToSet, blockSize - requiredSize);
-			// set pointer to next block
-			getUnsafe().putLong(backingArray, nextBlockToSet + FREE_LIST_NEXT_POINTER_OFFSET, nextBlock);
-		} else {
-			nextBlockToSet = nextBlock;
-		}
-
-		// update previous block to point to new next free block
-		if (addr.previousAddress < 0) {
-			// first free block
-			firstFreeDynamicBlock = nextBlockToSet;
-		} else {
-			getUnsafe().putLong(backingArray, addr.previousAddress + FREE_LIST_NEXT_POINTER_OFFSET, nextBlockToSet);
-			// NULify pointer of this block
-			getUnsafe().putLong(backingArray, addr.address + FREE_LIST_NEXT_POINTER_OFFSET, 0);
+	public void moveRandomAccess(final long from, final long to, final long count) {
+		if (count <= 0 || from == to) return;
+		checkIndexBounds(from);
+		checkIndexBounds(from + count - 1);
+		checkIndexBounds(to);
+		checkIndexBounds(to + count - 1);
+		// target nodes not being part of the source
+		final long overwriteFrom = to < from ? to : Math.max(to, from + count);
+		final long overwriteTo = to < from ? Math.min(to + count, from) : to + count;
+		for (long idx = overwriteFrom; idx < overwriteTo; idx++) {
+			visitDynamicNode(idx, this::freeDynamicPointer);
 		}
-		// set size
-		getUnsafe().putLong(backingArray, addr.address, objectSize);
-		return addr.address;
+		unindex(from, count);
+		unindex(to, count);
+		copyNodes(this, from, to, count);
+		// source nodes not being part of the target
+		final long vacatedFrom = to < from ? Math.max(from, to + count) : from;
+		final long vacatedTo = to < from ? from + count : Math.min(from + count, to);
+		clearNodes(vacatedFrom, vacatedTo - vacatedFrom);
+		index(to, count);
 	}
 
 	/**
-	 * Deallocates the block at the given address.
-	 *
-	 * This means, memory is being NULified and free-block management info updated.
+	 * Creates an empty serializer of the same class and metadata size with at least twice the configured size of this one and room for at least
+	 * <code>minCapacity</code> elements. Together with {@link #copyRandomAccess(OffHeapSerializer, long, long, long)} containers grow by doubling.
 	 *
-	 * @param address
-	 * @return size of deallocated memory
+	 * @param minCapacity
+	 * @return the new serializer
+	 * @throws IllegalArgumentException if the configured memory location cannot provide the required size
 	 */
-	private long deallocateDynamicMemory(final long address) {
-		if (address < dynamicMemoryStart || address > dynamicMemoryStart + dynamicMemorySize)
-			throw new IndexOutOfBoundsException(String.format("Address not in dynamic memory (0x%x)", address));
-
-		final long blockSize = getUnsafe().getLong(backingArray, address) + DYNAMIC_METADATA_SIZE;
-		// clear block contents
-		getUnsafe().setMemory(backingArray, address, blockSize, (byte) 0);
-
-		if (firstFreeDynamicBlock > 0) {
-			long previousFreeBlock = firstFreeDynamicBlock;
-			long nextFreeBlock = getUnsafe().getLong(backingArray, previousFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET);
-			while (nextFreeBlock < address && nextFreeBlock != 0) {
-				previousFreeBlock = nextFreeBlock;
-				nextFreeBlock = getUnsafe().getLong(backingArray, previousFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET);
-			}
-			if (address < firstFreeDynamicBlock) {
-				// this will be the first free block
-				if (address + blockSize < firstFreeDynamicBlock) {
-					getUnsafe().putLong(backingArray, address + FREE_LIST_NEXT_POINTER_OFFSET, firstFreeDynamicBlock);
-					getUnsafe().putLong(backingArray, address, blockSize);
-				} else {
-					// adjacent blocks
-					final long sizeAdjacentBlock = getUnsafe().getLong(backingArray, firstFreeDynamicBlock);
-					final long nextPointerAdjacentBlock = getUnsafe().getLong(backingArray, firstFreeDynamicBlock + FREE_LIST_NEXT_POINTER_OFFSET);
-					getUnsafe().putLong(backingArray, address + FREE_LIST_NEXT_POINTER_OFFSET, nextPointerAdjacentBlock);
-					getUnsafe().putLong(backingArray, address, blockSize + sizeAdjacentBlock);
-					getUnsafe().putLong(backingArray, firstFreeDynamicBlock, 0);
-					getUnsafe().putLong(backingArray, firstFreeDynamicBlock + FREE_LIST_NEXT_POINTER_OFFSET, 0);
-				}
-				firstFreeDynamicBlock = address;
-			} else if (nextFreeBlock == 0) {
-				// this will be the last free block
-				final long sizePreviousFreeBlock = getUnsafe().getLong(backingArray, previousFreeBlock);
-				if (previousFreeBlock + sizePreviousFreeBlock < address) {
-					getUnsafe().putLong(backingArray, previousFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET, address);
-					getUnsafe().putLong(backingArray, address, blockSize);
-				} else {
-					// adjacent blocks
-					getUnsafe().putLong(backingArray, previousFreeBlock, blockSize + sizePreviousFreeBlock);
-				}
-			} else {
-				// free blocks ahead and behind
-				long totalBlockSize = blockSize;
-				boolean nextFreeBlockAdjacent = false;
-				if (address + blockSize >= nextFreeBlock) {
-					// next free block is adjacent
-					nextFreeBlockAdjacent = true;
-					totalBlockSize += getUnsafe().getLong(backingArray, nextFreeBlock);
-					nextFreeBlock = getUnsafe().getLong(backingArray, nextFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET);
-					getUnsafe().putLong(backingArray, nextFreeBlock, 0);
-					getUnsafe().putLong(backingArray, nextFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET, 0);
-				}
-				final long sizePreviousFreeBlock = getUnsafe().getLong(backingArray, previousFreeBlock);
-				if (previousFreeBlock + sizePreviousFreeBlock < address) {
-					// previous free block is adjacent
-					totalBlockSize += sizePreviousFreeBlock;
-					getUnsafe().putLong(backingArray, previousFreeBlock, totalBlockSize);
-					if (nextFreeBlockAdjacent) {
-						getUnsafe().putLong(backingArray, previousFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET, nextFreeBlock);
-					}
-				} else {
-					// set metadata in current block
-					getUnsafe().putLong(backingArray, address, totalBlockSize);
-					getUnsafe().putLong(backingArray, address + FREE_LIST_NEXT_POINTER_OFFSET, nextFreeBlock);
-					getUnsafe().putLong(backingArray, previousFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET, address);
+	public OffHeapSerializer<T> createLarger(final long minCapacity) {
+		long newSize = config.getSize();
+		while (true) {
+			newSize = newSize > Long.MAX_VALUE / 2 ? Long.MAX_VALUE : newSize * 2;
+			final OHSConfig newConfig = (new ConfigFactory()).withConfig(config).withSize(newSize).build();
+			final OffHeapSerializer<T> larger = new OffHeapSerializer<>(baseClass, newConfig, metadataSize - METADATA_STATUS_SIZE);
+			if (larger.getMaxElementCount() >= minCapacity) {
+				for (final FieldIndex<T> index : indexes) {
+					index.createOn(larger);
 				}
+				return larger;
 			}
-		} else {
-			// no free blocks
-			firstFreeDynamicBlock = address;
-			getUnsafe().putLong(backingArray, address, blockSize);
+			larger.destroy();
 		}
-		return blockSize;
 	}
 
 	/**
-	 * Copies a primitive of type <code>type</code> from <code>src</code> to <code>dest</code>, using double-register mode.
+	 * Copies the nodes <code>[from, from + count)</code>, including their metadata, to the nodes <code>[to, to + count)</code> of another serializer of the
+	 * same class and metadata size, e.g. when a container grows. The target nodes must be <code>NULL</code>. Without dynamic-length fields the nodes are
+	 * copied in bulk, otherwise the elements are serialized again into the dynamic memory of <code>dest</code>.
 	 *
-	 * @param type
-	 * @param src
-	 * @param srcOffset
 	 * @param dest
-	 * @param destOffset
+	 * @param from
+	 * @param to
+	 * @param count
 	 */
-	private void copyPrimitive(final FieldType type, final Object src, final long srcOffset, final Object dest, final long destOffset) {
-		switch (type) {
-		case BOOL:
-			getUnsafe().putBoolean(dest, destOffset, getUnsafe().getBoolean(src, srcOffset));
-			break;
-		case BYTE:
-			getUnsafe().putByte(dest, destOffset, getUnsafe().getByte(src, srcOffset));
-			break;
-		case CHAR:
-			getUnsafe().putChar(dest, destOffset, getUnsafe().getChar(src, srcOffset));
-			break;
-		case DOUBLE:
-			getUnsafe().putDouble(dest, destOffset, getUnsafe().getDouble(src, srcOffset));
-			break;
-		case FLOAT:
-			getUnsafe().putFloat(dest, destOffset, getUnsafe().getFloat(src, srcOffset));
-			break;
-		case INT:
-			getUnsafe().putInt(dest, destOffset, getUnsafe().getInt(src, srcOffset));
-			break;
-		case LONG:
-			getUnsafe().putLong(dest, destOffset, getUnsafe().getLong(src, srcOffset));
-			break;
-		case SHORT:
-			getUnsafe().putShort(dest, destOffset, getUnsafe().getShort(src, srcOffset));
-			break;
-		default:
-			break;
+	public void copyRandomAccess(final OffHeapSerializer<T> dest, final long from, final long to, final long count) {
+		if (dest.baseClass != baseClass || dest.nodeSize != nodeSize || dest.columnar != columnar)
+			throw new IllegalArgumentException("Incompatible node layout of the target serializer.");
+		if (count <= 0) return;
+		checkIndexBounds(from);
+		checkIndexBounds(from + count - 1);
+		dest.checkIndexBounds(to);
+		dest.checkIndexBounds(to + count - 1);
+		dest.unindex(to, count);
+		if (!hasDynamicFields(baseClass)) {
+			copyNodes(dest, from, to, count);
+			dest.index(to, count);
+			return;
 		}
-	}
-
-	/**
-	 * Sets a block in a random access manner (Array-like).<br />
-	 * <strong>WARNING!</strong> This is not compatible with List-access. Only one mode must be used!
-	 *
-	 * @param idx
-	 * @param element
-	 */
-	public void setRandomAccess(final long idx, final T element) {
-		checkIndexBounds(idx);
-		if (element != null) {
+		T element = null;
+		for (long i = 0; i < count; i++) {
+			getUnsafe().copyMemory(backingArray, offset(from + i, false), dest.backingArray, dest.offset(to + i, false), metadataSize);
+			if (isNull(from + i)) {
+				continue;
+			}
+			element = element == null ? getRandomAccess(from + i) : getRandomAccess(element, from + i);
 			try {
-				copyObject(baseClass, Direction.SERIALIZE, element, 0, backingArray, offset(idx));
-				setNull(idx, false);
+				dest.serializeNode(element, to + i);
 			} catch (final InstantiationException | IllegalAccessException e) {
 				throw new UndeclaredThrowableException(e);
 			}
-		} else {
-			// TODO: delete dynamic length fields
-			getUnsafe().setMemory(offset(idx), elementSize, (byte) 0);
-			setNull(idx, true);
+			dest.index(to + i, 1);
 		}
 	}
 
@@ -740,6 +1855,7 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 	/**
 	 * Gets a block in a random access manner (Array-like). This method is faster than {@link #getRandomAccess(long)} because no Object allocation needs to
 	 * be done.<br />
+	 * Reading is safe from concurrent threads as long as no thread modifies the serializer.<br />
 	 * <strong>WARNING!</strong> This is not compatible with List-access. Only one mode must be used!
 	 *
 	 * @param dest pre-allocated destination object
@@ -750,7 +1866,13 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 		checkIndexBounds(idx);
 		if (isNull(idx)) return null;
 		try {
-			copyObject(baseClass, Direction.DESERIALIZE, backingArray, offset(idx), dest, 0);
+			final Object src = columnar ? gather(idx) : backingArray;
+			final long off = columnar ? Unsafe.ARRAY_BYTE_BASE_OFFSET : offset(idx);
+			if (codec != null) {
+				codec.deserialize(src, off, dest, 0);
+			} else {
+				copyObject(baseClass, Direction.DESERIALIZE, src, off, dest, 0);
+			}
 		} catch (final InstantiationException | IllegalAccessException e) {
 			throw new UndeclaredThrowableException(e);
 		}
@@ -930,6 +2052,11 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 	 * frees the memory
 	 */
 	public void destroy() {
+		if (destroyed) return;
+		destroyed = true;
+		for (final FieldIndex<T> index : indexes) {
+			index.destroy();
+		}
 		if (backingArray != null) {
 			backingArray = null;
 		} else {
@@ -957,7 +2084,130 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 	 * @return
 	 */
 	private long offset(final long idx, final boolean includeMetadataOffset) {
-		return (idx * nodeSize) + (includeMetadataOffset ? metadataSize : 0) + (backingArray == null ? address : Unsafe.ARRAY_BYTE_BASE_OFFSET);
+		// columnar elements have no offset, their fields are addressed by fieldOffset()
+		assert !(columnar && includeMetadataOffset);
+		if (columnar) return (idx * metadataSize) + base();
+		return (idx * nodeSize) + (includeMetadataOffset ? metadataSize : 0) + base();
+	}
+
+	/**
+	 * @return relative or absolute offset of the static memory
+	 */
+	private long base() {
+		return backingArray == null ? address : Unsafe.ARRAY_BYTE_BASE_OFFSET;
+	}
+
+	/**
+	 * Returns the offset of a top-level field of the element with index idx. In the columnar layout, all nodes' metadata is followed by one column per field
+	 * in the order of the serialized fields, so the column of a field starts at <code>maxElementCount</code> times its serialized offset.
+	 *
+	 * @param idx
+	 * @param field field of the base class
+	 * @return
+	 */
+	private long fieldOffset(final long idx, final FieldMetadata field) {
+		if (!columnar) return offset(idx) + field.getSerializedOffset();
+		return maxElementCount * (metadataSize + field.getSerializedOffset()) + (idx * field.getLength()) + base();
+	}
+
+	/**
+	 * @return offset of the row behind the columns, holding the element being (de)serialized in the columnar layout
+	 */
+	private long row() {
+		return maxElementCount * nodeSize + base();
+	}
+
+	/**
+	 * Returns the offset of the element with index idx in the format of a row. In the columnar layout, the fields are gathered into the {@link #row()}
+	 * first, which must be written back by {@link #store(long)} after modifying it.
+	 *
+	 * @param idx
+	 * @return
+	 */
+	private long load(final long idx) {
+		if (!columnar) return offset(idx);
+		final long row = row();
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			getUnsafe().copyMemory(backingArray, fieldOffset(idx, field), backingArray, row + field.getSerializedOffset(), field.getLength());
+		}
+		return row;
+	}
+
+	/**
+	 * Gathers the fields of node idx into a row on the heap of the calling thread. Unlike {@link #load(long)}, concurrent readers do not share the row.
+	 *
+	 * @param idx
+	 * @return the row
+	 */
+	private byte[] gather(final long idx) {
+		byte[] row = ROW_BUFFER.get();
+		if (row.length < elementSize) {
+			row = new byte[(int) elementSize];
+			ROW_BUFFER.set(row);
+		}
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			getUnsafe().copyMemory(backingArray, fieldOffset(idx, field), row, Unsafe.ARRAY_BYTE_BASE_OFFSET + field.getSerializedOffset(), field.getLength());
+		}
+		return row;
+	}
+
+	/**
+	 * Scatters the {@link #row()} into the columns of node idx. Does nothing in the row layout.
+	 *
+	 * @param idx
+	 */
+	private void store(final long idx) {
+		if (!columnar) return;
+		final long row = row();
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			getUnsafe().copyMemory(backingArray, row + field.getSerializedOffset(), backingArray, fieldOffset(idx, field), field.getLength());
+		}
+	}
+
+	/**
+	 * Zeroes the element of node idx, keeping its metadata.
+	 *
+	 * @param idx
+	 */
+	private void clearElement(final long idx) {
+		if (!columnar) {
+			getUnsafe().setMemory(backingArray, offset(idx), elementSize, (byte) 0);
+			return;
+		}
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			getUnsafe().setMemory(backingArray, fieldOffset(idx, field), field.getLength(), (byte) 0);
+		}
+	}
+
+	/**
+	 * Zeroes the nodes <code>[from, from + count)</code>, including their metadata.
+	 */
+	private void clearNodes(final long from, final long count) {
+		if (count <= 0) return;
+		if (!columnar) {
+			getUnsafe().setMemory(backingArray, offset(from, false), count * nodeSize, (byte) 0);
+			return;
+		}
+		getUnsafe().setMemory(backingArray, offset(from, false), count * metadataSize, (byte) 0);
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			getUnsafe().setMemory(backingArray, fieldOffset(from, field), count * field.getLength(), (byte) 0);
+		}
+	}
+
+	/**
+	 * Copies the nodes <code>[from, from + count)</code> including their metadata byte by byte to <code>[to, to + count)</code> of <code>dest</code>, with
+	 * memmove semantics. Dynamic memory is not copied.
+	 */
+	private void copyNodes(final OffHeapSerializer<T> dest, final long from, final long to, final long count) {
+		// copyMemory has memmove semantics
+		if (!columnar) {
+			getUnsafe().copyMemory(backingArray, offset(from, false), dest.backingArray, dest.offset(to, false), count * nodeSize);
+			return;
+		}
+		getUnsafe().copyMemory(backingArray, offset(from, false), dest.backingArray, dest.offset(to, false), count * metadataSize);
+		for (final FieldMetadata field : classMetadata.get(baseClass).getFields()) {
+			getUnsafe().copyMemory(backingArray, fieldOffset(from, field), dest.backingArray, dest.fieldOffset(to, field), count * field.getLength());
+		}
 	}
 
 	/**
@@ -972,10 +2222,30 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 		return maxElementCount;
 	}
 
+	public OHSConfig getConfig() {
+		return config;
+	}
+
 	public long getElementSize() {
 		return elementSize;
 	}
 
+	/**
+	 * @return usable size of the memory for variable-length elements
+	 * @see DynamicMemoryAllocator#getCapacity()
+	 */
+	public long getDynamicMemorySize() {
+		return allocator.getCapacity();
+	}
+
+	/**
+	 * @return sum of the sizes of all free dynamic blocks, including their metadata
+	 * @see DynamicMemoryAllocator#getFreeMemory()
+	 */
+	public long getFreeDynamicMemory() {
+		return allocator.getFreeMemory();
+	}
+
 	@Override
 	protected void finalize() throws Throwable {
 		destroy();
@@ -986,12 +2256,98 @@ public class OffHeapSerializer<T extends Serializable> implements Serializable {
 		SERIALIZE, DESERIALIZE
 	}
 
-	private class FreeBlockAddress {
-		long	address;
-		long	previousAddress	= -1;
+	/**
+	 * Callback for the pointers to dynamic blocks.
+	 */
+	@FunctionalInterface
+	private interface PointerVisitor {
+		/**
+		 * @param field the String|Array|Collection|Map field
+		 * @param off offset of the field (isNull indicator)
+		 */
+		void visit(FieldMetadata field, long off);
+	}
+
+	/**
+	 * Iterator over the slots matching a bound condition.
+	 */
+	private class ScanIterator implements PrimitiveIterator.OfLong {
+		private final LongPredicate	predicate;
+		/** next matching slot, <code>maxElementCount</code> if there is none */
+		private long				next;
+
+		ScanIterator(final LongPredicate predicate) {
+			this.predicate = predicate;
+			this.next = match(0);
+		}
+
+		private long match(final long from) {
+			long idx = from;
+			while (idx < maxElementCount && (isNull(idx) || !predicate.test(idx))) {
+				idx++;
+			}
+			return idx;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < maxElementCount;
+		}
+
+		@Override
+		public long nextLong() {
+			if (next >= maxElementCount) throw new NoSuchElementException();
+			final long slot = next;
+			next = match(slot + 1);
+			return slot;
+		}
+	}
+
+	/**
+	 * The dynamic blocks found by {@link OffHeapSerializer#compact()} in the order of discovery. Every block is referenced by exactly one pointer.
+	 */
+	private static class LiveBlocks {
+		/** payload addresses of the blocks */
+		long[]	addresses	= new long[16];
+		/** offsets of the pointers to the blocks */
+		long[]	pointers	= new long[16];
+		/** index of the block containing the pointer, <code>-1</code> for the static memory */
+		int[]	owners		= new int[16];
+		int		size		= 0;
+
+		/**
+		 * @param address
+		 * @param pointer
+		 * @param owner
+		 * @return index of the block
+		 */
+		int add(final long address, final long pointer, final int owner) {
+			if (size == addresses.length) {
+				addresses = Arrays.copyOf(addresses, size * 2);
+				pointers = Arrays.copyOf(pointers, size * 2);
+				owners = Arrays.copyOf(owners, size * 2);
+			}
+			addresses[size] = address;
+			pointers[size] = pointer;
+			owners[size] = owner;
+			return size++;
+		}
+	}
+
+	/**
+	 * Fallback of generated codecs: copies the fields lacking a specialized codec by interpreting their metadata.
+	 */
+	private class ReflectiveFieldCopier implements FieldCopier {
+		@Override
+		public void serialize(final FieldMetadata field, final Object src, final long sOff, final Object dest, final long dOff)
+				throws InstantiationException, IllegalAccessException {
+			copyField(field, Direction.SERIALIZE, src, sOff, dest, dOff);
+		}
 
-		FreeBlockAddress(final long address) {
-			this.address = address;
+		@Override
+		public void deserialize(final FieldMetadata field, final Object src, final long sOff, final Object dest, final long dOff)
+				throws InstantiationException, IllegalAccessException {
+			copyField(field, Direction.DESERIALIZE, src, sOff, dest, dOff);
 		}
 	}
 
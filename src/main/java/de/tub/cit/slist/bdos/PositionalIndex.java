@@ -0,0 +1,249 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import de.tub.cit.slist.bdos.util.BigDataCollectionHelper;
+
+/**
+ * Optional index of a {@link BigDataLinkedList} for positional access in <code>O(sqrt(n))</code>.<br />
+ * The list is partitioned into chunks of consecutive nodes, each holding between <code>K/2</code> and <code>2K</code> nodes with
+ * <code>K = sqrt(capacity)</code>. The chunks are kept in list order together with their first node and their size, every node stores the id of its chunk
+ * in its metadata. A lookup sums up the chunk sizes and walks at most <code>2K</code> nodes within the chunk. Linking and unlinking a node updates its
+ * chunk, a chunk is split when it exceeds <code>2K</code> nodes and merged with its neighbour when it falls below <code>K/2</code> nodes, which takes
+ * <code>O(K)</code> steps.<br />
+ * The list has to be consistent, i.e. all next pointers set, whenever the index is updated.
+ *
+ * @param <T>
+ */
+class PositionalIndex<T extends Serializable> implements Serializable {
+	private static final long serialVersionUID = -5150412003853452263L;
+
+	private static final int MIN_CHUNK_SIZE = 8;
+
+	private final OffHeapSerializer<T>	serializer;
+	/** target size <code>K</code> of a chunk */
+	private final int					chunkSize;
+
+	/** chunk ids in list order */
+	private int[]	order	= new int[16];
+	/** number of chunks */
+	private int		chunks	= 0;
+	/** first node per chunk id */
+	private int[]	heads	= new int[16];
+	/** number of nodes per chunk id */
+	private int[]	sizes	= new int[16];
+	/** ids of removed chunks, reused before new ids */
+	private int[]	freeIds	= new int[16];
+	private int		freeIdCount;
+	/** smallest id not used so far */
+	private int		nextId;
+
+	PositionalIndex(final OffHeapSerializer<T> serializer) {
+		this.serializer = serializer;
+		this.chunkSize = Math.max(MIN_CHUNK_SIZE, (int) Math.sqrt(serializer.getMaxElementCount()));
+	}
+
+	int getChunkSize() {
+		return chunkSize;
+	}
+
+	void clear() {
+		chunks = 0;
+		freeIdCount = 0;
+		nextId = 0;
+	}
+
+	/**
+	 * Rebuilds the index after the nodes have been reordered, filling every chunk with <code>K</code> nodes.
+	 *
+	 * @param first first node of the list, <code>-1</code> if it is empty
+	 */
+	void rebuild(final int first) {
+		clear();
+		int chunk = -1;
+		for (int x = first; x != -1; x = BigDataCollectionHelper.getNextPointer(serializer, x)) {
+			if (chunk == -1 || sizes[chunk] == chunkSize) {
+				chunk = newChunk(x, 0);
+				insertChunk(chunks, chunk);
+			}
+			setChunk(x, chunk);
+			sizes[chunk]++;
+		}
+	}
+
+	/**
+	 * @param index position within the list, must be valid
+	 * @return the node at position <code>index</code>
+	 */
+	int node(final int index) {
+		int pos = index;
+		for (int i = 0; i < chunks; i++) {
+			final int chunk = order[i];
+			if (pos < sizes[chunk]) {
+				int x = heads[chunk];
+				for (; pos > 0; pos--) {
+					x = BigDataCollectionHelper.getNextPointer(serializer, x);
+				}
+				return x;
+			}
+			pos -= sizes[chunk];
+		}
+		throw new IndexOutOfBoundsException("Index: " + index);
+	}
+
+	/**
+	 * Adds a node which has been linked after <code>pred</code>.
+	 *
+	 * @param node
+	 * @param pred preceding node, <code>-1</code> if the node is the only one
+	 */
+	void linkAfter(final int node, final int pred) {
+		if (pred == -1) {
+			firstChunk(node);
+			return;
+		}
+		final int chunk = getChunk(pred);
+		setChunk(node, chunk);
+		sizes[chunk]++;
+		splitIfNeeded(chunk);
+	}
+
+	/**
+	 * Adds a node which has been linked before <code>succ</code>.
+	 *
+	 * @param node
+	 * @param succ succeeding node, <code>-1</code> if the node is the only one
+	 */
+	void linkBefore(final int node, final int succ) {
+		if (succ == -1) {
+			firstChunk(node);
+			return;
+		}
+		final int chunk = getChunk(succ);
+		setChunk(node, chunk);
+		sizes[chunk]++;
+		if (heads[chunk] == succ) {
+			heads[chunk] = node;
+		}
+		splitIfNeeded(chunk);
+	}
+
+	/**
+	 * Removes a node, which must still be linked to its successor.
+	 *
+	 * @param node
+	 */
+	void unlink(final int node) {
+		final int chunk = getChunk(node);
+		sizes[chunk]--;
+		if (sizes[chunk] == 0) {
+			removeChunk(position(chunk));
+			return;
+		}
+		if (heads[chunk] == node) {
+			heads[chunk] = BigDataCollectionHelper.getNextPointer(serializer, node);
+		}
+		if (sizes[chunk] < chunkSize / 2 && chunks > 1) {
+			final int pos = position(chunk);
+			// merge with the succeeding chunk, the last chunk with its predecessor
+			final int first = pos + 1 < chunks ? pos : pos - 1;
+			if (sizes[order[first]] + sizes[order[first + 1]] <= 2 * chunkSize) {
+				merge(first);
+			}
+		}
+	}
+
+	private void firstChunk(final int node) {
+		clear();
+		final int chunk = newChunk(node, 1);
+		setChunk(node, chunk);
+		insertChunk(0, chunk);
+	}
+
+	/**
+	 * Moves the second half of a chunk exceeding <code>2K</code> nodes into a new chunk.
+	 *
+	 * @param chunk
+	 */
+	private void splitIfNeeded(final int chunk) {
+		if (sizes[chunk] <= 2 * chunkSize) return;
+		int x = heads[chunk];
+		for (int i = 0; i < chunkSize; i++) {
+			x = BigDataCollectionHelper.getNextPointer(serializer, x);
+		}
+		final int split = newChunk(x, sizes[chunk] - chunkSize);
+		sizes[chunk] = chunkSize;
+		for (int i = 0; i < sizes[split]; i++) {
+			setChunk(x, split);
+			x = BigDataCollectionHelper.getNextPointer(serializer, x);
+		}
+		insertChunk(position(chunk) + 1, split);
+	}
+
+	/**
+	 * Moves all nodes of the chunk at position <code>pos + 1</code> into the chunk at <code>pos</code>.
+	 *
+	 * @param pos
+	 */
+	private void merge(final int pos) {
+		final int chunk = order[pos];
+		final int next = order[pos + 1];
+		int x = heads[next];
+		for (int i = 0; i < sizes[next]; i++) {
+			setChunk(x, chunk);
+			x = BigDataCollectionHelper.getNextPointer(serializer, x);
+		}
+		sizes[chunk] += sizes[next];
+		removeChunk(pos + 1);
+	}
+
+	private int newChunk(final int head, final int size) {
+		final int chunk = freeIdCount > 0 ? freeIds[--freeIdCount] : nextId++;
+		if (chunk == heads.length) {
+			heads = Arrays.copyOf(heads, chunk * 2);
+			sizes = Arrays.copyOf(sizes, chunk * 2);
+		}
+		heads[chunk] = head;
+		sizes[chunk] = size;
+		return chunk;
+	}
+
+	private void insertChunk(final int pos, final int chunk) {
+		if (chunks == order.length) {
+			order = Arrays.copyOf(order, chunks * 2);
+		}
+		System.arraycopy(order, pos, order, pos + 1, chunks - pos);
+		order[pos] = chunk;
+		chunks++;
+	}
+
+	private void removeChunk(final int pos) {
+		if (freeIdCount == freeIds.length) {
+			freeIds = Arrays.copyOf(freeIds, freeIdCount * 2);
+		}
+		freeIds[freeIdCount++] = order[pos];
+		System.arraycopy(order, pos + 1, order, pos, chunks - pos - 1);
+		chunks--;
+	}
+
+	/**
+	 * @param chunk
+	 * @return position of the chunk in list order
+	 */
+	private int position(final int chunk) {
+		for (int i = 0; i < chunks; i++) {
+			if (order[i] == chunk) return i;
+		}
+		throw new IllegalStateException("Chunk " + chunk + " is not part of the index.");
+	}
+
+	private int getChunk(final int node) {
+		return BigDataCollectionHelper.getChunk(serializer, node);
+	}
+
+	private void setChunk(final int node, final int chunk) {
+		BigDataCollectionHelper.setChunk(serializer, node, chunk);
+	}
+
+}
@@ -0,0 +1,306 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+
+/**
+ * Sorted index answering the slots whose field lies in a range, in ascending order of the field. The indexed nodes form a treap ordered by field value and
+ * slot, whose priorities are derived from the slots. As in {@link HashIndex} no values are stored: the tree links are indexed by slot and the field values
+ * are read in place from the serialized nodes, so a range query costs <code>O(log n)</code> plus the size of its result.<br />
+ * The links are kept in memory of the serializer's {@link MemoryLocation}, three times {@value #ENTRY_SIZE} bytes per slot. Child links are stored
+ * incremented by one, parent links by two, so zeroed memory denotes an empty index. Floating-point values are ordered like {@link Double#compare(double, double)},
+ * i.e. <code>-0.0</code> is less than <code>0.0</code> and <code>NaN</code> is greater than any other value.
+ *
+ * @param <T>
+ * @see OffHeapSerializer#createRangeIndex(String)
+ */
+public class RangeIndex<T extends Serializable> extends FieldIndex<T> {
+	private static final long serialVersionUID = -1842207387530542236L;
+
+	/** link to the parent of the root */
+	private static final long ROOT = 1;
+
+	/** number of slots of the serializer */
+	private final long capacity;
+
+	/** root node plus one, <code>0</code> if empty */
+	private long	root	= 0;
+	/** number of indexed nodes */
+	private long	size	= 0;
+
+	RangeIndex(final OffHeapSerializer<T> serializer, final FieldMetadata field) {
+		super(serializer, field, 3 * serializer.getMaxElementCount());
+		this.capacity = serializer.getMaxElementCount();
+	}
+
+	/** left child plus one */
+	private long left(final long idx) {
+		return get(idx);
+	}
+
+	private void setLeft(final long idx, final long link) {
+		put(idx, link);
+	}
+
+	/** right child plus one */
+	private long right(final long idx) {
+		return get(capacity + idx);
+	}
+
+	private void setRight(final long idx, final long link) {
+		put(capacity + idx, link);
+	}
+
+	/** parent plus two, {@value #ROOT} for the root, <code>0</code> if not indexed */
+	private long parent(final long idx) {
+		return get(2 * capacity + idx);
+	}
+
+	private void setParent(final long idx, final long link) {
+		put(2 * capacity + idx, link);
+	}
+
+	/**
+	 * @param bits bits of a field value
+	 * @return a key whose signed order is the order of the field values
+	 */
+	private long sortKey(final long bits) {
+		switch (field.getType()) {
+		case FLOAT:
+			final int f = Float.floatToIntBits(Float.intBitsToFloat((int) bits));
+			return f ^ ((f >> 31) & Integer.MAX_VALUE);
+		case DOUBLE:
+			final long d = Double.doubleToLongBits(Double.longBitsToDouble(bits));
+			return d ^ ((d >> 63) & Long.MAX_VALUE);
+		default:
+			return bits;
+		}
+	}
+
+	private long key(final long idx) {
+		return sortKey(read(idx));
+	}
+
+	/**
+	 * @return heap priority of a slot, a mix of its bits
+	 */
+	private static long priority(final long idx) {
+		long h = idx * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		h *= 0xD6E8FEB86659FD93L;
+		return h ^ (h >>> 32);
+	}
+
+	@Override
+	void add(final long idx) {
+		final long key = key(idx);
+		long p = 0;
+		boolean leftChild = false;
+		for (long c = root; c != 0;) {
+			p = c;
+			final long otherKey = key(c - 1);
+			leftChild = key < otherKey || key == otherKey && idx < c - 1;
+			c = leftChild ? left(c - 1) : right(c - 1);
+		}
+		setLeft(idx, 0);
+		setRight(idx, 0);
+		if (p == 0) {
+			root = idx + 1;
+			setParent(idx, ROOT);
+		} else {
+			if (leftChild) {
+				setLeft(p - 1, idx + 1);
+			} else {
+				setRight(p - 1, idx + 1);
+			}
+			setParent(idx, p + 1);
+		}
+		final long prio = priority(idx);
+		while (parent(idx) != ROOT && priority(parent(idx) - 2) < prio) {
+			rotateUp(idx);
+		}
+		size++;
+	}
+
+	@Override
+	void remove(final long idx) {
+		if (parent(idx) == 0) return;
+		// rotate down to a leaf, keeping the heap order of the children
+		while (true) {
+			final long l = left(idx);
+			final long r = right(idx);
+			if (l == 0 && r == 0) {
+				break;
+			}
+			rotateUp(r == 0 || l != 0 && priority(l - 1) > priority(r - 1) ? l - 1 : r - 1);
+		}
+		final long p = parent(idx);
+		if (p == ROOT) {
+			root = 0;
+		} else if (left(p - 2) == idx + 1) {
+			setLeft(p - 2, 0);
+		} else {
+			setRight(p - 2, 0);
+		}
+		setParent(idx, 0);
+		size--;
+	}
+
+	/**
+	 * Rotates node <code>idx</code> above its parent.
+	 */
+	private void rotateUp(final long idx) {
+		final long p = parent(idx) - 2;
+		final long grandparent = parent(p);
+		if (left(p) == idx + 1) {
+			final long inner = right(idx);
+			setLeft(p, inner);
+			if (inner != 0) {
+				setParent(inner - 1, p + 2);
+			}
+			setRight(idx, p + 1);
+		} else {
+			final long inner = left(idx);
+			setRight(p, inner);
+			if (inner != 0) {
+				setParent(inner - 1, p + 2);
+			}
+			setLeft(idx, p + 1);
+		}
+		setParent(p, idx + 2);
+		setParent(idx, grandparent);
+		if (grandparent == ROOT) {
+			root = idx + 1;
+		} else if (left(grandparent - 2) == p + 1) {
+			setLeft(grandparent - 2, idx + 1);
+		} else {
+			setRight(grandparent - 2, idx + 1);
+		}
+	}
+
+	/**
+	 * @return the successor of node <code>idx</code> in field order plus one, <code>0</code> if it is the last one
+	 */
+	private long successor(final long idx) {
+		long c = right(idx);
+		if (c != 0) {
+			while (left(c - 1) != 0) {
+				c = left(c - 1);
+			}
+			return c;
+		}
+		long child = idx + 1;
+		for (long p = parent(idx); p != ROOT; p = parent(p - 2)) {
+			if (left(p - 2) == child) return p - 1;
+			child = p - 1;
+		}
+		return 0;
+	}
+
+	@Override
+	void clear() {
+		super.clear();
+		root = 0;
+		size = 0;
+	}
+
+	@Override
+	void createOn(final OffHeapSerializer<T> other) {
+		other.createRangeIndex(getFieldName());
+	}
+
+	/**
+	 * Returns the slots whose field lies between <code>from</code> and <code>to</code>, in ascending order of the field and, for equal values, of the slots.
+	 * The serializer must not be modified during the iteration.
+	 *
+	 * @param from lower bound, <code>NULL</code> for none
+	 * @param fromInclusive
+	 * @param to upper bound, <code>NULL</code> for none
+	 * @param toInclusive
+	 * @return iterator over the slot indices
+	 * @see #toBits(Object)
+	 */
+	public PrimitiveIterator.OfLong range(final Object from, final boolean fromInclusive, final Object to, final boolean toInclusive) {
+		long first = 0;
+		if (from == null) {
+			first = root;
+			while (first != 0 && left(first - 1) != 0) {
+				first = left(first - 1);
+			}
+		} else {
+			final long fromKey = sortKey(toBits(from));
+			for (long c = root; c != 0;) {
+				final long key = key(c - 1);
+				if (key > fromKey || fromInclusive && key == fromKey) {
+					first = c;
+					c = left(c - 1);
+				} else {
+					c = right(c - 1);
+				}
+			}
+		}
+		return to == null ? new Range(first, Long.MAX_VALUE, true) : new Range(first, sortKey(toBits(to)), toInclusive);
+	}
+
+	/**
+	 * @param from lower bound, <code>NULL</code> for none
+	 * @param fromInclusive
+	 * @param to upper bound, <code>NULL</code> for none
+	 * @param toInclusive
+	 * @return number of slots whose field lies in the range
+	 */
+	public long count(final Object from, final boolean fromInclusive, final Object to, final boolean toInclusive) {
+		long count = 0;
+		for (final PrimitiveIterator.OfLong it = range(from, fromInclusive, to, toInclusive); it.hasNext(); it.nextLong()) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * @return number of indexed nodes, i.e. nodes not being <code>NULL</code>
+	 */
+	public long size() {
+		return size;
+	}
+
+	private class Range implements PrimitiveIterator.OfLong {
+		private final long		toKey;
+		private final boolean	toInclusive;
+		/** next slot in range, plus one */
+		private long			next;
+
+		Range(final long first, final long toKey, final boolean toInclusive) {
+			this.toKey = toKey;
+			this.toInclusive = toInclusive;
+			this.next = check(first);
+		}
+
+		/**
+		 * @param candidate slot plus one
+		 * @return <code>candidate</code> if it lies in the range, <code>0</code> otherwise
+		 */
+		private long check(final long candidate) {
+			if (candidate == 0) return 0;
+			final long key = key(candidate - 1);
+			return key < toKey || toInclusive && key == toKey ? candidate : 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != 0;
+		}
+
+		@Override
+		public long nextLong() {
+			if (next == 0) throw new NoSuchElementException();
+			final long slot = next - 1;
+			next = check(successor(slot));
+			return slot;
+		}
+	}
+}
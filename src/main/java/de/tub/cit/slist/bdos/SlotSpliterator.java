@@ -0,0 +1,85 @@
+package de.tub.cit.slist.bdos;
+
+import java.io.Serializable;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the nodes <code>[index, fence)</code> of a serializer in the order of the slots. A range is split evenly in halves, which makes the
+ * partitions of a parallel stream read disjoint ranges of memory. Elements are deserialized only when they are traversed; the serializer must not be
+ * modified meanwhile.<br />
+ * <code>NULL</code> nodes are either skipped by their status byte, then the size of a range is only an upper bound, or traversed as <code>NULL</code>
+ * elements, then the spliterator is {@link Spliterator#SIZED SIZED} and {@link Spliterator#SUBSIZED SUBSIZED}.
+ *
+ * @param <T>
+ * @see OffHeapSerializer#spliterator()
+ */
+final class SlotSpliterator<T extends Serializable> implements Spliterator<T> {
+	private final OffHeapSerializer<T>	serializer;
+	/** <code>true</code> if <code>NULL</code> nodes are skipped */
+	private final boolean				skipNulls;
+	/** next node */
+	private long						index;
+	/** node behind the range */
+	private final long					fence;
+
+	/**
+	 * @param serializer
+	 * @param from first node
+	 * @param to node behind the range
+	 * @param skipNulls <code>true</code> to skip <code>NULL</code> nodes, <code>false</code> to traverse them as <code>NULL</code> elements
+	 */
+	SlotSpliterator(final OffHeapSerializer<T> serializer, final long from, final long to, final boolean skipNulls) {
+		this.serializer = serializer;
+		this.index = from;
+		this.fence = to;
+		this.skipNulls = skipNulls;
+	}
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super T> action) {
+		while (index < fence) {
+			final long idx = index++;
+			if (skipNulls && serializer.isNull(idx)) {
+				continue;
+			}
+			action.accept(serializer.getRandomAccess(idx));
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(final Consumer<? super T> action) {
+		final long to = fence;
+		for (long idx = index; idx < to; idx++) {
+			if (skipNulls && serializer.isNull(idx)) {
+				continue;
+			}
+			action.accept(serializer.getRandomAccess(idx));
+		}
+		index = to;
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		final long from = index;
+		final long mid = (from + fence) >>> 1;
+		if (mid <= from) return null;
+		index = mid;
+		return new SlotSpliterator<>(serializer, from, mid, skipNulls);
+	}
+
+	/**
+	 * @return number of remaining nodes, an upper bound of the remaining elements if <code>NULL</code> nodes are skipped
+	 */
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | (skipNulls ? NONNULL : SIZED | SUBSIZED);
+	}
+}
@@ -0,0 +1,25 @@
+package de.tub.cit.slist.bdos.annotation;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Annotation used to mark primitive fields to be indexed.<br />
+ * Every {@link de.tub.cit.slist.bdos.OffHeapSerializer} of the declaring class creates a {@link de.tub.cit.slist.bdos.HashIndex} on the field, which
+ * answers the slots holding a given value without deserializing any element.
+ * </p>
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface Indexed {
+	/**
+	 * @return <code>true</code> to create a {@link de.tub.cit.slist.bdos.RangeIndex} answering ranges of values instead
+	 */
+	boolean sorted() default false;
+}
@@ -0,0 +1,51 @@
+package de.tub.cit.slist.bdos.codec;
+
+/**
+ * Generated serializer/deserializer pair of a class. Consists of one {@link FieldCodec} per field, in order of the serialized layout.
+ */
+public final class ClassCodec {
+	private final FieldCodec[] fields;
+
+	ClassCodec(final FieldCodec[] fields) {
+		super();
+		this.fields = fields;
+	}
+
+	/**
+	 * Serializes the object <code>src</code>.
+	 *
+	 * @param src
+	 * @param srcOffset
+	 * @param dest
+	 * @param destOffset
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) throws InstantiationException, IllegalAccessException {
+		for (final FieldCodec field : fields) {
+			field.serialize(src, srcOffset, dest, destOffset);
+		}
+	}
+
+	/**
+	 * Deserializes into the (pre-allocated) object <code>dest</code>.
+	 *
+	 * @param src
+	 * @param srcOffset
+	 * @param dest
+	 * @param destOffset
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset)
+			throws InstantiationException, IllegalAccessException {
+		for (final FieldCodec field : fields) {
+			field.deserialize(src, srcOffset, dest, destOffset);
+		}
+	}
+
+	FieldCodec[] getFields() {
+		return fields;
+	}
+
+}
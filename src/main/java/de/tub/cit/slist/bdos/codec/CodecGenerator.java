@@ -0,0 +1,72 @@
+package de.tub.cit.slist.bdos.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.tub.cit.slist.bdos.metadata.ClassMetadata;
+import de.tub.cit.slist.bdos.metadata.CopyRun;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.util.SerializerHelper;
+
+/**
+ * Builds {@link ClassCodec}s out of {@link ClassMetadata}. The metadata is interpreted exactly once per class; the resulting codec only consists of field
+ * codecs with resolved offsets, nested objects are linked to the codec of their class directly.
+ */
+public class CodecGenerator {
+
+	private CodecGenerator() {
+	}
+
+	/**
+	 * Generates the codec for <code>clazz</code> and all classes reachable through nested objects.
+	 *
+	 * @param clazz
+	 * @param classMetadata metadata of <code>clazz</code> and all of its nested classes
+	 * @param fallback used for all fields without a specialized codec
+	 * @return {@link ClassCodec}
+	 */
+	public static ClassCodec generate(final Class<?> clazz, final Map<Class<?>, ClassMetadata> classMetadata, final FieldCopier fallback) {
+		return generate(clazz, classMetadata, fallback, new HashMap<>());
+	}
+
+	private static ClassCodec generate(final Class<?> clazz, final Map<Class<?>, ClassMetadata> classMetadata, final FieldCopier fallback,
+			final Map<Class<?>, ClassCodec> generated) {
+		ClassCodec codec = generated.get(clazz);
+		if (codec != null) return codec;
+
+		final ClassMetadata metadata = classMetadata.get(clazz);
+		final CopyRun[] runs = metadata.getCopyRuns();
+		final FieldMetadata[] fields = metadata.getRemainingFields();
+		final FieldCodec[] fieldCodecs = new FieldCodec[runs.length + fields.length];
+		codec = new ClassCodec(fieldCodecs);
+		generated.put(clazz, codec);
+		for (int i = 0; i < runs.length; i++) {
+			fieldCodecs[i] = new CopyRunCodec(runs[i]);
+		}
+		for (int i = 0; i < fields.length; i++) {
+			final FieldMetadata field = fields[i];
+			FieldCodec fieldCodec = PrimitiveFieldCodecs.of(field);
+			if (fieldCodec == null) {
+				switch (field.getType()) {
+				case OBJECT:
+					if (SerializerHelper.hasDynamicFields(field.getClazz(), classMetadata)) {
+						// dynamic memory of the nested object has to be released when it is set to NULL
+						fieldCodec = new DelegatingFieldCodec(field, fallback);
+						break;
+					}
+					final ObjectFieldCodec objectCodec = new ObjectFieldCodec(field.getOffset(), field.getSerializedOffset(), field.getClazz(),
+							classMetadata.get(field.getClazz()).getLength());
+					objectCodec.setCodec(generate(field.getClazz(), classMetadata, fallback, generated));
+					fieldCodec = objectCodec;
+					break;
+				default:
+					fieldCodec = new DelegatingFieldCodec(field, fallback);
+					break;
+				}
+			}
+			fieldCodecs[runs.length + i] = fieldCodec;
+		}
+		return codec;
+	}
+
+}
@@ -0,0 +1,27 @@
+package de.tub.cit.slist.bdos.codec;
+
+import de.tub.cit.slist.bdos.metadata.CopyRun;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+
+/**
+ * {@link FieldCodec} of a {@link CopyRun}: all adjacent primitive fields are copied with a single memory copy.
+ */
+final class CopyRunCodec extends FieldCodec {
+	private final long length;
+
+	CopyRunCodec(final CopyRun run) {
+		super(run.getOffset(), run.getSerializedOffset());
+		this.length = run.getLength();
+	}
+
+	@Override
+	public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+		UnsafeHelper.copyMemory(src, srcOffset + offset, dest, destOffset + serializedOffset, length);
+	}
+
+	@Override
+	public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+		UnsafeHelper.copyMemory(src, srcOffset + serializedOffset, dest, destOffset + offset, length);
+	}
+
+}
@@ -0,0 +1,30 @@
+package de.tub.cit.slist.bdos.codec;
+
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+
+/**
+ * {@link FieldCodec} handing the field over to a {@link FieldCopier}. Used for all field types without a specialized codec.
+ */
+final class DelegatingFieldCodec extends FieldCodec {
+	private final FieldMetadata	field;
+	private final FieldCopier	copier;
+
+	DelegatingFieldCodec(final FieldMetadata field, final FieldCopier copier) {
+		super(field.getOffset(), field.getSerializedOffset());
+		this.field = field;
+		this.copier = copier;
+	}
+
+	@Override
+	public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset)
+			throws InstantiationException, IllegalAccessException {
+		copier.serialize(field, src, srcOffset + offset, dest, destOffset + serializedOffset);
+	}
+
+	@Override
+	public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset)
+			throws InstantiationException, IllegalAccessException {
+		copier.deserialize(field, src, srcOffset + serializedOffset, dest, destOffset + offset);
+	}
+
+}
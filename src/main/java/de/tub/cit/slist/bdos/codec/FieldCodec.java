@@ -0,0 +1,43 @@
+package de.tub.cit.slist.bdos.codec;
+
+/**
+ * Specialized serializer/deserializer of a single field. Instances are created once per class by {@link CodecGenerator} with all offsets resolved, so that
+ * no metadata lookup is necessary while copying.
+ */
+public abstract class FieldCodec {
+	/** offset within the object */
+	protected final long	offset;
+	/** offset in serialized form */
+	protected final long	serializedOffset;
+
+	protected FieldCodec(final long offset, final long serializedOffset) {
+		super();
+		this.offset = offset;
+		this.serializedOffset = serializedOffset;
+	}
+
+	/**
+	 * Copies the field from the object <code>src</code> into its serialized form.
+	 *
+	 * @param src
+	 * @param srcOffset offset of the object containing the field
+	 * @param dest
+	 * @param destOffset offset of the serialized object containing the field
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public abstract void serialize(Object src, long srcOffset, Object dest, long destOffset) throws InstantiationException, IllegalAccessException;
+
+	/**
+	 * Copies the field from its serialized form into the object <code>dest</code>.
+	 *
+	 * @param src
+	 * @param srcOffset offset of the serialized object containing the field
+	 * @param dest
+	 * @param destOffset offset of the object containing the field
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public abstract void deserialize(Object src, long srcOffset, Object dest, long destOffset) throws InstantiationException, IllegalAccessException;
+
+}
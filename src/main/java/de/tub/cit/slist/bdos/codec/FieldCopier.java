@@ -0,0 +1,14 @@
+package de.tub.cit.slist.bdos.codec;
+
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+
+/**
+ * Fallback for fields without a specialized {@link FieldCodec}, usually the reflective copy of the serializer. Offsets point directly to the field.
+ */
+public interface FieldCopier {
+
+	void serialize(FieldMetadata field, Object src, long sOff, Object dest, long dOff) throws InstantiationException, IllegalAccessException;
+
+	void deserialize(FieldMetadata field, Object src, long sOff, Object dest, long dOff) throws InstantiationException, IllegalAccessException;
+
+}
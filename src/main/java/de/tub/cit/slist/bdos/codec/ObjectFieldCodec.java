@@ -0,0 +1,56 @@
+package de.tub.cit.slist.bdos.codec;
+
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+import sun.misc.Unsafe;
+
+/**
+ * {@link FieldCodec} of a nested object: <code>NULL</code> indicator followed by the object serialized by its own {@link ClassCodec}.
+ */
+@SuppressWarnings("restriction")
+final class ObjectFieldCodec extends FieldCodec {
+	private static final Unsafe UNSAFE = UnsafeHelper.getUnsafe();
+
+	/** class of the nested object */
+	private final Class<?>	clazz;
+	/** serialized length of the nested object */
+	private final long		length;
+	/** codec of the nested object; set after construction to allow recursive types */
+	private ClassCodec		codec;
+
+	ObjectFieldCodec(final long offset, final long serializedOffset, final Class<?> clazz, final long length) {
+		super(offset, serializedOffset);
+		this.clazz = clazz;
+		this.length = length;
+	}
+
+	void setCodec(final ClassCodec codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset)
+			throws InstantiationException, IllegalAccessException {
+		final Object copySrc = UNSAFE.getObject(src, srcOffset + offset);
+		final long dOff = destOffset + serializedOffset;
+		UNSAFE.putBoolean(dest, dOff, copySrc == null);
+		if (copySrc != null) {
+			codec.serialize(copySrc, 0, dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE);
+		} else {
+			UNSAFE.setMemory(dest, dOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, length, (byte) 0);
+		}
+	}
+
+	@Override
+	public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset)
+			throws InstantiationException, IllegalAccessException {
+		final long sOff = srcOffset + serializedOffset;
+		if (!UNSAFE.getBoolean(src, sOff)) {
+			final Object copyDest = UNSAFE.allocateInstance(clazz);
+			codec.deserialize(src, sOff + UnsafeHelper.BOOLEAN_FIELD_SIZE, copyDest, 0);
+			UNSAFE.putObject(dest, destOffset + offset, copyDest);
+		} else {
+			UNSAFE.putObject(dest, destOffset + offset, null);
+		}
+	}
+
+}
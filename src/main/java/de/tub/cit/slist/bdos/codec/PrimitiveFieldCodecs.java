@@ -0,0 +1,174 @@
+package de.tub.cit.slist.bdos.codec;
+
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+import sun.misc.Unsafe;
+
+/**
+ * {@link FieldCodec}s of the primitive field types. Each of them is a plain Unsafe read and write without any dispatch.
+ */
+@SuppressWarnings("restriction")
+final class PrimitiveFieldCodecs {
+	private static final Unsafe UNSAFE = UnsafeHelper.getUnsafe();
+
+	private PrimitiveFieldCodecs() {
+	}
+
+	/**
+	 * Creates the {@link FieldCodec} matching the type of a primitive field.
+	 *
+	 * @param field
+	 * @return {@link FieldCodec} or <code>NULL</code> if <code>field</code> is not primitive
+	 */
+	static FieldCodec of(final FieldMetadata field) {
+		switch (field.getType()) {
+		case BOOL:
+			return new BoolCodec(field.getOffset(), field.getSerializedOffset());
+		case BYTE:
+			return new ByteCodec(field.getOffset(), field.getSerializedOffset());
+		case CHAR:
+			return new CharCodec(field.getOffset(), field.getSerializedOffset());
+		case DOUBLE:
+			return new DoubleCodec(field.getOffset(), field.getSerializedOffset());
+		case FLOAT:
+			return new FloatCodec(field.getOffset(), field.getSerializedOffset());
+		case INT:
+			return new IntCodec(field.getOffset(), field.getSerializedOffset());
+		case LONG:
+			return new LongCodec(field.getOffset(), field.getSerializedOffset());
+		case SHORT:
+			return new ShortCodec(field.getOffset(), field.getSerializedOffset());
+		default:
+			return null;
+		}
+	}
+
+	static final class BoolCodec extends FieldCodec {
+		BoolCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putBoolean(dest, destOffset + serializedOffset, UNSAFE.getBoolean(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putBoolean(dest, destOffset + offset, UNSAFE.getBoolean(src, srcOffset + serializedOffset));
+		}
+	}
+
+	static final class ByteCodec extends FieldCodec {
+		ByteCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putByte(dest, destOffset + serializedOffset, UNSAFE.getByte(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putByte(dest, destOffset + offset, UNSAFE.getByte(src, srcOffset + serializedOffset));
+		}
+	}
+
+	static final class CharCodec extends FieldCodec {
+		CharCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putChar(dest, destOffset + serializedOffset, UNSAFE.getChar(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putChar(dest, destOffset + offset, UNSAFE.getChar(src, srcOffset + serializedOffset));
+		}
+	}
+
+	static final class DoubleCodec extends FieldCodec {
+		DoubleCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putDouble(dest, destOffset + serializedOffset, UNSAFE.getDouble(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putDouble(dest, destOffset + offset, UNSAFE.getDouble(src, srcOffset + serializedOffset));
+		}
+	}
+
+	static final class FloatCodec extends FieldCodec {
+		FloatCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putFloat(dest, destOffset + serializedOffset, UNSAFE.getFloat(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putFloat(dest, destOffset + offset, UNSAFE.getFloat(src, srcOffset + serializedOffset));
+		}
+	}
+
+	static final class IntCodec extends FieldCodec {
+		IntCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putInt(dest, destOffset + serializedOffset, UNSAFE.getInt(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putInt(dest, destOffset + offset, UNSAFE.getInt(src, srcOffset + serializedOffset));
+		}
+	}
+
+	static final class LongCodec extends FieldCodec {
+		LongCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putLong(dest, destOffset + serializedOffset, UNSAFE.getLong(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putLong(dest, destOffset + offset, UNSAFE.getLong(src, srcOffset + serializedOffset));
+		}
+	}
+
+	static final class ShortCodec extends FieldCodec {
+		ShortCodec(final long offset, final long serializedOffset) {
+			super(offset, serializedOffset);
+		}
+
+		@Override
+		public void serialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putShort(dest, destOffset + serializedOffset, UNSAFE.getShort(src, srcOffset + offset));
+		}
+
+		@Override
+		public void deserialize(final Object src, final long srcOffset, final Object dest, final long destOffset) {
+			UNSAFE.putShort(dest, destOffset + offset, UNSAFE.getShort(src, srcOffset + serializedOffset));
+		}
+	}
+
+}
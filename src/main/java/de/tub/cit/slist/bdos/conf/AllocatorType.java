@@ -0,0 +1,11 @@
+package de.tub.cit.slist.bdos.conf;
+
+/**
+ * Strategy managing the memory for dynamic-length elements
+ */
+public enum AllocatorType {
+	/** single address-ordered free list, first fit */
+	FIRST_FIT,
+	/** free lists per size class with boundary tags, constant time coalescing */
+	SEGREGATED_FIT
+}
@@ -59,6 +59,73 @@ public class ConfigFactory {
 		return this;
 	}
 
+	/**
+	 * Enables or disables generated per-class codecs.
+	 *
+	 * @param generatedCodecs
+	 * @return <code>this</code>
+	 */
+	public ConfigFactory withGeneratedCodecs(final boolean generatedCodecs) {
+		config.setGeneratedCodecs(generatedCodecs);
+		return this;
+	}
+
+	/**
+	 * Sets the {@link AllocatorType} of the memory for dynamic-length elements
+	 *
+	 * @param allocator
+	 * @return <code>this</code>
+	 */
+	public ConfigFactory withAllocator(final AllocatorType allocator) {
+		config.setAllocator(allocator);
+		return this;
+	}
+
+	/**
+	 * Sets whether the memory for dynamic-length elements is compacted automatically when an allocation fails
+	 *
+	 * @param autoCompaction
+	 * @return <code>this</code>
+	 */
+	public ConfigFactory withAutoCompaction(final boolean autoCompaction) {
+		config.setAutoCompaction(autoCompaction);
+		return this;
+	}
+
+	/**
+	 * Sets whether lists maintain an index for positional access in <code>O(sqrt(n))</code> instead of <code>O(n)</code>
+	 *
+	 * @param positionalIndex
+	 * @return <code>this</code>
+	 */
+	public ConfigFactory withPositionalIndex(final boolean positionalIndex) {
+		config.setPositionalIndex(positionalIndex);
+		return this;
+	}
+
+	/**
+	 * Sets the arrangement of the nodes. {@link StorageLayout#COLUMNAR} speeds up scans over few fields of wide elements, at the cost of gathering the
+	 * fields when an element is (de)serialized.
+	 *
+	 * @param layout
+	 * @return <code>this</code>
+	 */
+	public ConfigFactory withLayout(final StorageLayout layout) {
+		config.setLayout(layout);
+		return this;
+	}
+
+	/**
+	 * Copies all properties of an existing configuration, e.g. to derive a larger one.
+	 *
+	 * @param other {@link OHSConfig}
+	 * @return <code>this</code>
+	 */
+	public ConfigFactory withConfig(final OHSConfig other) {
+		config.copyFrom(other);
+		return this;
+	}
+
 	/**
 	 * Loads defaults from default file.
 	 *
@@ -23,6 +23,11 @@ public class OHSConfig implements java.io.Serializable {
 	private static final String	PROP_SIZE_TYPE	= "sizeType";
 	private static final String	PROP_LOCATION	= "location";
 	private static final String	PROP_RATIO		= "dynamicRatio";
+	private static final String	PROP_CODECS		= "generatedCodecs";
+	private static final String	PROP_ALLOCATOR	= "allocator";
+	private static final String	PROP_COMPACTION	= "autoCompaction";
+	private static final String	PROP_POSITIONS	= "positionalIndex";
+	private static final String	PROP_LAYOUT		= "layout";
 
 	private static final Properties defaults;
 	static {
@@ -31,6 +36,11 @@ public class OHSConfig implements java.io.Serializable {
 		defaults.setProperty(PROP_SIZE_TYPE, SizeType.ELEMENTS.name());
 		defaults.setProperty(PROP_LOCATION, MemoryLocation.NATIVE_MEMORY.name());
 		defaults.setProperty(PROP_RATIO, "0.2");
+		defaults.setProperty(PROP_CODECS, "false");
+		defaults.setProperty(PROP_ALLOCATOR, AllocatorType.FIRST_FIT.name());
+		defaults.setProperty(PROP_COMPACTION, "true");
+		defaults.setProperty(PROP_POSITIONS, "false");
+		defaults.setProperty(PROP_LAYOUT, StorageLayout.ROW.name());
 	}
 
 	private final Properties properties;
@@ -42,6 +52,15 @@ public class OHSConfig implements java.io.Serializable {
 		properties = new Properties(defaults);
 	}
 
+	/**
+	 * copies all properties set in <code>other</code>
+	 *
+	 * @param other {@link OHSConfig}
+	 */
+	void copyFrom(final OHSConfig other) {
+		properties.putAll(other.properties);
+	}
+
 	/**
 	 * loads properties from file using default resource name {@value #RESOURCE_NAME}
 	 */
@@ -109,6 +128,31 @@ public class OHSConfig implements java.io.Serializable {
 		} catch (final NumberFormatException e) {
 			constructNumberFormatExceptionString(builder, PROP_RATIO, "Double");
 		}
+		try {
+			isGeneratedCodecs();
+		} catch (final IllegalArgumentException e) {
+			constructNumberFormatExceptionString(builder, PROP_CODECS, "Boolean");
+		}
+		try {
+			getAllocator();
+		} catch (final IllegalArgumentException e) {
+			constructEnumExceptionString(builder, PROP_ALLOCATOR, AllocatorType.values());
+		}
+		try {
+			isAutoCompaction();
+		} catch (final IllegalArgumentException e) {
+			constructNumberFormatExceptionString(builder, PROP_COMPACTION, "Boolean");
+		}
+		try {
+			isPositionalIndex();
+		} catch (final IllegalArgumentException e) {
+			constructNumberFormatExceptionString(builder, PROP_POSITIONS, "Boolean");
+		}
+		try {
+			getLayout();
+		} catch (final IllegalArgumentException e) {
+			constructEnumExceptionString(builder, PROP_LAYOUT, StorageLayout.values());
+		}
 		if (builder.length() > 0) // error
 			throw new IllegalArgumentException(builder.toString());
 	}
@@ -169,9 +213,76 @@ public class OHSConfig implements java.io.Serializable {
 		return Double.parseDouble(properties.getProperty(PROP_RATIO));
 	}
 
+	void setGeneratedCodecs(final boolean generatedCodecs) {
+		properties.setProperty(PROP_CODECS, String.valueOf(generatedCodecs));
+	}
+
+	/**
+	 * @return <code>true</code> iff per-class codecs shall be generated instead of interpreting the class metadata on every copy
+	 */
+	public boolean isGeneratedCodecs() {
+		return parseBoolean(properties.getProperty(PROP_CODECS));
+	}
+
+	void setAllocator(final AllocatorType type) {
+		properties.setProperty(PROP_ALLOCATOR, type.name());
+	}
+
+	public AllocatorType getAllocator() {
+		return AllocatorType.valueOf(properties.getProperty(PROP_ALLOCATOR));
+	}
+
+	void setAutoCompaction(final boolean autoCompaction) {
+		properties.setProperty(PROP_COMPACTION, String.valueOf(autoCompaction));
+	}
+
+	/**
+	 * @return <code>true</code> iff the dynamic memory shall be compacted when an allocation fails
+	 */
+	public boolean isAutoCompaction() {
+		return parseBoolean(properties.getProperty(PROP_COMPACTION));
+	}
+
+	void setPositionalIndex(final boolean positionalIndex) {
+		properties.setProperty(PROP_POSITIONS, String.valueOf(positionalIndex));
+	}
+
+	/**
+	 * @return <code>true</code> iff lists shall maintain an index for positional access
+	 */
+	public boolean isPositionalIndex() {
+		return parseBoolean(properties.getProperty(PROP_POSITIONS));
+	}
+
+	void setLayout(final StorageLayout layout) {
+		properties.setProperty(PROP_LAYOUT, layout.name());
+	}
+
+	/**
+	 * @return arrangement of the nodes in the static memory
+	 */
+	public StorageLayout getLayout() {
+		return StorageLayout.valueOf(properties.getProperty(PROP_LAYOUT));
+	}
+
+	/**
+	 * Strict version of {@link Boolean#parseBoolean(String)}.
+	 *
+	 * @param value
+	 * @return boolean value
+	 * @throws IllegalArgumentException if <code>value</code> is neither <code>true</code> nor <code>false</code> (ignoring case)
+	 */
+	private static boolean parseBoolean(final String value) {
+		if ("true".equalsIgnoreCase(value)) return true;
+		if ("false".equalsIgnoreCase(value)) return false;
+		throw new IllegalArgumentException("Not a boolean: " + value);
+	}
+
 	@Override
 	public String toString() {
-		return "OHSConfig [size=" + getSize() + ", sizeType=" + getSizeType() + ", location=" + getLocation() + ", dynamicRatio=" + getDynamicRatio() + "]";
+		return "OHSConfig [size=" + getSize() + ", sizeType=" + getSizeType() + ", location=" + getLocation() + ", dynamicRatio=" + getDynamicRatio()
+				+ ", generatedCodecs=" + isGeneratedCodecs() + ", allocator=" + getAllocator() + ", autoCompaction=" + isAutoCompaction()
+				+ ", positionalIndex=" + isPositionalIndex() + ", layout=" + getLayout() + "]";
 	}
 
 	@Override
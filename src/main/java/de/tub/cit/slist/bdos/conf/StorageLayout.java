@@ -0,0 +1,11 @@
+package de.tub.cit.slist.bdos.conf;
+
+/**
+ * Arrangement of the nodes in the static memory
+ */
+public enum StorageLayout {
+	/** nodes one after another, each holding status, metadata and element */
+	ROW,
+	/** one contiguous column for the metadata and one for every top-level field of the elements */
+	COLUMNAR
+}
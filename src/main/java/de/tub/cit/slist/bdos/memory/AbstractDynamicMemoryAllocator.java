@@ -0,0 +1,171 @@
+package de.tub.cit.slist.bdos.memory;
+
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+import sun.misc.Unsafe;
+
+/**
+ * Base class of the allocators. Every allocated block starts with a header of {@value #HEADER_SIZE} bytes, the payload follows directly. The header holds
+ * the payload size in the lower bytes, the unused remainder of the block (slack) and allocator specific flags in the upper byte. Block sizes are multiples
+ * of {@value #ALIGNMENT}, except for the remainder of the region size.
+ */
+@SuppressWarnings("restriction")
+public abstract class AbstractDynamicMemoryAllocator implements DynamicMemoryAllocator, java.io.Serializable {
+	private static final long serialVersionUID = -4315129807063722271L;
+
+	/** size of the header of a block */
+	public static final int		HEADER_SIZE		= UnsafeHelper.LONG_FIELD_SIZE;
+	/** granularity of block sizes */
+	public static final int		ALIGNMENT		= UnsafeHelper.LONG_FIELD_SIZE;
+	protected static final int	SLACK_SHIFT		= 56;
+	protected static final long	SIZE_MASK		= (1L << SLACK_SHIFT) - 1;
+	protected static final long	SLACK_MASK		= 0x1FL << SLACK_SHIFT;
+	protected static final long	FLAGS_MASK		= ~(SIZE_MASK | SLACK_MASK);
+
+	private static final String CANNOT_ALLOCATE_D_BYTES_OF_DYNAMIC_MEMORY = "Cannot allocate %d bytes of dynamic memory.";
+
+	/** backing array or <code>NULL</code> for native memory */
+	protected final byte[]	base;
+	/** start address of the region */
+	protected final long	start;
+	/** end address (exclusive) of the region */
+	protected final long	end;
+
+	/**
+	 * @param base backing array or <code>NULL</code> for native memory
+	 * @param start start address (offset within <code>base</code>) of the region
+	 * @param size size of the region in bytes
+	 */
+	protected AbstractDynamicMemoryAllocator(final byte[] base, final long start, final long size) {
+		this.base = base;
+		this.start = start;
+		this.end = start + Math.max(size, 0);
+	}
+
+	/**
+	 * @return minimum size of a block, so it can hold the free-block management info once it is deallocated
+	 */
+	protected abstract int minBlockSize();
+
+	/**
+	 * @return flags set in the header of every allocated block whose preceding block is allocated as well
+	 */
+	protected long allocatedFlags() {
+		return 0;
+	}
+
+	/**
+	 * Discards all free-block management info and marks the memory from <code>from</code> to the end of the region as free.
+	 *
+	 * @param from start address of the free memory, the preceding block (if any) is allocated
+	 */
+	protected abstract void initFreeMemory(long from);
+
+	/**
+	 * Returns the size of the block holding <code>size</code> bytes of payload.
+	 *
+	 * @param size payload size
+	 * @return size of the block including its header
+	 */
+	protected long blockSize(final long size) {
+		final long blockSize = ((size + ALIGNMENT - 1) & -ALIGNMENT) + HEADER_SIZE;
+		return Math.max(blockSize, minBlockSize());
+	}
+
+	/**
+	 * @param block start address of an allocated block
+	 * @return size of the block including its header
+	 */
+	protected long allocatedBlockSize(final long block) {
+		final long header = getUnsafe().getLong(base, block);
+		return blockSize(header & SIZE_MASK) + ((header & SLACK_MASK) >>> SLACK_SHIFT);
+	}
+
+	/**
+	 * Sets payload size and slack of an allocated block, retaining its flags.
+	 *
+	 * @param block start address of the block
+	 * @param size payload size
+	 * @param blockSize size of the block including its header
+	 */
+	protected void setAllocatedHeader(final long block, final long size, final long blockSize) {
+		final long flags = getUnsafe().getLong(base, block) & FLAGS_MASK;
+		getUnsafe().putLong(base, block, flags | size | ((blockSize - blockSize(size)) << SLACK_SHIFT));
+	}
+
+	@Override
+	public long getSize(final long address) {
+		return getUnsafe().getLong(base, address - HEADER_SIZE) & SIZE_MASK;
+	}
+
+	@Override
+	public boolean resize(final long address, final long size) {
+		final long block = address - HEADER_SIZE;
+		final long blockSize = allocatedBlockSize(block);
+		final long requiredSize = blockSize(size);
+		if (blockSize < requiredSize || blockSize - requiredSize >= minBlockSize()) return false;
+		setAllocatedHeader(block, size, blockSize);
+		return true;
+	}
+
+	@Override
+	public long getCapacity() {
+		return end - start;
+	}
+
+	@Override
+	public void clear() {
+		initFreeMemory(start);
+	}
+
+	/**
+	 * Slides the blocks down in ascending order, so a block never overwrites one which has not been moved yet. The slack of the blocks is dropped, except for
+	 * a remainder at the end of the region which is too small to form a free block. The unused bytes of a block are NULified.
+	 */
+	@Override
+	public long compact(final long[] addresses, final int count) {
+		final long largestFreeBlock = getLargestFreeBlock();
+		long top = start;
+		for (int i = 0; i < count; i++) {
+			final long size = getSize(addresses[i]);
+			long blockSize = blockSize(size);
+			if (i == count - 1 && end - top - blockSize < minBlockSize()) {
+				blockSize = end - top;
+			}
+			if (addresses[i] != top + HEADER_SIZE) {
+				getUnsafe().copyMemory(base, addresses[i], base, top + HEADER_SIZE, size);
+			}
+			// a block may grow in place, so the remainder must not contain stale pointers
+			getUnsafe().setMemory(base, top + HEADER_SIZE + size, blockSize - HEADER_SIZE - size, (byte) 0);
+			getUnsafe().putLong(base, top, allocatedFlags() | size | ((blockSize - blockSize(size)) << SLACK_SHIFT));
+			addresses[i] = top + HEADER_SIZE;
+			top += blockSize;
+		}
+		initFreeMemory(top);
+		return Math.max(0, (end - top) - largestFreeBlock);
+	}
+
+	/**
+	 * @param address address of a payload
+	 * @return start address of the block
+	 * @throws IndexOutOfBoundsException if <code>address</code> is not within the managed region
+	 */
+	protected long checkedBlock(final long address) {
+		final long block = address - HEADER_SIZE;
+		if (block < start || block >= end) throw new IndexOutOfBoundsException(String.format("Address not in dynamic memory (0x%x)", address));
+		return block;
+	}
+
+	/**
+	 * @param requiredSize size of the block which could not be allocated
+	 * @return the exception to throw
+	 */
+	protected static OutOfDynamicMemoryException outOfMemory(final long requiredSize) {
+		return new OutOfDynamicMemoryException(String.format(CANNOT_ALLOCATE_D_BYTES_OF_DYNAMIC_MEMORY, requiredSize));
+	}
+
+	protected static Unsafe getUnsafe() {
+		return UnsafeHelper.getUnsafe();
+	}
+
+}
@@ -0,0 +1,75 @@
+package de.tub.cit.slist.bdos.memory;
+
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+
+/**
+ * Manages the memory region for dynamic-length elements (Strings, Arrays, Collections, Maps).<br />
+ * Addresses are absolute addresses, or offsets within the backing array if the memory is located on-heap. <code>0</code> is never a valid address and may
+ * be used to mark the absence of a block.
+ */
+public interface DynamicMemoryAllocator {
+
+	/**
+	 * Allocates a block.
+	 *
+	 * @param size payload size in bytes
+	 * @return address of the payload, which is NULified
+	 * @throws OutOfDynamicMemoryException no block of sufficient size left
+	 */
+	long allocate(long size);
+
+	/**
+	 * Deallocates the block at the given address.
+	 *
+	 * @param address address of the payload as returned by {@link #allocate(long)}
+	 * @throws IndexOutOfBoundsException if <code>address</code> is not within the managed region
+	 */
+	void free(long address);
+
+	/**
+	 * @param address address of the payload
+	 * @return payload size in bytes, as requested by {@link #allocate(long)} or {@link #resize(long, long)}
+	 */
+	long getSize(long address);
+
+	/**
+	 * Changes the payload size of a block in place, if it fits into the block without leaving a remainder which could be used by other blocks. The payload
+	 * is not modified.
+	 *
+	 * @param address address of the payload
+	 * @param size new payload size in bytes
+	 * @return <code>true</code> iff the block has been resized, otherwise it has to be reallocated
+	 */
+	boolean resize(long address, long size);
+
+	/**
+	 * @return sum of the sizes of all free blocks, including their metadata
+	 */
+	long getFreeMemory();
+
+	/**
+	 * @return size of the managed region
+	 */
+	long getCapacity();
+
+	/**
+	 * @return size of the largest free block, including its metadata
+	 */
+	long getLargestFreeBlock();
+
+	/**
+	 * Marks the whole region as free.
+	 */
+	void clear();
+
+	/**
+	 * Moves the given blocks to the start of the region without gaps, so all free memory forms a single block at the end. Blocks which are not given are
+	 * deallocated. The payload of a moved block is unchanged, pointers to it have to be updated by the caller.
+	 *
+	 * @param addresses payload addresses of the blocks to keep in ascending order, replaced by their new addresses
+	 * @param count number of blocks in <code>addresses</code>
+	 * @return number of bytes by which the largest free block has grown
+	 */
+	long compact(long[] addresses, int count);
+
+}
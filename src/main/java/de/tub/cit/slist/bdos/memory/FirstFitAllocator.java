@@ -0,0 +1,134 @@
+package de.tub.cit.slist.bdos.memory;
+
+/**
+ * Allocator keeping all free blocks in a single list ordered by address. Allocation takes the first free block with sufficient size, deallocation merges
+ * the block with its adjacent free blocks. Both walk the list, i.e. they are linear in the number of free blocks.<br />
+ * A free block consists of its size followed by the pointer to the next free block (<code>0</code> for the last one).
+ */
+public class FirstFitAllocator extends AbstractDynamicMemoryAllocator {
+	private static final long serialVersionUID = 2290936807925744733L;
+
+	/** offset of the pointer to the next free block within the free-block list */
+	public static final int	FREE_LIST_NEXT_POINTER_OFFSET	= HEADER_SIZE;
+	/** minimum size of a block */
+	public static final int	MIN_BLOCK_SIZE					= FREE_LIST_NEXT_POINTER_OFFSET + Long.BYTES;
+
+	/** pointer to first free block, forms linked list */
+	private long firstFreeBlock;
+
+	public FirstFitAllocator(final byte[] base, final long start, final long size) {
+		super(base, start, size);
+		clear();
+	}
+
+	@Override
+	protected int minBlockSize() {
+		return MIN_BLOCK_SIZE;
+	}
+
+	@Override
+	protected void initFreeMemory(final long from) {
+		if (end - from < MIN_BLOCK_SIZE) {
+			firstFreeBlock = 0;
+			return;
+		}
+		firstFreeBlock = from;
+		getUnsafe().putLong(base, firstFreeBlock, end - from);
+		getUnsafe().putLong(base, firstFreeBlock + FREE_LIST_NEXT_POINTER_OFFSET, 0);
+	}
+
+	/**
+	 * Allocates the first free block with sufficient size and updates the free-block management info. A block is only split if the remainder can hold the
+	 * free-block list info, otherwise the remainder is handed out as part of the block.
+	 */
+	@Override
+	public long allocate(final long size) {
+		final long requiredSize = blockSize(size);
+		long previousBlock = 0;
+		long block = firstFreeBlock;
+		while (block != 0) {
+			final long blockSize = getUnsafe().getLong(base, block);
+			final long nextBlock = getUnsafe().getLong(base, block + FREE_LIST_NEXT_POINTER_OFFSET);
+			if (blockSize >= requiredSize) {
+				final long nextBlockToSet;
+				final long allocatedSize;
+				if (blockSize < requiredSize + MIN_BLOCK_SIZE) {
+					nextBlockToSet = nextBlock;
+					allocatedSize = blockSize;
+				} else {
+					allocatedSize = requiredSize;
+					// split block
+					nextBlockToSet = block + requiredSize;
+					getUnsafe().putLong(base, nextBlockToSet, blockSize - requiredSize);
+					getUnsafe().putLong(base, nextBlockToSet + FREE_LIST_NEXT_POINTER_OFFSET, nextBlock);
+				}
+				// update previous block to point to new next free block
+				if (previousBlock == 0) {
+					firstFreeBlock = nextBlockToSet;
+				} else {
+					getUnsafe().putLong(base, previousBlock + FREE_LIST_NEXT_POINTER_OFFSET, nextBlockToSet);
+				}
+				getUnsafe().setMemory(base, block, allocatedSize, (byte) 0);
+				setAllocatedHeader(block, size, allocatedSize);
+				return block + HEADER_SIZE;
+			}
+			previousBlock = block;
+			block = nextBlock;
+		}
+		throw outOfMemory(requiredSize);
+	}
+
+	/**
+	 * Inserts the block into the free-block list and merges it with adjacent free blocks. Its contents are NULified on the next allocation.
+	 */
+	@Override
+	public void free(final long address) {
+		final long block = checkedBlock(address);
+		final long blockSize = allocatedBlockSize(block);
+		long previousBlock = 0;
+		long nextBlock = firstFreeBlock;
+		while (nextBlock != 0 && nextBlock < block) {
+			previousBlock = nextBlock;
+			nextBlock = getUnsafe().getLong(base, nextBlock + FREE_LIST_NEXT_POINTER_OFFSET);
+		}
+
+		long mergedSize = blockSize;
+		if (nextBlock != 0 && block + blockSize == nextBlock) {
+			// next free block is adjacent
+			mergedSize += getUnsafe().getLong(base, nextBlock);
+			nextBlock = getUnsafe().getLong(base, nextBlock + FREE_LIST_NEXT_POINTER_OFFSET);
+		}
+		if (previousBlock != 0 && previousBlock + getUnsafe().getLong(base, previousBlock) == block) {
+			// previous free block is adjacent
+			getUnsafe().putLong(base, previousBlock, getUnsafe().getLong(base, previousBlock) + mergedSize);
+			getUnsafe().putLong(base, previousBlock + FREE_LIST_NEXT_POINTER_OFFSET, nextBlock);
+		} else {
+			getUnsafe().putLong(base, block, mergedSize);
+			getUnsafe().putLong(base, block + FREE_LIST_NEXT_POINTER_OFFSET, nextBlock);
+			if (previousBlock == 0) {
+				firstFreeBlock = block;
+			} else {
+				getUnsafe().putLong(base, previousBlock + FREE_LIST_NEXT_POINTER_OFFSET, block);
+			}
+		}
+	}
+
+	@Override
+	public long getFreeMemory() {
+		long free = 0;
+		for (long block = firstFreeBlock; block != 0; block = getUnsafe().getLong(base, block + FREE_LIST_NEXT_POINTER_OFFSET)) {
+			free += getUnsafe().getLong(base, block);
+		}
+		return free;
+	}
+
+	@Override
+	public long getLargestFreeBlock() {
+		long largest = 0;
+		for (long block = firstFreeBlock; block != 0; block = getUnsafe().getLong(base, block + FREE_LIST_NEXT_POINTER_OFFSET)) {
+			largest = Math.max(largest, getUnsafe().getLong(base, block));
+		}
+		return largest;
+	}
+
+}
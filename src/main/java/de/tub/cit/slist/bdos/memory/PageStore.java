@@ -0,0 +1,177 @@
+package de.tub.cit.slist.bdos.memory;
+
+import java.util.Arrays;
+
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+import sun.misc.Unsafe;
+
+/**
+ * Fixed-size pages of raw memory, e.g. the nodes of a tree, addressed by their index. Free pages are managed by a {@link SlotAllocator}. When all pages are
+ * in use, the memory is reallocated with twice the number of pages. Since pages are referenced by index rather than address, they remain valid when the
+ * memory moves.
+ */
+@SuppressWarnings("restriction")
+public class PageStore implements java.io.Serializable {
+	private static final long serialVersionUID = -6377458912400612946L;
+
+	/** size of a page in bytes */
+	private final int			pageSize;
+	private final MemoryLocation	location;
+
+	/** backing array or <code>NULL</code> for native memory */
+	private byte[]			backingArray;
+	/** start address of the native memory */
+	private long			address;
+	private SlotAllocator	pages;
+	private boolean			destroyed	= false;
+
+	/**
+	 * @param pageSize size of a page in bytes
+	 * @param capacity initial number of pages
+	 * @param location
+	 */
+	public PageStore(final int pageSize, final int capacity, final MemoryLocation location) {
+		if (pageSize <= 0 || capacity <= 0) throw new IllegalArgumentException("Illegal page size or capacity: " + pageSize + ", " + capacity);
+		this.pageSize = pageSize;
+		this.location = location;
+		final long memorySize = checkSize((long) pageSize * capacity);
+		if (location == MemoryLocation.BYTE_ARRAY) {
+			backingArray = new byte[(int) memorySize];
+		} else {
+			address = getUnsafe().allocateMemory(memorySize);
+		}
+		pages = new SlotAllocator(capacity);
+	}
+
+	private long checkSize(final long memorySize) {
+		if (location == MemoryLocation.BYTE_ARRAY && memorySize > Integer.MAX_VALUE) throw new IllegalArgumentException(
+				"When using BYTE_ARRAY location, max. memory size is " + Integer.MAX_VALUE + ", tried to allocate " + memorySize);
+		return memorySize;
+	}
+
+	/**
+	 * Allocates a page, doubling the number of pages if all are in use. The content of the page is undefined.
+	 *
+	 * @return index of the page
+	 */
+	public int allocate() {
+		if (pages.getAllocated() == getCapacity()) {
+			grow();
+		}
+		return (int) pages.allocate();
+	}
+
+	/**
+	 * @param page index of an allocated page
+	 */
+	public void free(final int page) {
+		pages.free(page);
+	}
+
+	private void grow() {
+		final int capacity = getCapacity();
+		if (capacity == Integer.MAX_VALUE) throw new IllegalArgumentException("Cannot allocate more than " + Integer.MAX_VALUE + " pages.");
+		final int newCapacity = (int) Math.min(Integer.MAX_VALUE, 2L * capacity);
+		final long memorySize = checkSize((long) pageSize * newCapacity);
+		if (backingArray != null) {
+			backingArray = Arrays.copyOf(backingArray, (int) memorySize);
+		} else {
+			address = getUnsafe().reallocateMemory(address, memorySize);
+		}
+		pages = pages.copy(newCapacity);
+	}
+
+	/**
+	 * Marks all pages as free.
+	 */
+	public void clear() {
+		pages.clear();
+	}
+
+	/**
+	 * frees the memory
+	 */
+	public void destroy() {
+		if (destroyed) return;
+		destroyed = true;
+		if (backingArray != null) {
+			backingArray = null;
+		} else {
+			getUnsafe().freeMemory(address);
+		}
+	}
+
+	/**
+	 * @param page
+	 * @param offset offset within the page
+	 * @return offset within the backing array or absolute address
+	 */
+	private long offset(final int page, final int offset) {
+		return (long) page * pageSize + offset + (backingArray == null ? address : Unsafe.ARRAY_BYTE_BASE_OFFSET);
+	}
+
+	public byte getByte(final int page, final int offset) {
+		return getUnsafe().getByte(backingArray, offset(page, offset));
+	}
+
+	public void putByte(final int page, final int offset, final byte b) {
+		getUnsafe().putByte(backingArray, offset(page, offset), b);
+	}
+
+	public int getInt(final int page, final int offset) {
+		return getUnsafe().getInt(backingArray, offset(page, offset));
+	}
+
+	public void putInt(final int page, final int offset, final int i) {
+		getUnsafe().putInt(backingArray, offset(page, offset), i);
+	}
+
+	public long getLong(final int page, final int offset) {
+		return getUnsafe().getLong(backingArray, offset(page, offset));
+	}
+
+	public void putLong(final int page, final int offset, final long l) {
+		getUnsafe().putLong(backingArray, offset(page, offset), l);
+	}
+
+	/**
+	 * Copies <code>length</code> bytes between (or within) pages. The ranges may overlap.
+	 *
+	 * @param srcPage
+	 * @param srcOffset
+	 * @param destPage
+	 * @param destOffset
+	 * @param length
+	 */
+	public void copy(final int srcPage, final int srcOffset, final int destPage, final int destOffset, final int length) {
+		if (length <= 0) return;
+		// copyMemory has memmove semantics
+		getUnsafe().copyMemory(backingArray, offset(srcPage, srcOffset), backingArray, offset(destPage, destOffset), length);
+	}
+
+	/**
+	 * @return size of a page in bytes
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return number of pages that can be allocated without growing
+	 */
+	public int getCapacity() {
+		return (int) pages.getCapacity();
+	}
+
+	/**
+	 * @return number of allocated pages
+	 */
+	public int getAllocated() {
+		return (int) pages.getAllocated();
+	}
+
+	private static Unsafe getUnsafe() {
+		return UnsafeHelper.getUnsafe();
+	}
+}
@@ -0,0 +1,224 @@
+package de.tub.cit.slist.bdos.memory;
+
+import java.util.Arrays;
+
+/**
+ * Allocator keeping free blocks in doubly linked lists per size class. Small blocks have one class per size, larger blocks one class per power of two.
+ * A bitmap of the non-empty classes allows to find a sufficient block without walking lists of too small blocks. Boundary tags allow to merge a freed
+ * block with its neighbours in constant time:
+ * <ul>
+ * <li>The header of every block holds the flags {@link #ALLOCATED} and {@link #PREV_ALLOCATED} (state of the preceding block).</li>
+ * <li>A free block consists of its size (header), the pointers to the next and previous free block of its class and a copy of its size (footer) in the
+ * last bytes.</li>
+ * </ul>
+ */
+public class SegregatedFitAllocator extends AbstractDynamicMemoryAllocator {
+	private static final long serialVersionUID = -1861212807364580305L;
+
+	/** flag of allocated blocks */
+	static final long	ALLOCATED		= 1L << 63;
+	/** flag of blocks whose preceding block is allocated (or which are the first block) */
+	static final long	PREV_ALLOCATED	= 1L << 62;
+
+	private static final int	NEXT_OFFSET		= HEADER_SIZE;
+	private static final int	PREV_OFFSET		= NEXT_OFFSET + Long.BYTES;
+	private static final int	FOOTER_SIZE		= Long.BYTES;
+	/** minimum size of a block */
+	public static final int		MIN_BLOCK_SIZE	= PREV_OFFSET + Long.BYTES + FOOTER_SIZE;
+
+	/** number of size classes with exactly one block size */
+	private static final int	EXACT_CLASSES		= 28;
+	/** smallest block size of the classes per power of two */
+	private static final int	FIRST_RANGE_LOG2	= 8;
+	private static final int	CLASSES				= Long.SIZE;
+
+	/** first free block per size class */
+	private final long[]	heads	= new long[CLASSES];
+	/** bit <code>i</code> is set iff class <code>i</code> has free blocks */
+	private long			nonEmpty;
+
+	public SegregatedFitAllocator(final byte[] base, final long start, final long size) {
+		super(base, start, size);
+		clear();
+	}
+
+	@Override
+	protected int minBlockSize() {
+		return MIN_BLOCK_SIZE;
+	}
+
+	@Override
+	protected long allocatedFlags() {
+		return ALLOCATED | PREV_ALLOCATED;
+	}
+
+	@Override
+	protected void initFreeMemory(final long from) {
+		Arrays.fill(heads, 0);
+		nonEmpty = 0;
+		if (end - from >= MIN_BLOCK_SIZE) {
+			insertFreeBlock(from, end - from, true);
+		}
+	}
+
+	/**
+	 * Takes the first block of the smallest non-empty class whose blocks are all sufficient. Within the class of the required size, blocks are searched for
+	 * the first fit beforehand if the class spans several sizes. The block is split if the remainder can hold a free block.
+	 */
+	@Override
+	public long allocate(final long size) {
+		final long requiredSize = blockSize(size);
+		final int sizeClass = sizeClass(requiredSize);
+		long block = 0;
+		int fromClass = sizeClass;
+		if (sizeClass >= EXACT_CLASSES) {
+			for (long b = heads[sizeClass]; b != 0; b = getUnsafe().getLong(base, b + NEXT_OFFSET)) {
+				if (freeBlockSize(b) >= requiredSize) {
+					block = b;
+					break;
+				}
+			}
+			fromClass++;
+		}
+		if (block == 0) {
+			final long candidates = fromClass < CLASSES ? nonEmpty & (-1L << fromClass) : 0;
+			if (candidates == 0) throw outOfMemory(requiredSize);
+			block = heads[Long.numberOfTrailingZeros(candidates)];
+		}
+
+		removeFreeBlock(block);
+		final long blockSize = freeBlockSize(block);
+		final boolean prevAllocated = (getUnsafe().getLong(base, block) & PREV_ALLOCATED) != 0;
+		final long allocatedSize;
+		if (blockSize - requiredSize >= MIN_BLOCK_SIZE) {
+			allocatedSize = requiredSize;
+			insertFreeBlock(block + requiredSize, blockSize - requiredSize, true);
+		} else {
+			allocatedSize = blockSize;
+			setPrevAllocated(block + blockSize, true);
+		}
+		getUnsafe().setMemory(base, block, allocatedSize, (byte) 0);
+		getUnsafe().putLong(base, block, ALLOCATED | (prevAllocated ? PREV_ALLOCATED : 0));
+		setAllocatedHeader(block, size, allocatedSize);
+		return block + HEADER_SIZE;
+	}
+
+	/**
+	 * Merges the block with free neighbours, which are found through the boundary tags, and inserts it into the list of its size class.
+	 */
+	@Override
+	public void free(final long address) {
+		long block = checkedBlock(address);
+		long blockSize = allocatedBlockSize(block);
+		boolean prevAllocated = (getUnsafe().getLong(base, block) & PREV_ALLOCATED) != 0;
+
+		final long next = block + blockSize;
+		if (next < end && (getUnsafe().getLong(base, next) & ALLOCATED) == 0) {
+			removeFreeBlock(next);
+			blockSize += freeBlockSize(next);
+		}
+		if (!prevAllocated) {
+			final long prevSize = getUnsafe().getLong(base, block - FOOTER_SIZE);
+			block -= prevSize;
+			removeFreeBlock(block);
+			blockSize += prevSize;
+			prevAllocated = (getUnsafe().getLong(base, block) & PREV_ALLOCATED) != 0;
+		}
+		insertFreeBlock(block, blockSize, prevAllocated);
+		setPrevAllocated(block + blockSize, false);
+	}
+
+	@Override
+	public long getFreeMemory() {
+		long free = 0;
+		for (final long head : heads) {
+			for (long block = head; block != 0; block = getUnsafe().getLong(base, block + NEXT_OFFSET)) {
+				free += freeBlockSize(block);
+			}
+		}
+		return free;
+	}
+
+	/**
+	 * Only the list of the largest non-empty class is searched.
+	 */
+	@Override
+	public long getLargestFreeBlock() {
+		if (nonEmpty == 0) return 0;
+		long largest = 0;
+		for (long block = heads[(Long.SIZE - 1) - Long.numberOfLeadingZeros(nonEmpty)]; block != 0; block = getUnsafe().getLong(base, block + NEXT_OFFSET)) {
+			largest = Math.max(largest, freeBlockSize(block));
+		}
+		return largest;
+	}
+
+	/**
+	 * @param blockSize
+	 * @return index of the size class
+	 */
+	static int sizeClass(final long blockSize) {
+		if (blockSize < (1L << FIRST_RANGE_LOG2)) return (int) ((blockSize - MIN_BLOCK_SIZE) / ALIGNMENT);
+		final int log2 = (Long.SIZE - 1) - Long.numberOfLeadingZeros(blockSize);
+		return Math.min(CLASSES - 1, EXACT_CLASSES + log2 - FIRST_RANGE_LOG2);
+	}
+
+	private long freeBlockSize(final long block) {
+		return getUnsafe().getLong(base, block) & SIZE_MASK;
+	}
+
+	/**
+	 * Writes header and footer of a free block and pushes it onto the list of its size class.
+	 *
+	 * @param block
+	 * @param blockSize
+	 * @param prevAllocated
+	 */
+	private void insertFreeBlock(final long block, final long blockSize, final boolean prevAllocated) {
+		final int sizeClass = sizeClass(blockSize);
+		final long head = heads[sizeClass];
+		getUnsafe().putLong(base, block, blockSize | (prevAllocated ? PREV_ALLOCATED : 0));
+		getUnsafe().putLong(base, block + NEXT_OFFSET, head);
+		getUnsafe().putLong(base, block + PREV_OFFSET, 0);
+		getUnsafe().putLong(base, block + blockSize - FOOTER_SIZE, blockSize);
+		if (head != 0) {
+			getUnsafe().putLong(base, head + PREV_OFFSET, block);
+		}
+		heads[sizeClass] = block;
+		nonEmpty |= 1L << sizeClass;
+	}
+
+	/**
+	 * Unlinks a free block from the list of its size class.
+	 *
+	 * @param block
+	 */
+	private void removeFreeBlock(final long block) {
+		final long next = getUnsafe().getLong(base, block + NEXT_OFFSET);
+		final long prev = getUnsafe().getLong(base, block + PREV_OFFSET);
+		if (prev != 0) {
+			getUnsafe().putLong(base, prev + NEXT_OFFSET, next);
+		} else {
+			final int sizeClass = sizeClass(freeBlockSize(block));
+			heads[sizeClass] = next;
+			if (next == 0) {
+				nonEmpty &= ~(1L << sizeClass);
+			}
+		}
+		if (next != 0) {
+			getUnsafe().putLong(base, next + PREV_OFFSET, prev);
+		}
+	}
+
+	/**
+	 * Updates the {@link #PREV_ALLOCATED} flag of the block at <code>block</code>, if it is within the region.
+	 *
+	 * @param block
+	 * @param prevAllocated
+	 */
+	private void setPrevAllocated(final long block, final boolean prevAllocated) {
+		if (block >= end) return;
+		final long header = getUnsafe().getLong(base, block);
+		getUnsafe().putLong(base, block, prevAllocated ? header | PREV_ALLOCATED : header & ~PREV_ALLOCATED);
+	}
+
+}
@@ -0,0 +1,173 @@
+package de.tub.cit.slist.bdos.memory;
+
+import java.util.Arrays;
+
+/**
+ * Allocator of the fixed-size slots of an {@link de.tub.cit.slist.bdos.OffHeapSerializer}, based on a hierarchical bitmap of the free slots.<br />
+ * Bit <code>i</code> of level <code>0</code> is set iff slot <code>i</code> is free, bit <code>i</code> of level <code>k + 1</code> is set iff word
+ * <code>i</code> of level <code>k</code> is non-zero. The top level consists of a single word. Allocation descends from the top level along the lowest set
+ * bits, deallocation sets the bit and propagates it upwards. Both take one step per level, i.e. <code>log<sub>64</sub>(capacity)</code> steps.<br />
+ * The lowest free slot is always allocated first, so the occupied slots stay dense.
+ */
+public class SlotAllocator implements java.io.Serializable {
+	private static final long serialVersionUID = 3141841337127069347L;
+
+	private static final int	ADDRESS_BITS	= 6;
+	private static final int	WORD_MASK		= Long.SIZE - 1;
+
+	/** number of slots */
+	private final long		capacity;
+	/** the bitmap levels, the first one holds one bit per slot */
+	private final long[][]	levels;
+	/** number of allocated slots */
+	private long			allocated;
+
+	/**
+	 * @param capacity number of slots
+	 */
+	public SlotAllocator(final long capacity) {
+		if (capacity < 0 || words(capacity) > Integer.MAX_VALUE) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		this.capacity = capacity;
+		int depth = 1;
+		for (long words = words(capacity); words > 1; words = words(words)) {
+			depth++;
+		}
+		levels = new long[depth][];
+		long bits = capacity;
+		for (int k = 0; k < depth; k++) {
+			levels[k] = new long[(int) Math.max(1, words(bits))];
+			bits = levels[k].length;
+		}
+		clear();
+	}
+
+	/**
+	 * @param bits
+	 * @return number of words needed for <code>bits</code> bits
+	 */
+	private static long words(final long bits) {
+		return (bits + WORD_MASK) >>> ADDRESS_BITS;
+	}
+
+	/**
+	 * Marks all slots as free.
+	 */
+	public void clear() {
+		long bits = capacity;
+		for (final long[] level : levels) {
+			final int full = (int) (bits >>> ADDRESS_BITS);
+			Arrays.fill(level, 0, full, -1L);
+			if (full < level.length) {
+				level[full] = (bits & WORD_MASK) == 0 ? 0 : (1L << (bits & WORD_MASK)) - 1;
+			}
+			bits = words(bits);
+		}
+		allocated = 0;
+	}
+
+	/**
+	 * Creates an allocator of a larger capacity in which the same slots are allocated, e.g. when the memory holding the slots grows.
+	 *
+	 * @param newCapacity
+	 * @return the new allocator
+	 */
+	public SlotAllocator copy(final long newCapacity) {
+		if (newCapacity < capacity) throw new IllegalArgumentException("Illegal capacity: " + newCapacity);
+		final SlotAllocator copy = new SlotAllocator(newCapacity);
+		final int words = (int) words(capacity);
+		// the bits beyond the old capacity are zero, i.e. they keep the free state of the copy
+		final long validBits = (capacity & WORD_MASK) == 0 ? -1L : (1L << (capacity & WORD_MASK)) - 1;
+		for (int w = 0; w < words; w++) {
+			copy.levels[0][w] = w == words - 1 ? (copy.levels[0][w] & ~validBits) | levels[0][w] : levels[0][w];
+		}
+		for (int k = 1; k < copy.levels.length; k++) {
+			final long[] lower = copy.levels[k - 1];
+			final long[] level = copy.levels[k];
+			Arrays.fill(level, 0);
+			for (int i = 0; i < lower.length; i++) {
+				if (lower[i] != 0) {
+					level[i >>> ADDRESS_BITS] |= 1L << (i & WORD_MASK);
+				}
+			}
+		}
+		copy.allocated = allocated;
+		return copy;
+	}
+
+	/**
+	 * Allocates the free slot with the lowest index.
+	 *
+	 * @return index of the slot
+	 * @throws IndexOutOfBoundsException if all slots are allocated
+	 */
+	public long allocate() {
+		final int top = levels.length - 1;
+		if (levels[top][0] == 0) throw new IndexOutOfBoundsException(String.format("No free slot left, capacity is '%d'.", capacity));
+		long idx = 0;
+		for (int k = top; k >= 0; k--) {
+			idx = (idx << ADDRESS_BITS) + Long.numberOfTrailingZeros(levels[k][(int) idx]);
+		}
+		final long slot = idx;
+		// clear the bit, and the bits of the upper levels as long as the words become empty
+		for (int k = 0; k <= top; k++) {
+			final int word = (int) (idx >>> ADDRESS_BITS);
+			levels[k][word] &= ~(1L << (idx & WORD_MASK));
+			if (levels[k][word] != 0) {
+				break;
+			}
+			idx = word;
+		}
+		allocated++;
+		return slot;
+	}
+
+	/**
+	 * Deallocates a slot.
+	 *
+	 * @param slot
+	 * @throws IndexOutOfBoundsException if <code>slot</code> is not a valid index
+	 * @throws IllegalStateException if the slot is not allocated
+	 */
+	public void free(final long slot) {
+		checkBounds(slot);
+		if (!isAllocated(slot)) throw new IllegalStateException(String.format("Slot '%d' is not allocated.", slot));
+		long idx = slot;
+		// set the bit, and the bits of the upper levels as long as the words have been empty
+		for (final long[] level : levels) {
+			final int word = (int) (idx >>> ADDRESS_BITS);
+			final boolean wasEmpty = level[word] == 0;
+			level[word] |= 1L << (idx & WORD_MASK);
+			if (!wasEmpty) {
+				break;
+			}
+			idx = word;
+		}
+		allocated--;
+	}
+
+	/**
+	 * @param slot
+	 * @return <code>true</code> iff the slot is allocated
+	 * @throws IndexOutOfBoundsException if <code>slot</code> is not a valid index
+	 */
+	public boolean isAllocated(final long slot) {
+		checkBounds(slot);
+		return (levels[0][(int) (slot >>> ADDRESS_BITS)] & (1L << (slot & WORD_MASK))) == 0;
+	}
+
+	/**
+	 * @return number of allocated slots
+	 */
+	public long getAllocated() {
+		return allocated;
+	}
+
+	public long getCapacity() {
+		return capacity;
+	}
+
+	private void checkBounds(final long slot) {
+		if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException(String.format("Tried to access slot '%d', max index is '%d'.", slot, capacity));
+	}
+
+}
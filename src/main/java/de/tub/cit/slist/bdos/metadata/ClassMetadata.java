@@ -1,16 +1,23 @@
 package de.tub.cit.slist.bdos.metadata;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class ClassMetadata {
 	/** total length of object. intended redundancy. */
 	private final long				length;
 	private final FieldMetadata[]	fields;
+	/** adjacent primitive fields, see {@link #calcCopyRuns()} */
+	private CopyRun[]				copyRuns		= new CopyRun[0];
+	/** all fields not covered by {@link #copyRuns} */
+	private FieldMetadata[]			remainingFields;
 
 	public ClassMetadata(final long length, final FieldMetadata[] fields) {
 		super();
 		this.length = length;
 		this.fields = fields;
+		this.remainingFields = fields;
 	}
 
 	/**
@@ -22,6 +29,37 @@ public class ClassMetadata {
 			field.setSerializedOffset(offset);
 			offset += field.getLength();
 		}
+		calcCopyRuns();
+	}
+
+	/**
+	 * Groups primitive fields which are adjacent both within the object and in serialized form into {@link CopyRun}s. Fields not being part of a run of at
+	 * least two fields are kept in {@link #getRemainingFields()}. Requires the serialized offsets to be set.
+	 */
+	public void calcCopyRuns() {
+		final List<CopyRun> runs = new ArrayList<>();
+		final List<FieldMetadata> remaining = new ArrayList<>();
+		int i = 0;
+		while (i < fields.length) {
+			final FieldMetadata first = fields[i];
+			int j = i + 1;
+			long runLength = first.getLength();
+			if (first.getType().isPrimitive()) {
+				while (j < fields.length && fields[j].getType().isPrimitive() && fields[j].getOffset() == first.getOffset() + runLength
+						&& fields[j].getSerializedOffset() == first.getSerializedOffset() + runLength) {
+					runLength += fields[j].getLength();
+					j++;
+				}
+			}
+			if (j - i > 1) {
+				runs.add(new CopyRun(first.getOffset(), first.getSerializedOffset(), runLength));
+			} else {
+				remaining.add(first);
+			}
+			i = j;
+		}
+		copyRuns = runs.toArray(new CopyRun[runs.size()]);
+		remainingFields = remaining.toArray(new FieldMetadata[remaining.size()]);
 	}
 
 	/**
@@ -35,9 +73,17 @@ public class ClassMetadata {
 		return fields;
 	}
 
+	public CopyRun[] getCopyRuns() {
+		return copyRuns;
+	}
+
+	public FieldMetadata[] getRemainingFields() {
+		return remainingFields;
+	}
+
 	@Override
 	public String toString() {
-		return "ClassMetadata [length=" + length + ", fields=" + Arrays.toString(fields) + "]";
+		return "ClassMetadata [length=" + length + ", fields=" + Arrays.toString(fields) + ", copyRuns=" + Arrays.toString(copyRuns) + "]";
 	}
 
 }
\ No newline at end of file
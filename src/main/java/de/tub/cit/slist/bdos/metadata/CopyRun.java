@@ -0,0 +1,38 @@
+package de.tub.cit.slist.bdos.metadata;
+
+/**
+ * Range of adjacent primitive fields which are laid out identically in the object and in serialized form, so they can be copied at once.
+ */
+public class CopyRun {
+	/** offset of the first field within the object */
+	private final long	offset;
+	/** offset of the first field in serialized form */
+	private final long	serializedOffset;
+	/** total length of all fields in bytes */
+	private final long	length;
+
+	public CopyRun(final long offset, final long serializedOffset, final long length) {
+		super();
+		this.offset = offset;
+		this.serializedOffset = serializedOffset;
+		this.length = length;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public long getSerializedOffset() {
+		return serializedOffset;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	@Override
+	public String toString() {
+		return "CopyRun [offset=" + offset + ", serializedOffset=" + serializedOffset + ", length=" + length + "]";
+	}
+
+}
@@ -15,8 +15,10 @@ public class FieldMetadata implements Comparable<FieldMetadata>, java.io.Seriali
 	private int			elements;
 	/** type/classification of field */
 	private FieldType	type;
-	/** not-null only for arrays, collections (class of the elements) and objects */
+	/** not-null only for arrays, collections (class of the elements), maps (class of the keys) and objects */
 	private Class<?>	clazz;
+	/** not-null only for maps (class of the values) */
+	private Class<?>	valueClazz;
 	/** Collection type */
 	private Class<?>	collectionClass;
 
@@ -76,6 +78,14 @@ public class FieldMetadata implements Comparable<FieldMetadata>, java.io.Seriali
 		this.clazz = clazz;
 	}
 
+	public Class<?> getValueClazz() {
+		return valueClazz;
+	}
+
+	public void setValueClazz(final Class<?> valueClazz) {
+		this.valueClazz = valueClazz;
+	}
+
 	public Class<?> getCollectionClass() {
 		return collectionClass;
 	}
@@ -87,7 +97,7 @@ public class FieldMetadata implements Comparable<FieldMetadata>, java.io.Seriali
 	@Override
 	public String toString() {
 		return "FieldMetadata [fieldName=" + fieldName + ", offset=" + offset + ", serializedOffset=" + serializedOffset + ", length=" + length + ", elements="
-				+ elements + ", type=" + type + ", clazz=" + clazz + ", collectionClass=" + collectionClass + "]";
+				+ elements + ", type=" + type + ", clazz=" + clazz + ", valueClazz=" + valueClazz + ", collectionClass=" + collectionClass + "]";
 	}
 
 	@Override
@@ -1,6 +1,7 @@
 package de.tub.cit.slist.bdos.metadata;
 
 import java.util.Collection;
+import java.util.Map;
 
 import de.tub.cit.slist.bdos.annotation.FixedLength;
 
@@ -24,9 +25,29 @@ public enum FieldType {
 	ARRAY_FIXED, //
 	COLLECTION, //
 	COLLECTION_FIXED, //
+	MAP, //
 	OBJECT, //
 	;
 
+	/**
+	 * @return <code>true</code> iff this is the type of a primitive field
+	 */
+	public boolean isPrimitive() {
+		switch (this) {
+		case BOOL:
+		case BYTE:
+		case CHAR:
+		case DOUBLE:
+		case FLOAT:
+		case INT:
+		case LONG:
+		case SHORT:
+			return true;
+		default:
+			return false;
+		}
+	}
+
 	/**
 	 * Converts the Class parameter into an enumeration value with the assumption of no {@link FixedLength} annotation present.
 	 * 
@@ -67,6 +88,8 @@ public enum FieldType {
 			return fixedLength ? FieldType.STRING_FIXED : FieldType.STRING;
 		else if (clazz.isArray())
 			return fixedLength ? FieldType.ARRAY_FIXED : FieldType.ARRAY;
+		else if (Map.class.isAssignableFrom(clazz))
+			return FieldType.MAP;
 		else if (Collection.class.isAssignableFrom(clazz))
 			return fixedLength ? FieldType.COLLECTION_FIXED : FieldType.COLLECTION;
 		else
@@ -1,6 +1,9 @@
 package de.tub.cit.slist.bdos.util;
 
+import java.util.function.IntPredicate;
+
 import de.tub.cit.slist.bdos.OffHeapSerializer;
+import sun.misc.Unsafe;
 
 public class BigDataCollectionHelper {
 
@@ -8,9 +11,18 @@ public class BigDataCollectionHelper {
 	}
 
 	/** offset of next pointer within metadata */
-	public static final int	NEXT_OFFSET	= 1;
+	public static final int	NEXT_OFFSET		= 1;
 	/** offset of prev pointer within metadata */
-	public static final int	PREV_OFFSET	= 5;
+	public static final int	PREV_OFFSET		= 5;
+	/** offset of the chunk id of the positional index within metadata */
+	public static final int	CHUNK_OFFSET	= 9;
+	/** offset of the cached hash code of hash-based containers within metadata */
+	public static final int	HASH_OFFSET		= 1;
+
+	/** 2<sup>32</sup> / golden ratio, spreads hash codes over the upper bits */
+	private static final int	FIBONACCI_MULTIPLIER	= 0x9E3779B9;
+	/** 2<sup>64</sup> / golden ratio */
+	private static final long	IMAGE_MULTIPLIER		= 0x9E3779B97F4A7C15L;
 
 	public static <T extends java.io.Serializable> int getNextPointer(final OffHeapSerializer<T> serializer, final int idx) {
 		return getPointer(serializer, idx, NEXT_OFFSET);
@@ -36,4 +48,113 @@ public class BigDataCollectionHelper {
 			final int pointer) {
 		serializer.putInt(idx, pointerOffset, pointer);
 	}
+
+	public static <T extends java.io.Serializable> int getChunk(final OffHeapSerializer<T> serializer, final int idx) {
+		return serializer.getInt(idx, CHUNK_OFFSET);
+	}
+
+	public static <T extends java.io.Serializable> void setChunk(final OffHeapSerializer<T> serializer, final int idx, final int chunk) {
+		serializer.putInt(idx, CHUNK_OFFSET, chunk);
+	}
+
+	/**
+	 * Maps a hash code to a bucket by Fibonacci hashing, which works for any number of buckets and does not rely on well-distributed lower bits.
+	 *
+	 * @param hash
+	 * @param capacity number of buckets
+	 * @return bucket in <code>[0, capacity)</code>
+	 */
+	public static int bucket(final int hash, final int capacity) {
+		return (int) ((((hash * FIBONACCI_MULTIPLIER) & 0xFFFFFFFFL) * capacity) >>> 32);
+	}
+
+	/**
+	 * @param image created by {@link OffHeapSerializer#toImage(java.io.Serializable)}
+	 * @return hash code of a serialized image, computed word by word
+	 */
+	public static int hashImage(final byte[] image) {
+		long h = image.length;
+		int i = 0;
+		for (; i + UnsafeHelper.LONG_FIELD_SIZE <= image.length; i += UnsafeHelper.LONG_FIELD_SIZE) {
+			h = (h ^ UnsafeHelper.getUnsafe().getLong(image, (long) Unsafe.ARRAY_BYTE_BASE_OFFSET + i)) * IMAGE_MULTIPLIER;
+			h ^= h >>> 32;
+		}
+		for (; i < image.length; i++) {
+			h = (h ^ image[i]) * IMAGE_MULTIPLIER;
+		}
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * @param slot
+	 * @param capacity number of buckets
+	 * @return bucket following <code>slot</code> in a probe sequence of linear probing
+	 */
+	public static int nextBucket(final int slot, final int capacity) {
+		return slot + 1 == capacity ? 0 : slot + 1;
+	}
+
+	/**
+	 * Probes the buckets of a linear-probing table from the home bucket of <code>hash</code> up to the first free bucket.
+	 *
+	 * @param hash
+	 * @param capacity number of buckets
+	 * @param isFree tells if a bucket ends the probe sequence
+	 * @param matches tells if a bucket holds the entry searched for
+	 * @return first matching bucket, <code>-1</code> if there is none
+	 */
+	public static int findBucket(final int hash, final int capacity, final IntPredicate isFree, final IntPredicate matches) {
+		int slot = bucket(hash, capacity);
+		for (int probes = 0; probes < capacity && !isFree.test(slot); probes++) {
+			if (matches.test(slot)) return slot;
+			slot = nextBucket(slot, capacity);
+		}
+		return -1;
+	}
+
+	/**
+	 * @param hash
+	 * @param capacity number of buckets, at least one of them must be free
+	 * @param isFree
+	 * @return first free bucket of the probe sequence of <code>hash</code>
+	 */
+	public static int freeBucket(final int hash, final int capacity, final IntPredicate isFree) {
+		int slot = bucket(hash, capacity);
+		while (!isFree.test(slot)) {
+			slot = nextBucket(slot, capacity);
+		}
+		return slot;
+	}
+
+	/**
+	 * Closes the gap of a linear-probing table after the entry of bucket <code>slot</code> has been removed, by moving succeeding entries of the cluster
+	 * into the gap as long as this does not place them before their home bucket. The hash codes are read from the metadata of the first serializer, the
+	 * nodes of all serializers are moved alike.
+	 *
+	 * @param slot the free bucket
+	 * @param capacity number of buckets
+	 * @param isFree
+	 * @param serializers holding the entries by bucket
+	 */
+	public static void closeGap(final int slot, final int capacity, final IntPredicate isFree, final OffHeapSerializer<?>... serializers) {
+		int gap = slot;
+		for (int j = nextBucket(gap, capacity); !isFree.test(j); j = nextBucket(j, capacity)) {
+			final int home = bucket(getHash(serializers[0], j), capacity);
+			// move unless home lies cyclically within (gap, j]
+			if (gap <= j ? home <= gap || home > j : home <= gap && home > j) {
+				for (final OffHeapSerializer<?> serializer : serializers) {
+					serializer.moveRandomAccess(j, gap, 1);
+				}
+				gap = j;
+			}
+		}
+	}
+
+	public static <T extends java.io.Serializable> int getHash(final OffHeapSerializer<T> serializer, final int idx) {
+		return serializer.getInt(idx, HASH_OFFSET);
+	}
+
+	public static <T extends java.io.Serializable> void setHash(final OffHeapSerializer<T> serializer, final int idx, final int hash) {
+		serializer.putInt(idx, HASH_OFFSET, hash);
+	}
 }
@@ -88,26 +88,41 @@ public class SerializerHelper {
 							final Class<?> subtype = classType.getComponentType();
 							if (subtype.isInterface()) throw new UnsupportedOperationException("No Interface Array allowed.");
 							fieldMetadata.setClazz(subtype);
-							final Map<Class<?>, ClassMetadata> subtypeMetadata = acquireClassMetadata(subtype, classMetadataMap);
-							addedClasses.putAll(subtypeMetadata);
+							addedClasses.putAll(acquireElementMetadata(subtype, classMetadataMap));
 
 							final FixedLength fixedLength = f.getAnnotation(FixedLength.class);
 							if (fixedLength != null) {
 								fieldMetadata.setType(FieldType.ARRAY_FIXED);
 								fieldMetadata.setElements(fixedLength.value());
-								fieldLength = fixedLength.value() * classMetadataMap.get(subtype).getLength() + UnsafeHelper.INT_FIELD_SIZE;
+								fieldLength = fixedLength.value() * getElementLength(subtype, classMetadataMap) + UnsafeHelper.INT_FIELD_SIZE;
 							} else {
 								fieldMetadata.setType(FieldType.ARRAY);
 								fieldLength = UnsafeHelper.LONG_FIELD_SIZE;
 							}
+						} else if (Map.class.isAssignableFrom(classType)) {
+							if (classType.isInterface()) {
+								if (classType == Map.class) {
+									// default implementation for Maps
+									fieldMetadata.setCollectionClass(HashMap.class);
+								} else
+									throw new UnsupportedOperationException("Map types must either be non-Interfaces, or of type Map.");
+							} else {
+								fieldMetadata.setCollectionClass(classType);
+							}
+							if (f.getAnnotation(FixedLength.class) != null) throw new UnsupportedOperationException("Maps cannot be of fixed length.");
+							final Class<?> keyType = (Class<?>) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[0];
+							final Class<?> valueType = (Class<?>) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[1];
+							fieldMetadata.setClazz(keyType);
+							fieldMetadata.setValueClazz(valueType);
+							addedClasses.putAll(acquireElementMetadata(keyType, classMetadataMap));
+							addedClasses.putAll(acquireElementMetadata(valueType, classMetadataMap));
+							fieldMetadata.setType(FieldType.MAP);
+							fieldLength = UnsafeHelper.LONG_FIELD_SIZE;
 						} else if (Collection.class.isAssignableFrom(classType)) {
 							if (classType.isInterface()) {
 								if (classType == List.class) {
 									// default implementation for Lists
 									fieldMetadata.setCollectionClass(ArrayList.class);
-								} else if (classType == Map.class) {
-									// default implementation for Maps
-									fieldMetadata.setCollectionClass(HashMap.class);
 								} else if (classType == Set.class) {
 									// default implementation for Sets
 									fieldMetadata.setCollectionClass(HashSet.class);
@@ -118,16 +133,15 @@ public class SerializerHelper {
 							}
 							final Class<?> subtype = (Class<?>) ((ParameterizedType) f.getGenericType()).getActualTypeArguments()[0];
 							fieldMetadata.setClazz(subtype);
-							final Map<Class<?>, ClassMetadata> subtypeMetadata = acquireClassMetadata(subtype, classMetadataMap);
-							addedClasses.putAll(subtypeMetadata);
+							addedClasses.putAll(acquireElementMetadata(subtype, classMetadataMap));
 
 							final FixedLength fixedLength = f.getAnnotation(FixedLength.class);
 							if (fixedLength != null) {
 								fieldMetadata.setType(FieldType.COLLECTION_FIXED);
 								fieldMetadata.setElements(fixedLength.value());
-								fieldLength = fixedLength.value() * classMetadataMap.get(subtype).getLength() + UnsafeHelper.INT_FIELD_SIZE;
+								fieldLength = fixedLength.value() * getElementLength(subtype, classMetadataMap) + UnsafeHelper.INT_FIELD_SIZE;
 							} else {
-								fieldMetadata.setType(FieldType.COLLECTION_FIXED);
+								fieldMetadata.setType(FieldType.COLLECTION);
 								fieldLength = UnsafeHelper.LONG_FIELD_SIZE;
 							}
 						} else {
@@ -136,7 +150,9 @@ public class SerializerHelper {
 							fieldLength = classMetadataMap.get(classType).getLength();
 							addedClasses.putAll(subtypeMetadata);
 						}
-						fieldLength += UnsafeHelper.BOOLEAN_FIELD_SIZE; // isNull indicator
+						if (!fieldMetadata.getType().isPrimitive()) {
+							fieldLength += UnsafeHelper.BOOLEAN_FIELD_SIZE; // isNull indicator
+						}
 						totalLength += fieldLength;
 						fieldMetadata.setLength(fieldLength);
 						fields.add(fieldMetadata);
@@ -152,6 +168,69 @@ public class SerializerHelper {
 		return addedClasses;
 	}
 
+	/**
+	 * get metadata for the element class of an Array, Collection or Map. Strings are stored in the dynamic memory and therefore need no metadata.
+	 *
+	 * @param elementClass
+	 * @param classMetadataMap
+	 * @return added class metadata
+	 * @throws UnsupportedOperationException if the elements are Arrays, Collections or Maps themselves
+	 */
+	private static Map<Class<?>, ClassMetadata> acquireElementMetadata(final Class<?> elementClass, final Map<Class<?>, ClassMetadata> classMetadataMap) {
+		if (elementClass == String.class) return Collections.emptyMap();
+		if (elementClass.isArray() || Collection.class.isAssignableFrom(elementClass) || Map.class.isAssignableFrom(elementClass))
+			throw new UnsupportedOperationException("Nested Arrays, Collections and Maps are not supported as elements.");
+		return acquireClassMetadata(elementClass, classMetadataMap);
+	}
+
+	/**
+	 * Returns the serialized length of one element of an Array, Collection or Map. Primitives are stored as they are, all other elements are preceded by an
+	 * isNull indicator. String elements consist of the pointer to their characters in the dynamic memory.
+	 *
+	 * @param elementClass
+	 * @param classMetadataMap must contain the metadata of <code>elementClass</code>
+	 * @return length in bytes
+	 */
+	public static long getElementLength(final Class<?> elementClass, final Map<Class<?>, ClassMetadata> classMetadataMap) {
+		if (elementClass == String.class) return UnsafeHelper.BOOLEAN_FIELD_SIZE + UnsafeHelper.LONG_FIELD_SIZE;
+		final long length = classMetadataMap.get(elementClass).getLength();
+		return elementClass.isPrimitive() ? length : length + UnsafeHelper.BOOLEAN_FIELD_SIZE;
+	}
+
+	/**
+	 * Checks whether instances of <code>clazz</code> reference memory in the dynamic region, either directly or through nested objects and fixed-length
+	 * Arrays/Collections.
+	 *
+	 * @param clazz
+	 * @param classMetadataMap must contain the metadata of <code>clazz</code> and all nested classes
+	 * @return <code>true</code> iff a serialized instance may point to dynamic memory
+	 */
+	public static boolean hasDynamicFields(final Class<?> clazz, final Map<Class<?>, ClassMetadata> classMetadataMap) {
+		return hasDynamicFields(clazz, classMetadataMap, new HashSet<>());
+	}
+
+	private static boolean hasDynamicFields(final Class<?> clazz, final Map<Class<?>, ClassMetadata> classMetadataMap, final Set<Class<?>> visited) {
+		if (clazz == String.class) return true;
+		if (clazz.isPrimitive() || !visited.add(clazz)) return false;
+		for (final FieldMetadata field : classMetadataMap.get(clazz).getFields()) {
+			switch (field.getType()) {
+			case STRING:
+			case ARRAY:
+			case COLLECTION:
+			case MAP:
+				return true;
+			case OBJECT:
+			case ARRAY_FIXED:
+			case COLLECTION_FIXED:
+				if (hasDynamicFields(field.getClazz(), classMetadataMap, visited)) return true;
+				break;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
 	public static Map<Class<?>, ClassMetadata> acquireWrapperAndPrimitivesMetadata() {
 		final Map<Class<?>, ClassMetadata> wrapperAndPrimitivesMetadata = new HashMap<>(29);
 		acquireClassMetadata(Boolean.class, wrapperAndPrimitivesMetadata);
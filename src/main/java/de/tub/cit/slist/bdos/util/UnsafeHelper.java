@@ -34,6 +34,18 @@ public class UnsafeHelper {
 		PRIMITIVE_LENGTHS.put(Short.TYPE, Short.BYTES);
 	}
 
+	protected static final Map<Class<?>, Integer> PRIMITIVE_ARRAY_BASE_OFFSETS = new HashMap<>();
+	static {
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Boolean.TYPE, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET);
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Byte.TYPE, Unsafe.ARRAY_BYTE_BASE_OFFSET);
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Character.TYPE, Unsafe.ARRAY_CHAR_BASE_OFFSET);
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Double.TYPE, Unsafe.ARRAY_DOUBLE_BASE_OFFSET);
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Float.TYPE, Unsafe.ARRAY_FLOAT_BASE_OFFSET);
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Integer.TYPE, Unsafe.ARRAY_INT_BASE_OFFSET);
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Long.TYPE, Unsafe.ARRAY_LONG_BASE_OFFSET);
+		PRIMITIVE_ARRAY_BASE_OFFSETS.put(Short.TYPE, Unsafe.ARRAY_SHORT_BASE_OFFSET);
+	}
+
 	private UnsafeHelper() {
 	}
 
@@ -51,7 +63,7 @@ public class UnsafeHelper {
 			try {
 				field = Unsafe.class.getDeclaredField("theUnsafe");
 				field.setAccessible(true);
-				return (Unsafe) field.get(null);
+				unsafe = (Unsafe) field.get(null);
 			} catch (final Exception e) {
 				throw new AssertionError(e);
 			}
@@ -90,39 +102,24 @@ public class UnsafeHelper {
 	 *
 	 * <p>
 	 * This is our own implementation because Unsafe.copyMemory(Object src, .. Object dest, ...)
-	 * only works if <a href="https://goo.gl/pBVlJv">dest in an array</a>.
+	 * only works if <a href="https://goo.gl/pBVlJv">dest in an array</a>.<br />
+	 * Copies in steps of 8 bytes and finishes the remainder with 4, 2 and 1 byte steps.
 	 */
-	public static void copyMemory(final Object src, long srcOffset, final Object dest, final long destOffset, final long len) {
-		int stepSize = 0;
-		if (len % LONG_FIELD_SIZE == 0) {
-			stepSize = LONG_FIELD_SIZE;
-		} else if (len % INT_FIELD_SIZE == 0) {
-			stepSize = INT_FIELD_SIZE;
-		} else if (len % SHORT_FIELD_SIZE == 0) {
-			stepSize = SHORT_FIELD_SIZE;
-		} else {
-			stepSize = BYTE_FIELD_SIZE;
+	public static void copyMemory(final Object src, final long srcOffset, final Object dest, final long destOffset, final long len) {
+		long offset = 0;
+		for (; offset + LONG_FIELD_SIZE <= len; offset += LONG_FIELD_SIZE) {
+			getUnsafe().putLong(dest, destOffset + offset, getUnsafe().getLong(src, srcOffset + offset));
 		}
-
-		final long end = destOffset + len;
-		for (long offset = destOffset; offset < end; offset += stepSize) {
-			switch (stepSize) {
-			case LONG_FIELD_SIZE:
-				getUnsafe().putLong(dest, offset, getUnsafe().getLong(src, srcOffset));
-				break;
-			case INT_FIELD_SIZE:
-				getUnsafe().putInt(dest, offset, getUnsafe().getInt(src, srcOffset));
-				break;
-			case SHORT_FIELD_SIZE:
-				getUnsafe().putShort(dest, offset, getUnsafe().getShort(src, srcOffset));
-				break;
-			case BYTE_FIELD_SIZE:
-				getUnsafe().putByte(dest, offset, getUnsafe().getByte(src, srcOffset));
-				break;
-			default:
-				break;
-			}
-			srcOffset += stepSize;
+		if (offset + INT_FIELD_SIZE <= len) {
+			getUnsafe().putInt(dest, destOffset + offset, getUnsafe().getInt(src, srcOffset + offset));
+			offset += INT_FIELD_SIZE;
+		}
+		if (offset + SHORT_FIELD_SIZE <= len) {
+			getUnsafe().putShort(dest, destOffset + offset, getUnsafe().getShort(src, srcOffset + offset));
+			offset += SHORT_FIELD_SIZE;
+		}
+		if (offset < len) {
+			getUnsafe().putByte(dest, destOffset + offset, getUnsafe().getByte(src, srcOffset + offset));
 		}
 	}
 
@@ -309,4 +306,14 @@ public class UnsafeHelper {
 	public static Map<Class<?>, Integer> getPrimitiveLengths() {
 		return PRIMITIVE_LENGTHS;
 	}
+
+	/**
+	 * Returns the offset of the first element of an array of a primitive type.
+	 *
+	 * @param componentType primitive class
+	 * @return base offset
+	 */
+	public static long arrayBaseOffset(final Class<?> componentType) {
+		return PRIMITIVE_ARRAY_BASE_OFFSETS.get(componentType);
+	}
 }
@@ -0,0 +1,234 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.conf.AllocatorType;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.memory.AbstractDynamicMemoryAllocator;
+import de.tub.cit.slist.bdos.memory.DynamicMemoryAllocator;
+import de.tub.cit.slist.bdos.memory.FirstFitAllocator;
+import de.tub.cit.slist.bdos.memory.SegregatedFitAllocator;
+import de.tub.cit.slist.bdos.memory.SlotAllocator;
+import de.tub.cit.slist.bdos.util.UnsafeHelper;
+import sun.misc.Unsafe;
+
+public class AllocatorTest {
+
+	private static final long	SIZE	= 64 * 1024;
+	private static final Unsafe	UNSAFE	= UnsafeHelper.getUnsafe();
+
+	private final Random	r	= new Random();
+	private long			address;
+
+	@Before
+	public void setUp() throws Exception {
+		address = UNSAFE.allocateMemory(SIZE);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		UNSAFE.freeMemory(address);
+	}
+
+	private DynamicMemoryAllocator create(final AllocatorType type) {
+		switch (type) {
+		case SEGREGATED_FIT:
+			return new SegregatedFitAllocator(null, address, SIZE);
+		default:
+			return new FirstFitAllocator(null, address, SIZE);
+		}
+	}
+
+	@Test
+	public void testRandomAllocateAndFree() {
+		for (final AllocatorType type : AllocatorType.values()) {
+			final DynamicMemoryAllocator allocator = create(type);
+			final long capacity = allocator.getCapacity();
+			Assert.assertEquals(capacity, allocator.getFreeMemory());
+			final List<long[]> blocks = new ArrayList<>();
+			for (int i = 0; i < 20000; i++) {
+				if (blocks.isEmpty() || r.nextInt(3) != 0) {
+					final long size = r.nextInt(10) == 0 ? r.nextInt(2048) : r.nextInt(64);
+					try {
+						final long addr = allocator.allocate(size);
+						Assert.assertTrue(allocator.getSize(addr) >= size);
+						// stamp the payload to detect overlapping blocks
+						final byte stamp = (byte) r.nextInt();
+						UNSAFE.setMemory(addr, size, stamp);
+						blocks.add(new long[] { addr, size, stamp });
+					} catch (final OutOfDynamicMemoryException e) {
+						// free half of the blocks and continue
+						for (int j = blocks.size() / 2; j > 0; j--) {
+							release(allocator, blocks, r.nextInt(blocks.size()));
+						}
+					}
+				} else {
+					release(allocator, blocks, r.nextInt(blocks.size()));
+				}
+			}
+			while (!blocks.isEmpty()) {
+				release(allocator, blocks, blocks.size() - 1);
+			}
+			// all blocks are coalesced again
+			Assert.assertEquals(type.name(), capacity, allocator.getFreeMemory());
+			final long largest = capacity - AbstractDynamicMemoryAllocator.HEADER_SIZE;
+			Assert.assertEquals(largest, allocator.getSize(allocator.allocate(largest)));
+		}
+	}
+
+	private static void release(final DynamicMemoryAllocator allocator, final List<long[]> blocks, final int index) {
+		final long[] block = blocks.remove(index);
+		for (long i = 0; i < block[1]; i++) {
+			Assert.assertEquals((byte) block[2], UNSAFE.getByte(block[0] + i));
+		}
+		allocator.free(block[0]);
+	}
+
+	@Test
+	public void testResize() {
+		for (final AllocatorType type : AllocatorType.values()) {
+			final DynamicMemoryAllocator allocator = create(type);
+			final long addr = allocator.allocate(100);
+			Assert.assertEquals(100, allocator.getSize(addr));
+			Assert.assertTrue(allocator.resize(addr, 97));
+			Assert.assertEquals(97, allocator.getSize(addr));
+			Assert.assertFalse(allocator.resize(addr, 200));
+			allocator.free(addr);
+			Assert.assertEquals(allocator.getCapacity(), allocator.getFreeMemory());
+		}
+	}
+
+	@Test
+	public void testClear() {
+		for (final AllocatorType type : AllocatorType.values()) {
+			final DynamicMemoryAllocator allocator = create(type);
+			for (int i = 0; i < 100; i++) {
+				allocator.allocate(r.nextInt(100));
+			}
+			Assert.assertTrue(allocator.getFreeMemory() < allocator.getCapacity());
+			allocator.clear();
+			Assert.assertEquals(allocator.getCapacity(), allocator.getFreeMemory());
+		}
+	}
+
+	@Test
+	public void testCompact() {
+		for (final AllocatorType type : AllocatorType.values()) {
+			final DynamicMemoryAllocator allocator = create(type);
+			final List<long[]> blocks = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				final long size = r.nextInt(64);
+				final long addr = allocator.allocate(size);
+				final byte stamp = (byte) r.nextInt();
+				UNSAFE.setMemory(addr, size, stamp);
+				blocks.add(new long[] { addr, size, stamp });
+			}
+			// fragment the memory
+			for (int i = 0; i < 250; i++) {
+				allocator.free(blocks.remove(r.nextInt(blocks.size()))[0]);
+			}
+			blocks.sort((a, b) -> Long.compare(a[0], b[0]));
+			final long[] addresses = new long[blocks.size()];
+			for (int i = 0; i < addresses.length; i++) {
+				addresses[i] = blocks.get(i)[0];
+			}
+			final long largest = allocator.getLargestFreeBlock();
+			Assert.assertTrue(allocator.compact(addresses, addresses.length) > 0);
+			// all free memory forms a single block
+			Assert.assertEquals(allocator.getFreeMemory(), allocator.getLargestFreeBlock());
+			Assert.assertTrue(allocator.getLargestFreeBlock() > largest);
+			for (int i = 0; i < addresses.length; i++) {
+				Assert.assertTrue(addresses[i] > (i == 0 ? 0 : addresses[i - 1]));
+				blocks.get(i)[0] = addresses[i];
+			}
+			while (!blocks.isEmpty()) {
+				release(allocator, blocks, r.nextInt(blocks.size()));
+			}
+			Assert.assertEquals(allocator.getCapacity(), allocator.getFreeMemory());
+		}
+	}
+
+	@Test
+	public void testSlotAllocator() {
+		for (final long capacity : new long[] { 1, 64, 65, 5000 }) {
+			final SlotAllocator slots = new SlotAllocator(capacity);
+			final TreeSet<Long> free = new TreeSet<>();
+			for (long i = 0; i < capacity; i++) {
+				free.add(i);
+			}
+			for (int i = 0; i < 20000; i++) {
+				if (!free.isEmpty() && (free.size() == capacity || r.nextBoolean())) {
+					// always the lowest free slot
+					Assert.assertEquals(free.pollFirst().longValue(), slots.allocate());
+				} else {
+					final long slot = (long) r.nextInt((int) capacity);
+					if (free.add(slot)) {
+						slots.free(slot);
+					} else {
+						Assert.assertFalse(slots.isAllocated(slot));
+					}
+				}
+				Assert.assertEquals(capacity - free.size(), slots.getAllocated());
+			}
+			slots.clear();
+			Assert.assertEquals(0, slots.getAllocated());
+			for (long i = 0; i < capacity; i++) {
+				Assert.assertEquals(i, slots.allocate());
+			}
+			try {
+				slots.allocate();
+				Assert.fail();
+			} catch (final IndexOutOfBoundsException e) {
+				// all slots allocated
+			}
+		}
+	}
+
+	@Test
+	public void testSlotAllocatorCopy() {
+		for (final long capacity : new long[] { 1, 64, 65, 5000 }) {
+			final SlotAllocator slots = new SlotAllocator(capacity);
+			for (long i = 0; i < capacity; i++) {
+				slots.allocate();
+			}
+			final TreeSet<Long> free = new TreeSet<>();
+			for (int i = 0; i < capacity / 2; i++) {
+				final long slot = (long) r.nextInt((int) capacity);
+				if (free.add(slot)) {
+					slots.free(slot);
+				}
+			}
+			final SlotAllocator copy = slots.copy(3 * capacity + 1);
+			Assert.assertEquals(slots.getAllocated(), copy.getAllocated());
+			for (long i = capacity; i <= 3 * capacity; i++) {
+				free.add(i);
+			}
+			// the free slots of the original first, then the added ones
+			while (!free.isEmpty()) {
+				Assert.assertEquals(free.pollFirst().longValue(), copy.allocate());
+			}
+			Assert.assertEquals(3 * capacity + 1, copy.getAllocated());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSlotDoubleFree() {
+		final SlotAllocator slots = new SlotAllocator(10);
+		slots.free(slots.allocate());
+		slots.free(0);
+	}
+
+	@Test(expected = OutOfDynamicMemoryException.class)
+	public void testOutOfMemory() {
+		create(AllocatorType.SEGREGATED_FIT).allocate(SIZE);
+	}
+
+}
@@ -0,0 +1,185 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.BigDataArrayDeque;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.test.classes.CollectionClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+
+public class ArrayDequeTest {
+	private static final int DEQUE_SIZE = 10;
+
+	private static final Random r = new Random();
+
+	private BigDataArrayDeque<PrimitiveClass> deque;
+
+	@Before
+	public void setUp() throws Exception {
+		deque = new BigDataArrayDeque<>(PrimitiveClass.class, (new ConfigFactory()).withSize(DEQUE_SIZE).build());
+	}
+
+	@Test
+	public void testFifoAndLifo() {
+		final Deque<PrimitiveClass> ref = new ArrayDeque<>();
+		for (int i = 0; i < 10000; i++) {
+			switch (r.nextInt(6)) {
+			case 0:
+				final PrimitiveClass first = new PrimitiveClass(r);
+				deque.push(first);
+				ref.push(first);
+				break;
+			case 1:
+			case 2:
+				final PrimitiveClass last = new PrimitiveClass(r);
+				deque.offer(last);
+				ref.offer(last);
+				break;
+			case 3:
+				Assert.assertEquals(ref.poll(), deque.poll());
+				break;
+			case 4:
+				Assert.assertEquals(ref.pollLast(), deque.pollLast());
+				break;
+			default:
+				Assert.assertEquals(ref.peekFirst(), deque.peekFirst());
+				Assert.assertEquals(ref.peekLast(), deque.peekLast());
+			}
+			Assert.assertEquals(ref.size(), deque.size());
+		}
+		Assert.assertTrue(deque.getCapacity() > DEQUE_SIZE);
+		Assert.assertEquals(new ArrayList<>(ref), new ArrayList<>(deque));
+	}
+
+	@Test
+	public void testGrowWrapped() {
+		for (int i = 0; i < DEQUE_SIZE / 2; i++) {
+			deque.addLast(new PrimitiveClass(r));
+		}
+		final Deque<PrimitiveClass> ref = new ArrayDeque<>(deque);
+		// wrap around the end of the buffer and grow
+		for (int i = 0; i < 2 * DEQUE_SIZE; i++) {
+			final PrimitiveClass instance = new PrimitiveClass(r);
+			deque.addFirst(instance);
+			ref.addFirst(instance);
+		}
+		Assert.assertEquals(new ArrayList<>(ref), new ArrayList<>(deque));
+	}
+
+	@Test
+	public void testRemoveOccurrence() {
+		final Deque<PrimitiveClass> ref = new ArrayDeque<>();
+		for (int i = 0; i < 3 * DEQUE_SIZE; i++) {
+			final PrimitiveClass instance = new PrimitiveClass(r);
+			if (r.nextBoolean()) {
+				deque.addFirst(instance);
+				ref.addFirst(instance);
+			} else {
+				deque.addLast(instance);
+				ref.addLast(instance);
+			}
+		}
+		final ArrayList<PrimitiveClass> elements = new ArrayList<>(ref);
+		while (!ref.isEmpty()) {
+			final PrimitiveClass instance = elements.remove(r.nextInt(elements.size()));
+			Assert.assertTrue(deque.removeFirstOccurrence(instance));
+			ref.removeFirstOccurrence(instance);
+			Assert.assertEquals(new ArrayList<>(ref), new ArrayList<>(deque));
+		}
+		Assert.assertFalse(deque.removeLastOccurrence(new PrimitiveClass(r)));
+	}
+
+	@Test
+	public void testRemoveWrapped() {
+		// every position of the head and of the removed element within a full buffer
+		for (int rotation = 0; rotation < DEQUE_SIZE; rotation++) {
+			for (int index = 0; index < DEQUE_SIZE; index++) {
+				final BigDataArrayDeque<PrimitiveClass> local = new BigDataArrayDeque<>(PrimitiveClass.class,
+						(new ConfigFactory()).withSize(DEQUE_SIZE).build());
+				for (int i = 0; i < rotation; i++) {
+					local.addLast(new PrimitiveClass(r));
+					local.pollFirst();
+				}
+				final ArrayList<PrimitiveClass> ref = new ArrayList<>();
+				for (int i = 0; i < DEQUE_SIZE; i++) {
+					final PrimitiveClass instance = new PrimitiveClass(r);
+					local.addLast(instance);
+					ref.add(instance);
+				}
+				Assert.assertEquals(DEQUE_SIZE, local.getCapacity());
+				Assert.assertTrue(local.removeFirstOccurrence(ref.remove(index)));
+				Assert.assertEquals(ref, new ArrayList<>(local));
+				Assert.assertEquals(ref.get(0), local.peekFirst());
+				Assert.assertEquals(ref.get(ref.size() - 1), local.peekLast());
+			}
+		}
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		final Deque<PrimitiveClass> ref = new ArrayDeque<>();
+		for (int i = 0; i < 2 * DEQUE_SIZE; i++) {
+			final PrimitiveClass instance = new PrimitiveClass(r);
+			deque.addFirst(instance);
+			ref.addFirst(instance);
+		}
+		final Iterator<PrimitiveClass> it = deque.iterator();
+		final Iterator<PrimitiveClass> refIt = ref.iterator();
+		while (it.hasNext()) {
+			Assert.assertEquals(refIt.next(), it.next());
+			if (r.nextBoolean()) {
+				it.remove();
+				refIt.remove();
+			}
+		}
+		Assert.assertEquals(new ArrayList<>(ref), new ArrayList<>(deque));
+		final Iterator<PrimitiveClass> desc = deque.descendingIterator();
+		final Iterator<PrimitiveClass> refDesc = ref.descendingIterator();
+		while (desc.hasNext()) {
+			Assert.assertEquals(refDesc.next(), desc.next());
+			desc.remove();
+			refDesc.remove();
+		}
+		Assert.assertTrue(deque.isEmpty());
+	}
+
+	@Test
+	public void testDynamicElements() {
+		final BigDataArrayDeque<CollectionClass> collections = new BigDataArrayDeque<>(CollectionClass.class,
+				(new ConfigFactory()).withSize(4).withLocation(MemoryLocation.BYTE_ARRAY).build());
+		final Deque<CollectionClass> ref = new ArrayDeque<>();
+		for (int i = 0; i < 500; i++) {
+			if (ref.isEmpty() || r.nextInt(3) != 0) {
+				final CollectionClass instance = new CollectionClass(r);
+				collections.offer(instance);
+				ref.offer(instance);
+			} else {
+				Assert.assertEquals(ref.poll(), collections.poll());
+			}
+		}
+		Assert.assertEquals(new ArrayList<>(ref), new ArrayList<>(collections));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testEmpty() {
+		Assert.assertNull(deque.poll());
+		Assert.assertNull(deque.peekLast());
+		deque.pop();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNull() {
+		deque.add(null);
+	}
+
+}
@@ -0,0 +1,180 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.BigDataArrayList;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.test.classes.CollectionClass;
+import de.tub.cit.slist.bdos.test.classes.DynamicLengthClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+
+public class ArrayListTest {
+	private static final int LIST_SIZE = 10;
+
+	private static final Random r = new Random();
+
+	private BigDataArrayList<PrimitiveClass>	list;
+	private List<PrimitiveClass>				ref;
+
+	@Before
+	public void setUp() throws Exception {
+		list = new BigDataArrayList<>(PrimitiveClass.class, (new ConfigFactory()).withSize(LIST_SIZE).build());
+		ref = new ArrayList<>(LIST_SIZE);
+		for (int i = 0; i < LIST_SIZE; i++) {
+			ref.add(new PrimitiveClass(r));
+		}
+	}
+
+	@Test
+	public void testAdd() {
+		for (final PrimitiveClass instance : ref) {
+			list.add(instance);
+		}
+		Assert.assertEquals(ref, list);
+	}
+
+	@Test
+	public void testParallelStream() {
+		for (int i = 0; i < 100 * LIST_SIZE; i++) {
+			list.add(i % 7 == 0 ? null : ref.get(i % LIST_SIZE));
+		}
+		final Spliterator<PrimitiveClass> spliterator = list.spliterator();
+		Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+		Assert.assertEquals(list.size(), spliterator.getExactSizeIfKnown());
+		Assert.assertEquals(new ArrayList<>(list), list.parallelStream().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testFailedStoreKeepsList() {
+		// without dynamic memory, only elements with NULL Strings can be stored
+		final BigDataArrayList<DynamicLengthClass> strings = new BigDataArrayList<>(DynamicLengthClass.class,
+				(new ConfigFactory()).withSize(LIST_SIZE).withDynamicRatio(0).build());
+		final List<DynamicLengthClass> localRef = new ArrayList<>();
+		for (int i = 0; i < LIST_SIZE / 2; i++) {
+			localRef.add(i % 2 == 0 ? null : new DynamicLengthClass((String) null));
+		}
+		strings.addAll(localRef);
+		final List<DynamicLengthClass> batch = new ArrayList<>();
+		batch.add(new DynamicLengthClass((String) null));
+		batch.add(new DynamicLengthClass(r));
+		try {
+			strings.addAll(1, batch);
+			Assert.fail();
+		} catch (final OutOfDynamicMemoryException e) {
+			Assert.assertEquals(localRef, strings);
+		}
+		try {
+			strings.set(1, new DynamicLengthClass(r));
+			Assert.fail();
+		} catch (final OutOfDynamicMemoryException e) {
+			Assert.assertEquals(localRef, strings);
+		}
+	}
+
+	@Test
+	public void testGrow() {
+		for (int i = 0; i < 10 * LIST_SIZE; i++) {
+			list.add(ref.get(i % LIST_SIZE));
+		}
+		Assert.assertEquals(10 * LIST_SIZE, list.size());
+		Assert.assertTrue(list.getCapacity() >= 10 * LIST_SIZE);
+		for (int i = 0; i < list.size(); i++) {
+			Assert.assertEquals(ref.get(i % LIST_SIZE), list.get(i));
+		}
+	}
+
+	@Test
+	public void testAddIndexAndRemove() {
+		list.addAll(ref);
+		final List<PrimitiveClass> localRef = new ArrayList<>(ref);
+		for (int i = 0; i < 1000; i++) {
+			if (localRef.isEmpty() || r.nextBoolean()) {
+				final int idx = r.nextInt(localRef.size() + 1);
+				final PrimitiveClass instance = r.nextInt(10) == 0 ? null : new PrimitiveClass(r);
+				list.add(idx, instance);
+				localRef.add(idx, instance);
+			} else {
+				final int idx = r.nextInt(localRef.size());
+				Assert.assertEquals(localRef.remove(idx), list.remove(idx));
+			}
+		}
+		Assert.assertEquals(localRef, list);
+		list.addAll(localRef.size() / 2, ref);
+		localRef.addAll(localRef.size() / 2, ref);
+		Assert.assertEquals(localRef, list);
+		list.subList(1, localRef.size() / 2).clear();
+		localRef.subList(1, localRef.size() / 2).clear();
+		Assert.assertEquals(localRef, list);
+	}
+
+	@Test
+	public void testDynamicElements() {
+		final BigDataArrayList<CollectionClass> collections = new BigDataArrayList<>(CollectionClass.class,
+				(new ConfigFactory()).withSize(4).withLocation(MemoryLocation.BYTE_ARRAY).withDynamicRatio(0.9).build());
+		final List<CollectionClass> localRef = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			if (localRef.isEmpty() || r.nextInt(3) != 0) {
+				final int idx = r.nextInt(localRef.size() + 1);
+				final CollectionClass instance = new CollectionClass(r);
+				collections.add(idx, instance);
+				localRef.add(idx, instance);
+			} else {
+				final int idx = r.nextInt(localRef.size());
+				Assert.assertEquals(localRef.remove(idx), collections.remove(idx));
+			}
+		}
+		Assert.assertEquals(localRef, collections);
+		collections.clear();
+		Assert.assertTrue(collections.isEmpty());
+	}
+
+	@Test
+	public void testSet() {
+		list.addAll(ref);
+		final int idx = r.nextInt(LIST_SIZE);
+		final PrimitiveClass instance = new PrimitiveClass(r);
+		Assert.assertEquals(ref.get(idx), list.set(idx, instance));
+		Assert.assertEquals(instance, list.get(idx));
+	}
+
+	@Test
+	public void testIndexOf() {
+		list.addAll(ref);
+		list.add(null);
+		final int idx = r.nextInt(LIST_SIZE);
+		Assert.assertEquals(idx, list.indexOf(ref.get(idx)));
+		Assert.assertEquals(idx, list.lastIndexOf(ref.get(idx)));
+		Assert.assertEquals(LIST_SIZE, list.indexOf(null));
+		Assert.assertFalse(list.contains(new PrimitiveClass(r)));
+	}
+
+	@Test
+	public void testIterator() {
+		list.addAll(ref);
+		final Iterator<PrimitiveClass> it = list.iterator();
+		int i = 0;
+		while (it.hasNext()) {
+			Assert.assertEquals(ref.get(i++), it.next());
+		}
+		Assert.assertEquals(LIST_SIZE, i);
+		Assert.assertArrayEquals(ref.toArray(), list.toArray());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testOutOfBounds() {
+		list.addAll(ref);
+		list.get(LIST_SIZE);
+	}
+
+}
@@ -19,6 +19,7 @@ public class Benchmark {
 
 	private static OffHeapSerializer<PrimitiveClass>	offHeapSerializer	= null;
 	private static OffHeapSerializer<PrimitiveClass>	byteArraySerializer	= null;
+	private static OffHeapSerializer<PrimitiveClass>	codecSerializer		= null;
 	private static final PrimitiveClass[]				ref					= new PrimitiveClass[INSTANCES];
 	private static final int[]							getOrder			= new int[ITERATIONS + WARMUP];
 	private static final int[]							setOrder			= new int[INSTANCES];
@@ -30,6 +31,7 @@ public class Benchmark {
 		offHeapSerializer = new OffHeapSerializer<>(PrimitiveClass.class, (new ConfigFactory()).withSize(INSTANCES).build(), 0);
 		byteArraySerializer = new OffHeapSerializer<>(PrimitiveClass.class,
 				(new ConfigFactory()).withSize(INSTANCES).withLocation(MemoryLocation.BYTE_ARRAY).build(), 0);
+		codecSerializer = new OffHeapSerializer<>(PrimitiveClass.class, (new ConfigFactory()).withSize(INSTANCES).withGeneratedCodecs(true).build(), 0);
 		for (int i = 0; i < INSTANCES; i++) {
 			ref[i] = new PrimitiveClass(r);
 			setOrder[i] = i;
@@ -46,6 +48,7 @@ public class Benchmark {
 	public static void tearDownAfterClass() throws Exception {
 		offHeapSerializer.destroy();
 		byteArraySerializer.destroy();
+		codecSerializer.destroy();
 	}
 
 	@Test
@@ -54,10 +57,14 @@ public class Benchmark {
 		System.out.format("Time for fill (off-heap):\t\t%,7dms\n", fillOffHeapTime);
 		final long fillOnHeapTime = fill(byteArraySerializer);
 		System.out.format("Time for fill  (on-heap):\t\t%,7dms\n", fillOnHeapTime);
+		final long fillCodecTime = fill(codecSerializer);
+		System.out.format("Time for fill   (codec):\t\t%,7dms\n", fillCodecTime);
 		final long readOffHeapTime = read(offHeapSerializer);
 		System.out.format("Time for read (off-heap):\t\t%,7dms\n", readOffHeapTime);
 		final long readOnHeapTime = read(byteArraySerializer);
 		System.out.format("Time for read  (on-heap):\t\t%,7dms\n", readOnHeapTime);
+		final long readCodecTime = read(codecSerializer);
+		System.out.format("Time for read   (codec):\t\t%,7dms\n", readCodecTime);
 		final long readOffHeapPreallocated = readPreallocated(offHeapSerializer);
 		System.out.format("Time for read preallocated (off-heap):\t%,7dms\n", readOffHeapPreallocated);
 		final long readOnHeapPreallocated = readPreallocated(byteArraySerializer);
@@ -65,8 +72,10 @@ public class Benchmark {
 		System.out.println("-------------------------------------------------");
 		System.out.format("Fills (off-heap):\t\t%#,14.2f per second\n", (INSTANCES / (double) fillOffHeapTime * 1000));
 		System.out.format("Fills  (on-heap):\t\t%#,14.2f per second\n", (INSTANCES / (double) fillOnHeapTime * 1000));
+		System.out.format("Fills   (codec):\t\t%#,14.2f per second\n", (INSTANCES / (double) fillCodecTime * 1000));
 		System.out.format("Reads (off-heap):\t\t%#,14.2f per second\n", (INSTANCES / (double) readOffHeapTime * 1000));
 		System.out.format("Reads  (on-heap):\t\t%#,14.2f per second\n", (INSTANCES / (double) readOnHeapTime * 1000));
+		System.out.format("Reads   (codec):\t\t%#,14.2f per second\n", (INSTANCES / (double) readCodecTime * 1000));
 		System.out.format("Reads preallocated (off-heap):\t%#,14.2f per second\n", (INSTANCES / (double) readOffHeapPreallocated * 1000));
 		System.out.format("Reads preallocated  (on-heap):\t%#,14.2f per second\n", (INSTANCES / (double) readOnHeapPreallocated * 1000));
 	}
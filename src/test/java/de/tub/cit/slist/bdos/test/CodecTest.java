@@ -0,0 +1,102 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.OffHeapSerializer;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.test.classes.DynamicLengthClass;
+import de.tub.cit.slist.bdos.test.classes.FixedLengthClass;
+import de.tub.cit.slist.bdos.test.classes.GenericClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+import de.tub.cit.slist.bdos.test.classes.RandomlyInitializable;
+
+public class CodecTest {
+	private static final int	INSTANCES	= 4;
+	private static final Random	r			= new Random();
+
+	@Test
+	public void testPrimitiveNative() throws Exception {
+		setAndGet(new OffHeapSerializer<>(PrimitiveClass.class, (new ConfigFactory()).withSize(INSTANCES).withGeneratedCodecs(true).build(), 0),
+				PrimitiveClass.class);
+	}
+
+	@Test
+	public void testPrimitiveByteArray() throws Exception {
+		setAndGet(new OffHeapSerializer<>(PrimitiveClass.class,
+				(new ConfigFactory()).withSize(INSTANCES).withLocation(MemoryLocation.BYTE_ARRAY).withGeneratedCodecs(true).build(), 0), PrimitiveClass.class);
+	}
+
+	@Test
+	public void testFixedLength() throws Exception {
+		setAndGet(new OffHeapSerializer<>(FixedLengthClass.class, (new ConfigFactory()).withSize(INSTANCES).withGeneratedCodecs(true).build(), 0),
+				FixedLengthClass.class);
+	}
+
+	@Test
+	public void testGenericClass() throws Exception {
+		setAndGet(new OffHeapSerializer<>(GenericClass.class, (new ConfigFactory()).withSize(INSTANCES).withGeneratedCodecs(true).build(), 0),
+				GenericClass.class);
+	}
+
+	@Test
+	public void testGenericClassNullFields() throws Exception {
+		final OffHeapSerializer<GenericClass> serializer = new OffHeapSerializer<>(GenericClass.class,
+				(new ConfigFactory()).withSize(INSTANCES).withGeneratedCodecs(true).build(), 0);
+		try {
+			final GenericClass instance = new GenericClass();
+			serializer.setRandomAccess(0, instance);
+			Assert.assertEquals(instance, serializer.getRandomAccess(0));
+		} finally {
+			serializer.destroy();
+		}
+	}
+
+	@Test
+	public void testDynamicLength() throws Exception {
+		setAndGet(new OffHeapSerializer<>(DynamicLengthClass.class,
+				(new ConfigFactory()).withSize(INSTANCES).withDynamicRatio(0.8).withGeneratedCodecs(true).build(), 0), DynamicLengthClass.class);
+	}
+
+	@Test
+	public void testCompatibleWithReflectiveCopy() throws Exception {
+		final OffHeapSerializer<GenericClass> serializer = new OffHeapSerializer<>(GenericClass.class,
+				(new ConfigFactory()).withSize(INSTANCES).withLocation(MemoryLocation.BYTE_ARRAY).withGeneratedCodecs(true).build(), 0);
+		final OffHeapSerializer<GenericClass> reference = new OffHeapSerializer<>(GenericClass.class,
+				(new ConfigFactory()).withSize(INSTANCES).withLocation(MemoryLocation.BYTE_ARRAY).build(), 0);
+		try {
+			for (int i = 0; i < INSTANCES; i++) {
+				final GenericClass instance = new GenericClass(r);
+				serializer.setRandomAccess(i, instance);
+				reference.setRandomAccess(i, instance);
+				for (int offset = 1; offset < serializer.getElementSize(); offset++) {
+					Assert.assertEquals(reference.getByte(i, offset), serializer.getByte(i, offset));
+				}
+			}
+		} finally {
+			serializer.destroy();
+			reference.destroy();
+		}
+	}
+
+	private <T extends RandomlyInitializable> void setAndGet(final OffHeapSerializer<T> serializer, final Class<T> clazz) throws Exception {
+		try {
+			final RandomlyInitializable[] ref = new RandomlyInitializable[INSTANCES];
+			for (int i = 0; i < INSTANCES; i++) {
+				final T instance = clazz.newInstance();
+				instance.randomInit(r);
+				ref[i] = instance;
+				serializer.setRandomAccess(i, instance);
+			}
+			for (int i = 0; i < INSTANCES; i++) {
+				Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
+			}
+		} finally {
+			serializer.destroy();
+		}
+	}
+
+}
@@ -10,10 +10,12 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import de.tub.cit.slist.bdos.conf.AllocatorType;
 import de.tub.cit.slist.bdos.conf.ConfigFactory;
 import de.tub.cit.slist.bdos.conf.MemoryLocation;
 import de.tub.cit.slist.bdos.conf.OHSConfig;
 import de.tub.cit.slist.bdos.conf.SizeType;
+import de.tub.cit.slist.bdos.conf.StorageLayout;
 
 public class ConfigTest {
 
@@ -51,17 +53,29 @@ public class ConfigTest {
 		Assert.assertEquals(MemoryLocation.NATIVE_MEMORY, conf.getLocation());
 		Assert.assertEquals(SizeType.ELEMENTS, conf.getSizeType());
 		Assert.assertEquals(0.2, conf.getDynamicRatio(), 0d);
+		Assert.assertFalse(conf.isGeneratedCodecs());
+		Assert.assertEquals(AllocatorType.FIRST_FIT, conf.getAllocator());
+		Assert.assertTrue(conf.isAutoCompaction());
+		Assert.assertFalse(conf.isPositionalIndex());
+		Assert.assertEquals(StorageLayout.ROW, conf.getLayout());
 	}
 
 	@Test
 	public void testSetProperty() {
 		final ConfigFactory factory = new ConfigFactory().withDefaults().withLocation(MemoryLocation.BYTE_ARRAY).withSize(Long.MAX_VALUE)
-				.withSizeType(SizeType.BYTES).withDynamicRatio(1d);
+				.withSizeType(SizeType.BYTES).withDynamicRatio(1d).withGeneratedCodecs(true)
+				.withAllocator(AllocatorType.SEGREGATED_FIT).withAutoCompaction(false).withPositionalIndex(true)
+				.withLayout(StorageLayout.COLUMNAR);
 		final OHSConfig conf = factory.build();
 		Assert.assertEquals(Long.MAX_VALUE, conf.getSize());
 		Assert.assertEquals(MemoryLocation.BYTE_ARRAY, conf.getLocation());
 		Assert.assertEquals(SizeType.BYTES, conf.getSizeType());
 		Assert.assertEquals(1d, conf.getDynamicRatio(), 0d);
+		Assert.assertTrue(conf.isGeneratedCodecs());
+		Assert.assertEquals(AllocatorType.SEGREGATED_FIT, conf.getAllocator());
+		Assert.assertFalse(conf.isAutoCompaction());
+		Assert.assertTrue(conf.isPositionalIndex());
+		Assert.assertEquals(StorageLayout.COLUMNAR, conf.getLayout());
 	}
 
 	@Test(expected = IllegalArgumentException.class)
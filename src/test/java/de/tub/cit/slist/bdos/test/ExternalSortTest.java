@@ -0,0 +1,118 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.tub.cit.slist.bdos.ExternalSort;
+import de.tub.cit.slist.bdos.OffHeapSerializer;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+import de.tub.cit.slist.bdos.test.classes.RecordClass;
+
+public class ExternalSortTest {
+	private static final int	RUN_SIZE	= 100;
+	private static final int	ELEMENTS	= 1050;
+
+	private static final Random r = new Random();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ExternalSort<PrimitiveClass>		sort;
+	private OffHeapSerializer<PrimitiveClass>	dest;
+	private List<PrimitiveClass>				ref;
+
+	@Before
+	public void setUp() throws Exception {
+		sort = new ExternalSort<>(PrimitiveClass.class, (new ConfigFactory()).withSize(RUN_SIZE).build(), "d", folder.getRoot().toPath());
+		dest = new OffHeapSerializer<>(PrimitiveClass.class, (new ConfigFactory()).withSize(ELEMENTS).build(), 0);
+		ref = new ArrayList<>(ELEMENTS);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		sort.close();
+		dest.destroy();
+	}
+
+	private void add(final int count) throws Exception {
+		for (int i = 0; i < count; i++) {
+			PrimitiveClass instance = null;
+			if (r.nextInt(20) != 0) {
+				instance = new PrimitiveClass(r);
+				// few distinct keys to check stability
+				instance.setD(r.nextInt(50) - 25.5);
+			}
+			ref.add(instance);
+			sort.add(instance);
+		}
+		ref.sort(Comparator.nullsFirst(Comparator.comparing(PrimitiveClass::getD)));
+	}
+
+	@Test
+	public void testSpilledRuns() throws Exception {
+		add(ELEMENTS);
+		Assert.assertEquals(ELEMENTS, sort.size());
+		Assert.assertEquals(ELEMENTS / RUN_SIZE, sort.getSpilledRuns());
+		sort.writeTo(dest, 0);
+		// the last run is spilled as well before merging
+		Assert.assertEquals(ELEMENTS / RUN_SIZE + 1, folder.getRoot().listFiles().length);
+		for (int i = 0; i < ELEMENTS; i++) {
+			Assert.assertEquals(ref.get(i), dest.getRandomAccess(i));
+		}
+		sort.close();
+		Assert.assertEquals(0, folder.getRoot().listFiles().length);
+	}
+
+	@Test
+	public void testSingleRun() throws Exception {
+		add(RUN_SIZE);
+		sort.writeTo(dest, ELEMENTS - RUN_SIZE);
+		Assert.assertEquals(0, sort.getSpilledRuns());
+		final File[] files = folder.getRoot().listFiles();
+		Assert.assertEquals(0, files.length);
+		for (int i = 0; i < RUN_SIZE; i++) {
+			Assert.assertEquals(ref.get(i), dest.getRandomAccess(ELEMENTS - RUN_SIZE + i));
+		}
+	}
+
+	@Test
+	public void testWriteToStream() throws Exception {
+		add(3 * RUN_SIZE + 1);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		sort.writeTo(out);
+		final byte[] bytes = out.toByteArray();
+		final int recordSize = 1 + (int) dest.getElementSize();
+		Assert.assertEquals(ref.size() * recordSize, bytes.length);
+		for (int i = 0; i < ref.size(); i++) {
+			Assert.assertEquals(ref.get(i) == null ? OffHeapSerializer.BITMASK_NULL : 0, bytes[i * recordSize]);
+			if (ref.get(i) != null) {
+				Assert.assertArrayEquals(dest.toImage(ref.get(i)), Arrays.copyOfRange(bytes, i * recordSize + 1, (i + 1) * recordSize));
+			}
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testTargetTooSmall() throws Exception {
+		add(RUN_SIZE);
+		sort.writeTo(dest, ELEMENTS - RUN_SIZE + 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDynamicElements() {
+		new ExternalSort<>(RecordClass.class, (new ConfigFactory()).withSize(RUN_SIZE).build(), "price");
+	}
+
+}
@@ -0,0 +1,254 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.HashIndex;
+import de.tub.cit.slist.bdos.OffHeapSerializer;
+import de.tub.cit.slist.bdos.RangeIndex;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+import de.tub.cit.slist.bdos.test.classes.RecordClass;
+
+public class IndexTest {
+	private static final int SIZE = 500;
+
+	private static final Random r = new Random();
+
+	private OffHeapSerializer<RecordClass> serializer;
+
+	@Before
+	public void setUp() throws Exception {
+		serializer = new OffHeapSerializer<>(RecordClass.class, (new ConfigFactory()).withSize(SIZE).withDynamicRatio(0.8).build(), 0);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		serializer.destroy();
+	}
+
+	private static List<Long> list(final PrimitiveIterator.OfLong it) {
+		final List<Long> slots = new ArrayList<>();
+		while (it.hasNext()) {
+			slots.add(it.nextLong());
+		}
+		return slots;
+	}
+
+	private static Set<Long> slots(final PrimitiveIterator.OfLong it) {
+		final Set<Long> slots = new HashSet<>();
+		while (it.hasNext()) {
+			Assert.assertTrue(slots.add(it.nextLong()));
+		}
+		return slots;
+	}
+
+	/**
+	 * @return slots of the non-NULL nodes whose category equals <code>category</code>, by scanning
+	 */
+	private Set<Long> scan(final int category) {
+		final Set<Long> slots = new HashSet<>();
+		for (long idx = 0; idx < serializer.getMaxElementCount(); idx++) {
+			if (!serializer.isNull(idx) && serializer.getRandomAccess(idx).getCategory() == category) {
+				slots.add(idx);
+			}
+		}
+		return slots;
+	}
+
+	@Test
+	public void testAnnotatedIndex() {
+		final HashIndex<RecordClass> index = serializer.getHashIndex("category");
+		Assert.assertNotNull(index);
+		Assert.assertNull(serializer.getHashIndex("timestamp"));
+		for (int i = 0; i < 20000; i++) {
+			final long idx = r.nextInt(SIZE);
+			switch (r.nextInt(5)) {
+			case 0:
+				serializer.setRandomAccess(idx, null);
+				break;
+			case 1:
+				final long from = r.nextInt(SIZE - 10);
+				serializer.moveRandomAccess(from, r.nextInt(SIZE - 10), r.nextInt(10));
+				break;
+			default:
+				// releases the dynamic memory of the old element
+				serializer.setRandomAccess(idx, null);
+				serializer.setRandomAccess(idx, new RecordClass(r));
+			}
+		}
+		long indexed = 0;
+		for (int category = 0; category < RecordClass.CATEGORIES; category++) {
+			final Set<Long> expected = scan(category);
+			Assert.assertEquals(expected, slots(index.lookup(category)));
+			Assert.assertEquals(expected.size(), index.count(category));
+			indexed += expected.size();
+		}
+		Assert.assertEquals(indexed, index.size());
+		Assert.assertFalse(index.lookup(RecordClass.CATEGORIES).hasNext());
+		serializer.clear();
+		Assert.assertEquals(0, index.size());
+		Assert.assertFalse(index.lookup(0).hasNext());
+	}
+
+	@Test
+	public void testCreateIndex() {
+		final OffHeapSerializer<PrimitiveClass> primitives = new OffHeapSerializer<>(PrimitiveClass.class,
+				(new ConfigFactory()).withSize(SIZE).withLocation(MemoryLocation.BYTE_ARRAY).build(), 0);
+		final List<PrimitiveClass> elements = new ArrayList<>();
+		for (int i = 0; i < SIZE; i++) {
+			final PrimitiveClass element = new PrimitiveClass(r);
+			element.setC((char) ('a' + r.nextInt(5)));
+			element.setD(r.nextInt(3) - 1.0);
+			elements.add(element);
+			primitives.setRandomAccess(i, element);
+		}
+		// existing elements are added
+		final HashIndex<PrimitiveClass> chars = primitives.createHashIndex("c");
+		final HashIndex<PrimitiveClass> doubles = primitives.createHashIndex("d");
+		Assert.assertSame(chars, primitives.createHashIndex("c"));
+		for (int i = 0; i < SIZE; i++) {
+			if (r.nextBoolean()) {
+				elements.get(i).setD(r.nextInt(3) - 1.0);
+				primitives.setRandomAccess(i, elements.get(i));
+			}
+		}
+		for (final Object value : new Object[] { 'a', 'c', 'z' }) {
+			final Set<Long> expected = new HashSet<>();
+			for (int i = 0; i < SIZE; i++) {
+				if (elements.get(i).getC() == (Character) value) {
+					expected.add((long) i);
+				}
+			}
+			Assert.assertEquals(expected, slots(chars.lookup(value)));
+		}
+		for (final double value : new double[] { -1.0, 0.0, 1.0 }) {
+			final Set<Long> expected = new HashSet<>();
+			for (int i = 0; i < SIZE; i++) {
+				if (elements.get(i).getD() == value) {
+					expected.add((long) i);
+				}
+			}
+			Assert.assertEquals(expected, slots(doubles.lookup(value)));
+		}
+		primitives.destroy();
+	}
+
+	@Test
+	public void testIndexSurvivesGrowth() {
+		for (int i = 0; i < SIZE; i++) {
+			serializer.setRandomAccess(i, new RecordClass(r));
+		}
+		final OffHeapSerializer<RecordClass> larger = serializer.createLarger(2 * SIZE);
+		serializer.copyRandomAccess(larger, 0, SIZE, SIZE);
+		final HashIndex<RecordClass> index = larger.getHashIndex("category");
+		Assert.assertEquals(SIZE, index.size());
+		Assert.assertEquals(SIZE, larger.getRangeIndex("timestamp").size());
+		for (int category = 0; category < RecordClass.CATEGORIES; category++) {
+			for (final PrimitiveIterator.OfLong it = index.lookup(category); it.hasNext();) {
+				final long idx = it.nextLong();
+				Assert.assertTrue(idx >= SIZE);
+				Assert.assertEquals(category, larger.getRandomAccess(idx).getCategory());
+			}
+		}
+		larger.destroy();
+	}
+
+	@Test
+	public void testRangeIndex() {
+		final RangeIndex<RecordClass> index = serializer.getRangeIndex("timestamp");
+		Assert.assertNotNull(index);
+		Assert.assertNull(serializer.getHashIndex("timestamp"));
+		for (int i = 0; i < 20000; i++) {
+			final long idx = r.nextInt(SIZE);
+			switch (r.nextInt(5)) {
+			case 0:
+				serializer.setRandomAccess(idx, null);
+				break;
+			case 1:
+				serializer.moveRandomAccess(r.nextInt(SIZE - 10), r.nextInt(SIZE - 10), r.nextInt(10));
+				break;
+			default:
+				serializer.setRandomAccess(idx, null);
+				final RecordClass element = new RecordClass(r);
+				// plenty of duplicates
+				element.setTimestamp(r.nextInt(1000));
+				serializer.setRandomAccess(idx, element);
+			}
+		}
+		final List<Long> all = new ArrayList<>();
+		for (long idx = 0; idx < SIZE; idx++) {
+			if (!serializer.isNull(idx)) {
+				all.add(idx);
+			}
+		}
+		all.sort(Comparator.comparingLong((final Long idx) -> serializer.getRandomAccess(idx).getTimestamp()).thenComparing(Comparator.naturalOrder()));
+		Assert.assertEquals(all.size(), index.size());
+		Assert.assertEquals(all, list(index.range(null, false, null, false)));
+		for (int i = 0; i < 100; i++) {
+			final long from = r.nextInt(1100) - 50;
+			final long to = from + r.nextInt(200);
+			final boolean fromInclusive = r.nextBoolean();
+			final boolean toInclusive = r.nextBoolean();
+			final List<Long> expected = new ArrayList<>();
+			for (final Long idx : all) {
+				final long timestamp = serializer.getRandomAccess(idx).getTimestamp();
+				if ((timestamp > from || fromInclusive && timestamp == from) && (timestamp < to || toInclusive && timestamp == to)) {
+					expected.add(idx);
+				}
+			}
+			Assert.assertEquals(expected, list(index.range(from, fromInclusive, to, toInclusive)));
+			Assert.assertEquals(expected.size(), index.count(from, fromInclusive, to, toInclusive));
+		}
+		serializer.clear();
+		Assert.assertEquals(0, index.size());
+		Assert.assertFalse(index.range(null, true, null, true).hasNext());
+	}
+
+	@Test
+	public void testRangeIndexDoubles() {
+		final OffHeapSerializer<PrimitiveClass> primitives = new OffHeapSerializer<>(PrimitiveClass.class,
+				(new ConfigFactory()).withSize(SIZE).withLocation(MemoryLocation.BYTE_ARRAY).build(), 0);
+		final RangeIndex<PrimitiveClass> index = primitives.createRangeIndex("d");
+		final double[] special = { Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -0.0, 0.0 };
+		final List<Double> values = new ArrayList<>();
+		for (int i = 0; i < SIZE; i++) {
+			final PrimitiveClass element = new PrimitiveClass(r);
+			element.setD(i < special.length ? special[i] : r.nextGaussian());
+			primitives.setRandomAccess(i, element);
+			values.add(element.getD());
+		}
+		values.sort(Comparator.naturalOrder());
+		final List<Double> actual = new ArrayList<>();
+		for (final PrimitiveIterator.OfLong it = index.range(null, true, null, true); it.hasNext();) {
+			actual.add(primitives.getRandomAccess(it.nextLong()).getD());
+		}
+		Assert.assertEquals(values, actual);
+		Assert.assertEquals(1, index.count(-0.0, true, 0.0, false));
+		Assert.assertEquals(1, index.count(Double.POSITIVE_INFINITY, false, null, true));
+		Assert.assertEquals(values.subList(0, values.indexOf(-0.0)).size(), index.count(null, true, -0.0, false));
+		primitives.destroy();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPrimitiveField() {
+		serializer.createHashIndex("name");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownField() {
+		serializer.createHashIndex("unknown");
+	}
+
+}
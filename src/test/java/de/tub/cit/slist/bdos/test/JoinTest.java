@@ -0,0 +1,115 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.HashJoin;
+import de.tub.cit.slist.bdos.OffHeapSerializer;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+import de.tub.cit.slist.bdos.test.classes.RecordClass;
+
+public class JoinTest {
+	private static final int	RECORDS		= 1000;
+	private static final int	CUSTOMERS	= 30;
+
+	private static final Random r = new Random();
+
+	private OffHeapSerializer<RecordClass>		records;
+	private OffHeapSerializer<PrimitiveClass>	customers;
+
+	@Before
+	public void setUp() throws Exception {
+		records = new OffHeapSerializer<>(RecordClass.class, (new ConfigFactory()).withSize(RECORDS).withDynamicRatio(0.8).build(), 0);
+		for (int i = 0; i < RECORDS; i++) {
+			records.setRandomAccess(i, r.nextInt(10) == 0 ? null : new RecordClass(r));
+		}
+		customers = new OffHeapSerializer<>(PrimitiveClass.class, (new ConfigFactory()).withSize(CUSTOMERS).build(), 0);
+		for (int i = 0; i < CUSTOMERS; i++) {
+			if (r.nextInt(5) == 0) {
+				continue;
+			}
+			final PrimitiveClass customer = new PrimitiveClass(r);
+			// some ids are duplicated, some have no records
+			customer.setI(r.nextInt(RecordClass.CATEGORIES + 5));
+			customer.setL(customer.getI());
+			customers.setRandomAccess(i, customer);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		records.destroy();
+		customers.destroy();
+	}
+
+	/**
+	 * @return pairs of customer and record slots with equal ids, by nested loops
+	 */
+	private Set<List<Long>> expected() {
+		final Set<List<Long>> pairs = new HashSet<>();
+		for (long c = 0; c < CUSTOMERS; c++) {
+			for (long o = 0; o < RECORDS; o++) {
+				if (!customers.isNull(c) && !records.isNull(o) && customers.getRandomAccess(c).getI() == records.getRandomAccess(o).getCategory()) {
+					pairs.add(pair(c, o));
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static List<Long> pair(final long a, final long b) {
+		final List<Long> pair = new ArrayList<>(2);
+		pair.add(a);
+		pair.add(b);
+		return pair;
+	}
+
+	@Test
+	public void testJoin() {
+		final Set<List<Long>> expected = expected();
+		try (final HashJoin<PrimitiveClass, RecordClass> join = customers.join("i", records, "category")) {
+			final Set<List<Long>> actual = new HashSet<>();
+			join.forEach((customer, record) -> Assert.assertTrue(actual.add(pair(customer, record))));
+			Assert.assertEquals(expected, actual);
+			Assert.assertEquals(expected.size(), join.count());
+			final List<String> projected = new ArrayList<>();
+			join.project((customer, record) -> customer.getI() + ":" + record.getCategory(), projected::add);
+			Assert.assertEquals(expected.size(), projected.size());
+			for (final String p : projected) {
+				Assert.assertEquals(p.substring(0, p.indexOf(':')), p.substring(p.indexOf(':') + 1));
+			}
+		}
+	}
+
+	@Test
+	public void testJoinOnIndex() {
+		final Set<List<Long>> expected = new HashSet<>();
+		for (final List<Long> pair : expected()) {
+			expected.add(pair(pair.get(1), pair.get(0)));
+		}
+		// records maintain a hash index on the category, long ids match int categories
+		final HashJoin<RecordClass, PrimitiveClass> join = records.join("category", customers, "l");
+		final Set<List<Long>> actual = new HashSet<>();
+		join.forEach((record, customer) -> Assert.assertTrue(actual.add(pair(record, customer))));
+		Assert.assertEquals(expected, actual);
+		join.destroy();
+		// the index of the records is left intact
+		Assert.assertEquals(records.aggregate("category").getCount(), records.getHashIndex("category").size());
+		Assert.assertEquals(expected.size(), records.join("category", customers, "l").count());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIncompatibleKeys() {
+		customers.join("d", records, "category");
+	}
+
+}
@@ -1,9 +1,12 @@
 package de.tub.cit.slist.bdos.test;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -13,8 +16,11 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import de.tub.cit.slist.bdos.BigDataLinkedList;
+import de.tub.cit.slist.bdos.Condition;
+import de.tub.cit.slist.bdos.FieldStatistics;
 import de.tub.cit.slist.bdos.conf.ConfigFactory;
 import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+import de.tub.cit.slist.bdos.test.classes.RecordClass;
 
 public class ListTest {
 	private static final int LIST_SIZE = 10;
@@ -56,6 +62,121 @@ public class ListTest {
 		assertListsEqual();
 	}
 
+	@Test
+	public void testAggregate() {
+		list.addAll(ref);
+		list.remove(0);
+		list.add(null);
+		long sum = 0;
+		int min = Integer.MAX_VALUE;
+		for (final PrimitiveClass instance : ref.subList(1, LIST_SIZE)) {
+			sum += instance.getI();
+			min = Math.min(min, instance.getI());
+		}
+		final FieldStatistics statistics = linkedList.aggregate("i");
+		Assert.assertEquals(LIST_SIZE - 1, statistics.getCount());
+		Assert.assertEquals(sum, statistics.getSum(), 0d);
+		Assert.assertEquals(min, statistics.getMin(), 0d);
+		Assert.assertEquals(ref.get(1).getI(), (int) linkedList.aggregate("i", Condition.field("i").eq(ref.get(1).getI())).getMax());
+	}
+
+	@Test
+	public void testSort() {
+		final List<PrimitiveClass> localRef = new ArrayList<>(ref.subList(1, LIST_SIZE));
+		for (int i = 0; i < localRef.size(); i += 2) {
+			localRef.get(i).setD(-localRef.get(i).getD());
+			localRef.get(i).setF(-localRef.get(i).getF());
+		}
+		localRef.add(3, null);
+		list.addAll(localRef);
+		final List<String> fields = new ArrayList<>();
+		final List<Comparator<PrimitiveClass>> comparators = new ArrayList<>();
+		fields.add("l");
+		comparators.add(Comparator.comparing(PrimitiveClass::getL));
+		fields.add("c");
+		comparators.add(Comparator.comparing(PrimitiveClass::getC));
+		fields.add("b");
+		comparators.add(Comparator.comparing(PrimitiveClass::getB));
+		fields.add("i");
+		comparators.add(Comparator.comparing(PrimitiveClass::getI));
+		fields.add("s");
+		comparators.add(Comparator.comparing(PrimitiveClass::getS));
+		fields.add("f");
+		comparators.add(Comparator.comparing(PrimitiveClass::getF));
+		fields.add("d");
+		comparators.add(Comparator.comparing(PrimitiveClass::getD));
+		fields.add("bool");
+		comparators.add(Comparator.comparing(PrimitiveClass::isBool));
+		for (int i = 0; i < fields.size(); i++) {
+			// both sorts are stable, so ties keep the order of the previous field
+			linkedList.sort(fields.get(i));
+			localRef.sort(Comparator.nullsFirst(comparators.get(i)));
+			Assert.assertEquals(localRef, list);
+			Assert.assertEquals(localRef.get(localRef.size() - 1), linkedList.getLast());
+		}
+	}
+
+	@Test
+	public void testSortStrings() {
+		final int size = 1000;
+		final BigDataLinkedList<RecordClass> records = new BigDataLinkedList<>(RecordClass.class,
+				(new ConfigFactory()).withSize(size).withDynamicRatio(0.8).withPositionalIndex(true).build());
+		final List<RecordClass> localRef = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final RecordClass record = r.nextInt(20) == 0 ? null : new RecordClass(r);
+			if (record != null && r.nextInt(20) == 0) {
+				record.setName(null);
+			}
+			localRef.add(record);
+			records.add(record);
+		}
+		records.sort("price");
+		localRef.sort(Comparator.nullsFirst(Comparator.comparing(RecordClass::getPrice)));
+		records.sort("name");
+		localRef.sort(Comparator.nullsFirst(Comparator.comparing(RecordClass::getName, Comparator.nullsFirst(Comparator.naturalOrder()))));
+		Assert.assertEquals(localRef, records);
+		// positional index and prev pointers are consistent
+		for (int i = 0; i < size; i += 97) {
+			Assert.assertEquals(localRef.get(i), records.get(i));
+		}
+		final Iterator<RecordClass> descending = records.descendingIterator();
+		for (int i = size - 1; i >= 0; i--) {
+			Assert.assertEquals(localRef.get(i), descending.next());
+		}
+		records.remove(size / 2);
+		localRef.remove(size / 2);
+		Assert.assertEquals(localRef, records);
+	}
+
+	@Test
+	public void testParallelStream() {
+		final int size = 1000;
+		for (final boolean positionalIndex : new boolean[] { false, true }) {
+			final BigDataLinkedList<PrimitiveClass> local = new BigDataLinkedList<>(PrimitiveClass.class,
+					(new ConfigFactory()).withSize(size).withPositionalIndex(positionalIndex).build());
+			final List<PrimitiveClass> localRef = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				final PrimitiveClass instance = i % 9 == 0 ? null : new PrimitiveClass(r);
+				// link at both ends, so that list order and slot order differ
+				if (i % 2 == 0) {
+					local.addFirst(instance);
+					localRef.add(0, instance);
+				} else {
+					local.addLast(instance);
+					localRef.add(instance);
+				}
+			}
+			final Spliterator<PrimitiveClass> spliterator = local.spliterator();
+			Assert.assertEquals(size, spliterator.getExactSizeIfKnown());
+			final Spliterator<PrimitiveClass> prefix = spliterator.trySplit();
+			Assert.assertEquals(size / 2, prefix.getExactSizeIfKnown());
+			final List<PrimitiveClass> suffix = new ArrayList<>();
+			spliterator.forEachRemaining(suffix::add);
+			Assert.assertEquals(localRef.subList(size / 2, size), suffix);
+			Assert.assertEquals(localRef, local.parallelStream().collect(Collectors.toList()));
+		}
+	}
+
 	@Test
 	public void testAddIndex() {
 		list.addAll(ref);
@@ -158,6 +279,48 @@ public class ListTest {
 		}
 	}
 
+	@Test
+	public void testPositionalIndex() {
+		final int size = 2000;
+		final List<PrimitiveClass> indexed = new BigDataLinkedList<>(PrimitiveClass.class,
+				(new ConfigFactory()).withSize(size).withPositionalIndex(true).build());
+		final List<PrimitiveClass> localRef = new ArrayList<>();
+		for (int i = 0; i < size / 2; i++) {
+			final PrimitiveClass instance = new PrimitiveClass(r);
+			indexed.add(instance);
+			localRef.add(instance);
+		}
+		for (int i = 0; i < 20000; i++) {
+			final int op = r.nextInt(4);
+			if (op == 0 && localRef.size() < size) {
+				final int idx = r.nextInt(localRef.size() + 1);
+				final PrimitiveClass instance = new PrimitiveClass(r);
+				indexed.add(idx, instance);
+				localRef.add(idx, instance);
+			} else if (op == 1 && !localRef.isEmpty()) {
+				final int idx = r.nextInt(localRef.size());
+				Assert.assertEquals(localRef.remove(idx), indexed.remove(idx));
+			} else if (op == 2 && !localRef.isEmpty()) {
+				final int idx = r.nextInt(localRef.size());
+				final PrimitiveClass instance = new PrimitiveClass(r);
+				Assert.assertEquals(localRef.set(idx, instance), indexed.set(idx, instance));
+			} else if (!localRef.isEmpty()) {
+				final int idx = r.nextInt(localRef.size());
+				Assert.assertEquals(localRef.get(idx), indexed.get(idx));
+			}
+		}
+		final int idx = r.nextInt(localRef.size() + 1);
+		indexed.addAll(idx, ref);
+		localRef.addAll(idx, ref);
+		Assert.assertEquals(localRef.size(), indexed.size());
+		for (int i = 0; i < localRef.size(); i++) {
+			Assert.assertEquals(localRef.get(i), indexed.get(i));
+		}
+		indexed.clear();
+		indexed.addAll(ref);
+		Assert.assertEquals(ref, new ArrayList<>(indexed));
+	}
+
 	private void assertListsEqual() {
 		assertListsEqual(ref);
 	}
@@ -0,0 +1,141 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.BigDataHashMap;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.test.classes.CollectionClass;
+import de.tub.cit.slist.bdos.test.classes.DynamicLengthClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+
+public class MapTest {
+	private static final int MAP_SIZE = 16;
+
+	private static final Random r = new Random();
+
+	private BigDataHashMap<PrimitiveClass, PrimitiveClass> map;
+
+	@Before
+	public void setUp() throws Exception {
+		map = new BigDataHashMap<>(PrimitiveClass.class, PrimitiveClass.class, (new ConfigFactory()).withSize(MAP_SIZE).build());
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		final Map<PrimitiveClass, PrimitiveClass> ref = new HashMap<>();
+		final List<PrimitiveClass> keys = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			keys.add(new PrimitiveClass(r));
+		}
+		for (int i = 0; i < 20000; i++) {
+			final PrimitiveClass key = keys.get(r.nextInt(keys.size()));
+			switch (r.nextInt(4)) {
+			case 0:
+			case 1:
+				final PrimitiveClass value = r.nextInt(10) == 0 ? null : new PrimitiveClass(r);
+				Assert.assertEquals(ref.put(key, value), map.put(key, value));
+				break;
+			case 2:
+				Assert.assertEquals(ref.remove(key), map.remove(key));
+				break;
+			default:
+				Assert.assertEquals(ref.get(key), map.get(key));
+				Assert.assertEquals(ref.containsKey(key), map.containsKey(key));
+			}
+			Assert.assertEquals(ref.size(), map.size());
+		}
+		Assert.assertEquals(ref, map);
+		Assert.assertEquals(ref.hashCode(), map.hashCode());
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(keys.get(0)));
+	}
+
+	@Test
+	public void testIncrementalResize() {
+		final Map<PrimitiveClass, PrimitiveClass> ref = new HashMap<>();
+		for (int i = 0; i < 10 * MAP_SIZE; i++) {
+			final PrimitiveClass key = new PrimitiveClass(r);
+			final PrimitiveClass value = new PrimitiveClass(r);
+			map.put(key, value);
+			ref.put(key, value);
+			// every entry is found while the old table is being migrated
+			for (final Map.Entry<PrimitiveClass, PrimitiveClass> e : ref.entrySet()) {
+				Assert.assertEquals(e.getValue(), map.get(e.getKey()));
+			}
+		}
+		Assert.assertEquals(ref, map);
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		final Map<PrimitiveClass, PrimitiveClass> ref = new HashMap<>();
+		for (int i = 0; i < 5 * MAP_SIZE; i++) {
+			final PrimitiveClass key = new PrimitiveClass(r);
+			map.put(key, key);
+			ref.put(key, key);
+		}
+		int visited = 0;
+		for (final Iterator<Map.Entry<PrimitiveClass, PrimitiveClass>> it = map.entrySet().iterator(); it.hasNext();) {
+			final Map.Entry<PrimitiveClass, PrimitiveClass> e = it.next();
+			Assert.assertEquals(ref.get(e.getKey()), e.getValue());
+			visited++;
+			if (r.nextBoolean()) {
+				it.remove();
+				ref.remove(e.getKey());
+			} else {
+				final PrimitiveClass value = new PrimitiveClass(r);
+				e.setValue(value);
+				ref.put(e.getKey(), value);
+			}
+		}
+		Assert.assertEquals(5 * MAP_SIZE, visited);
+		Assert.assertEquals(ref, map);
+	}
+
+	@Test
+	public void testDynamicValues() {
+		final BigDataHashMap<PrimitiveClass, CollectionClass> collections = new BigDataHashMap<>(PrimitiveClass.class, CollectionClass.class,
+				(new ConfigFactory()).withSize(4).build());
+		final Map<PrimitiveClass, CollectionClass> ref = new HashMap<>();
+		for (int i = 0; i < 300; i++) {
+			final PrimitiveClass key = new PrimitiveClass(r);
+			final CollectionClass value = new CollectionClass(r);
+			collections.put(key, value);
+			ref.put(key, value);
+		}
+		Assert.assertEquals(ref, collections);
+	}
+
+	@Test
+	public void testDynamicKeys() {
+		final BigDataHashMap<DynamicLengthClass, PrimitiveClass> strings = new BigDataHashMap<>(DynamicLengthClass.class, PrimitiveClass.class,
+				(new ConfigFactory()).withSize(4).build());
+		final Map<DynamicLengthClass, PrimitiveClass> ref = new HashMap<>();
+		for (int i = 0; i < 300; i++) {
+			final DynamicLengthClass key = new DynamicLengthClass(r);
+			final PrimitiveClass value = new PrimitiveClass(r);
+			Assert.assertEquals(ref.put(key, value), strings.put(key, value));
+			if (r.nextInt(4) == 0) {
+				final DynamicLengthClass removed = ref.keySet().iterator().next();
+				Assert.assertEquals(ref.remove(removed), strings.remove(removed));
+			}
+		}
+		Assert.assertEquals(ref, strings);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullKey() {
+		map.put(null, new PrimitiveClass(r));
+	}
+
+}
@@ -0,0 +1,80 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.metadata.ClassMetadata;
+import de.tub.cit.slist.bdos.metadata.CopyRun;
+import de.tub.cit.slist.bdos.metadata.FieldMetadata;
+import de.tub.cit.slist.bdos.metadata.FieldType;
+import de.tub.cit.slist.bdos.test.classes.CollectionClass;
+import de.tub.cit.slist.bdos.test.classes.FixedLengthClass;
+import de.tub.cit.slist.bdos.test.classes.GenericClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+import de.tub.cit.slist.bdos.util.SerializerHelper;
+
+public class MetadataTest {
+
+	@Test
+	public void testPrimitivesWithoutNullIndicator() {
+		final ClassMetadata metadata = acquire(PrimitiveClass.class);
+		// 1 + 1 + 2 + 8 + 4 + 4 + 8 + 2
+		Assert.assertEquals(30, metadata.getLength());
+	}
+
+	@Test
+	public void testCollectionAndMapTypes() {
+		final Map<String, FieldMetadata> fields = new HashMap<>();
+		for (final FieldMetadata field : acquire(CollectionClass.class).getFields()) {
+			fields.put(field.getFieldName(), field);
+		}
+		Assert.assertEquals(FieldType.COLLECTION, fields.get("tags").getType());
+		Assert.assertEquals(FieldType.COLLECTION_FIXED, fields.get("fixedTags").getType());
+		Assert.assertEquals(FieldType.MAP, fields.get("attributes").getType());
+		Assert.assertEquals(String.class, fields.get("attributes").getClazz());
+		Assert.assertEquals(Integer.class, fields.get("attributes").getValueClazz());
+		Assert.assertEquals(HashMap.class, fields.get("attributes").getCollectionClass());
+	}
+
+	@Test
+	public void testCopyRunsCoverAllFields() {
+		for (final Class<?> clazz : new Class<?>[] { PrimitiveClass.class, FixedLengthClass.class, GenericClass.class }) {
+			final ClassMetadata metadata = acquire(clazz);
+			long length = 0;
+			for (final CopyRun run : metadata.getCopyRuns()) {
+				length += run.getLength();
+			}
+			for (final FieldMetadata field : metadata.getRemainingFields()) {
+				length += field.getLength();
+			}
+			Assert.assertEquals(metadata.getLength(), length);
+		}
+	}
+
+	@Test
+	public void testCopyRunsAreAdjacent() {
+		final ClassMetadata metadata = acquire(PrimitiveClass.class);
+		Assert.assertTrue(metadata.getCopyRuns().length > 0);
+		for (final CopyRun run : metadata.getCopyRuns()) {
+			long length = 0;
+			for (final FieldMetadata field : metadata.getFields()) {
+				if (field.getOffset() >= run.getOffset() && field.getOffset() < run.getOffset() + run.getLength()) {
+					Assert.assertTrue(field.getType().isPrimitive());
+					Assert.assertEquals(field.getOffset() - run.getOffset(), field.getSerializedOffset() - run.getSerializedOffset());
+					length += field.getLength();
+				}
+			}
+			Assert.assertEquals(run.getLength(), length);
+		}
+	}
+
+	private static ClassMetadata acquire(final Class<?> clazz) {
+		final Map<Class<?>, ClassMetadata> map = new HashMap<>();
+		SerializerHelper.acquireClassMetadata(clazz, map);
+		return map.get(clazz);
+	}
+
+}
@@ -2,19 +2,27 @@ package de.tub.cit.slist.bdos.test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import de.tub.cit.slist.bdos.OffHeapSerializer;
+import de.tub.cit.slist.bdos.conf.AllocatorType;
 import de.tub.cit.slist.bdos.conf.ConfigFactory;
 import de.tub.cit.slist.bdos.conf.MemoryLocation;
+import de.tub.cit.slist.bdos.conf.StorageLayout;
 import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.test.classes.CollectionClass;
+import de.tub.cit.slist.bdos.test.classes.DynamicArrayClass;
 import de.tub.cit.slist.bdos.test.classes.DynamicLengthClass;
 import de.tub.cit.slist.bdos.test.classes.FixedLengthClass;
 import de.tub.cit.slist.bdos.test.classes.GenericClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveArrayClass;
 import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
 import de.tub.cit.slist.bdos.test.classes.RandomlyInitializable;
 import de.tub.cit.slist.bdos.util.UnsafeHelper;
@@ -74,7 +82,7 @@ public class OffHeapSerializerTest {
 	}
 
 	private <T extends RandomlyInitializable> void assertEquals(final OffHeapSerializer<T> serializer, final RandomlyInitializable[] ref) {
-		for (int i = 0; i < INSTANCES; i++) {
+		for (int i = 0; i < ref.length; i++) {
 			Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
 		}
 	}
@@ -99,6 +107,37 @@ public class OffHeapSerializerTest {
 		Assert.assertTrue(serializer.isNull(0));
 	}
 
+	@Test
+	public void testSlots() throws Exception {
+		OffHeapSerializer<DynamicLengthClass> serializer = null;
+		try {
+			serializer = new OffHeapSerializer<>(DynamicLengthClass.class, (new ConfigFactory()).withSize(3).withDynamicRatio(0.9).build(), 0);
+			Assert.assertEquals(0, serializer.allocateSlot());
+			Assert.assertEquals(1, serializer.allocateSlot());
+			Assert.assertEquals(2, serializer.allocateSlot());
+			serializer.setRandomAccess(1, new DynamicLengthClass(r));
+			serializer.freeSlot(1);
+			// the element is released together with the slot
+			Assert.assertTrue(serializer.isNull(1));
+			Assert.assertEquals(serializer.getDynamicMemorySize(), serializer.getFreeDynamicMemory());
+			Assert.assertFalse(serializer.isSlotAllocated(1));
+			Assert.assertEquals(2, serializer.getAllocatedSlots());
+			Assert.assertEquals(1, serializer.allocateSlot());
+			serializer.clear();
+			Assert.assertEquals(0, serializer.getAllocatedSlots());
+		} finally {
+			if (serializer != null) {
+				serializer.destroy();
+			}
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFreeUnallocatedSlot() {
+		final OffHeapSerializer<PrimitiveClass> serializer = new OffHeapSerializer<>(PrimitiveClass.class, (new ConfigFactory()).withSize(1).build(), 0);
+		serializer.freeSlot(0);
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testSetReservedFlag() {
 		final OffHeapSerializer<PrimitiveClass> serializer = new OffHeapSerializer<>(PrimitiveClass.class, (new ConfigFactory()).withSize(1).build(), 0);
@@ -219,6 +258,54 @@ public class OffHeapSerializerTest {
 		}
 	}
 
+	@Test
+	public void testFixedLengthNonLatinString() throws Exception {
+		final String[] strings = { "\u00e4\u00f6\u00fc\u00df\u20ac", "\u6f22\u5b57", "\ud83d\ude00abc\u0000def", "x" };
+		for (final MemoryLocation location : MemoryLocation.values()) {
+			OffHeapSerializer<FixedLengthClass> serializer = null;
+			try {
+				serializer = new OffHeapSerializer<>(FixedLengthClass.class, (new ConfigFactory()).withSize(strings.length).withLocation(location).build(),
+						0);
+				final FixedLengthClass[] ref = new FixedLengthClass[strings.length];
+				for (int i = 0; i < strings.length; i++) {
+					final FixedLengthClass instance = new FixedLengthClass(r);
+					instance.setFixedString(strings[i]);
+					ref[i] = instance;
+					serializer.setRandomAccess(i, instance);
+				}
+				assertEquals(serializer, ref);
+			} finally {
+				if (serializer != null) {
+					serializer.destroy();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFixedLengthPrimitiveArrays() throws Exception {
+		OffHeapSerializer<PrimitiveArrayClass> serializer = null;
+		try {
+			serializer = new OffHeapSerializer<>(PrimitiveArrayClass.class,
+					(new ConfigFactory()).withSize(INSTANCES).withLocation(MemoryLocation.BYTE_ARRAY).build(), 0);
+			setAndGet(serializer, PrimitiveArrayClass.class);
+			// overwrite with shorter arrays, padding must not leak old elements
+			final PrimitiveArrayClass[] ref = new PrimitiveArrayClass[INSTANCES];
+			for (int i = 0; i < INSTANCES; i++) {
+				final PrimitiveArrayClass instance = new PrimitiveArrayClass();
+				instance.randomInit(r, r.nextInt(PrimitiveArrayClass.ELEMENT_COUNT));
+				instance.setBools(null);
+				ref[i] = instance;
+				serializer.setRandomAccess(i, instance);
+			}
+			assertEquals(serializer, ref);
+		} finally {
+			if (serializer != null) {
+				serializer.destroy();
+			}
+		}
+	}
+
 	@Test
 	public void testGenericClass() throws Exception {
 		OffHeapSerializer<GenericClass> serializer = null;
@@ -251,6 +338,98 @@ public class OffHeapSerializerTest {
 		}
 	}
 
+	@Test
+	public void testDynamicArrays() throws Exception {
+		final int instances = 16;
+		for (final AllocatorType allocator : AllocatorType.values()) {
+			for (final MemoryLocation location : MemoryLocation.values()) {
+				OffHeapSerializer<DynamicArrayClass> serializer = null;
+				try {
+					serializer = new OffHeapSerializer<>(DynamicArrayClass.class,
+							(new ConfigFactory()).withSize(instances).withDynamicRatio(0.95).withLocation(location).withAllocator(allocator).build(), 0);
+					final DynamicArrayClass[] ref = new DynamicArrayClass[instances];
+					// overwrite repeatedly, blocks of changed size have to be released
+					for (int round = 0; round < 50; round++) {
+						for (int i = 0; i < instances; i++) {
+							ref[i] = r.nextInt(8) == 0 ? null : new DynamicArrayClass(r);
+							serializer.setRandomAccess(i, ref[i]);
+						}
+						for (int i = 0; i < instances; i++) {
+							Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
+						}
+					}
+					// releasing all elements coalesces the dynamic memory into a single block again
+					for (int i = 0; i < instances; i++) {
+						serializer.setRandomAccess(i, null);
+					}
+					Assert.assertEquals(serializer.getDynamicMemorySize(), serializer.getFreeDynamicMemory());
+				} finally {
+					if (serializer != null) {
+						serializer.destroy();
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDynamicArrayNullElements() throws Exception {
+		OffHeapSerializer<DynamicArrayClass> serializer = null;
+		try {
+			serializer = new OffHeapSerializer<>(DynamicArrayClass.class, (new ConfigFactory()).withSize(1).withDynamicRatio(0.9).build(), 0);
+			final DynamicArrayClass instance = new DynamicArrayClass(r);
+			instance.setInts(new int[0]);
+			instance.setDoubles(null);
+			instance.setIntegers(new Integer[] { null, null });
+			instance.setStrings(new DynamicLengthClass[] { new DynamicLengthClass((String) null), new DynamicLengthClass(""), null });
+			serializer.setRandomAccess(0, instance);
+			Assert.assertEquals(instance, serializer.getRandomAccess(0));
+		} finally {
+			if (serializer != null) {
+				serializer.destroy();
+			}
+		}
+	}
+
+	@Test
+	public void testCollectionsAndMaps() throws Exception {
+		final int instances = 8;
+		for (final AllocatorType allocator : AllocatorType.values()) {
+			for (final MemoryLocation location : MemoryLocation.values()) {
+				OffHeapSerializer<CollectionClass> serializer = null;
+				try {
+					serializer = new OffHeapSerializer<>(CollectionClass.class,
+							(new ConfigFactory()).withSize(instances).withDynamicRatio(0.99).withLocation(location).withAllocator(allocator).build(), 0);
+					final CollectionClass[] ref = new CollectionClass[instances];
+					for (int round = 0; round < 20; round++) {
+						for (int i = 0; i < instances; i++) {
+							ref[i] = new CollectionClass(r);
+							if (r.nextInt(4) == 0) {
+								ref[i].setAttributes(null);
+								ref[i].setTags(null);
+							}
+							serializer.setRandomAccess(i, ref[i]);
+						}
+						for (int i = 0; i < instances; i++) {
+							Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
+						}
+					}
+					final CollectionClass first = serializer.getRandomAccess(0);
+					Assert.assertEquals(java.util.LinkedHashMap.class, first.getHistory().getClass());
+					Assert.assertEquals(java.util.HashSet.class, first.getIds().getClass());
+					for (int i = 0; i < instances; i++) {
+						serializer.setRandomAccess(i, null);
+					}
+					Assert.assertEquals(serializer.getDynamicMemorySize(), serializer.getFreeDynamicMemory());
+				} finally {
+					if (serializer != null) {
+						serializer.destroy();
+					}
+				}
+			}
+		}
+	}
+
 	@Test
 	public void testDynamicLength() throws Exception {
 		OffHeapSerializer<DynamicLengthClass> serializer = null;
@@ -263,4 +442,193 @@ public class OffHeapSerializerTest {
 			}
 		}
 	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		final int instances = 16;
+		for (final AllocatorType allocator : AllocatorType.values()) {
+			for (final MemoryLocation location : MemoryLocation.values()) {
+				OffHeapSerializer<CollectionClass> serializer = null;
+				try {
+					serializer = new OffHeapSerializer<>(CollectionClass.class, (new ConfigFactory()).withSize(instances).withDynamicRatio(0.99)
+							.withLocation(location).withAllocator(allocator).withAutoCompaction(false).build(), 0);
+					final CollectionClass[] ref = new CollectionClass[instances];
+					for (int round = 0; round < 10; round++) {
+						for (int i = 0; i < instances; i++) {
+							ref[i] = r.nextInt(4) == 0 ? null : new CollectionClass(r);
+							serializer.setRandomAccess(i, ref[i]);
+						}
+						final long free = serializer.getFreeDynamicMemory();
+						Assert.assertTrue(serializer.compact() >= 0);
+						// only the slack of the blocks is released
+						Assert.assertTrue(serializer.getFreeDynamicMemory() >= free);
+						for (int i = 0; i < instances; i++) {
+							Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
+						}
+					}
+					for (int i = 0; i < instances; i++) {
+						serializer.setRandomAccess(i, null);
+					}
+					Assert.assertEquals(serializer.getDynamicMemorySize(), serializer.getFreeDynamicMemory());
+				} finally {
+					if (serializer != null) {
+						serializer.destroy();
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testParallelStream() throws Exception {
+		final int instances = 2000;
+		for (final StorageLayout layout : StorageLayout.values()) {
+			OffHeapSerializer<DynamicLengthClass> serializer = null;
+			try {
+				serializer = new OffHeapSerializer<>(DynamicLengthClass.class,
+						(new ConfigFactory()).withSize(instances).withDynamicRatio(0.9).withLayout(layout).build(), 0);
+				final List<DynamicLengthClass> ref = new ArrayList<>();
+				for (int i = 0; i < instances; i++) {
+					if (r.nextInt(10) == 0) {
+						continue;
+					}
+					final DynamicLengthClass instance = new DynamicLengthClass(r);
+					serializer.setRandomAccess(i, instance);
+					ref.add(instance);
+				}
+				Assert.assertEquals(ref, serializer.stream().collect(Collectors.toList()));
+				// concurrent readers deserialize Strings and gather columns independently
+				Assert.assertEquals(ref, serializer.parallelStream().collect(Collectors.toList()));
+				final Spliterator<DynamicLengthClass> spliterator = serializer.spliterator();
+				Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+				Assert.assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+				final Spliterator<DynamicLengthClass> prefix = spliterator.trySplit();
+				Assert.assertEquals(instances / 2, prefix.estimateSize());
+				Assert.assertEquals(instances / 2, spliterator.estimateSize());
+			} finally {
+				if (serializer != null) {
+					serializer.destroy();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testColumnarLayout() throws Exception {
+		final int instances = 64;
+		for (final MemoryLocation location : MemoryLocation.values()) {
+			OffHeapSerializer<CollectionClass> serializer = null;
+			OffHeapSerializer<CollectionClass> larger = null;
+			try {
+				serializer = new OffHeapSerializer<>(CollectionClass.class, (new ConfigFactory()).withSize(instances).withDynamicRatio(0.99)
+						.withLocation(location).withLayout(StorageLayout.COLUMNAR).build(), 0);
+				final CollectionClass[] ref = new CollectionClass[instances];
+				for (int i = 0; i < 2000; i++) {
+					final int idx = r.nextInt(instances);
+					switch (r.nextInt(4)) {
+					case 0:
+						serializer.setRandomAccess(idx, null);
+						ref[idx] = null;
+						break;
+					case 1:
+						final int from = r.nextInt(instances - 8);
+						final int to = r.nextInt(instances - 8);
+						final int count = r.nextInt(8);
+						serializer.moveRandomAccess(from, to, count);
+						final CollectionClass[] moved = Arrays.copyOfRange(ref, from, from + count);
+						for (int j = from; j < from + count; j++) {
+							ref[j] = null;
+						}
+						System.arraycopy(moved, 0, ref, to, count);
+						break;
+					default:
+						ref[idx] = new CollectionClass(r);
+						serializer.setRandomAccess(idx, ref[idx]);
+					}
+				}
+				for (int i = 0; i < instances; i++) {
+					Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
+				}
+				serializer.compact();
+				larger = serializer.createLarger(2 * instances);
+				serializer.copyRandomAccess(larger, 0, instances, instances);
+				for (int i = 0; i < instances; i++) {
+					Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
+					Assert.assertEquals(ref[i], larger.getRandomAccess(instances + i));
+					Assert.assertNull(larger.getRandomAccess(i));
+					serializer.setRandomAccess(i, null);
+				}
+				Assert.assertEquals(serializer.getDynamicMemorySize(), serializer.getFreeDynamicMemory());
+			} finally {
+				if (serializer != null) {
+					serializer.destroy();
+				}
+				if (larger != null) {
+					larger.destroy();
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCopyBetweenLayouts() {
+		final OffHeapSerializer<PrimitiveClass> rows = new OffHeapSerializer<>(PrimitiveClass.class);
+		final OffHeapSerializer<PrimitiveClass> columns = new OffHeapSerializer<>(PrimitiveClass.class,
+				(new ConfigFactory()).withDefaults().withLayout(StorageLayout.COLUMNAR).build(), 0);
+		try {
+			rows.copyRandomAccess(columns, 0, 0, 1);
+		} finally {
+			rows.destroy();
+			columns.destroy();
+		}
+	}
+
+	@Test
+	public void testAutoCompaction() throws Exception {
+		for (final AllocatorType allocator : AllocatorType.values()) {
+			for (final boolean autoCompaction : new boolean[] { false, true }) {
+				OffHeapSerializer<DynamicLengthClass> serializer = null;
+				try {
+					serializer = new OffHeapSerializer<>(DynamicLengthClass.class,
+							(new ConfigFactory()).withSize(64).withDynamicRatio(0.9).withAllocator(allocator).withAutoCompaction(autoCompaction).build(), 0);
+					final DynamicLengthClass[] ref = new DynamicLengthClass[64];
+					final String small = new String(new char[64]).replace('\0', 'a');
+					final String large = small + small;
+					// fill the dynamic memory, then release every other block
+					int count = 0;
+					try {
+						for (; count < ref.length; count++) {
+							serializer.setRandomAccess(count, new DynamicLengthClass(small));
+							ref[count] = new DynamicLengthClass(small);
+						}
+					} catch (final OutOfDynamicMemoryException e) {
+						// expected
+					}
+					Assert.assertTrue(count < ref.length);
+					for (int i = 0; i < count; i += 2) {
+						serializer.setRandomAccess(i, null);
+						ref[i] = null;
+					}
+					// enough free memory in total, but no free block large enough
+					try {
+						serializer.setRandomAccess(0, new DynamicLengthClass(large));
+						ref[0] = new DynamicLengthClass(large);
+						Assert.assertTrue(autoCompaction);
+					} catch (final OutOfDynamicMemoryException e) {
+						Assert.assertFalse(autoCompaction);
+						Assert.assertTrue(serializer.compact() > 0);
+						serializer.setRandomAccess(0, new DynamicLengthClass(large));
+						ref[0] = new DynamicLengthClass(large);
+					}
+					for (int i = 0; i < count; i++) {
+						Assert.assertEquals(ref[i], serializer.getRandomAccess(i));
+					}
+				} finally {
+					if (serializer != null) {
+						serializer.destroy();
+					}
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,243 @@
+package de.tub.cit.slist.bdos.test;
+
+import static de.tub.cit.slist.bdos.Condition.field;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.Condition;
+import de.tub.cit.slist.bdos.FieldStatistics;
+import de.tub.cit.slist.bdos.OffHeapSerializer;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.StorageLayout;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+import de.tub.cit.slist.bdos.test.classes.RecordClass;
+
+public class ScanTest {
+	private static final int SIZE = 1000;
+
+	private static final Random r = new Random();
+
+	private OffHeapSerializer<RecordClass>	records;
+	private final List<RecordClass>			elements	= new ArrayList<>();
+
+	@Before
+	public void setUp() throws Exception {
+		records = new OffHeapSerializer<>(RecordClass.class, (new ConfigFactory()).withSize(SIZE).withDynamicRatio(0.8).build(), 0);
+		for (int i = 0; i < SIZE; i++) {
+			// every tenth node stays NULL
+			final RecordClass element = i % 10 == 0 ? null : new RecordClass(r);
+			elements.add(element);
+			records.setRandomAccess(i, element);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		records.destroy();
+	}
+
+	private void assertScan(final Predicate<RecordClass> expected, final Condition condition) {
+		final List<Long> slots = new ArrayList<>();
+		final List<RecordClass> matches = new ArrayList<>();
+		for (int i = 0; i < SIZE; i++) {
+			if (elements.get(i) != null && expected.test(elements.get(i))) {
+				slots.add((long) i);
+				matches.add(elements.get(i));
+			}
+		}
+		final List<Long> actual = new ArrayList<>();
+		for (final PrimitiveIterator.OfLong it = records.scan(condition); it.hasNext();) {
+			actual.add(it.nextLong());
+		}
+		Assert.assertEquals(slots, actual);
+		final List<RecordClass> selected = new ArrayList<>();
+		for (final Iterator<RecordClass> it = records.select(condition); it.hasNext();) {
+			selected.add(it.next());
+		}
+		Assert.assertEquals(matches, selected);
+		Assert.assertEquals(slots.size(), records.count(condition));
+	}
+
+	@Test
+	public void testRecords() {
+		assertScan(e -> e.getPrice() > 100.0 && e.isActive(), field("price").gt(100.0).and(field("active").isTrue()));
+		assertScan(e -> e.getPrice() > 990.0, field("price").gt(990));
+		assertScan(e -> e.getCategory() == 3 || e.getCategory() >= 18, field("category").eq(3).or(field("category").ge(18)));
+		assertScan(e -> e.getTimestamp() >= 1000 && e.getTimestamp() <= 100_000, field("timestamp").between(1000L, 100_000));
+		assertScan(e -> !(e.getCategory() < 10) && !e.isActive(), field("category").lt(10).negate().and(field("active").isFalse()));
+		assertScan(e -> e.getCategory() < 2.5, field("category").lt(2.5));
+		assertScan(e -> e.getCategory() != 7, field("category").ne(7));
+		assertScan(e -> false, field("category").le(-1));
+	}
+
+	@Test
+	public void testColumnarLayout() {
+		final OffHeapSerializer<RecordClass> columns = new OffHeapSerializer<>(RecordClass.class,
+				(new ConfigFactory()).withSize(SIZE).withDynamicRatio(0.8).withLayout(StorageLayout.COLUMNAR).build(), 0);
+		for (int i = 0; i < SIZE; i++) {
+			columns.setRandomAccess(i, elements.get(i));
+		}
+		final Condition condition = field("price").gt(500.0).and(field("active").isTrue());
+		final List<Long> expected = new ArrayList<>();
+		for (final PrimitiveIterator.OfLong it = records.scan(condition); it.hasNext();) {
+			expected.add(it.nextLong());
+		}
+		final List<Long> actual = new ArrayList<>();
+		for (final PrimitiveIterator.OfLong it = columns.scan(condition); it.hasNext();) {
+			actual.add(it.nextLong());
+		}
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals(records.getHashIndex("category").count(3), columns.getHashIndex("category").count(3));
+		columns.destroy();
+	}
+
+	@Test
+	public void testPrimitiveTypes() {
+		final OffHeapSerializer<PrimitiveClass> primitives = new OffHeapSerializer<>(PrimitiveClass.class);
+		final List<PrimitiveClass> list = new ArrayList<>();
+		for (int i = 0; i < primitives.getMaxElementCount(); i++) {
+			final PrimitiveClass element = new PrimitiveClass(r);
+			list.add(element);
+			primitives.setRandomAccess(i, element);
+		}
+		final Condition condition = field("b").lt((byte) 0).and(field("c").le('m')).and(field("s").gt(1000)).and(field("f").lt(0.5f))
+				.and(field("l").ge(0)).and(field("i").lt(0)).and(field("d").ge(0.25)).and(field("bool").eq(true));
+		final List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < list.size(); i++) {
+			final PrimitiveClass e = list.get(i);
+			if (e.getB() < 0 && e.getC() <= 'm' && e.getS() > 1000 && e.getF() < 0.5f && e.getL() >= 0 && e.getI() < 0 && e.getD() >= 0.25 && e.isBool()) {
+				expected.add((long) i);
+			}
+		}
+		final List<Long> actual = new ArrayList<>();
+		for (final PrimitiveIterator.OfLong it = primitives.scan(condition); it.hasNext();) {
+			actual.add(it.nextLong());
+		}
+		Assert.assertEquals(expected, actual);
+		primitives.destroy();
+	}
+
+	@Test
+	public void testAggregate() {
+		final DoubleSummaryStatistics expected = new DoubleSummaryStatistics();
+		double squares = 0;
+		for (final RecordClass element : elements) {
+			if (element != null && element.isActive()) {
+				expected.accept(element.getPrice());
+				squares += element.getPrice() * element.getPrice();
+			}
+		}
+		final FieldStatistics actual = records.aggregate("price", field("active").isTrue());
+		Assert.assertEquals(expected.getCount(), actual.getCount());
+		Assert.assertEquals(expected.getSum(), actual.getSum(), 1e-6);
+		Assert.assertEquals(expected.getMin(), actual.getMin(), 0d);
+		Assert.assertEquals(expected.getMax(), actual.getMax(), 0d);
+		Assert.assertEquals(expected.getAverage(), actual.getMean(), 1e-9);
+		final double variance = squares / expected.getCount() - expected.getAverage() * expected.getAverage();
+		Assert.assertEquals(variance, actual.getVariance(), 1e-6 * variance);
+
+		// partitions combine to the whole
+		final FieldStatistics all = records.aggregate("price");
+		final FieldStatistics inactive = records.aggregate("price", field("active").isFalse());
+		actual.combine(inactive);
+		Assert.assertEquals(all.getCount(), actual.getCount());
+		Assert.assertEquals(all.getSum(), actual.getSum(), 1e-6);
+		Assert.assertEquals(all.getMean(), actual.getMean(), 1e-9);
+		Assert.assertEquals(all.getVariance(), actual.getVariance(), 1e-6 * all.getVariance());
+		Assert.assertEquals(SIZE - SIZE / 10, records.aggregate("active").getCount());
+
+		final FieldStatistics empty = records.aggregate("category", field("category").lt(0));
+		Assert.assertEquals(0, empty.getCount());
+		Assert.assertEquals(0, empty.getMean(), 0d);
+	}
+
+	@Test
+	public void testGroupBy() {
+		final Map<Integer, DoubleSummaryStatistics> prices = new HashMap<>();
+		final Map<Integer, DoubleSummaryStatistics> timestamps = new HashMap<>();
+		for (final RecordClass element : elements) {
+			if (element != null && element.isActive()) {
+				prices.computeIfAbsent(element.getCategory(), k -> new DoubleSummaryStatistics()).accept(element.getPrice());
+				timestamps.computeIfAbsent(element.getCategory(), k -> new DoubleSummaryStatistics()).accept(element.getTimestamp());
+			}
+		}
+		final Map<Object, FieldStatistics[]> groups = records.groupBy("category", field("active").isTrue(), "price", "timestamp");
+		Assert.assertEquals(prices.keySet(), groups.keySet());
+		for (final Map.Entry<Object, FieldStatistics[]> group : groups.entrySet()) {
+			final DoubleSummaryStatistics price = prices.get(group.getKey());
+			Assert.assertEquals(price.getCount(), group.getValue()[0].getCount());
+			Assert.assertEquals(price.getSum(), group.getValue()[0].getSum(), 1e-6);
+			Assert.assertEquals(price.getMin(), group.getValue()[0].getMin(), 0d);
+			Assert.assertEquals(price.getMax(), group.getValue()[0].getMax(), 0d);
+			Assert.assertEquals(price.getAverage(), group.getValue()[0].getMean(), 1e-9);
+			Assert.assertEquals(timestamps.get(group.getKey()).getSum(), group.getValue()[1].getSum(), 0d);
+		}
+
+		// more groups than the initial table holds
+		final Map<Object, FieldStatistics[]> byTimestamp = records.groupBy("timestamp", null);
+		final Map<Long, Long> counts = new HashMap<>();
+		for (final RecordClass element : elements) {
+			if (element != null) {
+				counts.merge(element.getTimestamp(), 1L, Long::sum);
+			}
+		}
+		Assert.assertEquals(counts.keySet(), byTimestamp.keySet());
+		for (final Map.Entry<Object, FieldStatistics[]> group : byTimestamp.entrySet()) {
+			Assert.assertEquals(0, group.getValue().length);
+		}
+		final Map<Object, FieldStatistics[]> byFlag = records.groupBy("active", null, "category");
+		long total = 0;
+		for (final Object flag : byFlag.keySet()) {
+			Assert.assertTrue(flag instanceof Boolean);
+			total += byFlag.get(flag)[0].getCount();
+		}
+		Assert.assertEquals(SIZE - SIZE / 10, total);
+	}
+
+	@Test
+	public void testGroupByFloatingPointKeys() {
+		final double[] keys = { 0.0, -0.0, Double.NaN, Double.longBitsToDouble(0x7ff8000000000001L), 1.5 };
+		final OffHeapSerializer<PrimitiveClass> primitives = new OffHeapSerializer<>(PrimitiveClass.class,
+				(new ConfigFactory()).withSize(keys.length).build(), 0);
+		for (int i = 0; i < keys.length; i++) {
+			final PrimitiveClass element = new PrimitiveClass(r);
+			element.setD(keys[i]);
+			element.setF((float) keys[i]);
+			primitives.setRandomAccess(i, element);
+		}
+		final Map<Object, FieldStatistics[]> byDouble = primitives.groupBy("d", null, "i");
+		Assert.assertEquals(3, byDouble.size());
+		Assert.assertEquals(2, byDouble.get(0.0)[0].getCount());
+		Assert.assertEquals(2, byDouble.get(Double.NaN)[0].getCount());
+		Assert.assertEquals(1, byDouble.get(1.5)[0].getCount());
+		final Map<Object, FieldStatistics[]> byFloat = primitives.groupBy("f", null, "i");
+		Assert.assertEquals(3, byFloat.size());
+		Assert.assertEquals(2, byFloat.get(0.0f)[0].getCount());
+		Assert.assertEquals(2, byFloat.get(Float.NaN)[0].getCount());
+		primitives.destroy();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPrimitiveField() {
+		records.scan(field("name").eq(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPrimitiveConstant() {
+		field("category").eq("3");
+	}
+
+}
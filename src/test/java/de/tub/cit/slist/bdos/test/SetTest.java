@@ -0,0 +1,159 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.BigDataHashSet;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.conf.StorageLayout;
+import de.tub.cit.slist.bdos.test.classes.CollectionClass;
+import de.tub.cit.slist.bdos.test.classes.FixedLengthClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+
+public class SetTest {
+	private static final int SET_SIZE = 16;
+
+	private static final Random r = new Random();
+
+	private BigDataHashSet<PrimitiveClass> set;
+
+	@Before
+	public void setUp() throws Exception {
+		set = new BigDataHashSet<>(PrimitiveClass.class, (new ConfigFactory()).withSize(SET_SIZE).build());
+	}
+
+	@Test
+	public void testAddContainsRemove() {
+		final Set<PrimitiveClass> ref = new HashSet<>();
+		final List<PrimitiveClass> elements = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			elements.add(new PrimitiveClass(r));
+		}
+		for (int i = 0; i < 20000; i++) {
+			// an equal copy, the set must not rely on identity
+			final PrimitiveClass element = copy(elements.get(r.nextInt(elements.size())));
+			switch (r.nextInt(3)) {
+			case 0:
+				Assert.assertEquals(ref.add(element), set.add(element));
+				break;
+			case 1:
+				Assert.assertEquals(ref.remove(element), set.remove(element));
+				break;
+			default:
+				Assert.assertEquals(ref.contains(element), set.contains(element));
+			}
+			Assert.assertEquals(ref.size(), set.size());
+		}
+		Assert.assertEquals(ref, set);
+		Assert.assertFalse(set.contains("no element"));
+		set.clear();
+		Assert.assertTrue(set.isEmpty());
+	}
+
+	private static PrimitiveClass copy(final PrimitiveClass p) {
+		return new PrimitiveClass(p.isBool(), p.getB(), p.getC(), p.getD(), p.getF(), p.getI(), p.getL(), p.getS());
+	}
+
+	@Test
+	public void testAddAll() {
+		final List<PrimitiveClass> batch = new ArrayList<>();
+		for (int i = 0; i < 10 * SET_SIZE; i++) {
+			batch.add(new PrimitiveClass(r));
+		}
+		// duplicates within the batch
+		batch.addAll(batch.subList(0, SET_SIZE));
+		Assert.assertTrue(set.addAll(batch));
+		Assert.assertFalse(set.addAll(batch));
+		Assert.assertEquals(new HashSet<>(batch), set);
+	}
+
+	@Test
+	public void testFixedLengthElements() {
+		final BigDataHashSet<FixedLengthClass> fixed = new BigDataHashSet<>(FixedLengthClass.class, (new ConfigFactory()).withSize(SET_SIZE).build());
+		final Set<FixedLengthClass> ref = new HashSet<>();
+		for (int i = 0; i < 5 * SET_SIZE; i++) {
+			final FixedLengthClass element = new FixedLengthClass(r);
+			Assert.assertEquals(ref.add(element), fixed.add(element));
+		}
+		for (final FixedLengthClass element : ref) {
+			Assert.assertTrue(fixed.contains(element));
+		}
+		Assert.assertEquals(ref, fixed);
+	}
+
+	@Test
+	public void testDynamicElements() {
+		final BigDataHashSet<CollectionClass> collections = new BigDataHashSet<>(CollectionClass.class, (new ConfigFactory()).withSize(4).build());
+		final Set<CollectionClass> ref = new HashSet<>();
+		for (int i = 0; i < 300; i++) {
+			final CollectionClass element = new CollectionClass(r);
+			Assert.assertEquals(ref.add(element), collections.add(element));
+			if (r.nextInt(4) == 0) {
+				final CollectionClass removed = ref.iterator().next();
+				ref.remove(removed);
+				Assert.assertTrue(collections.remove(removed));
+			}
+		}
+		Assert.assertEquals(ref, collections);
+	}
+
+	@Test
+	public void testColumnarLayout() {
+		final BigDataHashSet<PrimitiveClass> columnar = new BigDataHashSet<>(PrimitiveClass.class,
+				(new ConfigFactory()).withSize(SET_SIZE).withLayout(StorageLayout.COLUMNAR).build());
+		final Set<PrimitiveClass> ref = new HashSet<>();
+		final List<PrimitiveClass> elements = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			elements.add(new PrimitiveClass(r));
+		}
+		for (int i = 0; i < 5000; i++) {
+			final PrimitiveClass element = copy(elements.get(r.nextInt(elements.size())));
+			if (r.nextBoolean()) {
+				Assert.assertEquals(ref.add(element), columnar.add(element));
+			} else {
+				Assert.assertEquals(ref.remove(element), columnar.remove(element));
+			}
+		}
+		Assert.assertEquals(ref, columnar);
+		// lookups only read the columns, so concurrent readers do not interfere
+		for (int i = 0; i < 20; i++) {
+			Assert.assertEquals(ref.size(), elements.parallelStream().distinct().filter(columnar::contains).count());
+		}
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		final Set<PrimitiveClass> ref = new HashSet<>();
+		for (int i = 0; i < 5 * SET_SIZE; i++) {
+			final PrimitiveClass element = new PrimitiveClass(r);
+			set.add(element);
+			ref.add(element);
+		}
+		int visited = 0;
+		for (final Iterator<PrimitiveClass> it = set.iterator(); it.hasNext();) {
+			final PrimitiveClass element = it.next();
+			Assert.assertTrue(ref.contains(element));
+			visited++;
+			if (r.nextBoolean()) {
+				it.remove();
+				ref.remove(element);
+			}
+		}
+		Assert.assertEquals(5 * SET_SIZE, visited);
+		Assert.assertEquals(ref, set);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNull() {
+		set.add(null);
+	}
+
+}
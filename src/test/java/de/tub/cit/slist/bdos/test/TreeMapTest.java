@@ -0,0 +1,247 @@
+package de.tub.cit.slist.bdos.test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.tub.cit.slist.bdos.BigDataTreeMap;
+import de.tub.cit.slist.bdos.conf.ConfigFactory;
+import de.tub.cit.slist.bdos.exception.OutOfDynamicMemoryException;
+import de.tub.cit.slist.bdos.test.classes.CollectionClass;
+import de.tub.cit.slist.bdos.test.classes.DynamicLengthClass;
+import de.tub.cit.slist.bdos.test.classes.PrimitiveClass;
+
+public class TreeMapTest {
+	private static final int	MAP_SIZE	= 16;
+	/** keys are drawn from <code>[0, KEY_RANGE)</code>, enough for several levels of pages */
+	private static final int	KEY_RANGE	= 5000;
+
+	private static final Random r = new Random();
+
+	private BigDataTreeMap<Long, PrimitiveClass> map;
+
+	@Before
+	public void setUp() throws Exception {
+		map = new BigDataTreeMap<>(Long.class, PrimitiveClass.class, (new ConfigFactory()).withSize(MAP_SIZE).build());
+	}
+
+	@Test
+	public void testPutGetRemove() {
+		final TreeMap<Long, PrimitiveClass> ref = new TreeMap<>();
+		for (int i = 0; i < 50000; i++) {
+			final Long key = (long) r.nextInt(KEY_RANGE) - KEY_RANGE / 2;
+			switch (r.nextInt(4)) {
+			case 0:
+			case 1:
+				final PrimitiveClass value = r.nextInt(10) == 0 ? null : new PrimitiveClass(r);
+				Assert.assertEquals(ref.put(key, value), map.put(key, value));
+				break;
+			case 2:
+				Assert.assertEquals(ref.remove(key), map.remove(key));
+				break;
+			default:
+				Assert.assertEquals(ref.get(key), map.get(key));
+				Assert.assertEquals(ref.containsKey(key), map.containsKey(key));
+				Assert.assertEquals(ref.ceilingKey(key), map.ceilingKey(key));
+				Assert.assertEquals(ref.floorKey(key), map.floorKey(key));
+				Assert.assertEquals(ref.higherKey(key), map.higherKey(key));
+				Assert.assertEquals(ref.lowerKey(key), map.lowerKey(key));
+			}
+			Assert.assertEquals(ref.size(), map.size());
+		}
+		Assert.assertEquals(ref, map);
+		Assert.assertEquals(new ArrayList<>(ref.keySet()), new ArrayList<>(map.keySet()));
+		Assert.assertEquals(new ArrayList<>(ref.descendingKeySet()), new ArrayList<>(map.descendingKeySet()));
+		Assert.assertEquals(ref.firstEntry(), map.firstEntry());
+		Assert.assertEquals(ref.lastEntry(), map.lastEntry());
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.firstEntry());
+		Assert.assertNull(map.get(0L));
+	}
+
+	@Test
+	public void testRangeViews() {
+		final TreeMap<Long, PrimitiveClass> ref = new TreeMap<>();
+		for (int i = 0; i < KEY_RANGE; i++) {
+			final Long key = (long) r.nextInt(2 * KEY_RANGE);
+			final PrimitiveClass value = new PrimitiveClass(r);
+			map.put(key, value);
+			ref.put(key, value);
+		}
+		for (int i = 0; i < 200; i++) {
+			long from = r.nextInt(2 * KEY_RANGE);
+			long to = r.nextInt(2 * KEY_RANGE);
+			if (from > to) {
+				final long tmp = from;
+				from = to;
+				to = tmp;
+			}
+			final boolean fromInclusive = r.nextBoolean();
+			final boolean toInclusive = r.nextBoolean();
+			assertSameView(ref.subMap(from, fromInclusive, to, toInclusive), map.subMap(from, fromInclusive, to, toInclusive));
+			assertSameView(ref.headMap(to, toInclusive), map.headMap(to, toInclusive));
+			assertSameView(ref.tailMap(from, fromInclusive), map.tailMap(from, fromInclusive));
+			assertSameView(ref.descendingMap().subMap(to, toInclusive, from, fromInclusive), map.descendingMap().subMap(to, toInclusive, from, fromInclusive));
+			assertSameView(ref.descendingMap().headMap(from, fromInclusive), map.descendingMap().headMap(from, fromInclusive));
+			// views of views
+			final long mid = (from + to) / 2;
+			assertSameView(ref.subMap(from, true, to, true).tailMap(mid, false), map.subMap(from, true, to, true).tailMap(mid, false));
+			assertSameView(ref.tailMap(from, true).descendingMap().headMap(mid, true), map.tailMap(from, true).descendingMap().headMap(mid, true));
+		}
+		final NavigableMap<Long, PrimitiveClass> view = map.subMap(100L, true, 200L, false);
+		try {
+			view.put(200L, new PrimitiveClass(r));
+			Assert.fail("key out of range");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+		Assert.assertNull(view.get(300L));
+	}
+
+	private static void assertSameView(final NavigableMap<Long, PrimitiveClass> expected, final NavigableMap<Long, PrimitiveClass> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		Assert.assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+		Assert.assertEquals(new ArrayList<>(expected.descendingKeySet()), new ArrayList<>(actual.descendingKeySet()));
+		Assert.assertEquals(expected.firstEntry(), actual.firstEntry());
+		Assert.assertEquals(expected.lastEntry(), actual.lastEntry());
+		final Long probe = (long) r.nextInt(2 * KEY_RANGE);
+		Assert.assertEquals(expected.ceilingKey(probe), actual.ceilingKey(probe));
+		Assert.assertEquals(expected.floorKey(probe), actual.floorKey(probe));
+		Assert.assertEquals(expected.higherEntry(probe), actual.higherEntry(probe));
+		Assert.assertEquals(expected.lowerEntry(probe), actual.lowerEntry(probe));
+		Assert.assertEquals(expected.containsKey(probe), actual.containsKey(probe));
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		final TreeMap<Long, PrimitiveClass> ref = new TreeMap<>();
+		for (long key = 0; key < KEY_RANGE; key++) {
+			final PrimitiveClass value = new PrimitiveClass(r);
+			map.put(key, value);
+			ref.put(key, value);
+		}
+		int visited = 0;
+		// removing most entries releases whole pages while iterating
+		for (final Iterator<Map.Entry<Long, PrimitiveClass>> it = map.tailMap(100L, true).entrySet().iterator(); it.hasNext();) {
+			final Map.Entry<Long, PrimitiveClass> e = it.next();
+			Assert.assertEquals(ref.get(e.getKey()), e.getValue());
+			visited++;
+			if (r.nextInt(10) > 0) {
+				it.remove();
+				ref.remove(e.getKey());
+			} else {
+				final PrimitiveClass value = new PrimitiveClass(r);
+				e.setValue(value);
+				ref.put(e.getKey(), value);
+			}
+		}
+		Assert.assertEquals(KEY_RANGE - 100, visited);
+		Assert.assertEquals(ref, map);
+		for (final Iterator<Long> it = map.descendingKeySet().iterator(); it.hasNext();) {
+			final Long key = it.next();
+			it.remove();
+			ref.remove(key);
+			Assert.assertEquals(ref.size(), map.size());
+		}
+		Assert.assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testPoll() {
+		final TreeMap<Long, PrimitiveClass> ref = new TreeMap<>();
+		for (int i = 0; i < 10 * MAP_SIZE; i++) {
+			final Long key = r.nextLong();
+			final PrimitiveClass value = new PrimitiveClass(r);
+			map.put(key, value);
+			ref.put(key, value);
+		}
+		while (!ref.isEmpty()) {
+			Assert.assertEquals(ref.pollFirstEntry(), map.pollFirstEntry());
+			Assert.assertEquals(ref.pollLastEntry(), map.pollLastEntry());
+		}
+		Assert.assertNull(map.pollFirstEntry());
+		Assert.assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testDoubleKeys() {
+		final BigDataTreeMap<Double, PrimitiveClass> doubles = new BigDataTreeMap<>(Double.class, PrimitiveClass.class);
+		final TreeMap<Double, PrimitiveClass> ref = new TreeMap<>();
+		final List<Double> keys = new ArrayList<>();
+		keys.add(Double.NaN);
+		keys.add(-0.0);
+		keys.add(0.0);
+		keys.add(Double.NEGATIVE_INFINITY);
+		keys.add(Double.POSITIVE_INFINITY);
+		for (int i = 0; i < 1000; i++) {
+			keys.add(r.nextGaussian());
+		}
+		for (final Double key : keys) {
+			final PrimitiveClass value = new PrimitiveClass(r);
+			doubles.put(key, value);
+			ref.put(key, value);
+		}
+		Assert.assertEquals(new ArrayList<>(ref.keySet()), new ArrayList<>(doubles.keySet()));
+		Assert.assertEquals(ref.get(-0.0), doubles.get(-0.0));
+		Assert.assertEquals(ref.higherKey(-0.0), doubles.higherKey(-0.0));
+	}
+
+	@Test
+	public void testSerializedKeysWithComparator() {
+		final Comparator<PrimitiveClass> byI = Comparator.comparingInt(PrimitiveClass::getI).reversed();
+		final BigDataTreeMap<PrimitiveClass, CollectionClass> objects = new BigDataTreeMap<>(PrimitiveClass.class, CollectionClass.class,
+				(new ConfigFactory()).withSize(4).build(), byI);
+		final TreeMap<PrimitiveClass, CollectionClass> ref = new TreeMap<>(byI);
+		for (int i = 0; i < 3000; i++) {
+			final PrimitiveClass key = new PrimitiveClass(r);
+			key.setI(r.nextInt(1000));
+			if (r.nextInt(3) == 0) {
+				Assert.assertEquals(ref.remove(key), objects.remove(key));
+			} else {
+				final CollectionClass value = new CollectionClass(r);
+				Assert.assertEquals(ref.put(key, value), objects.put(key, value));
+			}
+		}
+		Assert.assertEquals(ref.size(), objects.size());
+		Assert.assertEquals(new ArrayList<>(ref.entrySet()), new ArrayList<>(objects.entrySet()));
+		final PrimitiveClass probe = new PrimitiveClass(r);
+		probe.setI(500);
+		Assert.assertEquals(new ArrayList<>(ref.headMap(probe).keySet()), new ArrayList<>(objects.headMap(probe).keySet()));
+	}
+
+	@Test
+	public void testFailedPutKeepsValue() {
+		// without dynamic memory, only values with NULL Strings can be stored
+		final BigDataTreeMap<Long, DynamicLengthClass> strings = new BigDataTreeMap<>(Long.class, DynamicLengthClass.class,
+				(new ConfigFactory()).withSize(MAP_SIZE).withDynamicRatio(0).build());
+		final TreeMap<Long, DynamicLengthClass> ref = new TreeMap<>();
+		for (long i = 0; i < MAP_SIZE; i++) {
+			final DynamicLengthClass value = new DynamicLengthClass((String) null);
+			strings.put(i, value);
+			ref.put(i, value);
+		}
+		try {
+			strings.put(1L, new DynamicLengthClass(r));
+			Assert.fail();
+		} catch (final OutOfDynamicMemoryException e) {
+			Assert.assertEquals(ref.get(1L), strings.get(1L));
+			Assert.assertEquals(ref, strings);
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullKey() {
+		map.put(null, new PrimitiveClass(r));
+	}
+
+}
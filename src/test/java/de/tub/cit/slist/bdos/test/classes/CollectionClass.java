@@ -0,0 +1,168 @@
+package de.tub.cit.slist.bdos.test.classes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import de.tub.cit.slist.bdos.annotation.FixedLength;
+
+public class CollectionClass implements RandomlyInitializable, java.io.Serializable {
+	private static final long serialVersionUID = -1408531266016049217L;
+
+	public static final int	MAX_ELEMENT_COUNT	= 12;
+	public static final int	FIXED_ELEMENT_COUNT	= 4;
+
+	private List<String>						tags;
+	private Set<Integer>						ids;
+	private List<PrimitiveClass>				primitives;
+	private Map<String, Integer>				attributes;
+	private LinkedHashMap<Long, PrimitiveClass>	history;
+	@FixedLength(FIXED_ELEMENT_COUNT)
+	private List<String>						fixedTags;
+
+	public CollectionClass() {
+
+	}
+
+	public CollectionClass(final Random r) {
+		super();
+		randomInit(r);
+	}
+
+	@Override
+	public void randomInit(final Random r) {
+		tags = new ArrayList<>();
+		for (int i = r.nextInt(MAX_ELEMENT_COUNT); i > 0; i--) {
+			tags.add(r.nextInt(10) == 0 ? null : randomString(r));
+		}
+		ids = new HashSet<>();
+		for (int i = r.nextInt(MAX_ELEMENT_COUNT); i > 0; i--) {
+			ids.add(r.nextInt());
+		}
+		primitives = new ArrayList<>();
+		for (int i = r.nextInt(MAX_ELEMENT_COUNT); i > 0; i--) {
+			primitives.add(new PrimitiveClass(r));
+		}
+		attributes = new HashMap<>();
+		for (int i = r.nextInt(MAX_ELEMENT_COUNT); i > 0; i--) {
+			attributes.put(randomString(r), r.nextBoolean() ? r.nextInt() : null);
+		}
+		history = new LinkedHashMap<>();
+		for (int i = r.nextInt(MAX_ELEMENT_COUNT); i > 0; i--) {
+			history.put(r.nextLong(), r.nextBoolean() ? new PrimitiveClass(r) : null);
+		}
+		fixedTags = new ArrayList<>();
+		for (int i = r.nextInt(FIXED_ELEMENT_COUNT + 1); i > 0; i--) {
+			fixedTags.add(randomString(r));
+		}
+	}
+
+	private static String randomString(final Random r) {
+		return r.ints(48, 122) //
+				.filter(i -> (i < 57 || i > 65) && (i < 90 || i > 97)) //
+				.limit(r.nextInt(MAX_ELEMENT_COUNT)) //
+				.mapToObj(i -> (char) i) //
+				.collect(StringBuilder::new, StringBuilder::append, StringBuilder::append) //
+				.toString();
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+
+	public void setTags(final List<String> tags) {
+		this.tags = tags;
+	}
+
+	public Set<Integer> getIds() {
+		return ids;
+	}
+
+	public void setIds(final Set<Integer> ids) {
+		this.ids = ids;
+	}
+
+	public List<PrimitiveClass> getPrimitives() {
+		return primitives;
+	}
+
+	public void setPrimitives(final List<PrimitiveClass> primitives) {
+		this.primitives = primitives;
+	}
+
+	public Map<String, Integer> getAttributes() {
+		return attributes;
+	}
+
+	public void setAttributes(final Map<String, Integer> attributes) {
+		this.attributes = attributes;
+	}
+
+	public LinkedHashMap<Long, PrimitiveClass> getHistory() {
+		return history;
+	}
+
+	public void setHistory(final LinkedHashMap<Long, PrimitiveClass> history) {
+		this.history = history;
+	}
+
+	public List<String> getFixedTags() {
+		return fixedTags;
+	}
+
+	public void setFixedTags(final List<String> fixedTags) {
+		this.fixedTags = fixedTags;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((tags == null) ? 0 : tags.hashCode());
+		result = prime * result + ((ids == null) ? 0 : ids.hashCode());
+		result = prime * result + ((primitives == null) ? 0 : primitives.hashCode());
+		result = prime * result + ((attributes == null) ? 0 : attributes.hashCode());
+		result = prime * result + ((history == null) ? 0 : history.hashCode());
+		result = prime * result + ((fixedTags == null) ? 0 : fixedTags.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final CollectionClass other = (CollectionClass) obj;
+		if (tags == null) {
+			if (other.tags != null) return false;
+		} else if (!tags.equals(other.tags)) return false;
+		if (ids == null) {
+			if (other.ids != null) return false;
+		} else if (!ids.equals(other.ids)) return false;
+		if (primitives == null) {
+			if (other.primitives != null) return false;
+		} else if (!primitives.equals(other.primitives)) return false;
+		if (attributes == null) {
+			if (other.attributes != null) return false;
+		} else if (!attributes.equals(other.attributes)) return false;
+		if (history == null) {
+			if (other.history != null) return false;
+		} else if (!history.equals(other.history) || !new ArrayList<>(history.keySet()).equals(new ArrayList<>(other.history.keySet()))) return false;
+		if (fixedTags == null) {
+			if (other.fixedTags != null) return false;
+		} else if (!fixedTags.equals(other.fixedTags)) return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "CollectionClass [tags=" + tags + ", ids=" + ids + ", primitives=" + primitives + ", attributes=" + attributes + ", history=" + history
+				+ ", fixedTags=" + fixedTags + "]";
+	}
+
+}
@@ -0,0 +1,107 @@
+package de.tub.cit.slist.bdos.test.classes;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class DynamicArrayClass implements RandomlyInitializable, java.io.Serializable {
+	private static final long serialVersionUID = 5390415735096612390L;
+
+	public static final int MAX_ELEMENT_COUNT = 16;
+
+	private int[]					ints;
+	private double[]				doubles;
+	private Integer[]				integers;
+	private DynamicLengthClass[]	strings;
+
+	public DynamicArrayClass() {
+
+	}
+
+	public DynamicArrayClass(final Random r) {
+		super();
+		randomInit(r);
+	}
+
+	@Override
+	public void randomInit(final Random r) {
+		ints = new int[r.nextInt(MAX_ELEMENT_COUNT)];
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = r.nextInt();
+		}
+		doubles = new double[r.nextInt(MAX_ELEMENT_COUNT)];
+		for (int i = 0; i < doubles.length; i++) {
+			doubles[i] = r.nextDouble();
+		}
+		integers = new Integer[r.nextInt(MAX_ELEMENT_COUNT)];
+		for (int i = 0; i < integers.length; i++) {
+			integers[i] = r.nextBoolean() ? r.nextInt() : null;
+		}
+		strings = new DynamicLengthClass[r.nextInt(MAX_ELEMENT_COUNT)];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = r.nextBoolean() ? new DynamicLengthClass(r) : null;
+		}
+	}
+
+	public int[] getInts() {
+		return ints;
+	}
+
+	public void setInts(final int[] ints) {
+		this.ints = ints;
+	}
+
+	public double[] getDoubles() {
+		return doubles;
+	}
+
+	public void setDoubles(final double[] doubles) {
+		this.doubles = doubles;
+	}
+
+	public Integer[] getIntegers() {
+		return integers;
+	}
+
+	public void setIntegers(final Integer[] integers) {
+		this.integers = integers;
+	}
+
+	public DynamicLengthClass[] getStrings() {
+		return strings;
+	}
+
+	public void setStrings(final DynamicLengthClass[] strings) {
+		this.strings = strings;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(ints);
+		result = prime * result + Arrays.hashCode(doubles);
+		result = prime * result + Arrays.hashCode(integers);
+		result = prime * result + Arrays.hashCode(strings);
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final DynamicArrayClass other = (DynamicArrayClass) obj;
+		if (!Arrays.equals(ints, other.ints)) return false;
+		if (!Arrays.equals(doubles, other.doubles)) return false;
+		if (!Arrays.equals(integers, other.integers)) return false;
+		if (!Arrays.equals(strings, other.strings)) return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "DynamicArrayClass [ints=" + Arrays.toString(ints) + ", doubles=" + Arrays.toString(doubles) + ", integers=" + Arrays.toString(integers)
+				+ ", strings=" + Arrays.toString(strings) + "]";
+	}
+
+}
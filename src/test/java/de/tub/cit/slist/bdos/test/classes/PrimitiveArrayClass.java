@@ -0,0 +1,111 @@
+package de.tub.cit.slist.bdos.test.classes;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import de.tub.cit.slist.bdos.annotation.FixedLength;
+
+public class PrimitiveArrayClass implements RandomlyInitializable, java.io.Serializable {
+	private static final long serialVersionUID = 3349211506233829717L;
+
+	public static final int ELEMENT_COUNT = 64;
+
+	@FixedLength(ELEMENT_COUNT)
+	private double[]	doubles;
+	@FixedLength(ELEMENT_COUNT)
+	private long[]		longs;
+	@FixedLength(ELEMENT_COUNT)
+	private char[]		chars;
+	@FixedLength(ELEMENT_COUNT)
+	private boolean[]	bools;
+
+	public PrimitiveArrayClass() {
+
+	}
+
+	public PrimitiveArrayClass(final Random r) {
+		super();
+		randomInit(r);
+	}
+
+	@Override
+	public void randomInit(final Random r) {
+		randomInit(r, ELEMENT_COUNT);
+	}
+
+	public void randomInit(final Random r, final int elements) {
+		doubles = new double[elements];
+		longs = new long[elements];
+		chars = new char[elements];
+		bools = new boolean[elements];
+		for (int i = 0; i < elements; i++) {
+			doubles[i] = r.nextDouble();
+			longs[i] = r.nextLong();
+			chars[i] = (char) (r.nextInt(26) + 'a');
+			bools[i] = r.nextBoolean();
+		}
+	}
+
+	public double[] getDoubles() {
+		return doubles;
+	}
+
+	public void setDoubles(final double[] doubles) {
+		this.doubles = doubles;
+	}
+
+	public long[] getLongs() {
+		return longs;
+	}
+
+	public void setLongs(final long[] longs) {
+		this.longs = longs;
+	}
+
+	public char[] getChars() {
+		return chars;
+	}
+
+	public void setChars(final char[] chars) {
+		this.chars = chars;
+	}
+
+	public boolean[] getBools() {
+		return bools;
+	}
+
+	public void setBools(final boolean[] bools) {
+		this.bools = bools;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(bools);
+		result = prime * result + Arrays.hashCode(chars);
+		result = prime * result + Arrays.hashCode(doubles);
+		result = prime * result + Arrays.hashCode(longs);
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final PrimitiveArrayClass other = (PrimitiveArrayClass) obj;
+		if (!Arrays.equals(bools, other.bools)) return false;
+		if (!Arrays.equals(chars, other.chars)) return false;
+		if (!Arrays.equals(doubles, other.doubles)) return false;
+		if (!Arrays.equals(longs, other.longs)) return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "PrimitiveArrayClass [doubles=" + Arrays.toString(doubles) + ", longs=" + Arrays.toString(longs) + ", chars=" + Arrays.toString(chars)
+				+ ", bools=" + Arrays.toString(bools) + "]";
+	}
+
+}
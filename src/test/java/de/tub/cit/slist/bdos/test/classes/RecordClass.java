@@ -0,0 +1,123 @@
+package de.tub.cit.slist.bdos.test.classes;
+
+import java.util.Random;
+
+import de.tub.cit.slist.bdos.annotation.Indexed;
+
+/**
+ * A record with a business key, as queried by indexes and scans.
+ */
+public class RecordClass implements RandomlyInitializable, java.io.Serializable {
+	private static final long serialVersionUID = -5830948372657310981L;
+
+	public static final int CATEGORIES = 20;
+
+	@Indexed
+	private int		category;
+	@Indexed(sorted = true)
+	private long	timestamp;
+	private double	price;
+	private boolean	active;
+	private String	name;
+
+	public RecordClass() {
+
+	}
+
+	public RecordClass(final Random r) {
+		super();
+		randomInit(r);
+	}
+
+	public RecordClass(final int category, final long timestamp, final double price, final boolean active, final String name) {
+		super();
+		this.category = category;
+		this.timestamp = timestamp;
+		this.price = price;
+		this.active = active;
+		this.name = name;
+	}
+
+	@Override
+	public void randomInit(final Random r) {
+		category = r.nextInt(CATEGORIES);
+		timestamp = r.nextInt(1_000_000);
+		price = r.nextInt(100_000) / 100.0;
+		active = r.nextBoolean();
+		name = "record" + r.nextInt(1000);
+	}
+
+	public int getCategory() {
+		return category;
+	}
+
+	public void setCategory(final int category) {
+		this.category = category;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(final long timestamp) {
+		this.timestamp = timestamp;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public void setPrice(final double price) {
+		this.price = price;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public void setActive(final boolean active) {
+		this.active = active;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(final String name) {
+		this.name = name;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + (active ? 1231 : 1237);
+		result = prime * result + category;
+		final long temp = Double.doubleToLongBits(price);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + ((name == null) ? 0 : name.hashCode());
+		result = prime * result + (int) (timestamp ^ (timestamp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) return true;
+		if (obj == null) return false;
+		if (getClass() != obj.getClass()) return false;
+		final RecordClass other = (RecordClass) obj;
+		if (active != other.active) return false;
+		if (category != other.category) return false;
+		if (Double.doubleToLongBits(price) != Double.doubleToLongBits(other.price)) return false;
+		if (name == null) {
+			if (other.name != null) return false;
+		} else if (!name.equals(other.name)) return false;
+		if (timestamp != other.timestamp) return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "RecordClass [category=" + category + ", timestamp=" + timestamp + ", price=" + price + ", active=" + active + ", name=" + name + "]";
+	}
+}